@@ -0,0 +1,166 @@
+package com.moviecatalog.datagen;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+/**
+ * Generates the rows of every table. Each range of rows draws from its own random stream derived
+ * from the seed, the table and the first id, and attributes other tables depend on (a movie's
+ * release date and quality, an author's name) are derived from the seed and the id alone, so
+ * ranges can be generated in any order and on any thread.
+ */
+final class CatalogRows {
+
+    private static final long DIRECTORS = 1;
+    private static final long MOVIES = 2;
+    private static final long MOVIE_GENRES = 3;
+    private static final long REVIEWS = 4;
+    private static final long MOVIE_TRAITS = 5;
+    private static final long AUTHORS = 6;
+    private static final long MOVIE_QUALITY = 7;
+
+    private static final int FIRST_YEAR = 1930;
+    private static final LocalDateTime FIRST_REVIEW = LocalDateTime.of(2005, 1, 1, 0, 0);
+
+    private final DatasetSpec spec;
+    private final int lastYear;
+    private final long untilSecond;
+    private final ZipfSampler directorsByActivity;
+    private final ZipfSampler genresByPopularity;
+    private final ZipfSampler moviesByPopularity;
+    private final ZipfSampler authorsByActivity;
+
+    CatalogRows(DatasetSpec spec) {
+        this.spec = spec;
+        this.lastYear = spec.until().getYear() - 1;
+        this.untilSecond = spec.until().atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        this.directorsByActivity = new ZipfSampler((int) spec.directors(), 0.8, mix(spec.seed(), DIRECTORS, -1));
+        this.genresByPopularity = new ZipfSampler(Vocabulary.GENRES.length, 1.0, mix(spec.seed(), MOVIE_GENRES, -1));
+        this.moviesByPopularity = new ZipfSampler((int) spec.movies(), 1.1, mix(spec.seed(), MOVIES, -1));
+        this.authorsByActivity = new ZipfSampler((int) spec.authors(), 0.9, mix(spec.seed(), AUTHORS, -1));
+    }
+
+    int genreCount() {
+        return Vocabulary.GENRES.length;
+    }
+
+    void writeGenres(CopyStream out) throws SQLException {
+        for (int i = 0; i < Vocabulary.GENRES.length; i++) {
+            out.field(i + 1).field(Vocabulary.GENRES[i]).endRow();
+        }
+    }
+
+    void writeDirectors(long fromId, long toId, CopyStream out) throws SQLException {
+        SplittableRandom random = new SplittableRandom(mix(spec.seed(), DIRECTORS, fromId));
+        for (long id = fromId; id <= toId; id++) {
+            String[] name = Vocabulary.personName(random);
+            LocalDate birthDate = LocalDate.of(1920 + random.nextInt(76), 1, 1).plusDays(random.nextInt(365));
+            String biography = random.nextInt(10) < 3
+                    ? "Режиссер и сценарист, " + (birthDate.getYear() + 20 + random.nextInt(20)) + " — дебют в кино."
+                    : null;
+            out.field(id).field(name[0]).field(name[1]).raw(birthDate).field(biography).endRow();
+        }
+    }
+
+    void writeMovies(long fromId, long toId, CopyStream out) throws SQLException {
+        SplittableRandom random = new SplittableRandom(mix(spec.seed(), MOVIES, fromId));
+        for (long id = fromId; id <= toId; id++) {
+            int duration = (int) Math.round(105 + 20 * gaussian(random));
+            out.field(id)
+                    .field(Vocabulary.title(random))
+                    .field(Vocabulary.description(random))
+                    .raw(releaseDate(id))
+                    .field(Math.max(60, Math.min(240, duration)))
+                    .field(directorsByActivity.next(random))
+                    .endRow();
+        }
+    }
+
+    /**
+     * One to three distinct genres per movie, popular genres far more often than rare ones.
+     */
+    void writeMovieGenres(long fromMovieId, long toMovieId, CopyStream out) throws SQLException {
+        SplittableRandom random = new SplittableRandom(mix(spec.seed(), MOVIE_GENRES, fromMovieId));
+        long[] genres = new long[3];
+        for (long movieId = fromMovieId; movieId <= toMovieId; movieId++) {
+            int roll = random.nextInt(10);
+            int count = roll < 4 ? 1 : roll < 8 ? 2 : 3;
+            int chosen = 0;
+            while (chosen < count) {
+                long genreId = genresByPopularity.next(random);
+                boolean duplicate = false;
+                for (int i = 0; i < chosen; i++) {
+                    duplicate |= genres[i] == genreId;
+                }
+                if (!duplicate) {
+                    genres[chosen++] = genreId;
+                    out.field(movieId).field(genreId).endRow();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reviews go mostly to popular movies and come mostly from a few active authors; the rating
+     * scatters around the movie's quality and the date falls between the release and
+     * {@link DatasetSpec#until()}, more often recently.
+     */
+    void writeReviews(long fromId, long toId, CopyStream out) throws SQLException {
+        SplittableRandom random = new SplittableRandom(mix(spec.seed(), REVIEWS, fromId));
+        for (long id = fromId; id <= toId; id++) {
+            long movieId = moviesByPopularity.next(random);
+            long traits = mix(spec.seed(), MOVIE_QUALITY, movieId);
+            double quality = 3 + 6 * (unit(traits >>> 32) + unit(traits)) / 2;
+            int rating = (int) Math.round(quality + 1.8 * gaussian(random));
+
+            long firstSecond = Math.max(FIRST_REVIEW.toEpochSecond(ZoneOffset.UTC),
+                    releaseDate(movieId).atStartOfDay().toEpochSecond(ZoneOffset.UTC));
+            long span = Math.max(1, untilSecond - firstSecond);
+            long createdSecond = untilSecond - 1 - (long) (span * (1 - Math.sqrt(random.nextDouble())));
+
+            long author = authorsByActivity.next(random);
+            out.field(id)
+                    .field(Vocabulary.authorName(new SplittableRandom(mix(spec.seed(), AUTHORS, author))))
+                    .field(Vocabulary.comment(random))
+                    .field(Math.max(1, Math.min(10, rating)))
+                    .raw(LocalDateTime.ofEpochSecond(Math.max(firstSecond, createdSecond), 0, ZoneOffset.UTC))
+                    .field(movieId)
+                    .endRow();
+        }
+    }
+
+    /**
+     * Release years lean towards the recent ones.
+     */
+    LocalDate releaseDate(long movieId) {
+        long traits = mix(spec.seed(), MOVIE_TRAITS, movieId);
+        double recency = unit(traits & 0xFFFF_FFFFL);
+        int year = lastYear - (int) ((lastYear - FIRST_YEAR) * recency * recency);
+        return LocalDate.ofYearDay(year, 1 + (int) ((traits >>> 40) % 365));
+    }
+
+    static long mix(long seed, long salt, long index) {
+        long z = seed + salt * 0x9E3779B97F4A7C15L + index * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return the low 32 bits as a fraction in {@code [0, 1)}
+     */
+    private static double unit(long bits) {
+        return (bits & 0xFFFF_FFFFL) / (double) (1L << 32);
+    }
+
+    /**
+     * Approximately standard normal, the sum of four uniform values.
+     */
+    private static double gaussian(SplittableRandom random) {
+        return (random.nextDouble() + random.nextDouble() + random.nextDouble() + random.nextDouble() - 2)
+                * Math.sqrt(3);
+    }
+}
@@ -0,0 +1,102 @@
+package com.moviecatalog.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Rows of one {@code COPY ... FROM STDIN} in PostgreSQL text format, sent to the server in
+ * blocks of about {@link #FLUSH_CHARS} characters.
+ */
+final class CopyStream implements AutoCloseable {
+
+    private static final int FLUSH_CHARS = 256 * 1024;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 4096);
+    private boolean rowStarted;
+
+    CopyStream(Connection connection, String table, String columns) throws SQLException {
+        this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY " + table + " (" + columns + ") FROM STDIN");
+    }
+
+    CopyStream field(long value) {
+        separate();
+        buffer.append(value);
+        return this;
+    }
+
+    /**
+     * @param value text, {@code null} for SQL {@code NULL}
+     */
+    CopyStream field(String value) {
+        separate();
+        if (value == null) {
+            buffer.append("\\N");
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Text that is known to need no escaping, such as dates.
+     */
+    CopyStream raw(Object value) {
+        separate();
+        buffer.append(value);
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        buffer.append('\n');
+        rowStarted = false;
+        if (buffer.length() >= FLUSH_CHARS) {
+            flush();
+        }
+    }
+
+    /**
+     * @return number of rows the server stored
+     */
+    long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+
+    private void separate() {
+        if (rowStarted) {
+            buffer.append('\t');
+        }
+        rowStarted = true;
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,280 @@
+package com.moviecatalog.datagen;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills an empty catalog database with a synthetic dataset for performance work:
+ * {@code mvn -Pdatagen test-compile exec:exec -Ddatagen.args="--scale=large"}.
+ * <p>
+ * Rows are streamed with {@code COPY ... FROM STDIN} over {@code --threads} connections in
+ * ranges of {@link #CHUNK_ROWS} rows, each range in its own transaction. During the load the
+ * secondary indexes of the loaded tables are dropped and their triggers disabled; afterwards the
+ * indexes are rebuilt in parallel, and the aggregate tables and sequences are brought in line with
+ * the data. The connection is configured like the application's, through
+ * {@code DB_HOST}/{@code DB_PORT}/{@code DB_NAME}/{@code DB_USER}/{@code DB_PASSWORD}.
+ */
+public final class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final int CHUNK_ROWS = 100_000;
+
+    private static final List<String> LOADED_TABLES = List.of("genres", "directors", "movies", "movie_genres", "reviews");
+
+    private static final String TRUNCATE =
+            "TRUNCATE directors, genres, movies, movie_genres, reviews, movie_rating_stats, author_review_stats, " +
+            "movie_similarities, sync_tombstones RESTART IDENTITY CASCADE";
+
+    private static final String SECONDARY_INDEXES =
+            "SELECT c.relname, pg_get_indexdef(i.indexrelid) FROM pg_index i " +
+            "JOIN pg_class c ON c.oid = i.indexrelid " +
+            "WHERE i.indrelid = ?::regclass " +
+            "AND NOT EXISTS (SELECT 1 FROM pg_constraint k WHERE k.conindid = i.indexrelid)";
+
+    private static final String REBUILD_MOVIE_RATING_STATS =
+            "INSERT INTO movie_rating_stats (movie_id, review_count, rating_sum, rating_counts) " +
+            "SELECT m.id, COUNT(r.id), COALESCE(SUM(r.rating), 0), ARRAY[" +
+            "COUNT(*) FILTER (WHERE r.rating = 1), COUNT(*) FILTER (WHERE r.rating = 2), " +
+            "COUNT(*) FILTER (WHERE r.rating = 3), COUNT(*) FILTER (WHERE r.rating = 4), " +
+            "COUNT(*) FILTER (WHERE r.rating = 5), COUNT(*) FILTER (WHERE r.rating = 6), " +
+            "COUNT(*) FILTER (WHERE r.rating = 7), COUNT(*) FILTER (WHERE r.rating = 8), " +
+            "COUNT(*) FILTER (WHERE r.rating = 9), COUNT(*) FILTER (WHERE r.rating = 10)]::INTEGER[] " +
+            "FROM movies m LEFT JOIN reviews r ON r.movie_id = m.id GROUP BY m.id";
+
+    private static final String REBUILD_AUTHOR_REVIEW_STATS =
+            "INSERT INTO author_review_stats (author_key, author_name, review_count, rating_sum, " +
+            "first_review_at, last_review_at) " +
+            "SELECT lower(author_name), (array_agg(author_name ORDER BY created_at DESC, id DESC))[1], " +
+            "COUNT(*), SUM(rating), MIN(created_at), MAX(created_at) " +
+            "FROM reviews GROUP BY lower(author_name)";
+
+    private final DatasetSpec spec;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final CatalogRows rows;
+
+    private DatasetGenerator(DatasetSpec spec, String url, String user, String password) {
+        this.spec = spec;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.rows = new CatalogRows(spec);
+    }
+
+    public static void main(String[] args) throws Exception {
+        DatasetSpec spec = DatasetSpec.parse(args);
+        String url = "jdbc:postgresql://" + env("DB_HOST", "localhost") + ":" + env("DB_PORT", "5432")
+                + "/" + env("DB_NAME", "movieCatalog");
+        new DatasetGenerator(spec, url, env("DB_USER", "admin"), env("DB_PASSWORD", "admin")).run();
+    }
+
+    private void run() throws Exception {
+        long start = System.nanoTime();
+        logger.info("Generating {} into {}", spec, url);
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("5")
+                .validateOnMigrate(false)
+                .load()
+                .migrate();
+
+        try (Connection connection = connect()) {
+            prepareEmptyCatalog(connection);
+            Map<String, List<String>> indexes = dropSecondaryIndexes(connection);
+            setTriggersEnabled(connection, false);
+            ExecutorService executor = Executors.newFixedThreadPool(spec.threads());
+            try {
+                load(executor);
+            } finally {
+                setTriggersEnabled(connection, true);
+                rebuildIndexes(executor, indexes);
+                executor.shutdown();
+            }
+            finishAggregates(connection);
+        }
+        logger.info("Dataset generated in {} s", (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private void prepareEmptyCatalog(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (spec.truncate()) {
+                statement.execute(TRUNCATE);
+                return;
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM movies) " +
+                    "OR EXISTS (SELECT 1 FROM directors) OR EXISTS (SELECT 1 FROM genres) " +
+                    "OR EXISTS (SELECT 1 FROM reviews)")) {
+                rs.next();
+                if (rs.getBoolean(1)) {
+                    throw new IllegalStateException("The catalog is not empty, run with --truncate to replace it");
+                }
+            }
+        }
+    }
+
+    private void load(ExecutorService executor) throws Exception {
+        BlockingQueue<Connection> connections = new ArrayBlockingQueue<>(spec.threads());
+        try {
+            for (int i = 0; i < spec.threads(); i++) {
+                connections.add(connect());
+            }
+            copy(executor, connections, "genres", "id, name", rows.genreCount(), (from, to, out) -> rows.writeGenres(out));
+            copy(executor, connections, "directors", "id, first_name, last_name, birth_date, biography",
+                    spec.directors(), rows::writeDirectors);
+            copy(executor, connections, "movies", "id, title, description, release_date, duration, director_id",
+                    spec.movies(), rows::writeMovies);
+            copy(executor, connections, "movie_genres", "movie_id, genre_id", spec.movies(), rows::writeMovieGenres);
+            copy(executor, connections, "reviews", "id, author_name, comment, rating, created_at, movie_id",
+                    spec.reviews(), rows::writeReviews);
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Copies ids {@code 1..count} of a table in parallel ranges; returns when all are stored.
+     */
+    private void copy(ExecutorService executor, BlockingQueue<Connection> connections, String table,
+                      String columns, long count, RangeWriter writer) throws Exception {
+        long start = System.nanoTime();
+        AtomicLong stored = new AtomicLong();
+        List<Future<?>> ranges = new ArrayList<>();
+        for (long from = 1; from <= count; from += CHUNK_ROWS) {
+            long fromId = from;
+            long toId = Math.min(count, from + CHUNK_ROWS - 1);
+            ranges.add(executor.submit(() -> {
+                Connection connection = connections.take();
+                try (CopyStream out = new CopyStream(connection, table, columns)) {
+                    writer.write(fromId, toId, out);
+                    stored.addAndGet(out.finish());
+                } finally {
+                    connections.add(connection);
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> range : ranges) {
+                range.get();
+            }
+        } catch (ExecutionException e) {
+            ranges.forEach(range -> range.cancel(true));
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Copied {} rows into {} in {} ms ({} rows/min)", stored.get(), table, elapsedMs,
+                stored.get() * 60_000 / elapsedMs);
+    }
+
+    /**
+     * @return definitions of the dropped indexes by table
+     */
+    private Map<String, List<String>> dropSecondaryIndexes(Connection connection) throws SQLException {
+        Map<String, List<String>> definitions = new LinkedHashMap<>();
+        for (String table : LOADED_TABLES) {
+            List<String> names = new ArrayList<>();
+            List<String> tableDefinitions = new ArrayList<>();
+            try (var query = connection.prepareStatement(SECONDARY_INDEXES)) {
+                query.setString(1, table);
+                try (ResultSet rs = query.executeQuery()) {
+                    while (rs.next()) {
+                        names.add(rs.getString(1));
+                        tableDefinitions.add(rs.getString(2));
+                    }
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                for (String name : names) {
+                    statement.execute("DROP INDEX " + name);
+                }
+            }
+            definitions.put(table, tableDefinitions);
+        }
+        return definitions;
+    }
+
+    private void rebuildIndexes(ExecutorService executor, Map<String, List<String>> definitions) throws Exception {
+        long start = System.nanoTime();
+        List<Future<?>> builds = new ArrayList<>();
+        for (List<String> tableDefinitions : definitions.values()) {
+            for (String definition : tableDefinitions) {
+                builds.add(executor.submit(() -> {
+                    try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                        statement.execute(definition);
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> build : builds) {
+            build.get();
+        }
+        logger.info("Rebuilt {} indexes in {} ms", builds.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * The change tracking triggers only fill columns that have the same defaults; the
+     * {@code movie_genres} one would update every movie once per genre.
+     */
+    private void setTriggersEnabled(Connection connection, boolean enabled) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : LOADED_TABLES) {
+                statement.execute("ALTER TABLE " + table + (enabled ? " ENABLE" : " DISABLE") + " TRIGGER USER");
+            }
+        }
+    }
+
+    private void finishAggregates(Connection connection) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE movie_rating_stats, author_review_stats");
+            statement.execute(REBUILD_MOVIE_RATING_STATS);
+            statement.execute(REBUILD_AUTHOR_REVIEW_STATS);
+            for (String table : List.of("directors", "genres", "movies", "reviews")) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " +
+                        "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + "), false)");
+            }
+            statement.execute("VACUUM ANALYZE");
+        }
+        logger.info("Rebuilt rating and author aggregates in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+
+    @FunctionalInterface
+    private interface RangeWriter {
+
+        void write(long fromId, long toId, CopyStream out) throws SQLException;
+    }
+}
@@ -0,0 +1,86 @@
+package com.moviecatalog.datagen;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Size and shape of a generated catalog. The same spec and seed always produce the same rows,
+ * whatever the number of threads.
+ *
+ * @param authors distinct review authors; review activity per author is Zipf-distributed
+ * @param until   latest review date, fixed so that repeated runs produce the same dates
+ */
+record DatasetSpec(
+        long directors,
+        long movies,
+        long reviews,
+        long authors,
+        long seed,
+        int threads,
+        LocalDate until,
+        boolean truncate
+) {
+
+    private static final Map<String, long[]> SCALES = Map.of(
+            "small", new long[]{2_000, 20_000, 500_000},
+            "medium", new long[]{20_000, 200_000, 5_000_000},
+            "large", new long[]{100_000, 1_000_000, 50_000_000}
+    );
+
+    /**
+     * Parses {@code --name=value} options: {@code --scale=small|medium|large} picks the sizes,
+     * {@code --directors}, {@code --movies}, {@code --reviews}, {@code --authors} override them;
+     * also {@code --seed}, {@code --threads}, {@code --until=YYYY-MM-DD} and {@code --truncate}.
+     */
+    static DatasetSpec parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(separator < 0 ? arg.substring(2) : arg.substring(2, separator),
+                    separator < 0 ? "true" : arg.substring(separator + 1));
+        }
+        String scale = options.getOrDefault("scale", "small");
+        long[] sizes = SCALES.get(scale);
+        if (sizes == null) {
+            throw new IllegalArgumentException("Unknown scale " + scale + ", expected one of " + SCALES.keySet());
+        }
+        long reviews = longOption(options, "reviews", sizes[2]);
+        DatasetSpec spec = new DatasetSpec(
+                longOption(options, "directors", sizes[0]),
+                longOption(options, "movies", sizes[1]),
+                reviews,
+                longOption(options, "authors", Math.max(1, reviews / 20)),
+                longOption(options, "seed", 42),
+                (int) longOption(options, "threads", Runtime.getRuntime().availableProcessors()),
+                LocalDate.parse(options.getOrDefault("until", "2025-01-01")),
+                Boolean.parseBoolean(options.getOrDefault("truncate", "false")));
+        spec.validate();
+        return spec;
+    }
+
+    private void validate() {
+        if (directors < 1 || movies < 1 || reviews < 0 || authors < 1 || threads < 1) {
+            throw new IllegalArgumentException("Sizes and threads must be positive: " + this);
+        }
+        // samplers keep one entry per movie and per author
+        if (movies > Integer.MAX_VALUE - 8 || authors > Integer.MAX_VALUE - 8 || directors > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many movies, directors or authors: " + this);
+        }
+    }
+
+    private static long longOption(Map<String, String> options, String name, long defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a number, got " + value);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.moviecatalog.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Words and names the generated rows are made of, in Russian and English.
+ */
+final class Vocabulary {
+
+    static final String[] GENRES = {
+            "Драма", "Комедия", "Боевик", "Триллер", "Мелодрама", "Фантастика", "Детектив", "Ужасы",
+            "Приключения", "Криминал", "Мультфильм", "Документальный", "Военный", "Исторический",
+            "Биография", "Семейный", "Фэнтези", "Вестерн", "Мюзикл", "Спорт", "Нуар", "Артхаус",
+            "Короткометражный", "Аниме", "Сказка", "Психологический", "Романтика", "Катастрофа",
+            "Супергерои", "Мистика", "Сатира", "Пародия", "Роуд-муви", "Антиутопия", "Киберпанк",
+            "Политический", "Музыкальный", "Экранизация", "Подростковый", "Трагикомедия"
+    };
+
+    private static final String[] RUSSIAN_TITLE_WORDS = {
+            "Брат", "Сестры", "Война", "Мир", "Любовь", "Город", "Ночь", "День", "Зима", "Лето",
+            "Дорога", "Дом", "Море", "Небо", "Солнце", "Луна", "Звезда", "Тень", "Огонь", "Вода",
+            "Последний", "Первый", "Тихий", "Белый", "Черный", "Красный", "Золотой", "Старый", "Новый",
+            "Далекий", "Остров", "Поезд", "Река", "Лес", "Степь", "Охота", "Игра", "Жизнь", "Судьба",
+            "Тайна", "Возвращение", "Побег", "Путь", "Сон", "Время", "Память", "Герой", "Отец", "Сын",
+            "Мать", "Дочь", "Друг", "Враг", "Цирк", "Вокзал", "Метель", "Гроза", "Весна", "Осень"
+    };
+
+    private static final String[] ENGLISH_TITLE_WORDS = {
+            "Dark", "Light", "Night", "Day", "City", "River", "Road", "Home", "Last", "First", "Silent",
+            "Red", "Blue", "Golden", "Broken", "Lost", "Hidden", "Wild", "Cold", "Iron", "Glass",
+            "Storm", "Fire", "Ice", "Shadow", "Dream", "Memory", "Hunter", "King", "Queen", "Ghost",
+            "Escape", "Return", "Journey", "Secret", "Island", "Train", "Sky", "Star", "Moon", "Sun",
+            "Empire", "Kingdom", "Legacy", "Origin", "Signal", "Echo", "Horizon", "Frontier", "Heart"
+    };
+
+    private static final String[] RUSSIAN_MALE_NAMES = {
+            "Алексей", "Андрей", "Борис", "Владимир", "Георгий", "Дмитрий", "Евгений", "Иван", "Кирилл",
+            "Михаил", "Никита", "Олег", "Павел", "Сергей", "Тимур", "Юрий"
+    };
+
+    private static final String[] RUSSIAN_FEMALE_NAMES = {
+            "Анна", "Валерия", "Дарья", "Екатерина", "Елена", "Ирина", "Мария", "Наталья", "Ольга",
+            "Полина", "Светлана", "Татьяна", "Юлия", "Ксения"
+    };
+
+    private static final String[] RUSSIAN_LAST_NAMES = {
+            "Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров", "Соколов", "Михайлов",
+            "Новиков", "Федоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семенов", "Егоров",
+            "Павлов", "Козлов", "Степанов", "Николаев", "Орлов", "Андреев", "Макаров", "Никитин",
+            "Захаров", "Зайцев", "Соловьев", "Борисов", "Яковлев", "Григорьев", "Романов", "Воробьев"
+    };
+
+    private static final String[] ENGLISH_FIRST_NAMES = {
+            "James", "John", "Robert", "Michael", "David", "William", "Richard", "Thomas", "Daniel",
+            "Paul", "Mark", "Steven", "Mary", "Patricia", "Jennifer", "Linda", "Elizabeth", "Susan",
+            "Sarah", "Emma", "Olivia", "Sophia", "Lucas", "Hugo", "Pierre", "Marco", "Akira", "Lars"
+    };
+
+    private static final String[] ENGLISH_LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Miller", "Davis", "Wilson", "Anderson",
+            "Taylor", "Moore", "Jackson", "Martin", "Lee", "Thompson", "White", "Harris", "Clark",
+            "Lewis", "Walker", "Hall", "Young", "King", "Wright", "Scott", "Green", "Baker", "Nelson"
+    };
+
+    private static final String[] HANDLES = {
+            "kinoman", "cinephile", "filmbuff", "critic", "moviefan", "zritel", "popcorn", "reel",
+            "frame", "director_cut", "night_owl", "tape", "screen", "matinee", "premiere"
+    };
+
+    private static final String[] RUSSIAN_REVIEW_PHRASES = {
+            "Отличный фильм", "Смотрел на одном дыхании", "Сюжет предсказуемый", "Актеры играют великолепно",
+            "Слишком затянуто", "Прекрасная операторская работа", "Финал разочаровал", "Пересмотрю еще раз",
+            "Музыка просто потрясающая", "Не мое кино", "Середина провисает", "Лучше, чем книга",
+            "Рекомендую всем", "Ожидал большего", "Атмосфера передана точно", "Диалоги картонные"
+    };
+
+    private static final String[] ENGLISH_REVIEW_PHRASES = {
+            "A masterpiece", "Great cast", "Too long", "Beautiful cinematography", "Weak ending",
+            "Would watch again", "Not for everyone", "Better than the book", "Solid soundtrack",
+            "Overrated", "Slow start but worth it", "Instant classic"
+    };
+
+    private Vocabulary() {
+    }
+
+    /**
+     * 70% Russian, 30% English titles of one to three words, some of them sequels.
+     */
+    static String title(SplittableRandom random) {
+        String[] words = random.nextInt(10) < 7 ? RUSSIAN_TITLE_WORDS : ENGLISH_TITLE_WORDS;
+        int count = 1 + random.nextInt(3);
+        StringBuilder title = new StringBuilder(pick(words, random));
+        for (int i = 1; i < count; i++) {
+            title.append(' ').append(pick(words, random).toLowerCase());
+        }
+        if (random.nextInt(12) == 0) {
+            title.append(' ').append(2 + random.nextInt(3));
+        }
+        return title.toString();
+    }
+
+    static String description(SplittableRandom random) {
+        if (random.nextBoolean()) {
+            return null;
+        }
+        return phrase(random, random.nextInt(10) < 7 ? RUSSIAN_TITLE_WORDS : ENGLISH_TITLE_WORDS, 6 + random.nextInt(14));
+    }
+
+    /**
+     * @return first and last name, 70% of them Russian
+     */
+    static String[] personName(SplittableRandom random) {
+        if (random.nextInt(10) >= 7) {
+            return new String[]{pick(ENGLISH_FIRST_NAMES, random), pick(ENGLISH_LAST_NAMES, random)};
+        }
+        if (random.nextBoolean()) {
+            return new String[]{pick(RUSSIAN_FEMALE_NAMES, random), pick(RUSSIAN_LAST_NAMES, random) + "а"};
+        }
+        return new String[]{pick(RUSSIAN_MALE_NAMES, random), pick(RUSSIAN_LAST_NAMES, random)};
+    }
+
+    /**
+     * A full name or a Latin handle; the same random state gives the same author.
+     */
+    static String authorName(SplittableRandom random) {
+        if (random.nextInt(10) < 6) {
+            String[] name = personName(random);
+            return name[0] + " " + name[1];
+        }
+        return pick(HANDLES, random) + "_" + random.nextInt(10_000);
+    }
+
+    static String comment(SplittableRandom random) {
+        if (random.nextInt(10) < 4) {
+            return null;
+        }
+        String[] phrases = random.nextInt(10) < 8 ? RUSSIAN_REVIEW_PHRASES : ENGLISH_REVIEW_PHRASES;
+        StringBuilder comment = new StringBuilder(pick(phrases, random));
+        int sentences = random.nextInt(3);
+        for (int i = 0; i < sentences; i++) {
+            comment.append(". ").append(pick(phrases, random));
+        }
+        return comment.append('.').toString();
+    }
+
+    private static String phrase(SplittableRandom random, String[] words, int length) {
+        StringBuilder phrase = new StringBuilder(pick(words, random));
+        for (int i = 1; i < length; i++) {
+            phrase.append(' ').append(pick(words, random).toLowerCase());
+        }
+        return phrase.append('.').toString();
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,46 @@
+package com.moviecatalog.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws ids {@code 1..n} with Zipf-distributed popularity: the rank-{@code k} id is drawn with
+ * probability proportional to {@code 1 / k^exponent}. Ranks are mapped to ids through a seeded
+ * shuffle, so popular rows are spread over the id range instead of being the lowest ids.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+    private final int[] idByRank;
+
+    ZipfSampler(int n, double exponent, long seed) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+        idByRank = new int[n];
+        for (int i = 0; i < n; i++) {
+            idByRank[i] = i + 1;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = idByRank[i];
+            idByRank[i] = idByRank[j];
+            idByRank[j] = swap;
+        }
+    }
+
+    long next(SplittableRandom random) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (rank < 0) {
+            rank = Math.min(-rank - 1, cumulative.length - 1);
+        }
+        return idByRank[rank];
+    }
+}
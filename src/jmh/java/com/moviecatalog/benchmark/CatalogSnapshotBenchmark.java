@@ -0,0 +1,157 @@
+package com.moviecatalog.benchmark;
+
+import com.moviecatalog.catalog.CatalogSnapshot;
+import com.moviecatalog.dto.MovieDTO;
+import com.moviecatalog.entity.Director;
+import com.moviecatalog.entity.Genre;
+import com.moviecatalog.entity.Movie;
+import com.moviecatalog.repository.CatalogSnapshotRepository.DirectorRow;
+import com.moviecatalog.repository.CatalogSnapshotRepository.GenreRow;
+import com.moviecatalog.repository.CatalogSnapshotRepository.MovieRow;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog reads from the columnar snapshot against the JPA path without its database round trip:
+ * hydrated entity graphs (as in the persistence context after a query) mapped to DTOs the way
+ * {@code MovieService} does. The retained heap of both representations is printed once per trial;
+ * the entity figure is a lower bound, Hibernate additionally keeps a loaded-state copy per entity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+
+    private static final int DIRECTORS = 2000;
+    private static final int GENRES = 60;
+
+    @Param({"10000", "100000"})
+    private int size;
+
+    private CatalogSnapshot snapshot;
+    private List<Movie> entities;
+    private Map<Long, Movie> entitiesById;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long snapshotBytes = retainedBytes(this::buildSnapshot);
+        long entityBytes = retainedBytes(this::buildEntities);
+        snapshot = buildSnapshot();
+        entities = buildEntities();
+        entitiesById = entities.stream().collect(Collectors.toMap(Movie::getId, movie -> movie));
+        System.out.printf("%n%d movies: snapshot %d KiB, entities %d KiB%n", size,
+                snapshotBytes / 1024, entityBytes / 1024);
+    }
+
+    @Benchmark
+    public void listSnapshot(Blackhole blackhole) {
+        snapshot.forEachMovie(blackhole::consume);
+    }
+
+    @Benchmark
+    public void listEntities(Blackhole blackhole) {
+        for (Movie movie : entities) {
+            blackhole.consume(toDTO(movie));
+        }
+    }
+
+    @Benchmark
+    public MovieDTO detailSnapshot() {
+        return snapshot.findMovie(ThreadLocalRandom.current().nextInt(size) + 1);
+    }
+
+    @Benchmark
+    public MovieDTO detailEntities() {
+        return toDTO(entitiesById.get((long) ThreadLocalRandom.current().nextInt(size) + 1));
+    }
+
+    @Benchmark
+    public List<MovieDTO> searchSnapshot() {
+        return snapshot.findMoviesNewestFirst(null, null, "фильм 12", 51);
+    }
+
+    private CatalogSnapshot buildSnapshot() {
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder();
+        for (int i = 1; i <= size; i++) {
+            builder.addMovie(new MovieRow(i, "Фильм " + i, "Описание фильма номер " + i % 5000,
+                    LocalDate.of(1950, 1, 1).plusDays(i % 27000), 80 + i % 100, 1 + i % DIRECTORS,
+                    new long[]{1 + i % GENRES, 1 + (GENRES / 2 + i) % GENRES}, i % 7, i % 7 * 6L));
+        }
+        for (int i = 1; i <= DIRECTORS; i++) {
+            builder.addDirector(new DirectorRow(i, "Имя " + i % 300, "Фамилия " + i, LocalDate.of(1960, 1, 1), null));
+        }
+        for (int i = 1; i <= GENRES; i++) {
+            builder.addGenre(new GenreRow(i, "Жанр " + i));
+        }
+        return builder.build();
+    }
+
+    private List<Movie> buildEntities() {
+        List<Director> directors = new ArrayList<>(DIRECTORS);
+        for (int i = 1; i <= DIRECTORS; i++) {
+            Director director = new Director();
+            director.setId((long) i);
+            director.setFirstName("Имя " + i % 300);
+            director.setLastName("Фамилия " + i);
+            director.setBirthDate(LocalDate.of(1960, 1, 1));
+            directors.add(director);
+        }
+        List<Genre> genres = new ArrayList<>(GENRES);
+        for (int i = 1; i <= GENRES; i++) {
+            Genre genre = new Genre();
+            genre.setId((long) i);
+            genre.setName("Жанр " + i);
+            genres.add(genre);
+        }
+        List<Movie> movies = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Movie movie = new Movie();
+            movie.setId((long) i);
+            movie.setTitle("Фильм " + i);
+            movie.setDescription("Описание фильма номер " + i % 5000);
+            movie.setReleaseDate(LocalDate.of(1950, 1, 1).plusDays(i % 27000));
+            movie.setDuration(80 + i % 100);
+            movie.setDirector(directors.get(i % DIRECTORS));
+            movie.setGenres(new HashSet<>(List.of(genres.get(i % GENRES), genres.get((GENRES / 2 + i) % GENRES))));
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    private static MovieDTO toDTO(Movie movie) {
+        Set<Long> genreIds = movie.getGenres().stream().map(Genre::getId).collect(Collectors.toSet());
+        return new MovieDTO(movie.getId(), movie.getTitle(), movie.getDescription(), movie.getReleaseDate(),
+                movie.getDuration(), movie.getDirector().getId(), genreIds, movie.getAverageRating());
+    }
+
+    private static long retainedBytes(Supplier<Object> factory) {
+        long before = usedHeap();
+        Object retained = factory.get();
+        long after = usedHeap();
+        Reference.reachabilityFence(retained);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,91 @@
+package com.moviecatalog.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moviecatalog.config.BinaryContentConfig;
+import com.moviecatalog.dto.MovieDTO;
+import com.moviecatalog.dto.ReviewDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization time of the list endpoint payloads per content type. Payload sizes are printed
+ * once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private List<MovieDTO> movies;
+    private List<ReviewDTO> reviews;
+    private ObjectWriter movieWriter;
+    private ObjectWriter reviewWriter;
+    private ByteArrayOutputStream buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper mapper = mapper(format);
+        movieWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, MovieDTO.class));
+        reviewWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ReviewDTO.class));
+        movies = new ArrayList<>(size);
+        reviews = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+        for (int i = 0; i < size; i++) {
+            movies.add(new MovieDTO((long) i, "Фильм " + i, "Описание фильма номер " + i,
+                    LocalDate.of(1950, 1, 1).plusDays(i % 27000), 80 + i % 100, (long) (i % 2000),
+                    Set.of((long) (i % 60), (long) (60 + i / 60 % 60)), 1.0 + i % 90 / 10.0));
+            reviews.add(new ReviewDTO((long) i, "author-" + (i % 20000), "Комментарий " + i,
+                    1 + i % 10, (long) (i % 50000), now.minusMinutes(i)));
+        }
+        buffer = new ByteArrayOutputStream(size * 256);
+        System.out.printf("%n%s, %d elements: movies %d bytes, reviews %d bytes%n", format, size,
+                movieWriter.writeValueAsBytes(movies).length, reviewWriter.writeValueAsBytes(reviews).length);
+    }
+
+    @Benchmark
+    public int movies() throws IOException {
+        buffer.reset();
+        movieWriter.writeValue(buffer, movies);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int reviews() throws IOException {
+        buffer.reset();
+        reviewWriter.writeValue(buffer, reviews);
+        return buffer.size();
+    }
+
+    private static ObjectMapper mapper(String format) {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+                .modulesToInstall(new JavaTimeModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return switch (format) {
+            case "json" -> builder.build();
+            case "cbor" -> BinaryContentConfig.cborMapper(builder);
+            case "smile" -> BinaryContentConfig.smileMapper(builder);
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.moviecatalog.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long a finished result keeps being served to new callers; zero disables the micro-cache.
+     */
+    private Duration microCacheTtl = Duration.ZERO;
+
+    /**
+     * Budget of a shared computation, the JDBC query timeout of its statements.
+     */
+    private Duration loaderBudget = Duration.ofSeconds(10);
+}
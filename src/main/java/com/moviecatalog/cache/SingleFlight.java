@@ -0,0 +1,153 @@
+package com.moviecatalog.cache;
+
+import com.moviecatalog.deadline.Deadline;
+import com.moviecatalog.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent callers asking for the same key share one in-flight computation. The first
+ * caller (the leader) runs the loader on its own thread; the others wait for its result or
+ * exception. A successful result can be kept for a short micro-cache window; failures never are.
+ * <p>
+ * The loader runs under an own {@link Deadline} of the loader budget instead of the leader's, so a
+ * leader with a short budget does not fail a result that callers with longer budgets wait for,
+ * while its queries still get a timeout. Every waiting caller gives up when its own deadline
+ * expires.
+ */
+public class SingleFlight<K, V> {
+
+    private final long microCacheNanos;
+    private final Duration loaderBudget;
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder cached = new LongAdder();
+
+    public SingleFlight(String name, Duration microCacheTtl, Duration loaderBudget, MeterRegistry meterRegistry) {
+        this.microCacheNanos = microCacheTtl.toNanos();
+        this.loaderBudget = loaderBudget;
+        registerCounter(meterRegistry, name, "leader", leaders);
+        registerCounter(meterRegistry, name, "coalesced", coalesced);
+        registerCounter(meterRegistry, name, "cached", cached);
+        Gauge.builder("singleflight.coalescing.ratio", this, SingleFlight::coalescingRatio)
+                .description("Share of calls served without running the loader")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        while (true) {
+            Flight<V> flight = flights.get(key);
+            if (flight != null) {
+                if (!flight.result.isDone()) {
+                    coalesced.increment();
+                    return await(flight);
+                }
+                if (!flight.result.isCompletedExceptionally() && flight.expiresAt - System.nanoTime() > 0) {
+                    cached.increment();
+                    return await(flight);
+                }
+                flights.remove(key, flight);
+                continue;
+            }
+
+            Flight<V> own = new Flight<>();
+            if (flights.putIfAbsent(key, own) != null) {
+                continue;
+            }
+            leaders.increment();
+            return lead(key, own, loader);
+        }
+    }
+
+    public void evict(K key) {
+        flights.remove(key);
+    }
+
+    public void evictAll() {
+        flights.clear();
+    }
+
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        flights.values().removeIf(flight -> flight.result.isDone() && flight.expiresAt - now <= 0);
+    }
+
+    private V lead(K key, Flight<V> flight, Supplier<V> loader) {
+        V value;
+        try (Deadline.Scope ignored = Deadline.bind(new Deadline(loaderBudget, () -> {
+        }))) {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        if (microCacheNanos > 0) {
+            flight.expiresAt = System.nanoTime() + microCacheNanos;
+            flight.result.complete(value);
+        } else {
+            flights.remove(key, flight);
+            flight.result.complete(value);
+        }
+        return value;
+    }
+
+    private V await(Flight<V> flight) {
+        Deadline deadline = Deadline.current();
+        try {
+            if (deadline == null) {
+                return flight.result.get();
+            }
+            return flight.result.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            deadline.check();
+            throw new DeadlineExceededException("Время обработки запроса истекло");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared result", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    private double coalescingRatio() {
+        double shared = coalesced.sum() + cached.sum();
+        double total = shared + leaders.sum();
+        return total == 0 ? 0 : shared / total;
+    }
+
+    private static void registerCounter(MeterRegistry meterRegistry, String name, String outcome, LongAdder adder) {
+        FunctionCounter.builder("singleflight.calls", adder, LongAdder::sum)
+                .description("Calls through a single-flight group by outcome")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Flight<V> {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile long expiresAt;
+    }
+}
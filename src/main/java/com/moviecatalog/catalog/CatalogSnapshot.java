@@ -0,0 +1,731 @@
+package com.moviecatalog.catalog;
+
+import com.moviecatalog.dto.DirectorDTO;
+import com.moviecatalog.dto.GenreDTO;
+import com.moviecatalog.dto.MovieDTO;
+import com.moviecatalog.repository.CatalogSnapshotRepository.DirectorRow;
+import com.moviecatalog.repository.CatalogSnapshotRepository.GenreRow;
+import com.moviecatalog.repository.CatalogSnapshotRepository.MovieRow;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable columnar copy of movies, directors and genres. Every table is a set of parallel
+ * primitive arrays sorted by id, strings are deduplicated on load and the genres of all movies
+ * share one id array. A snapshot is never modified: {@link #withChanges} returns a new one, so
+ * readers need no locks. Every read returns new DTOs.
+ */
+public final class CatalogSnapshot {
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final MovieTable movies;
+    private final DirectorTable directors;
+    private final GenreTable genres;
+
+    private CatalogSnapshot(MovieTable movies, DirectorTable directors, GenreTable genres) {
+        this.movies = movies;
+        this.directors = directors;
+        this.genres = genres;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int movieCount() {
+        return movies.size;
+    }
+
+    public int directorCount() {
+        return directors.size;
+    }
+
+    public int genreCount() {
+        return genres.size;
+    }
+
+    public MovieDTO findMovie(long id) {
+        int row = Arrays.binarySearch(movies.ids, 0, movies.size, id);
+        return row >= 0 ? movies.toDTO(row) : null;
+    }
+
+    public List<MovieDTO> findMovies(Collection<Long> ids) {
+        List<MovieDTO> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            MovieDTO movie = findMovie(id);
+            if (movie != null) {
+                found.add(movie);
+            }
+        }
+        return found;
+    }
+
+    public void forEachMovie(Consumer<MovieDTO> consumer) {
+        for (int row = 0; row < movies.size; row++) {
+            consumer.accept(movies.toDTO(row));
+        }
+    }
+
+    /**
+     * Movies newest first (release date, then id, both descending), starting after the movie with
+     * the given sort key, or from the newest one when the key is {@code null}.
+     *
+     * @param term lowercase title substring, {@code null} for all movies
+     */
+    public List<MovieDTO> findMoviesNewestFirst(LocalDate releaseDate, Long id, String term, int limit) {
+        int position = releaseDate == null ? 0 : movies.positionAfter((int) releaseDate.toEpochDay(), id);
+        List<MovieDTO> page = new ArrayList<>(Math.min(limit, movies.size));
+        for (; position < movies.size && page.size() < limit; position++) {
+            int row = movies.byRelease[position];
+            if (term == null || movies.searchTitles[row].contains(term)) {
+                page.add(movies.toDTO(row));
+            }
+        }
+        return page;
+    }
+
+    public DirectorDTO findDirector(long id) {
+        int row = Arrays.binarySearch(directors.ids, 0, directors.size, id);
+        return row >= 0 ? directors.toDTO(row) : null;
+    }
+
+    public List<DirectorDTO> directors() {
+        List<DirectorDTO> all = new ArrayList<>(directors.size);
+        for (int row = 0; row < directors.size; row++) {
+            all.add(directors.toDTO(row));
+        }
+        return all;
+    }
+
+    public GenreDTO findGenre(long id) {
+        int row = Arrays.binarySearch(genres.ids, 0, genres.size, id);
+        return row >= 0 ? genres.toDTO(row) : null;
+    }
+
+    public List<GenreDTO> genres() {
+        List<GenreDTO> all = new ArrayList<>(genres.size);
+        for (int row = 0; row < genres.size; row++) {
+            all.add(genres.toDTO(row));
+        }
+        return all;
+    }
+
+    /**
+     * @return whether the movie is in the snapshot and {@code row} differs from it in the rating
+     * aggregates only
+     */
+    public boolean differsInRatingOnly(MovieRow row) {
+        int index = Arrays.binarySearch(movies.ids, 0, movies.size, row.id());
+        return index >= 0
+                && Objects.equals(movies.titles[index], row.title())
+                && Objects.equals(movies.descriptions[index], row.description())
+                && movies.releaseDays[index] == toDay(row.releaseDate())
+                && movies.durations[index] == row.duration()
+                && movies.directorIds[index] == row.directorId()
+                && Arrays.equals(movies.genreIds, movies.genreOffsets[index], movies.genreOffsets[index + 1],
+                        row.genreIds(), 0, row.genreIds().length);
+    }
+
+    /**
+     * @return whether the movie is in the snapshot with exactly these rating aggregates
+     */
+    public boolean hasRatingTotals(long movieId, long reviewCount, long ratingSum) {
+        int row = Arrays.binarySearch(movies.ids, 0, movies.size, movieId);
+        return row >= 0 && movies.reviewCounts[row] == reviewCount && movies.ratingSums[row] == ratingSum;
+    }
+
+    /**
+     * Writes all rows to {@code out}: a table of the distinct strings, then movies, directors and
+     * genres in id order referring to strings by index ({@code -1} for null).
+     */
+    void writeTo(DataOutput out) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        int[] movieStrings = new int[movies.size * 2];
+        for (int row = 0; row < movies.size; row++) {
+            movieStrings[row * 2] = index(strings, movies.titles[row]);
+            movieStrings[row * 2 + 1] = index(strings, movies.descriptions[row]);
+        }
+        int[] directorStrings = new int[directors.size * 3];
+        for (int row = 0; row < directors.size; row++) {
+            directorStrings[row * 3] = index(strings, directors.firstNames[row]);
+            directorStrings[row * 3 + 1] = index(strings, directors.lastNames[row]);
+            directorStrings[row * 3 + 2] = index(strings, directors.biographies[row]);
+        }
+        int[] genreStrings = new int[genres.size];
+        for (int row = 0; row < genres.size; row++) {
+            genreStrings[row] = index(strings, genres.names[row]);
+        }
+
+        out.writeInt(strings.size());
+        for (String value : strings.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        out.writeInt(movies.size);
+        for (int row = 0; row < movies.size; row++) {
+            out.writeLong(movies.ids[row]);
+            out.writeInt(movieStrings[row * 2]);
+            out.writeInt(movieStrings[row * 2 + 1]);
+            out.writeInt(movies.releaseDays[row]);
+            out.writeInt(movies.durations[row]);
+            out.writeLong(movies.directorIds[row]);
+            out.writeLong(movies.reviewCounts[row]);
+            out.writeLong(movies.ratingSums[row]);
+            out.writeInt(movies.genreOffsets[row + 1] - movies.genreOffsets[row]);
+            for (int k = movies.genreOffsets[row]; k < movies.genreOffsets[row + 1]; k++) {
+                out.writeLong(movies.genreIds[k]);
+            }
+        }
+        out.writeInt(directors.size);
+        for (int row = 0; row < directors.size; row++) {
+            out.writeLong(directors.ids[row]);
+            out.writeInt(directorStrings[row * 3]);
+            out.writeInt(directorStrings[row * 3 + 1]);
+            out.writeInt(directors.birthDays[row]);
+            out.writeInt(directorStrings[row * 3 + 2]);
+        }
+        out.writeInt(genres.size);
+        for (int row = 0; row < genres.size; row++) {
+            out.writeLong(genres.ids[row]);
+            out.writeInt(genreStrings[row]);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #writeTo}.
+     *
+     * @throws java.nio.BufferUnderflowException if the data is truncated
+     */
+    static CatalogSnapshot readFrom(ByteBuffer in) {
+        String[] strings = new String[in.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        Strings searchTitles = new Strings();
+
+        int movieCount = in.getInt();
+        MovieTable.Builder movieBuilder = new MovieTable.Builder(movieCount, movieCount * 2, new Strings());
+        long[] genreIds = new long[16];
+        for (int i = 0; i < movieCount; i++) {
+            long id = in.getLong();
+            String title = string(strings, in.getInt());
+            movieBuilder.append(id, title, searchTitles.dedupe(title.toLowerCase(Locale.ROOT)),
+                    string(strings, in.getInt()), in.getInt(), in.getInt(), in.getLong(), in.getLong(), in.getLong());
+            int genreCount = in.getInt();
+            if (genreCount > genreIds.length) {
+                genreIds = new long[genreCount];
+            }
+            for (int k = 0; k < genreCount; k++) {
+                genreIds[k] = in.getLong();
+            }
+            movieBuilder.appendGenres(genreIds, 0, genreCount);
+        }
+
+        int directorCount = in.getInt();
+        DirectorTable.Builder directorBuilder = new DirectorTable.Builder(directorCount, new Strings());
+        for (int i = 0; i < directorCount; i++) {
+            directorBuilder.append(in.getLong(), string(strings, in.getInt()), string(strings, in.getInt()),
+                    in.getInt(), string(strings, in.getInt()));
+        }
+
+        int genreCount = in.getInt();
+        GenreTable.Builder genreBuilder = new GenreTable.Builder(genreCount, new Strings());
+        for (int i = 0; i < genreCount; i++) {
+            genreBuilder.append(in.getLong(), string(strings, in.getInt()));
+        }
+        return new CatalogSnapshot(movieBuilder.build(), directorBuilder.build(), genreBuilder.build());
+    }
+
+    private static int index(Map<String, Integer> strings, String value) {
+        return value != null ? strings.computeIfAbsent(value, key -> strings.size()) : -1;
+    }
+
+    private static String string(String[] strings, int index) {
+        return index >= 0 ? strings[index] : null;
+    }
+
+    /**
+     * Copy of this snapshot in which the rows with the given ids are replaced by the reloaded
+     * rows. Ids without a reloaded row are deleted. Unchanged rows keep their strings and their
+     * release order; only the reloaded rows are sorted and merged into it.
+     */
+    public CatalogSnapshot withChanges(Changes changes) {
+        Strings strings = new Strings();
+
+        MovieTable.Builder movieBuilder = new MovieTable.Builder(movies, movies.size + changes.movies().size(),
+                movies.genreIds.length, strings);
+        merge(movies.ids, movies.size, changes.movieIds(), changes.movies(), MovieRow::id,
+                row -> movieBuilder.copy(movies, row), movieBuilder::add);
+
+        DirectorTable.Builder directorBuilder = new DirectorTable.Builder(
+                directors.size + changes.directors().size(), strings);
+        merge(directors.ids, directors.size, changes.directorIds(), changes.directors(), DirectorRow::id,
+                row -> directorBuilder.copy(directors, row), directorBuilder::add);
+
+        GenreTable.Builder genreBuilder = new GenreTable.Builder(genres.size + changes.genres().size(), strings);
+        merge(genres.ids, genres.size, changes.genreIds(), changes.genres(), GenreRow::id,
+                row -> genreBuilder.copy(genres, row), genreBuilder::add);
+
+        return new CatalogSnapshot(movieBuilder.build(), directorBuilder.build(), genreBuilder.build());
+    }
+
+    private static <R> void merge(long[] ids, int size, long[] changedIds, List<R> changed,
+                                  ToLongFunction<R> changedId, IntConsumer copy, Consumer<R> add) {
+        int row = 0;
+        int next = 0;
+        while (row < size || next < changed.size()) {
+            if (row < size && Arrays.binarySearch(changedIds, ids[row]) >= 0) {
+                row++;
+            } else if (next == changed.size() || (row < size && ids[row] < changedId.applyAsLong(changed.get(next)))) {
+                copy.accept(row++);
+            } else {
+                add.accept(changed.get(next++));
+            }
+        }
+    }
+
+    private static int toDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : NO_DATE;
+    }
+
+    private static LocalDate fromDay(int day) {
+        return day != NO_DATE ? LocalDate.ofEpochDay(day) : null;
+    }
+
+    /**
+     * Reloaded rows of one publication; each id array is sorted and each row list is sorted by id.
+     */
+    public record Changes(long[] movieIds, List<MovieRow> movies,
+                          long[] directorIds, List<DirectorRow> directors,
+                          long[] genreIds, List<GenreRow> genres) {
+    }
+
+    /**
+     * Full load: rows of every table are added in id order.
+     */
+    public static final class Builder {
+
+        private final Strings strings = new Strings();
+        private final MovieTable.Builder movies = new MovieTable.Builder(1024, 2048, strings);
+        private final DirectorTable.Builder directors = new DirectorTable.Builder(256, strings);
+        private final GenreTable.Builder genres = new GenreTable.Builder(64, strings);
+
+        private Builder() {
+        }
+
+        public void addMovie(MovieRow row) {
+            movies.add(row);
+        }
+
+        public void addDirector(DirectorRow row) {
+            directors.add(row);
+        }
+
+        public void addGenre(GenreRow row) {
+            genres.add(row);
+        }
+
+        public CatalogSnapshot build() {
+            return new CatalogSnapshot(movies.build(), directors.build(), genres.build());
+        }
+    }
+
+    private static final class Strings {
+
+        private final Map<String, String> unique = new HashMap<>();
+
+        String dedupe(String value) {
+            if (value == null) {
+                return null;
+            }
+            String existing = unique.putIfAbsent(value, value);
+            return existing != null ? existing : value;
+        }
+    }
+
+    private static final class MovieTable {
+
+        private final int size;
+        private final long[] ids;
+        private final String[] titles;
+        private final String[] searchTitles;
+        private final String[] descriptions;
+        private final int[] releaseDays;
+        private final int[] durations;
+        private final long[] directorIds;
+        private final int[] genreOffsets;
+        private final long[] genreIds;
+        private final long[] reviewCounts;
+        private final long[] ratingSums;
+        private final int[] byRelease;
+
+        private MovieTable(Builder builder) {
+            this.size = builder.size;
+            this.ids = Arrays.copyOf(builder.ids, size);
+            this.titles = Arrays.copyOf(builder.titles, size);
+            this.searchTitles = Arrays.copyOf(builder.searchTitles, size);
+            this.descriptions = Arrays.copyOf(builder.descriptions, size);
+            this.releaseDays = Arrays.copyOf(builder.releaseDays, size);
+            this.durations = Arrays.copyOf(builder.durations, size);
+            this.directorIds = Arrays.copyOf(builder.directorIds, size);
+            this.genreOffsets = Arrays.copyOf(builder.genreOffsets, size + 1);
+            this.genreIds = Arrays.copyOf(builder.genreIds, builder.genreOffsets[size]);
+            this.reviewCounts = Arrays.copyOf(builder.reviewCounts, size);
+            this.ratingSums = Arrays.copyOf(builder.ratingSums, size);
+            this.byRelease = builder.previous != null
+                    ? mergeByRelease(builder.previous.byRelease, builder.copiedRows, builder.addedRows,
+                            builder.addedCount)
+                    : sortByRelease(null, size);
+        }
+
+        /**
+         * @param rows rows to sort, {@code null} for all rows
+         * @return the rows newest first: release day descending, then id descending
+         */
+        private int[] sortByRelease(int[] rows, int count) {
+            // ids ascend with the row number, so the row breaks ties by id
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                int row = rows != null ? rows[i] : i;
+                keys[i] = ((long) releaseDays[row] << 32) | row;
+            }
+            Arrays.sort(keys);
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[count - 1 - i] = (int) keys[i];
+            }
+            return order;
+        }
+
+        /**
+         * Merges the release order of the previous table, mapped to the rows they were copied to,
+         * with the sorted added rows.
+         *
+         * @param copiedRows row of this table every row of the previous table was copied to, {@code -1}
+         *                   for replaced and deleted rows
+         */
+        private int[] mergeByRelease(int[] previousOrder, int[] copiedRows, int[] addedRows, int addedCount) {
+            int[] added = sortByRelease(addedRows, addedCount);
+            int[] order = new int[size];
+            int position = 0;
+            int next = 0;
+            for (int previousRow : previousOrder) {
+                int row = copiedRows[previousRow];
+                if (row < 0) {
+                    continue;
+                }
+                while (next < added.length && newerThan(added[next], row)) {
+                    order[position++] = added[next++];
+                }
+                order[position++] = row;
+            }
+            while (next < added.length) {
+                order[position++] = added[next++];
+            }
+            return order;
+        }
+
+        private boolean newerThan(int row, int other) {
+            return releaseDays[row] > releaseDays[other] || (releaseDays[row] == releaseDays[other] && row > other);
+        }
+
+        /**
+         * @return first position of {@link #byRelease} that sorts after {@code (day, id)}
+         */
+        private int positionAfter(int day, long id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int row = byRelease[middle];
+                if (releaseDays[row] < day || (releaseDays[row] == day && ids[row] < id)) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        private MovieDTO toDTO(int row) {
+            Set<Long> genres = new HashSet<>();
+            for (int k = genreOffsets[row]; k < genreOffsets[row + 1]; k++) {
+                genres.add(genreIds[k]);
+            }
+            return new MovieDTO(ids[row], titles[row], descriptions[row], fromDay(releaseDays[row]),
+                    durations[row], directorIds[row], genres,
+                    reviewCounts[row] > 0 ? (double) ratingSums[row] / reviewCounts[row] : null);
+        }
+
+        private static final class Builder {
+
+            private final Strings strings;
+            private final MovieTable previous;
+            private final int[] copiedRows;
+            private int[] addedRows;
+            private int addedCount;
+            private int size;
+            private long[] ids;
+            private String[] titles;
+            private String[] searchTitles;
+            private String[] descriptions;
+            private int[] releaseDays;
+            private int[] durations;
+            private long[] directorIds;
+            private int[] genreOffsets;
+            private long[] genreIds;
+            private long[] reviewCounts;
+            private long[] ratingSums;
+
+            private Builder(int capacity, int genreCapacity, Strings strings) {
+                this(null, capacity, genreCapacity, strings);
+            }
+
+            /**
+             * @param previous table the rows are copied from, whose release order is then reused
+             */
+            private Builder(MovieTable previous, int capacity, int genreCapacity, Strings strings) {
+                this.strings = strings;
+                this.previous = previous;
+                if (previous != null) {
+                    copiedRows = new int[previous.size];
+                    Arrays.fill(copiedRows, -1);
+                    addedRows = new int[16];
+                } else {
+                    copiedRows = null;
+                }
+                capacity = Math.max(capacity, 16);
+                ids = new long[capacity];
+                titles = new String[capacity];
+                searchTitles = new String[capacity];
+                descriptions = new String[capacity];
+                releaseDays = new int[capacity];
+                durations = new int[capacity];
+                directorIds = new long[capacity];
+                genreOffsets = new int[capacity + 1];
+                genreIds = new long[Math.max(genreCapacity, 16)];
+                reviewCounts = new long[capacity];
+                ratingSums = new long[capacity];
+            }
+
+            private void add(MovieRow movie) {
+                if (previous != null) {
+                    if (addedCount == addedRows.length) {
+                        addedRows = Arrays.copyOf(addedRows, addedCount * 2);
+                    }
+                    addedRows[addedCount++] = size;
+                }
+                String title = strings.dedupe(movie.title());
+                append(movie.id(), title, strings.dedupe(title.toLowerCase(Locale.ROOT)),
+                        strings.dedupe(movie.description()), toDay(movie.releaseDate()), movie.duration(),
+                        movie.directorId(), movie.reviewCount(), movie.ratingSum());
+                appendGenres(movie.genreIds(), 0, movie.genreIds().length);
+            }
+
+            private void copy(MovieTable table, int row) {
+                if (table == previous) {
+                    copiedRows[row] = size;
+                }
+                append(table.ids[row], table.titles[row], table.searchTitles[row], table.descriptions[row],
+                        table.releaseDays[row], table.durations[row], table.directorIds[row],
+                        table.reviewCounts[row], table.ratingSums[row]);
+                appendGenres(table.genreIds, table.genreOffsets[row], table.genreOffsets[row + 1]);
+            }
+
+            private void append(long id, String title, String searchTitle, String description, int releaseDay,
+                                int duration, long directorId, long reviewCount, long ratingSum) {
+                if (size == ids.length) {
+                    grow();
+                }
+                ids[size] = id;
+                titles[size] = title;
+                searchTitles[size] = searchTitle;
+                descriptions[size] = description;
+                releaseDays[size] = releaseDay;
+                durations[size] = duration;
+                directorIds[size] = directorId;
+                reviewCounts[size] = reviewCount;
+                ratingSums[size] = ratingSum;
+            }
+
+            private void appendGenres(long[] source, int from, int to) {
+                int offset = genreOffsets[size];
+                int required = offset + to - from;
+                if (required > genreIds.length) {
+                    genreIds = Arrays.copyOf(genreIds, Math.max(required, genreIds.length * 2));
+                }
+                System.arraycopy(source, from, genreIds, offset, to - from);
+                genreOffsets[++size] = required;
+            }
+
+            private void grow() {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                searchTitles = Arrays.copyOf(searchTitles, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+                releaseDays = Arrays.copyOf(releaseDays, capacity);
+                durations = Arrays.copyOf(durations, capacity);
+                directorIds = Arrays.copyOf(directorIds, capacity);
+                genreOffsets = Arrays.copyOf(genreOffsets, capacity + 1);
+                reviewCounts = Arrays.copyOf(reviewCounts, capacity);
+                ratingSums = Arrays.copyOf(ratingSums, capacity);
+            }
+
+            private MovieTable build() {
+                return new MovieTable(this);
+            }
+        }
+    }
+
+    private static final class DirectorTable {
+
+        private final int size;
+        private final long[] ids;
+        private final String[] firstNames;
+        private final String[] lastNames;
+        private final int[] birthDays;
+        private final String[] biographies;
+
+        private DirectorTable(Builder builder) {
+            this.size = builder.size;
+            this.ids = Arrays.copyOf(builder.ids, size);
+            this.firstNames = Arrays.copyOf(builder.firstNames, size);
+            this.lastNames = Arrays.copyOf(builder.lastNames, size);
+            this.birthDays = Arrays.copyOf(builder.birthDays, size);
+            this.biographies = Arrays.copyOf(builder.biographies, size);
+        }
+
+        private DirectorDTO toDTO(int row) {
+            return new DirectorDTO(ids[row], firstNames[row], lastNames[row], fromDay(birthDays[row]), biographies[row]);
+        }
+
+        private static final class Builder {
+
+            private final Strings strings;
+            private int size;
+            private long[] ids;
+            private String[] firstNames;
+            private String[] lastNames;
+            private int[] birthDays;
+            private String[] biographies;
+
+            private Builder(int capacity, Strings strings) {
+                this.strings = strings;
+                capacity = Math.max(capacity, 16);
+                ids = new long[capacity];
+                firstNames = new String[capacity];
+                lastNames = new String[capacity];
+                birthDays = new int[capacity];
+                biographies = new String[capacity];
+            }
+
+            private void add(DirectorRow director) {
+                append(director.id(), strings.dedupe(director.firstName()), strings.dedupe(director.lastName()),
+                        toDay(director.birthDate()), strings.dedupe(director.biography()));
+            }
+
+            private void copy(DirectorTable table, int row) {
+                append(table.ids[row], table.firstNames[row], table.lastNames[row], table.birthDays[row],
+                        table.biographies[row]);
+            }
+
+            private void append(long id, String firstName, String lastName, int birthDay, String biography) {
+                if (size == ids.length) {
+                    int capacity = size * 2;
+                    ids = Arrays.copyOf(ids, capacity);
+                    firstNames = Arrays.copyOf(firstNames, capacity);
+                    lastNames = Arrays.copyOf(lastNames, capacity);
+                    birthDays = Arrays.copyOf(birthDays, capacity);
+                    biographies = Arrays.copyOf(biographies, capacity);
+                }
+                ids[size] = id;
+                firstNames[size] = firstName;
+                lastNames[size] = lastName;
+                birthDays[size] = birthDay;
+                biographies[size] = biography;
+                size++;
+            }
+
+            private DirectorTable build() {
+                return new DirectorTable(this);
+            }
+        }
+    }
+
+    private static final class GenreTable {
+
+        private final int size;
+        private final long[] ids;
+        private final String[] names;
+
+        private GenreTable(Builder builder) {
+            this.size = builder.size;
+            this.ids = Arrays.copyOf(builder.ids, size);
+            this.names = Arrays.copyOf(builder.names, size);
+        }
+
+        private GenreDTO toDTO(int row) {
+            return new GenreDTO(ids[row], names[row]);
+        }
+
+        private static final class Builder {
+
+            private final Strings strings;
+            private int size;
+            private long[] ids;
+            private String[] names;
+
+            private Builder(int capacity, Strings strings) {
+                this.strings = strings;
+                capacity = Math.max(capacity, 16);
+                ids = new long[capacity];
+                names = new String[capacity];
+            }
+
+            private void add(GenreRow genre) {
+                append(genre.id(), strings.dedupe(genre.name()));
+            }
+
+            private void copy(GenreTable table, int row) {
+                append(table.ids[row], table.names[row]);
+            }
+
+            private void append(long id, String name) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    names = Arrays.copyOf(names, size * 2);
+                }
+                ids[size] = id;
+                names[size] = name;
+                size++;
+            }
+
+            private GenreTable build() {
+                return new GenreTable(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.moviecatalog.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * On-disk copy of a {@link CatalogSnapshot} for warm starts. A fixed header (magic, format
+ * version, watermark, write time, payload length and CRC32C of the payload) precedes the payload
+ * of {@link CatalogSnapshot#writeTo}. Files are replaced atomically and read through a memory map.
+ */
+final class CatalogSnapshotFile {
+
+    static final int MAGIC = 0x4D435348;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 40;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /**
+     * @param watermark xmin below which every committed change is contained in the snapshot
+     */
+    static void write(Path path, CatalogSnapshot snapshot, long watermark, Instant writtenAt) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_SIZE);
+                CRC32C checksum = new CRC32C();
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new CheckedOutputStream(Channels.newOutputStream(channel), checksum), 1 << 16));
+                snapshot.writeTo(out);
+                out.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC)
+                        .putInt(FORMAT_VERSION)
+                        .putLong(watermark)
+                        .putLong(writtenAt.toEpochMilli())
+                        .putLong(channel.position() - HEADER_SIZE)
+                        .putLong(checksum.getValue())
+                        .flip();
+                channel.write(header, 0);
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @throws IOException if the file cannot be read or is not a complete snapshot of this format version
+     */
+    static Restored read(Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Snapshot file is truncated");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapped.getInt() != MAGIC) {
+            throw new IOException("Not a catalog snapshot file");
+        }
+        int version = mapped.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + version);
+        }
+        long watermark = mapped.getLong();
+        Instant writtenAt = Instant.ofEpochMilli(mapped.getLong());
+        long length = mapped.getLong();
+        long expectedChecksum = mapped.getLong();
+        if (length != mapped.capacity() - HEADER_SIZE) {
+            throw new IOException("Snapshot file is truncated");
+        }
+        ByteBuffer payload = mapped.slice(HEADER_SIZE, (int) length);
+        CRC32C checksum = new CRC32C();
+        checksum.update(payload.duplicate());
+        if (checksum.getValue() != expectedChecksum) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+        try {
+            return new Restored(CatalogSnapshot.readFrom(payload), watermark, writtenAt);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Snapshot payload is malformed", e);
+        }
+    }
+
+    record Restored(CatalogSnapshot snapshot, long watermark, Instant writtenAt) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.moviecatalog.catalog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Data
+@ConfigurationProperties(prefix = "app.catalog-snapshot")
+public class CatalogSnapshotProperties {
+
+    /**
+     * When enabled, movie, director and genre reads are served from an in-memory snapshot
+     * instead of the database.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Delay between publications of changed rows.
+     */
+    private long publishIntervalMs = 100;
+
+    /**
+     * Movies whose rating aggregates are the only change are published at most this often, unless
+     * other changes are published first.
+     */
+    private long ratingPublishIntervalMs = 5000;
+
+    /**
+     * Delay between checkpoints that catch up on missed changes and persist the snapshot.
+     */
+    private long checkpointIntervalMs = 300000;
+
+    /**
+     * File the snapshot is persisted to at every checkpoint and on shutdown, and restored from on
+     * startup; not persisted when unset.
+     */
+    private Path file;
+}
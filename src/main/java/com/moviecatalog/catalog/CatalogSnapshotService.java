@@ -0,0 +1,397 @@
+package com.moviecatalog.catalog;
+
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.EntityChange.Operation;
+import com.moviecatalog.events.RemoteInvalidation;
+import com.moviecatalog.repository.CatalogSnapshotRepository;
+import com.moviecatalog.repository.CatalogSnapshotRepository.DirectorRow;
+import com.moviecatalog.repository.CatalogSnapshotRepository.GenreRow;
+import com.moviecatalog.repository.CatalogSnapshotRepository.MovieRow;
+import com.moviecatalog.repository.SyncRepository;
+import com.moviecatalog.repository.SyncRepository.ChangeKey;
+import com.moviecatalog.service.SyncProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+/**
+ * Holds the current {@link CatalogSnapshot}. Committed changes only mark ids as stale; every
+ * {@code app.catalog-snapshot.publish-interval-ms} the stale rows are reloaded and a new snapshot
+ * replaces the current one with a single volatile write, so a burst of writes costs one copy.
+ * Reloaded movies that differ in their rating aggregates only are held back until the next
+ * publication or at most {@code app.catalog-snapshot.rating-publish-interval-ms}, so a stream of
+ * reviews does not copy the snapshot ten times a second. Publications and checkpoints run on an
+ * own thread, not on the shared scheduler.
+ * <p>
+ * The snapshot carries a watermark: every transaction below it is contained. Checkpoints catch up
+ * on changes since the watermark through the sync change keys, advance it and, when
+ * {@code app.catalog-snapshot.file} is set, persist the snapshot. On startup a valid file is
+ * published right away and reconciled with the database in the background.
+ */
+@Service
+public class CatalogSnapshotService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private static final int CHANGE_PAGE_SIZE = 5000;
+
+    private final CatalogSnapshotRepository catalogSnapshotRepository;
+    private final SyncRepository syncRepository;
+    private final CatalogSnapshotProperties properties;
+    private final SyncProperties syncProperties;
+
+    private final Set<Long> staleMovies = ConcurrentHashMap.newKeySet();
+    private final Set<Long> staleDirectors = ConcurrentHashMap.newKeySet();
+    private final Set<Long> staleGenres = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reloadAll = new AtomicBoolean();
+    private final Map<Long, MovieRow> pendingRatings = new HashMap<>();
+    private final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long ratingsPublishedAt;
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile long watermark;
+    private volatile boolean running;
+
+    public CatalogSnapshotService(CatalogSnapshotRepository catalogSnapshotRepository,
+                                  SyncRepository syncRepository,
+                                  CatalogSnapshotProperties properties,
+                                  SyncProperties syncProperties,
+                                  MeterRegistry meterRegistry) {
+        this.catalogSnapshotRepository = catalogSnapshotRepository;
+        this.syncRepository = syncRepository;
+        this.properties = properties;
+        this.syncProperties = syncProperties;
+        Gauge.builder("catalog.snapshot.movies", this, service -> {
+                    CatalogSnapshot current = service.snapshot;
+                    return current != null ? current.movieCount() : 0;
+                })
+                .description("Movies in the in-memory catalog snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the latest published snapshot, {@code null} when the snapshot is disabled or not loaded yet
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    @TransactionalEventListener
+    public void onChange(EntityChange change) {
+        if (running) {
+            markStale(change.entity(), change.entityId(), change.operation() == Operation.DELETED);
+        }
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(RemoteInvalidation invalidation) {
+        if (!running) {
+            return;
+        }
+        if (invalidation.isEverything()) {
+            reloadAll.set(true);
+            return;
+        }
+        for (long id : invalidation.entityIds()) {
+            markStale(invalidation.entity(), id, invalidation.deleted());
+        }
+    }
+
+    /**
+     * Reloads the stale rows and publishes a new snapshot if anything but held back ratings changed.
+     *
+     * @param includeRatings whether movies that changed in their rating aggregates only are
+     *                       published even if nothing else changed
+     */
+    private synchronized void publish(boolean includeRatings) {
+        CatalogSnapshot current = snapshot;
+        if (!running || current == null) {
+            return;
+        }
+        if (reloadAll.getAndSet(false)) {
+            staleMovies.clear();
+            staleDirectors.clear();
+            staleGenres.clear();
+            pendingRatings.clear();
+            snapshot = load();
+            return;
+        }
+        long[] movieIds = drain(staleMovies);
+        long[] directorIds = drain(staleDirectors);
+        long[] genreIds = drain(staleGenres);
+        if (movieIds.length == 0 && directorIds.length == 0 && genreIds.length == 0
+                && (!includeRatings || pendingRatings.isEmpty())) {
+            return;
+        }
+        List<MovieRow> movies = new ArrayList<>(movieIds.length);
+        catalogSnapshotRepository.findMovies(boxed(movieIds), movies::add);
+        for (long id : movieIds) {
+            pendingRatings.remove(id);
+        }
+        List<MovieRow> changedMovies = new ArrayList<>(movies.size());
+        for (MovieRow movie : movies) {
+            if (current.differsInRatingOnly(movie)) {
+                pendingRatings.put(movie.id(), movie);
+            } else {
+                changedMovies.add(movie);
+            }
+        }
+        // deleted movies have no row and stay among the changed ids
+        long[] changedMovieIds = Arrays.stream(movieIds).filter(id -> !pendingRatings.containsKey(id)).toArray();
+        if (changedMovieIds.length == 0 && directorIds.length == 0 && genreIds.length == 0
+                && (!includeRatings || pendingRatings.isEmpty())) {
+            return;
+        }
+        // the snapshot is copied anyway, so held back ratings are published with it
+        if (!pendingRatings.isEmpty()) {
+            changedMovies.addAll(pendingRatings.values());
+            changedMovies.sort(Comparator.comparingLong(MovieRow::id));
+            changedMovieIds = LongStream.concat(Arrays.stream(changedMovieIds),
+                    pendingRatings.keySet().stream().mapToLong(Long::longValue)).sorted().toArray();
+            pendingRatings.clear();
+        }
+        ratingsPublishedAt = System.nanoTime();
+        List<DirectorRow> directors = new ArrayList<>(directorIds.length);
+        catalogSnapshotRepository.findDirectors(boxed(directorIds), directors::add);
+        List<GenreRow> genres = new ArrayList<>(genreIds.length);
+        catalogSnapshotRepository.findGenres(boxed(genreIds), genres::add);
+        snapshot = current.withChanges(new CatalogSnapshot.Changes(
+                changedMovieIds, changedMovies, directorIds, directors, genreIds, genres));
+    }
+
+    // a task that throws is not run again, so failures are only logged
+    private synchronized void publishScheduled() {
+        try {
+            long sinceRatings = System.nanoTime() - ratingsPublishedAt;
+            publish(sinceRatings >= TimeUnit.MILLISECONDS.toNanos(properties.getRatingPublishIntervalMs()));
+        } catch (RuntimeException e) {
+            logger.warn("Catalog snapshot publication failed", e);
+        }
+    }
+
+    private void checkpointScheduled() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            logger.warn("Catalog snapshot checkpoint failed", e);
+        }
+    }
+
+    /**
+     * Marks everything changed since the watermark as stale, publishes and advances the watermark
+     * to the xmin taken before the changes were read; then writes the snapshot file.
+     */
+    public synchronized void checkpoint() {
+        if (!running || snapshot == null) {
+            return;
+        }
+        long xmin = syncRepository.currentSnapshotXmin();
+        markChangedBetween(watermark, xmin);
+        publish(true);
+        watermark = xmin;
+        save();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        ratingsPublishedAt = System.nanoTime();
+        CatalogSnapshotFile.Restored restored = restore();
+        if (restored != null) {
+            snapshot = restored.snapshot();
+            watermark = restored.watermark();
+            new Thread(() -> reconcile(restored.snapshot()), "catalog-snapshot-reconcile").start();
+        } else {
+            watermark = syncRepository.currentSnapshotXmin();
+            snapshot = load();
+        }
+        publisher.scheduleWithFixedDelay(this::publishScheduled, properties.getPublishIntervalMs(),
+                properties.getPublishIntervalMs(), TimeUnit.MILLISECONDS);
+        publisher.scheduleWithFixedDelay(this::checkpointScheduled, properties.getCheckpointIntervalMs(),
+                properties.getCheckpointIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (running) {
+            running = false;
+            publisher.shutdownNow();
+            save();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private CatalogSnapshot load() {
+        long start = System.nanoTime();
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder();
+        catalogSnapshotRepository.findMovies(null, builder::addMovie);
+        catalogSnapshotRepository.findDirectors(null, builder::addDirector);
+        catalogSnapshotRepository.findGenres(null, builder::addGenre);
+        CatalogSnapshot loaded = builder.build();
+        logger.info("Loaded catalog snapshot of {} movies, {} directors and {} genres in {} ms",
+                loaded.movieCount(), loaded.directorCount(), loaded.genreCount(),
+                (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    private void markStale(EntityType entity, long id, boolean deleted) {
+        switch (entity) {
+            case MOVIE -> staleMovies.add(id);
+            // deleting a director or genre changes rows of movies that are not marked stale
+            case DIRECTOR -> {
+                if (deleted) {
+                    reloadAll.set(true);
+                } else {
+                    staleDirectors.add(id);
+                }
+            }
+            case GENRE -> {
+                if (deleted) {
+                    reloadAll.set(true);
+                } else {
+                    staleGenres.add(id);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void markChangedBetween(long sinceXid, long beforeXid) {
+        long afterXid = sinceXid;
+        long afterSeq = 0;
+        List<ChangeKey> changes;
+        do {
+            changes = syncRepository.findChanges(afterXid, afterSeq, beforeXid, true, CHANGE_PAGE_SIZE);
+            List<Long> reviewIds = new ArrayList<>();
+            for (ChangeKey change : changes) {
+                EntityType entity = EntityType.valueOf(change.entityType());
+                // a deleted review leaves no movie id; its rating change arrives as a movie event
+                // or, after a restore, is found by reconcile
+                if (entity == EntityType.REVIEW && !change.deleted()) {
+                    reviewIds.add(change.entityId());
+                } else {
+                    markStale(entity, change.entityId(), change.deleted());
+                }
+                afterXid = change.changeXid();
+                afterSeq = change.changeSeq();
+            }
+            catalogSnapshotRepository.findReviewedMovieIds(reviewIds).forEach(staleMovies::add);
+        } while (changes.size() == CHANGE_PAGE_SIZE);
+    }
+
+    private CatalogSnapshotFile.Restored restore() {
+        Path file = properties.getFile();
+        if (file == null || !Files.exists(file)) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshotFile.Restored restored = CatalogSnapshotFile.read(file);
+            // deletions older than the tombstone retention can no longer be replayed
+            if (restored.writtenAt().isBefore(Instant.now().minus(syncProperties.getTombstoneRetention()))) {
+                logger.info("Ignoring catalog snapshot file {} written at {}", file, restored.writtenAt());
+                return null;
+            }
+            logger.info("Restored catalog snapshot of {} movies from {} in {} ms", restored.snapshot().movieCount(),
+                    file, (System.nanoTime() - start) / 1_000_000);
+            return restored;
+        } catch (IOException e) {
+            logger.warn("Cannot restore catalog snapshot from {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Catches a restored snapshot up with the database: rating aggregates are compared in full
+     * because deleted reviews leave no movie id behind, everything else comes from the change keys.
+     */
+    private void reconcile(CatalogSnapshot restored) {
+        long start = System.nanoTime();
+        try {
+            catalogSnapshotRepository.forEachRatingTotals((movieId, reviewCount, ratingSum) -> {
+                if (!restored.hasRatingTotals(movieId, reviewCount, ratingSum)) {
+                    staleMovies.add(movieId);
+                }
+            });
+            checkpoint();
+            logger.info("Reconciled restored catalog snapshot in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.warn("Catalog snapshot reconciliation failed, reloading from the database", e);
+            reloadAll.set(true);
+        }
+    }
+
+    private void save() {
+        Path file = properties.getFile();
+        CatalogSnapshot current = snapshot;
+        if (file == null || current == null) {
+            return;
+        }
+        try {
+            CatalogSnapshotFile.write(file, current, watermark, Instant.now());
+        } catch (IOException e) {
+            logger.warn("Cannot write catalog snapshot to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static long[] drain(Set<Long> ids) {
+        long[] drained = new long[ids.size()];
+        int count = 0;
+        for (Long id : ids) {
+            if (ids.remove(id)) {
+                if (count == drained.length) {
+                    drained = Arrays.copyOf(drained, count * 2 + 1);
+                }
+                drained[count++] = id;
+            }
+        }
+        drained = Arrays.copyOf(drained, count);
+        Arrays.sort(drained);
+        return drained;
+    }
+
+    private static List<Long> boxed(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+}
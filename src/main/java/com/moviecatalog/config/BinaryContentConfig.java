@@ -0,0 +1,68 @@
+package com.moviecatalog.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary representations of every endpoint, selected by {@code Accept}/{@code Content-Type}:
+ * {@code application/cbor} and {@code application/x-jackson-smile}. Both use the application's
+ * Jackson settings plus {@link CompactDateModule}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class BinaryContentConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    /**
+     * Replaces Spring's default binary converters in place, behind the JSON converter, so that
+     * {@code Accept: *}{@code /*} keeps getting JSON.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> {
+            if (converter instanceof MappingJackson2CborHttpMessageConverter) {
+                return new MappingJackson2CborHttpMessageConverter(cborMapper(builders.getObject()));
+            }
+            if (converter instanceof MappingJackson2SmileHttpMessageConverter) {
+                return new MappingJackson2SmileHttpMessageConverter(smileMapper(builders.getObject()));
+            }
+            return converter;
+        });
+    }
+
+    /**
+     * CBOR with string references (tags 25/256), the CBOR counterpart of Smile's shared names.
+     */
+    public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        CBORFactory factory = CBORFactory.builder()
+                .enable(CBORGenerator.Feature.STRINGREF)
+                .build();
+        return builder.factory(factory).build().registerModule(new CompactDateModule());
+    }
+
+    /**
+     * Smile with shared property names and short string values, so repeated field names and
+     * genre/author strings in long lists are written once and back-referenced afterwards.
+     */
+    public static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return builder.factory(factory).build().registerModule(new CompactDateModule());
+    }
+}
@@ -0,0 +1,92 @@
+package com.moviecatalog.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.Instant;
+
+/**
+ * Numeric date encoding for the binary formats: {@link LocalDate} as days since 1970-01-01
+ * (CBOR tag 100, RFC 8943) and {@link LocalDateTime} as milliseconds since 1970-01-01T00:00
+ * of the same wall clock. ISO strings are still accepted on input.
+ */
+public class CompactDateModule extends SimpleModule {
+
+    static final int CBOR_TAG_EPOCH_DAYS = 100;
+
+    public CompactDateModule() {
+        super("CompactDateModule");
+        addSerializer(LocalDate.class, new LocalDateSerializer());
+        addSerializer(LocalDateTime.class, new LocalDateTimeSerializer());
+        addDeserializer(LocalDate.class, new LocalDateDeserializer());
+        addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer());
+    }
+
+    static class LocalDateSerializer extends StdScalarSerializer<LocalDate> {
+
+        LocalDateSerializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public void serialize(LocalDate value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (generator instanceof CBORGenerator cborGenerator) {
+                cborGenerator.writeTag(CBOR_TAG_EPOCH_DAYS);
+            }
+            generator.writeNumber(value.toEpochDay());
+        }
+    }
+
+    static class LocalDateTimeSerializer extends StdScalarSerializer<LocalDateTime> {
+
+        LocalDateTimeSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(value.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+    }
+
+    static class LocalDateDeserializer extends StdScalarDeserializer<LocalDate> {
+
+        LocalDateDeserializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public LocalDate deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDate.ofEpochDay(parser.getLongValue());
+            }
+            return LocalDate.parse(parser.getValueAsString());
+        }
+    }
+
+    static class LocalDateTimeDeserializer extends StdScalarDeserializer<LocalDateTime> {
+
+        LocalDateTimeDeserializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), ZoneOffset.UTC);
+            }
+            return LocalDateTime.parse(parser.getValueAsString());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.moviecatalog.controller;
 
 import com.moviecatalog.dto.DirectorDTO;
+import com.moviecatalog.service.CatalogReadService;
 import com.moviecatalog.service.DirectorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -17,15 +18,16 @@ import java.util.List;
 public class DirectorController {
 
     private final DirectorService directorService;
+    private final CatalogReadService catalogReadService;
 
     @GetMapping
     public ResponseEntity<List<DirectorDTO>> getAllDirectors() {
-        return ResponseEntity.ok(directorService.getAllDirectors());
+        return ResponseEntity.ok(catalogReadService.getAllDirectors());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<DirectorDTO> getDirectorById(@PathVariable @NonNull Long id) {
-        return ResponseEntity.ok(directorService.getDirectorById(id));
+        return ResponseEntity.ok(catalogReadService.getDirectorById(id));
     }
 
     @PostMapping
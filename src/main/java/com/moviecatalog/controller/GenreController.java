@@ -1,6 +1,9 @@
 package com.moviecatalog.controller;
 
 import com.moviecatalog.dto.GenreDTO;
+import com.moviecatalog.dto.TopRatedMovieDTO;
+import com.moviecatalog.ranking.GenreLeaderboardService;
+import com.moviecatalog.service.CatalogReadService;
 import com.moviecatalog.service.GenreService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -17,15 +20,23 @@ import java.util.List;
 public class GenreController {
 
     private final GenreService genreService;
+    private final CatalogReadService catalogReadService;
+    private final GenreLeaderboardService genreLeaderboardService;
 
     @GetMapping
     public ResponseEntity<List<GenreDTO>> getAllGenres() {
-        return ResponseEntity.ok(genreService.getAllGenres());
+        return ResponseEntity.ok(catalogReadService.getAllGenres());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<GenreDTO> getGenreById(@PathVariable @NonNull Long id) {
-        return ResponseEntity.ok(genreService.getGenreById(id));
+        return ResponseEntity.ok(catalogReadService.getGenreById(id));
+    }
+
+    @GetMapping("/{id}/top-rated")
+    public ResponseEntity<List<TopRatedMovieDTO>> getTopRated(@PathVariable @NonNull Long id,
+                                                              @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(genreLeaderboardService.getTopRated(id, limit));
     }
 
     @PostMapping
@@ -1,13 +1,25 @@
 package com.moviecatalog.controller;
 
+import com.moviecatalog.dedup.DuplicateDetectionService;
+import com.moviecatalog.dto.CursorPageDTO;
+import com.moviecatalog.dto.DuplicateCandidateDTO;
 import com.moviecatalog.dto.MovieDTO;
+import com.moviecatalog.dto.RatingSummaryDTO;
+import com.moviecatalog.dto.TrendingMovieDTO;
+import com.moviecatalog.exception.BadRequestException;
+import com.moviecatalog.ranking.TrendingService;
+import com.moviecatalog.service.CatalogReadService;
+import com.moviecatalog.service.CoalescingReadService;
 import com.moviecatalog.service.MovieService;
+import com.moviecatalog.service.RatingSummaryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,23 +29,51 @@ import java.util.List;
 public class MovieController {
 
     private final MovieService movieService;
+    private final CoalescingReadService coalescingReadService;
+    private final CatalogReadService catalogReadService;
+    private final RatingSummaryService ratingSummaryService;
+    private final TrendingService trendingService;
+    private final StreamingListWriter streamingListWriter;
+    private final DuplicateDetectionService duplicateDetectionService;
 
     @GetMapping
-    public ResponseEntity<List<MovieDTO>> getAllMovies() {
-        return ResponseEntity.ok(movieService.getAllMovies());
+    public ResponseEntity<StreamingResponseBody> getAllMovies(NativeWebRequest request) {
+        return streamingListWriter.write(request, MovieDTO.class, catalogReadService::streamAllMovies);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<MovieDTO>> getMoviesPage(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) String q,
+                                                                 @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(catalogReadService.getMoviesPage(cursor, q, limit));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingMovieDTO>> getTrendingMovies(@RequestParam(required = false) Long genreId,
+                                                                    @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(trendingService.getTrending(genreId, limit));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<MovieDTO> getMovieById(@PathVariable @NonNull Long id) {
-        return ResponseEntity.ok(movieService.getMovieById(id));
+        return ResponseEntity.ok(catalogReadService.getMovieById(id));
     }
 
     @PostMapping
-    public ResponseEntity<MovieDTO> createMovie(@Valid @RequestBody MovieDTO movieDTO) {
-        MovieDTO createdMovie = movieService.createMovie(movieDTO);
+    public ResponseEntity<MovieDTO> createMovie(@Valid @RequestBody MovieDTO movieDTO,
+                                                @RequestParam(defaultValue = "false") boolean rejectDuplicates) {
+        MovieDTO createdMovie = movieService.createMovie(movieDTO, rejectDuplicates);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdMovie);
     }
 
+    /**
+     * Existing movies similar to each of the given ones, in the same order; for checking a batch before import.
+     */
+    @PostMapping("/duplicates")
+    public ResponseEntity<List<List<DuplicateCandidateDTO>>> findDuplicates(@RequestBody List<MovieDTO> movieDTOs) {
+        return ResponseEntity.ok(duplicateDetectionService.findDuplicates(movieDTOs));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<MovieDTO> updateMovie(@PathVariable @NonNull Long id, @Valid @RequestBody MovieDTO movieDTO) {
         return ResponseEntity.ok(movieService.updateMovie(id, movieDTO));
@@ -46,8 +86,17 @@ public class MovieController {
     }
 
     @GetMapping("/{id}/recommendations")
-    public ResponseEntity<List<MovieDTO>> getRecommendedMovies(@PathVariable @NonNull Long id) {
-        return ResponseEntity.ok(movieService.getRecommendedMovies(id));
+    public ResponseEntity<List<MovieDTO>> getRecommendedMovies(@PathVariable @NonNull Long id,
+                                                               @RequestParam(defaultValue = "genre") String strategy) {
+        return switch (strategy) {
+            case "genre" -> ResponseEntity.ok(coalescingReadService.getRecommendedMovies(id));
+            case "collaborative" -> ResponseEntity.ok(movieService.getCollaborativeRecommendations(id));
+            default -> throw new BadRequestException("Неизвестная стратегия рекомендаций: " + strategy);
+        };
     }
-}
 
+    @GetMapping("/{id}/rating-summary")
+    public ResponseEntity<RatingSummaryDTO> getRatingSummary(@PathVariable @NonNull Long id) {
+        return ResponseEntity.ok(ratingSummaryService.getRatingSummary(id));
+    }
+}
@@ -1,6 +1,11 @@
 package com.moviecatalog.controller;
 
+import com.moviecatalog.dto.AuthorReviewsDTO;
+import com.moviecatalog.dto.CursorPageDTO;
 import com.moviecatalog.dto.ReviewDTO;
+import com.moviecatalog.dto.ReviewIngestionDTO;
+import com.moviecatalog.service.CoalescingReadService;
+import com.moviecatalog.service.ReviewIngestionService;
 import com.moviecatalog.service.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -8,8 +13,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/reviews")
@@ -17,15 +24,34 @@ import java.util.List;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final CoalescingReadService coalescingReadService;
+    private final ReviewIngestionService reviewIngestionService;
+    private final StreamingListWriter streamingListWriter;
 
     @GetMapping
-    public ResponseEntity<List<ReviewDTO>> getAllReviews() {
-        return ResponseEntity.ok(reviewService.getAllReviews());
+    public ResponseEntity<StreamingResponseBody> getAllReviews(NativeWebRequest request) {
+        return streamingListWriter.write(request, ReviewDTO.class, reviewService::streamAllReviews);
     }
 
     @GetMapping("/movie/{movieId}")
-    public ResponseEntity<List<ReviewDTO>> getReviewsByMovieId(@PathVariable @NonNull Long movieId) {
-        return ResponseEntity.ok(reviewService.getReviewsByMovieId(movieId));
+    public ResponseEntity<StreamingResponseBody> getReviewsByMovieId(@PathVariable @NonNull Long movieId,
+                                                                     NativeWebRequest request) {
+        return streamingListWriter.write(request, ReviewDTO.class,
+                consumer -> reviewService.streamReviewsByMovieId(movieId, consumer));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<ReviewDTO>> getReviewsPage(@RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) String q,
+                                                                   @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(reviewService.getReviewsPage(cursor, q, limit));
+    }
+
+    @GetMapping("/author/{authorName}")
+    public ResponseEntity<AuthorReviewsDTO> getAuthorReviews(@PathVariable @NonNull String authorName,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(reviewService.getAuthorReviews(authorName, cursor, limit));
     }
 
     @GetMapping("/{id}")
@@ -34,11 +60,22 @@ public class ReviewController {
     }
 
     @PostMapping
-    public ResponseEntity<ReviewDTO> createReview(@Valid @RequestBody ReviewDTO reviewDTO) {
+    public ResponseEntity<?> createReview(@Valid @RequestBody ReviewDTO reviewDTO) {
+        if (reviewIngestionService.isEnabled()) {
+            ReviewIngestionDTO ingestion = reviewIngestionService.enqueue(reviewDTO);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/reviews/ingestion/" + ingestion.getTrackingId()))
+                    .body(ingestion);
+        }
         ReviewDTO createdReview = reviewService.createReview(reviewDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdReview);
     }
 
+    @GetMapping("/ingestion/{trackingId}")
+    public ResponseEntity<ReviewIngestionDTO> getIngestionStatus(@PathVariable @NonNull String trackingId) {
+        return ResponseEntity.ok(reviewIngestionService.getStatus(trackingId));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ReviewDTO> updateReview(@PathVariable @NonNull Long id, @Valid @RequestBody ReviewDTO reviewDTO) {
         return ResponseEntity.ok(reviewService.updateReview(id, reviewDTO));
@@ -52,7 +89,7 @@ public class ReviewController {
 
     @GetMapping("/movie/{movieId}/average-rating")
     public ResponseEntity<Double> getAverageRating(@PathVariable @NonNull Long movieId) {
-        return ResponseEntity.ok(reviewService.getAverageRatingByMovieId(movieId));
+        return ResponseEntity.ok(coalescingReadService.getAverageRatingByMovieId(movieId));
     }
 }
 
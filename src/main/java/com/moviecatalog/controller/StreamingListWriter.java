@@ -0,0 +1,134 @@
+package com.moviecatalog.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.moviecatalog.config.BinaryContentConfig;
+import com.moviecatalog.deadline.Deadline;
+import com.moviecatalog.tracing.Span;
+import com.moviecatalog.tracing.SpanKind;
+import com.moviecatalog.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Writes list endpoints as an array that is serialized element by element while the source
+ * produces it, in JSON, CBOR or Smile depending on {@code Accept}; any other requested type gets
+ * 406 without a body. The request deadline and span move with the body to the async thread. The
+ * deadline bounds producing the elements, not the client reading them: it is checked before every
+ * element and renewed after it is written, so a slow client downloading a long list is not cut
+ * off, while every chunk the source reads still gets the whole budget as query timeout.
+ */
+@Component
+class StreamingListWriter {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final Tracer tracer;
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+
+    StreamingListWriter(ContentNegotiationManager contentNegotiationManager,
+                        ObjectMapper objectMapper,
+                        ObjectProvider<Jackson2ObjectMapperBuilder> builders,
+                        Tracer tracer) {
+        this.contentNegotiationManager = contentNegotiationManager;
+        this.tracer = tracer;
+        mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        mappers.put(MediaType.APPLICATION_CBOR, BinaryContentConfig.cborMapper(builders.getObject()));
+        mappers.put(SMILE, BinaryContentConfig.smileMapper(builders.getObject()));
+    }
+
+    <T> ResponseEntity<StreamingResponseBody> write(NativeWebRequest request, Class<T> type,
+                                                    Consumer<Consumer<T>> source) {
+        MediaType mediaType = negotiate(request);
+        if (mediaType == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        ObjectMapper mapper = mappers.get(mediaType);
+        ObjectWriter writer = mapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        Deadline deadline = Deadline.current();
+        Span parent = Span.current();
+        StreamingResponseBody body = outputStream -> {
+            long[] elements = {0};
+            Span span;
+            try (Span.Scope ignored = Span.bind(parent)) {
+                span = tracer.startSpan("serialize " + type.getSimpleName(), SpanKind.INTERNAL);
+            }
+            try (Deadline.Scope ignoredDeadline = Deadline.bind(deadline);
+                 Span.Scope ignoredSpan = Span.bind(span != null ? span : parent);
+                 JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                source.accept(element -> {
+                    Deadline.checkCurrent();
+                    try {
+                        writer.writeValue(generator, element);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    elements[0]++;
+                    if (deadline != null) {
+                        // closing the outer scope unbinds the renewed deadline as well
+                        Deadline.bind(deadline.renew());
+                    }
+                });
+                generator.writeEndArray();
+            } catch (IOException | RuntimeException e) {
+                if (span != null) {
+                    span.recordError(e);
+                }
+                throw e;
+            } finally {
+                if (span != null) {
+                    span.setAttribute("content.type", mediaType.toString());
+                    span.setAttribute("elements", elements[0]);
+                    span.end();
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(mediaType).body(body);
+    }
+
+    private MediaType negotiate(NativeWebRequest request) {
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(contentNegotiationManager.resolveMediaTypes(request));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return null;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        // stable, so types of the same quality stay ordered by specificity
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType acceptedType : accepted) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType producible : mappers.keySet()) {
+                if (acceptedType.isCompatibleWith(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.moviecatalog.controller;
+
+import com.moviecatalog.dto.SyncPageDTO;
+import com.moviecatalog.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<SyncPageDTO> sync(@RequestParam(required = false) String since,
+                                            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(syncService.sync(since, limit));
+    }
+}
@@ -0,0 +1,108 @@
+package com.moviecatalog.deadline;
+
+import com.moviecatalog.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Time budget of one request. Bound to the threads working on the request; JDBC statements
+ * created while it is bound get the remaining budget as query timeout, and long loops call
+ * {@link #checkCurrent()} to stop early once it is spent.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final Duration budget;
+    private final long expiresAt;
+    private final Runnable onExceeded;
+    private final AtomicBoolean exceeded = new AtomicBoolean();
+
+    /**
+     * @param onExceeded called once, when the request first runs out of time
+     */
+    public Deadline(Duration budget, Runnable onExceeded) {
+        this.budget = budget;
+        this.expiresAt = System.nanoTime() + budget.toNanos();
+        this.onExceeded = onExceeded;
+    }
+
+    /**
+     * @return the deadline bound to this thread, {@code null} outside of a request
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static void checkCurrent() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check();
+        }
+    }
+
+    /**
+     * Records a timeout reported by the database for the request of this thread.
+     */
+    public static void markCurrentExceeded() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.markExceeded();
+        }
+    }
+
+    /**
+     * Binds the deadline to this thread until the returned scope is closed; {@code null} binds none.
+     */
+    public static Scope bind(Deadline deadline) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * @return a deadline with the same budget starting now, reporting to the same callback
+     */
+    public Deadline renew() {
+        return new Deadline(budget, onExceeded);
+    }
+
+    public long remainingNanos() {
+        return expiresAt - System.nanoTime();
+    }
+
+    public void check() {
+        if (remainingNanos() <= 0) {
+            markExceeded();
+            throw new DeadlineExceededException("Время обработки запроса истекло");
+        }
+    }
+
+    /**
+     * @return remaining budget rounded up to whole seconds, the resolution of JDBC query timeouts
+     */
+    public int queryTimeoutSeconds() {
+        long seconds = (remainingNanos() + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        return (int) Math.max(1, Math.min(seconds, Integer.MAX_VALUE));
+    }
+
+    private void markExceeded() {
+        if (exceeded.compareAndSet(false, true)) {
+            onExceeded.run();
+        }
+    }
+
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,78 @@
+package com.moviecatalog.deadline;
+
+import com.moviecatalog.jdbc.DelegatingConnection;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Applies the {@link Deadline} of the current request to JDBC: no connection is taken and no
+ * statement is created once it is spent, and every statement gets the remaining budget as query
+ * timeout unless a shorter one is set. Hibernate and {@code JdbcTemplate} both create their
+ * statements here, so this covers transactional and plain queries alike.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    public DeadlineDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Deadline.checkCurrent();
+        return new DeadlineConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Deadline.checkCurrent();
+        return new DeadlineConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static final class DeadlineConnection extends DelegatingConnection {
+
+        DeadlineConnection(Connection target) {
+            super(target);
+        }
+
+        @Override
+        protected void beforeStatement() {
+            Deadline.checkCurrent();
+        }
+
+        @Override
+        protected Statement wrapStatement(Statement statement) throws SQLException {
+            applyTimeout(statement);
+            return statement;
+        }
+
+        @Override
+        protected PreparedStatement wrapPreparedStatement(PreparedStatement statement, String sql) throws SQLException {
+            applyTimeout(statement);
+            return statement;
+        }
+
+        @Override
+        protected CallableStatement wrapCallableStatement(CallableStatement statement, String sql) throws SQLException {
+            applyTimeout(statement);
+            return statement;
+        }
+
+        private static void applyTimeout(Statement statement) throws SQLException {
+            Deadline deadline = Deadline.current();
+            if (deadline == null) {
+                return;
+            }
+            int timeout = deadline.queryTimeoutSeconds();
+            int current = statement.getQueryTimeout();
+            if (current == 0 || current > timeout) {
+                statement.setQueryTimeout(timeout);
+            }
+        }
+    }
+}
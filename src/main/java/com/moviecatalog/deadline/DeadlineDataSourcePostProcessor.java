@@ -0,0 +1,20 @@
+package com.moviecatalog.deadline;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+@ConditionalOnProperty(name = "app.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof DeadlineDataSource)) {
+            return new DeadlineDataSource(dataSource);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,106 @@
+package com.moviecatalog.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Gives every API request a {@link Deadline}: the budget of the first matching
+ * {@code app.deadline.budgets} rule or {@code app.deadline.default-budget}. A budget requested in
+ * the {@code app.deadline.header} header can only shorten it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_ENDPOINT = "default";
+
+    private final DeadlineProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<BudgetRule> budgetRules;
+
+    public DeadlineFilter(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.budgetRules = parseBudgetRules(properties.getBudgets());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        BudgetRule rule = matchRule(request);
+        String endpoint = rule != null ? rule.name() : DEFAULT_ENDPOINT;
+        Duration budget = rule != null ? rule.budget() : properties.getDefaultBudget();
+        Duration requested = requestedBudget(request);
+        if (requested != null && requested.compareTo(budget) < 0) {
+            budget = requested;
+        }
+        Deadline deadline = new Deadline(budget, () -> Counter.builder("deadline.exceeded")
+                .description("Requests that ran out of their time budget")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment());
+        try (Deadline.Scope ignored = Deadline.bind(deadline)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private Duration requestedBudget(HttpServletRequest request) {
+        String value = request.getHeader(properties.getHeader());
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Duration requested;
+        try {
+            requested = DurationStyle.detectAndParse(value.trim(), ChronoUnit.MILLIS);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return requested.isNegative() || requested.isZero() ? null : requested;
+    }
+
+    private BudgetRule matchRule(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (BudgetRule rule : budgetRules) {
+            if (rule.method().equalsIgnoreCase(request.getMethod()) && rule.pattern().matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static List<BudgetRule> parseBudgetRules(List<DeadlineProperties.Budget> budgets) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        return budgets.stream()
+                .map(budget -> new BudgetRule(budget.getMethod() + " " + budget.getPath(), budget.getMethod(),
+                        parser.parse(budget.getPath()), budget.getBudget()))
+                .toList();
+    }
+
+    private record BudgetRule(String name, String method, PathPattern pattern, Duration budget) {
+    }
+}
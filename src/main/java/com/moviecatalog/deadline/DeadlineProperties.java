@@ -0,0 +1,38 @@
+package com.moviecatalog.deadline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Budget of requests matching no rule.
+     */
+    private Duration defaultBudget = Duration.ofSeconds(10);
+
+    /**
+     * Request header shortening the budget, in milliseconds or as a duration such as {@code 2s}.
+     */
+    private String header = "X-Request-Timeout";
+
+    /**
+     * Per-endpoint budgets; the first matching rule wins.
+     */
+    private List<Budget> budgets = new ArrayList<>();
+
+    @Data
+    public static class Budget {
+
+        private String method = "GET";
+        private String path;
+        private Duration budget;
+    }
+}
@@ -0,0 +1,233 @@
+package com.moviecatalog.dedup;
+
+import com.moviecatalog.dto.DuplicateCandidateDTO;
+import com.moviecatalog.dto.MovieDTO;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.EntityChange.Operation;
+import com.moviecatalog.events.RemoteInvalidation;
+import com.moviecatalog.exception.DuplicateMovieException;
+import com.moviecatalog.repository.CatalogSnapshotRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a {@link DuplicateIndex} of all movies and checks new movies against it. The index is
+ * loaded on startup and follows committed movie changes of this and, through the invalidation
+ * bus, other instances.
+ * <p>
+ * Changes and reloads are applied one at a time on an own worker thread, so neither the committing
+ * thread nor the invalidation listener waits for a database read. A movie is queued at most once
+ * until its refresh starts.
+ */
+@Service
+public class DuplicateDetectionService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateDetectionService.class);
+
+    private final CatalogSnapshotRepository catalogSnapshotRepository;
+    private final DuplicateProperties properties;
+    private final Set<Long> queuedMovies = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "duplicate-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile DuplicateIndex index;
+    private volatile boolean running;
+
+    public DuplicateDetectionService(CatalogSnapshotRepository catalogSnapshotRepository,
+                                     DuplicateProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.catalogSnapshotRepository = catalogSnapshotRepository;
+        this.properties = properties;
+        Gauge.builder("movies.duplicates.indexed", this, service -> {
+                    DuplicateIndex current = service.index;
+                    return current != null ? current.size() : 0;
+                })
+                .description("Movies in the near-duplicate index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the loaded index, {@code null} when detection is disabled or not started yet
+     */
+    public DuplicateIndex index() {
+        return index;
+    }
+
+    /**
+     * @return existing movies that are probably the given one, best first
+     */
+    public List<DuplicateCandidateDTO> findDuplicates(MovieDTO movieDTO) {
+        DuplicateIndex current = index;
+        if (current == null) {
+            return List.of();
+        }
+        return current.find(movieDTO.getTitle(), movieDTO.getReleaseDate(), movieDTO.getDirectorId(),
+                        properties.getMaxCandidates()).stream()
+                .map(DuplicateDetectionService::toDTO)
+                .toList();
+    }
+
+    public List<List<DuplicateCandidateDTO>> findDuplicates(List<MovieDTO> movieDTOs) {
+        return movieDTOs.stream().map(this::findDuplicates).toList();
+    }
+
+    public void checkNotDuplicate(MovieDTO movieDTO) {
+        List<DuplicateCandidateDTO> candidates = findDuplicates(movieDTO);
+        if (!candidates.isEmpty()) {
+            throw new DuplicateMovieException("Похожий фильм уже есть в каталоге: " + candidates.get(0).getTitle(),
+                    candidates);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onChange(EntityChange change) {
+        if (running && change.entity() == EntityType.MOVIE) {
+            apply(new long[]{change.entityId()}, change.operation() == Operation.DELETED);
+        }
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(RemoteInvalidation invalidation) {
+        if (!running) {
+            return;
+        }
+        if (invalidation.isEverything()) {
+            reloadInBackground();
+        } else if (invalidation.entity() == EntityType.MOVIE) {
+            apply(invalidation.entityIds(), invalidation.deleted());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        CompletableFuture.runAsync(this::reload, worker).join();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @PreDestroy
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void apply(long[] movieIds, boolean deleted) {
+        if (deleted) {
+            submit(() -> {
+                DuplicateIndex current = index;
+                if (current != null) {
+                    for (long movieId : movieIds) {
+                        current.remove(movieId);
+                    }
+                }
+            });
+            return;
+        }
+        boolean queued = false;
+        for (long movieId : movieIds) {
+            queued |= queuedMovies.add(movieId);
+        }
+        if (queued) {
+            submit(this::refreshQueued);
+        }
+    }
+
+    private void submit(Runnable task) {
+        worker.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.warn("Near-duplicate index update failed", e);
+            }
+        });
+    }
+
+    private void reloadInBackground() {
+        if (reloading.compareAndSet(false, true)) {
+            submit(() -> {
+                try {
+                    reload();
+                } finally {
+                    reloading.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reads the queued movies again and updates their rows; a movie that is gone is removed. Runs
+     * on the worker, like {@link #reload()}, so no change is lost while the index is replaced.
+     */
+    private void refreshQueued() {
+        List<Long> movieIds = new ArrayList<>();
+        for (Iterator<Long> queued = queuedMovies.iterator(); queued.hasNext(); ) {
+            movieIds.add(queued.next());
+            queued.remove();
+        }
+        DuplicateIndex current = index;
+        if (current == null || movieIds.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(movieIds);
+        catalogSnapshotRepository.findMovies(movieIds, row -> {
+            missing.remove(row.id());
+            current.put(row.id(), row.title(), row.releaseDate(), row.directorId());
+        });
+        missing.forEach(current::remove);
+    }
+
+    private void reload() {
+        long start = System.nanoTime();
+        DuplicateIndex loaded = new DuplicateIndex(properties.getThreshold(), properties.getDirectorWeight(),
+                properties.getYearTolerance());
+        catalogSnapshotRepository.findMovies(null,
+                row -> loaded.put(row.id(), row.title(), row.releaseDate(), row.directorId()));
+        index = loaded;
+        logger.info("Loaded near-duplicate index of {} movies in {} ms", loaded.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static DuplicateCandidateDTO toDTO(DuplicateIndex.Match match) {
+        return new DuplicateCandidateDTO(match.movieId(), match.title(), match.releaseYear(), match.directorId(),
+                Math.round(match.score() * 1000) / 1000.0);
+    }
+}
@@ -0,0 +1,254 @@
+package com.moviecatalog.dedup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index of movie titles for near-duplicate lookups. Posting lists are keyed by
+ * release year and trigram, so a lookup only reads the years within {@code yearTolerance} and
+ * only the rarest trigrams a candidate above the threshold must share (prefix filtering);
+ * candidates are then scored exactly.
+ * <p>
+ * The score is the Jaccard similarity of the title trigrams weighted by
+ * {@code 1 - directorWeight}, plus {@code directorWeight} for the same director. Movies without a
+ * release date are only compared with each other.
+ */
+public final class DuplicateIndex {
+
+    private static final int UNKNOWN_YEAR = 0;
+
+    private final double threshold;
+    private final double directorWeight;
+    private final double minTitleSimilarity;
+    private final int yearTolerance;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rowsByMovie = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private long[] movieIds = new long[16];
+    private long[][] grams = new long[16][];
+    private int[] years = new int[16];
+    private long[] directorIds = new long[16];
+    private String[] titles = new String[16];
+    private int rowCount;
+    private int[] freeRows = new int[16];
+    private int freeCount;
+
+    public DuplicateIndex(double threshold, double directorWeight, int yearTolerance) {
+        this.threshold = threshold;
+        this.directorWeight = directorWeight;
+        this.yearTolerance = yearTolerance;
+        // the title similarity a movie of the same director needs to reach the threshold
+        this.minTitleSimilarity = Math.max(0, (threshold - directorWeight) / (1 - directorWeight));
+    }
+
+    public void put(long movieId, String title, LocalDate releaseDate, long directorId) {
+        long[] titleGrams = TitleTrigrams.of(title);
+        int year = yearOf(releaseDate);
+        lock.writeLock().lock();
+        try {
+            removeLocked(movieId);
+            int row = allocateRow();
+            movieIds[row] = movieId;
+            grams[row] = titleGrams;
+            years[row] = year;
+            directorIds[row] = directorId;
+            titles[row] = title;
+            rowsByMovie.put(movieId, row);
+            for (long gram : titleGrams) {
+                postings.computeIfAbsent(key(year, gram), k -> new Postings()).add(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long movieId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(movieId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return indexed movies scoring at least the threshold against the given title, best first
+     */
+    public List<Match> find(String title, LocalDate releaseDate, Long directorId, int limit) {
+        long[] titleGrams = TitleTrigrams.of(title);
+        lock.readLock().lock();
+        try {
+            return findLocked(titleGrams, yearOf(releaseDate), directorId, null, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return other indexed movies scoring at least the threshold against an indexed movie, best first
+     */
+    public List<Match> findSimilar(long movieId, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer row = rowsByMovie.get(movieId);
+            if (row == null) {
+                return List.of();
+            }
+            return findLocked(grams[row], years[row], directorIds[row], movieId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids of all indexed movies in ascending order
+     */
+    public long[] movieIds() {
+        lock.readLock().lock();
+        try {
+            long[] ids = rowsByMovie.keySet().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowsByMovie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Match> findLocked(long[] query, int year, Long directorId, Long excludedMovieId, int limit) {
+        if (query.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int fromYear = year == UNKNOWN_YEAR ? UNKNOWN_YEAR : Math.max(1, year - yearTolerance);
+        int toYear = year == UNKNOWN_YEAR ? UNKNOWN_YEAR : year + yearTolerance;
+        Postings[][] lists = new Postings[query.length][toYear - fromYear + 1];
+        int[] sizes = new int[query.length];
+        for (int g = 0; g < query.length; g++) {
+            for (int y = fromYear; y <= toYear; y++) {
+                Postings list = postings.get(key(y, query[g]));
+                lists[g][y - fromYear] = list;
+                sizes[g] += list != null ? list.size : 0;
+            }
+        }
+        Integer[] rarestFirst = new Integer[query.length];
+        for (int g = 0; g < query.length; g++) {
+            rarestFirst[g] = g;
+        }
+        Arrays.sort(rarestFirst, Comparator.comparingInt(g -> sizes[g]));
+        // a candidate sharing none of the rarest trigrams cannot reach the minimal similarity
+        int required = (int) Math.ceil(minTitleSimilarity * query.length - 1e-9);
+        int prefix = Math.min(query.length, query.length - required + 1);
+
+        Set<Integer> seen = new HashSet<>();
+        List<Match> matches = new ArrayList<>();
+        for (int k = 0; k < prefix; k++) {
+            for (Postings list : lists[rarestFirst[k]]) {
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    int row = list.rows[i];
+                    if (!seen.add(row) || (excludedMovieId != null && movieIds[row] == excludedMovieId)) {
+                        continue;
+                    }
+                    boolean sameDirector = directorId != null && directorIds[row] == directorId;
+                    double score = (1 - directorWeight) * TitleTrigrams.similarity(query, grams[row])
+                            + (sameDirector ? directorWeight : 0);
+                    if (score >= threshold) {
+                        matches.add(new Match(movieIds[row], titles[row],
+                                years[row] != UNKNOWN_YEAR ? years[row] : null, directorIds[row], score));
+                    }
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::score).reversed().thenComparingLong(Match::movieId));
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    private void removeLocked(long movieId) {
+        Integer row = rowsByMovie.remove(movieId);
+        if (row == null) {
+            return;
+        }
+        for (long gram : grams[row]) {
+            long key = key(years[row], gram);
+            Postings list = postings.get(key);
+            if (list != null && list.remove(row) && list.size == 0) {
+                postings.remove(key);
+            }
+        }
+        grams[row] = null;
+        titles[row] = null;
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+    }
+
+    private int allocateRow() {
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        if (rowCount == movieIds.length) {
+            int capacity = rowCount * 2;
+            movieIds = Arrays.copyOf(movieIds, capacity);
+            grams = Arrays.copyOf(grams, capacity);
+            years = Arrays.copyOf(years, capacity);
+            directorIds = Arrays.copyOf(directorIds, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+        }
+        return rowCount++;
+    }
+
+    private static int yearOf(LocalDate releaseDate) {
+        return releaseDate != null ? releaseDate.getYear() : UNKNOWN_YEAR;
+    }
+
+    private static long key(int year, long gram) {
+        return ((long) year << 48) | gram;
+    }
+
+    public record Match(long movieId, String title, Integer releaseYear, long directorId, double score) {
+    }
+
+    private static final class Postings {
+
+        private int[] rows = new int[4];
+        private int size;
+
+        private void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        private boolean remove(int row) {
+            for (int i = 0; i < size; i++) {
+                if (rows[i] == row) {
+                    rows[i] = rows[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
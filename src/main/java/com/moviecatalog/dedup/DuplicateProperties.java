@@ -0,0 +1,45 @@
+package com.moviecatalog.dedup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.duplicates")
+public class DuplicateProperties {
+
+    /**
+     * When enabled, movies are indexed for near-duplicate checks; a new movie is rejected for a
+     * similar existing one only when the client asks for it.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Minimal score of a duplicate, from 0 to 1.
+     */
+    private double threshold = 0.7;
+
+    /**
+     * Part of the score given by the same director; the rest is the title similarity.
+     */
+    private double directorWeight = 0.2;
+
+    /**
+     * Movies whose release years differ by more are never duplicates.
+     */
+    private int yearTolerance = 1;
+
+    /**
+     * Candidates returned per checked movie.
+     */
+    private int maxCandidates = 5;
+
+    /**
+     * Threads of the clustering job; {@code 0} means one per CPU.
+     */
+    private int parallelism = 0;
+
+    /**
+     * Largest clusters kept in the result of the clustering job.
+     */
+    private int maxClusters = 1000;
+}
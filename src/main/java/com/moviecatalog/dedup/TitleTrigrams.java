@@ -0,0 +1,86 @@
+package com.moviecatalog.dedup;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Trigrams of normalized titles, compatible in spirit with {@code pg_trgm}: every word is padded
+ * with two spaces in front and one behind. A trigram is packed into a {@code long} of three
+ * 16-bit chars, a title into a sorted array without repeats.
+ */
+final class TitleTrigrams {
+
+    private static final Pattern YEAR_IN_PARENTHESES = Pattern.compile("[(\\[]\\s*\\d{4}\\s*[)\\]]");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    static final long[] EMPTY = new long[0];
+
+    private TitleTrigrams() {
+    }
+
+    /**
+     * Lower case, {@code ё} as {@code е}, without a year in parentheses and with punctuation as
+     * single spaces: {@code "Брат-2 (2000)"} becomes {@code "брат 2"}.
+     */
+    static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String lower = title.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        String withoutYear = YEAR_IN_PARENTHESES.matcher(lower).replaceAll(" ");
+        return NON_ALPHANUMERIC.matcher(withoutYear).replaceAll(" ").strip();
+    }
+
+    static long[] of(String title) {
+        String normalized = normalize(title);
+        if (normalized.isEmpty()) {
+            return EMPTY;
+        }
+        long[] grams = new long[normalized.length() * 3 + 3];
+        int count = 0;
+        for (String word : normalized.split(" ")) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams[count++] = pack(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2));
+            }
+        }
+        long[] sorted = Arrays.copyOf(grams, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    /**
+     * Jaccard similarity of two sorted trigram sets.
+     */
+    static double similarity(long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    private static long pack(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+}
@@ -0,0 +1,22 @@
+package com.moviecatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorReviewsDTO {
+
+    private AuthorStatsDTO stats;
+
+    private List<ReviewDTO> items;
+
+    /**
+     * Cursor of the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+}
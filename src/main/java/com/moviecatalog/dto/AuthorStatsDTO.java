@@ -0,0 +1,26 @@
+package com.moviecatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorStatsDTO {
+
+    /**
+     * Spelling of the author's latest review; authors are matched case-insensitively.
+     */
+    private String authorName;
+
+    private Long reviewCount;
+
+    private Double meanRating;
+
+    private LocalDateTime firstReviewAt;
+
+    private LocalDateTime lastReviewAt;
+}
@@ -0,0 +1,20 @@
+package com.moviecatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> items;
+
+    /**
+     * Cursor of the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+}
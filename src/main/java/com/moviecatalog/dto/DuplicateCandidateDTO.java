@@ -0,0 +1,24 @@
+package com.moviecatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateCandidateDTO {
+
+    private Long movieId;
+
+    private String title;
+
+    private Integer releaseYear;
+
+    private Long directorId;
+
+    /**
+     * Title trigram similarity with a bonus for the same director, from 0 to 1.
+     */
+    private Double score;
+}
@@ -0,0 +1,25 @@
+package com.moviecatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryDTO {
+
+    private Long movieId;
+
+    private Long reviewCount;
+
+    private Double mean;
+
+    private Double median;
+
+    private Double bayesianScore;
+
+    private Map<Integer, Long> distribution;
+}
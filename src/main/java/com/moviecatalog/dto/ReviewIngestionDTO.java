@@ -0,0 +1,25 @@
+package com.moviecatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewIngestionDTO {
+
+    public enum Status {
+        QUEUED,
+        STORED,
+        REJECTED
+    }
+
+    private String trackingId;
+
+    private Status status;
+
+    private Long reviewId;
+
+    private String message;
+}
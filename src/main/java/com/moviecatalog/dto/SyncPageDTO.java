@@ -0,0 +1,31 @@
+package com.moviecatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncPageDTO {
+
+    private List<MovieDTO> movies;
+
+    private List<DirectorDTO> directors;
+
+    private List<GenreDTO> genres;
+
+    private List<ReviewDTO> reviews;
+
+    private List<TombstoneDTO> deleted;
+
+    /**
+     * Token for the next request: the next page while {@code hasMore}, otherwise the starting
+     * point of the next sync.
+     */
+    private String nextToken;
+
+    private boolean hasMore;
+}
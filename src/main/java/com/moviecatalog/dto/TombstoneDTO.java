@@ -0,0 +1,16 @@
+package com.moviecatalog.dto;
+
+import com.moviecatalog.events.EntityChange.EntityType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TombstoneDTO {
+
+    private EntityType entity;
+
+    private Long id;
+}
@@ -0,0 +1,19 @@
+package com.moviecatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopRatedMovieDTO {
+
+    private Long movieId;
+
+    private Long reviewCount;
+
+    private Double averageRating;
+
+    private Double bayesianScore;
+}
@@ -0,0 +1,18 @@
+package com.moviecatalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingMovieDTO {
+
+    private Long movieId;
+
+    /**
+     * Sum of review ratings divided by 10, each halved per half-life of its age.
+     */
+    private Double score;
+}
@@ -0,0 +1,11 @@
+package com.moviecatalog.events;
+
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.EntityChange.Operation;
+
+/**
+ * Committed change as sent to feed subscribers. {@code version} increases with every committed
+ * change and doubles as the SSE event id.
+ */
+public record ChangeEvent(long version, EntityType entity, long entityId, Operation operation) {
+}
@@ -0,0 +1,44 @@
+package com.moviecatalog.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fixed-size ring of the latest change events, used to replay what a reconnecting client missed.
+ */
+class ChangeEventBuffer {
+
+    private final ChangeEvent[] events;
+    private long nextVersion = 1;
+
+    ChangeEventBuffer(int capacity) {
+        this.events = new ChangeEvent[capacity];
+    }
+
+    synchronized ChangeEvent append(EntityChange change) {
+        ChangeEvent event = new ChangeEvent(nextVersion, change.entity(), change.entityId(), change.operation());
+        events[(int) (nextVersion % events.length)] = event;
+        nextVersion++;
+        return event;
+    }
+
+    /**
+     * @return events newer than {@code lastVersion}, or empty if some of them were already overwritten
+     */
+    synchronized Optional<List<ChangeEvent>> since(long lastVersion) {
+        long oldest = Math.max(1, nextVersion - events.length);
+        if (lastVersion < oldest - 1 || lastVersion >= nextVersion) {
+            return Optional.empty();
+        }
+        List<ChangeEvent> missed = new ArrayList<>((int) (nextVersion - lastVersion - 1));
+        for (long version = lastVersion + 1; version < nextVersion; version++) {
+            missed.add(events[(int) (version % events.length)]);
+        }
+        return Optional.of(missed);
+    }
+
+    synchronized long lastVersion() {
+        return nextVersion - 1;
+    }
+}
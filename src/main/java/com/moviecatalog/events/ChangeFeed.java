@@ -0,0 +1,234 @@
+package com.moviecatalog.events;
+
+import com.moviecatalog.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-Sent Events feed of committed entity changes. Events are numbered after commit and put
+ * into a bounded queue of every subscriber in commit order; each subscriber's queue is drained by
+ * one sender thread at a time, so writers never wait for clients and a slow client holds up only
+ * itself. A subscriber whose queue overflows gets a {@code reset} instead of the events it could
+ * not keep up with, and is dropped if it overflows again before taking the reset. Event ids are
+ * {@code <epoch>-<version>}, where the epoch changes with every start, so a client reconnecting
+ * after a restart is told to reload instead of being replayed unrelated events.
+ */
+@Service
+public class ChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private static final Object RESET = new Object();
+    private static final Object PING = new Object();
+
+    private final ChangeFeedProperties properties;
+    private final ChangeEventBuffer buffer;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter resets;
+    private final Counter drops;
+
+    public ChangeFeed(ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buffer = new ChangeEventBuffer(properties.getBufferSize());
+        Gauge.builder("events.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(meterRegistry);
+        this.resets = Counter.builder("events.subscribers.lagging")
+                .description("Subscribers that fell behind the change feed")
+                .tag("outcome", "reset")
+                .register(meterRegistry);
+        this.drops = Counter.builder("events.subscribers.lagging")
+                .description("Subscribers that fell behind the change feed")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onChange(EntityChange change) {
+        synchronized (buffer) {
+            ChangeEvent event = buffer.append(change);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new ServiceOverloadedException("Слишком много подписчиков на события, повторите позже", 5);
+        }
+        SseEmitter emitter = new SseEmitter(properties.getSubscriptionTimeout().toMillis());
+        subscribe(lastEventId, emitter);
+        return emitter;
+    }
+
+    void subscribe(String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        synchronized (buffer) {
+            Optional<List<ChangeEvent>> missed = lastEventId == null
+                    ? Optional.of(List.of())
+                    : parseVersion(lastEventId).flatMap(buffer::since);
+            if (missed.isPresent()) {
+                missed.get().forEach(subscriber::offer);
+            } else {
+                subscriber.offer(RESET);
+            }
+            subscribers.add(subscriber);
+        }
+    }
+
+    /**
+     * Only queues a comment for every subscriber, the senders write it.
+     */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(PING);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.close();
+    }
+
+    private void drop(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.emitter.complete();
+        logger.debug("Dropped change feed subscriber");
+    }
+
+    private SseEmitter.SseEventBuilder toEvent(Object item) {
+        if (item == RESET) {
+            return SseEmitter.event().name("reset").data("");
+        }
+        if (item == PING) {
+            return SseEmitter.event().comment("ping");
+        }
+        ChangeEvent event = (ChangeEvent) item;
+        return SseEmitter.event()
+                .id(epoch + "-" + event.version())
+                .name("change")
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private Optional<Long> parseVersion(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(lastEventId.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<Object> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean resetQueued;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Object item) {
+            boolean stalled = false;
+            boolean startDrain;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() < properties.getSubscriberQueueSize()) {
+                    queue.add(item);
+                    resetQueued |= item == RESET;
+                } else if (!resetQueued) {
+                    // the client reloads everything instead of receiving what it could not keep up with
+                    queue.clear();
+                    queue.add(RESET);
+                    resetQueued = true;
+                    resets.increment();
+                } else {
+                    stalled = true;
+                }
+                startDrain = !stalled && !draining;
+                draining |= startDrain;
+            }
+            if (stalled) {
+                // completing waits for a send in progress, which may be the one that is stuck
+                remove(this);
+                drops.increment();
+                senders.execute(() -> drop(this));
+            } else if (startDrain) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Object item;
+                synchronized (this) {
+                    item = closed ? null : queue.poll();
+                    if (item == null) {
+                        draining = false;
+                        return;
+                    }
+                    if (item == RESET) {
+                        resetQueued = false;
+                    }
+                }
+                try {
+                    emitter.send(toEvent(item));
+                } catch (IOException | IllegalStateException e) {
+                    drop(this);
+                    return;
+                }
+            }
+        }
+
+        private synchronized void close() {
+            closed = true;
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.moviecatalog.events;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.events")
+public class ChangeFeedProperties {
+
+    /**
+     * Number of latest events kept for Last-Event-ID replay.
+     */
+    private int bufferSize = 4096;
+
+    private int maxSubscribers = 1000;
+
+    /**
+     * Events waiting to be sent to one subscriber; a subscriber falling further behind gets a
+     * {@code reset} instead, and is dropped if it falls behind again before taking it.
+     */
+    private int subscriberQueueSize = 256;
+
+    /**
+     * Connection lifetime; EventSource reconnects transparently and resumes from the last event.
+     */
+    private Duration subscriptionTimeout = Duration.ofMinutes(30);
+
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
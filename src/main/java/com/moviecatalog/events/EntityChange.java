@@ -0,0 +1,28 @@
+package com.moviecatalog.events;
+
+/**
+ * Published by the services inside the writing transaction; becomes a {@link ChangeEvent} of the
+ * change feed once the transaction commits.
+ */
+public record EntityChange(EntityType entity, long entityId, Operation operation) {
+
+    public enum EntityType {
+        MOVIE, DIRECTOR, GENRE, REVIEW
+    }
+
+    public enum Operation {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static EntityChange created(EntityType entity, long entityId) {
+        return new EntityChange(entity, entityId, Operation.CREATED);
+    }
+
+    public static EntityChange updated(EntityType entity, long entityId) {
+        return new EntityChange(entity, entityId, Operation.UPDATED);
+    }
+
+    public static EntityChange deleted(EntityType entity, long entityId) {
+        return new EntityChange(entity, entityId, Operation.DELETED);
+    }
+}
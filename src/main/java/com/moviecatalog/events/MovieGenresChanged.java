@@ -0,0 +1,6 @@
+package com.moviecatalog.events;
+
+import java.util.Set;
+
+public record MovieGenresChanged(long movieId, Set<Long> genreIds) {
+}
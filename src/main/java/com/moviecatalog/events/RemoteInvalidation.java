@@ -0,0 +1,19 @@
+package com.moviecatalog.events;
+
+import com.moviecatalog.events.EntityChange.EntityType;
+
+/**
+ * Published locally when another instance committed changes to the given entities; caches drop or
+ * reload them. With {@code entity == null} anything may have changed (messages were lost) and
+ * every local cache has to be flushed.
+ */
+public record RemoteInvalidation(EntityType entity, boolean deleted, long[] entityIds) {
+
+    public static RemoteInvalidation everything() {
+        return new RemoteInvalidation(null, false, new long[0]);
+    }
+
+    public boolean isEverything() {
+        return entity == null;
+    }
+}
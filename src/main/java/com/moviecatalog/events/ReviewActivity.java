@@ -0,0 +1,10 @@
+package com.moviecatalog.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rating contribution of a review to its movie: {@code ratingDelta} is the rating for a new
+ * review, its negation for a removed one.
+ */
+public record ReviewActivity(long movieId, LocalDateTime createdAt, int ratingDelta) {
+}
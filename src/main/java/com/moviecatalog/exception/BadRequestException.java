@@ -0,0 +1,8 @@
+package com.moviecatalog.exception;
+
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
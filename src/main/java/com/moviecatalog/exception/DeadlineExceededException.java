@@ -0,0 +1,8 @@
+package com.moviecatalog.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.moviecatalog.exception;
+
+import com.moviecatalog.dto.DuplicateCandidateDTO;
+
+import java.util.List;
+
+public class DuplicateMovieException extends RuntimeException {
+
+    private final List<DuplicateCandidateDTO> candidates;
+
+    public DuplicateMovieException(String message, List<DuplicateCandidateDTO> candidates) {
+        super(message);
+        this.candidates = candidates;
+    }
+
+    public List<DuplicateCandidateDTO> getCandidates() {
+        return candidates;
+    }
+}
@@ -1,5 +1,6 @@
 package com.moviecatalog.exception;
 
+import com.moviecatalog.tracing.Tracing;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,5 +15,13 @@ public class ErrorResponse {
     private int status;
     private String message;
     private LocalDateTime timestamp;
-}
 
+    /**
+     * Trace of the failed request, to find its spans; {@code null} outside of a trace.
+     */
+    private String traceId;
+
+    public ErrorResponse(int status, String message, LocalDateTime timestamp) {
+        this(status, message, timestamp, Tracing.currentTraceId());
+    }
+}
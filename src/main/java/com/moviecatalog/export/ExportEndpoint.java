@@ -0,0 +1,19 @@
+package com.moviecatalog.export;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "exports")
+@RequiredArgsConstructor
+public class ExportEndpoint {
+
+    private final ExportSnapshotJob exportSnapshotJob;
+
+    @WriteOperation
+    public ExportManifest export() {
+        return exportSnapshotJob.run();
+    }
+}
@@ -0,0 +1,89 @@
+package com.moviecatalog.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviecatalog.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The published export snapshot. {@code manifest.json} is replaced atomically after the files of a
+ * new snapshot are in place, so readers always see a complete snapshot.
+ */
+@Component
+public class ExportFiles {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportFiles.class);
+
+    static final String MANIFEST = "manifest.json";
+
+    private final ExportProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private volatile ExportManifest manifest;
+
+    public ExportFiles(ExportProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the manifest of the published snapshot, {@code null} when nothing was exported yet
+     */
+    public ExportManifest current() {
+        ExportManifest current = manifest;
+        if (current == null) {
+            current = readManifest();
+        }
+        return current;
+    }
+
+    public Download find(String name) {
+        ExportManifest current = current();
+        if (current == null) {
+            throw new ResourceNotFoundException("Выгрузки каталога еще не созданы");
+        }
+        return current.files().stream()
+                .filter(file -> file.name().equals(name))
+                .findFirst()
+                .map(file -> new Download(properties.getDirectory().resolve(current.snapshot()).resolve(name), file))
+                .filter(download -> Files.isReadable(download.path()))
+                .orElseThrow(() -> new ResourceNotFoundException("Файл выгрузки " + name + " не найден"));
+    }
+
+    void publish(ExportManifest published) throws IOException {
+        Path target = properties.getDirectory().resolve(MANIFEST);
+        Path temp = Files.createTempFile(properties.getDirectory(), MANIFEST, ".tmp");
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), published);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        manifest = published;
+    }
+
+    private synchronized ExportManifest readManifest() {
+        if (manifest != null) {
+            return manifest;
+        }
+        Path file = properties.getDirectory().resolve(MANIFEST);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            manifest = objectMapper.readValue(file.toFile(), ExportManifest.class);
+        } catch (IOException e) {
+            logger.warn("Cannot read export manifest {}: {}", file, e.getMessage());
+        }
+        return manifest;
+    }
+
+    public record Download(Path path, ExportManifest.ExportFile file) {
+    }
+}
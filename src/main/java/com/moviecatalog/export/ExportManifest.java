@@ -0,0 +1,14 @@
+package com.moviecatalog.export;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Describes the published export snapshot: the files of {@code snapshot} under the export
+ * directory with their record counts, sizes and SHA-256 of the compressed bytes.
+ */
+public record ExportManifest(String snapshot, Instant createdAt, List<ExportFile> files) {
+
+    public record ExportFile(String name, String entity, long records, long bytes, String sha256) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.moviecatalog.export;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Data
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    /**
+     * When enabled, export snapshots are written on {@code app.export.cron}; they can always be
+     * written on demand through the {@code exports} actuator endpoint.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding {@code manifest.json} and one subdirectory per snapshot.
+     */
+    private Path directory = Path.of("data/exports");
+
+    /**
+     * Snapshots kept on disk, so downloads of the previous one can finish after a new one is published.
+     */
+    private int retainSnapshots = 2;
+}
@@ -0,0 +1,236 @@
+package com.moviecatalog.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.moviecatalog.dto.DirectorDTO;
+import com.moviecatalog.dto.GenreDTO;
+import com.moviecatalog.dto.MovieDTO;
+import com.moviecatalog.dto.ReviewDTO;
+import com.moviecatalog.export.ExportManifest.ExportFile;
+import com.moviecatalog.service.DirectorService;
+import com.moviecatalog.service.GenreService;
+import com.moviecatalog.service.MovieService;
+import com.moviecatalog.service.ReviewService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the catalog and all reviews as gzip-compressed NDJSON, one file per entity, from a
+ * single repeatable-read transaction so the files are consistent with each other. The files are
+ * written to a staging directory that is renamed into place, then the manifest is replaced and
+ * snapshots beyond {@code app.export.retain-snapshots} are deleted. Scheduled exports run on an
+ * own thread, not on the shared scheduler.
+ */
+@Component
+public class ExportSnapshotJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportSnapshotJob.class);
+
+    private static final DateTimeFormatter SNAPSHOT_NAME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS'Z'").withZone(ZoneOffset.UTC);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MovieService movieService;
+    private final DirectorService directorService;
+    private final GenreService genreService;
+    private final ReviewService reviewService;
+    private final ExportFiles exportFiles;
+    private final ExportProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ExportSnapshotJob(MovieService movieService,
+                             DirectorService directorService,
+                             GenreService genreService,
+                             ReviewService reviewService,
+                             ExportFiles exportFiles,
+                             ExportProperties properties,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.movieService = movieService;
+        this.directorService = directorService;
+        this.genreService = genreService;
+        this.reviewService = reviewService;
+        this.exportFiles = exportFiles;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Scheduled(cron = "${app.export.cron:0 0 2 * * *}")
+    public void scheduledRun() {
+        if (properties.isEnabled() && running.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                try {
+                    export();
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Scheduled export failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    public ExportManifest run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Export is already running");
+        }
+        try {
+            return export();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    private ExportManifest export() throws IOException {
+        long start = System.nanoTime();
+        Instant createdAt = Instant.now();
+        String snapshot = SNAPSHOT_NAME.format(createdAt);
+        Path directory = properties.getDirectory();
+        Files.createDirectories(directory);
+        Path staging = Files.createTempDirectory(directory, ".staging-");
+        List<ExportFile> files;
+        try {
+            files = transactionTemplate.execute(tx -> {
+                List<ExportFile> written = new ArrayList<>();
+                written.add(write(staging, "genres", GenreDTO.class,
+                        consumer -> genreService.getAllGenres().forEach(consumer)));
+                written.add(write(staging, "directors", DirectorDTO.class,
+                        consumer -> directorService.getAllDirectors().forEach(consumer)));
+                written.add(write(staging, "movies", MovieDTO.class, movieService::streamAllMovies));
+                written.add(write(staging, "reviews", ReviewDTO.class, reviewService::streamAllReviews));
+                return written;
+            });
+            Files.move(staging, directory.resolve(snapshot), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(staging);
+            throw e;
+        }
+
+        ExportManifest manifest = new ExportManifest(snapshot, createdAt, files);
+        exportFiles.publish(manifest);
+        deleteOldSnapshots(directory, snapshot);
+        logger.info("Exported snapshot {} ({} records, {} bytes) in {} ms", snapshot,
+                files.stream().mapToLong(ExportFile::records).sum(),
+                files.stream().mapToLong(ExportFile::bytes).sum(),
+                (System.nanoTime() - start) / 1_000_000);
+        return manifest;
+    }
+
+    private <T> ExportFile write(Path directory, String entity, Class<T> type, Consumer<Consumer<T>> source) {
+        String name = entity + ".ndjson.gz";
+        Path file = directory.resolve(name);
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        MessageDigest digest = sha256();
+        long[] records = {0};
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(
+                new DigestOutputStream(Files.newOutputStream(file), digest), BUFFER_SIZE), BUFFER_SIZE);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            source.accept(element -> {
+                try {
+                    writer.writeValue(generator, element);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                records[0]++;
+            });
+            if (records[0] > 0) {
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + file, e);
+        }
+        try {
+            return new ExportFile(name, entity, records[0], Files.size(file), HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteOldSnapshots(Path directory, String current) {
+        List<Path> snapshots;
+        try (Stream<Path> children = Files.list(directory)) {
+            snapshots = children
+                    .filter(Files::isDirectory)
+                    .filter(path -> !path.getFileName().toString().startsWith("."))
+                    .sorted(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            logger.warn("Cannot list export directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        // open downloads of a deleted snapshot still finish, their file handles stay valid
+        snapshots.stream()
+                .skip(Math.max(1, properties.getRetainSnapshots()))
+                .filter(path -> !path.getFileName().toString().equals(current))
+                .forEach(ExportSnapshotJob::deleteRecursively);
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot delete {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.moviecatalog.invalidation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers messages synchronously to the subscribers of the same instance; lets several buses in
+ * one JVM act as separate nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "in-memory")
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(String payload) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.receiver().accept(payload);
+        }
+    }
+
+    @Override
+    public Subscription subscribe(Consumer<String> receiver, Runnable onGap) {
+        Subscriber subscriber = new Subscriber(receiver, onGap);
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    /**
+     * Reports a gap to every subscriber, as a real transport does after losing its connection.
+     */
+    public void reconnect() {
+        subscribers.forEach(subscriber -> subscriber.onGap().run());
+    }
+
+    private record Subscriber(Consumer<String> receiver, Runnable onGap) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.moviecatalog.invalidation;
+
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.EntityChange.Operation;
+import com.moviecatalog.events.RemoteInvalidation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broadcasts committed changes to the other instances and turns their broadcasts into
+ * {@link RemoteInvalidation} events. Changes are collected per entity type and sent every
+ * {@code app.invalidation.coalesce-interval-ms}, so a burst of writes becomes a few messages.
+ * Sending runs on an own thread, so a slow transport does not hold up the shared scheduler.
+ * <p>
+ * A message is {@code 1 <node> <sequence> <entity> <U|D> <id,id,...>}. Sequences are consecutive
+ * per node; a skipped sequence (a failed send) or a transport gap (a lost connection) flushes all
+ * local caches. Reviews are not broadcast, a review change also publishes its movie.
+ */
+@Service
+public class InvalidationBus implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private static final String FORMAT_VERSION = "1";
+
+    private final InvalidationTransport transport;
+    private final InvalidationProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String node = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+
+    private final Map<Key, Set<Long>> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastSequences = new ConcurrentHashMap<>();
+    private final Counter sent;
+    private final Counter received;
+    private final Counter gaps;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "invalidation-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long sequence;
+
+    private volatile InvalidationTransport.Subscription subscription;
+    private volatile boolean running;
+
+    public InvalidationBus(InvalidationTransport transport, InvalidationProperties properties,
+                           ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.sent = Counter.builder("invalidation.messages").tag("direction", "sent")
+                .description("Invalidation messages exchanged with other instances").register(meterRegistry);
+        this.received = Counter.builder("invalidation.messages").tag("direction", "received")
+                .description("Invalidation messages exchanged with other instances").register(meterRegistry);
+        this.gaps = Counter.builder("invalidation.gaps")
+                .description("Full cache flushes after lost invalidation messages").register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onChange(EntityChange change) {
+        if (!running || change.entity() == EntityType.REVIEW) {
+            return;
+        }
+        pending.computeIfAbsent(new Key(change.entity(), change.operation() == Operation.DELETED),
+                key -> ConcurrentHashMap.newKeySet()).add(change.entityId());
+    }
+
+    public synchronized void flush() {
+        if (!running) {
+            return;
+        }
+        pending.forEach((key, ids) -> {
+            long[] drained = drain(ids);
+            for (int from = 0; from < drained.length; from += properties.getMaxIdsPerMessage()) {
+                long[] chunk = Arrays.copyOfRange(drained, from,
+                        Math.min(drained.length, from + properties.getMaxIdsPerMessage()));
+                // the sequence is taken even if sending fails, so receivers notice the loss
+                String message = encode(++sequence, key, chunk);
+                try {
+                    transport.send(message);
+                    sent.increment();
+                } catch (RuntimeException e) {
+                    logger.warn("Cannot send invalidation message: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    void receive(String payload) {
+        String[] parts = payload.split(" ", 6);
+        if (parts.length != 6 || !FORMAT_VERSION.equals(parts[0])) {
+            logger.warn("Ignoring invalidation message in unknown format: {}", payload);
+            return;
+        }
+        if (node.equals(parts[1])) {
+            return;
+        }
+        RemoteInvalidation invalidation;
+        long messageSequence;
+        try {
+            messageSequence = Long.parseLong(parts[2]);
+            long[] ids = Arrays.stream(parts[5].split(",")).mapToLong(Long::parseLong).toArray();
+            invalidation = new RemoteInvalidation(EntityType.valueOf(parts[3]), "D".equals(parts[4]), ids);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring malformed invalidation message: {}", payload);
+            return;
+        }
+        received.increment();
+        Long previous = lastSequences.put(parts[1], messageSequence);
+        if (previous != null && messageSequence != previous + 1) {
+            onGap();
+        }
+        eventPublisher.publishEvent(invalidation);
+    }
+
+    void onGap() {
+        gaps.increment();
+        logger.info("Invalidation messages may have been lost, flushing local caches");
+        eventPublisher.publishEvent(RemoteInvalidation.everything());
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        subscription = transport.subscribe(this::receive, this::onGap);
+        flusher.scheduleWithFixedDelay(this::flushScheduled, properties.getCoalesceIntervalMs(),
+                properties.getCoalesceIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        flusher.shutdownNow();
+        flush();
+        running = false;
+        subscription.cancel();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts listening before the caches load, so no change committed in between is missed.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    // a task that throws is not run again
+    private void flushScheduled() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Invalidation flush failed", e);
+        }
+    }
+
+    private String encode(long messageSequence, Key key, long[] ids) {
+        StringBuilder message = new StringBuilder(32 + ids.length * 8)
+                .append(FORMAT_VERSION).append(' ').append(node).append(' ').append(messageSequence).append(' ')
+                .append(key.entity()).append(' ').append(key.deleted() ? 'D' : 'U').append(' ');
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                message.append(',');
+            }
+            message.append(ids[i]);
+        }
+        return message.toString();
+    }
+
+    private static long[] drain(Set<Long> ids) {
+        long[] drained = new long[ids.size()];
+        int count = 0;
+        for (Long id : ids) {
+            if (ids.remove(id)) {
+                if (count == drained.length) {
+                    drained = Arrays.copyOf(drained, count * 2 + 1);
+                }
+                drained[count++] = id;
+            }
+        }
+        drained = Arrays.copyOf(drained, count);
+        Arrays.sort(drained);
+        return drained;
+    }
+
+    private record Key(EntityType entity, boolean deleted) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.moviecatalog.invalidation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.invalidation")
+public class InvalidationProperties {
+
+    /**
+     * When enabled, committed changes are broadcast to the other instances, which evict them from
+     * their local caches.
+     */
+    private boolean enabled = false;
+
+    /**
+     * {@code postgres} (LISTEN/NOTIFY) or {@code in-memory} (single JVM).
+     */
+    private String transport = "postgres";
+
+    private String channel = "catalog_invalidation";
+
+    /**
+     * Ids per message; keeps the payload below the 8000 byte NOTIFY limit.
+     */
+    private int maxIdsPerMessage = 400;
+
+    /**
+     * How long changes are collected before they are sent.
+     */
+    private long coalesceIntervalMs = 50;
+
+    /**
+     * How long the listener waits for notifications before checking whether it should stop.
+     */
+    private Duration pollTimeout = Duration.ofSeconds(1);
+
+    private Duration reconnectDelay = Duration.ofSeconds(2);
+
+    /**
+     * How often the idle listener connection runs {@code SELECT 1}; waiting for notifications
+     * alone does not notice a connection that was dropped without a reset.
+     */
+    private Duration keepaliveInterval = Duration.ofSeconds(30);
+}
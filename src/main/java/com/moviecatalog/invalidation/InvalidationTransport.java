@@ -0,0 +1,21 @@
+package com.moviecatalog.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcast channel between instances. Every subscriber, including the sender's own, receives
+ * every message sent after it subscribed, in send order, unless the transport reports a gap.
+ */
+public interface InvalidationTransport {
+
+    void send(String payload);
+
+    /**
+     * @param onGap called when messages may have been lost, e.g. after a reconnect
+     */
+    Subscription subscribe(Consumer<String> receiver, Runnable onGap);
+
+    interface Subscription {
+        void cancel();
+    }
+}
@@ -0,0 +1,131 @@
+package com.moviecatalog.invalidation;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+/**
+ * Postgres {@code NOTIFY} on a channel. Messages are sent through the pool; every subscriber
+ * listens on a dedicated connection outside of the pool, so it never holds a pooled connection.
+ * A lost listener connection is reopened after {@code reconnect-delay} and reported as a gap,
+ * because notifications sent in between are not delivered. An idle listener runs {@code SELECT 1}
+ * every {@code keepalive-interval}, so a silently dropped connection is noticed as well.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "postgres", matchIfMissing = true)
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final InvalidationProperties properties;
+
+    public PostgresInvalidationTransport(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                                         InvalidationProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.properties = properties;
+    }
+
+    @Override
+    public void send(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) rs -> {
+        }, properties.getChannel(), payload);
+    }
+
+    @Override
+    public Subscription subscribe(Consumer<String> receiver, Runnable onGap) {
+        Listener listener = new Listener(receiver, onGap);
+        Thread thread = new Thread(listener, "invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+        return () -> {
+            listener.running = false;
+            thread.interrupt();
+        };
+    }
+
+    Connection openListenerConnection() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    private final class Listener implements Runnable {
+
+        private final Consumer<String> receiver;
+        private final Runnable onGap;
+        private volatile boolean running = true;
+
+        private Listener(Consumer<String> receiver, Runnable onGap) {
+            this.receiver = receiver;
+            this.onGap = onGap;
+        }
+
+        @Override
+        public void run() {
+            boolean firstAttempt = true;
+            while (running) {
+                try (Connection connection = openListenerConnection();
+                     Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + properties.getChannel().replace("\"", "\"\"") + "\"");
+                    if (!firstAttempt) {
+                        logger.info("Invalidation listener reconnected");
+                        onGap.run();
+                    }
+                    firstAttempt = false;
+                    PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                    int timeoutMs = (int) properties.getPollTimeout().toMillis();
+                    long keepaliveNanos = properties.getKeepaliveInterval().toNanos();
+                    long lastActivity = System.nanoTime();
+                    while (running) {
+                        PGNotification[] notifications = pgConnection.getNotifications(timeoutMs);
+                        if (notifications != null && notifications.length > 0) {
+                            for (PGNotification notification : notifications) {
+                                deliver(notification.getParameter());
+                            }
+                            lastActivity = System.nanoTime();
+                        } else if (System.nanoTime() - lastActivity >= keepaliveNanos) {
+                            statement.execute("SELECT 1");
+                            lastActivity = System.nanoTime();
+                        }
+                    }
+                } catch (SQLException e) {
+                    firstAttempt = false;
+                    if (running) {
+                        logger.warn("Invalidation listener connection lost: {}", e.getMessage());
+                        pause();
+                    }
+                }
+            }
+        }
+
+        private void deliver(String payload) {
+            try {
+                receiver.accept(payload);
+            } catch (RuntimeException e) {
+                logger.warn("Invalidation message handling failed", e);
+            }
+        }
+
+        private void pause() {
+            try {
+                Thread.sleep(properties.getReconnectDelay().toMillis());
+            } catch (InterruptedException e) {
+                running = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.moviecatalog.job;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sparse author x movie matrix of "author reviewed movie", stored both by author and by movie in
+ * compressed form. Movies are addressed by their index in a sorted id array, so neither the matrix
+ * nor the similarity computation box any ids. Not thread-safe while being built.
+ */
+final class CoReviewMatrix {
+
+    private static final int SPLIT_THRESHOLD = 256;
+
+    private final long[] movieIds;
+    private final int[] authorOffsets;
+    private final int[] authorMovies;
+    private final int[] movieOffsets;
+    private final int[] movieAuthors;
+
+    private CoReviewMatrix(long[] movieIds, int[] authorOffsets, int[] authorMovies) {
+        this.movieIds = movieIds;
+        this.authorOffsets = authorOffsets;
+        this.authorMovies = authorMovies;
+        this.movieOffsets = new int[movieIds.length + 1];
+        this.movieAuthors = new int[authorMovies.length];
+
+        for (int movie : authorMovies) {
+            movieOffsets[movie + 1]++;
+        }
+        for (int movie = 0; movie < movieIds.length; movie++) {
+            movieOffsets[movie + 1] += movieOffsets[movie];
+        }
+        int[] next = Arrays.copyOf(movieOffsets, movieIds.length);
+        for (int author = 0; author < authorOffsets.length - 1; author++) {
+            for (int k = authorOffsets[author]; k < authorOffsets[author + 1]; k++) {
+                movieAuthors[next[authorMovies[k]]++] = author;
+            }
+        }
+    }
+
+    static Builder builder(int maxMoviesPerAuthor) {
+        return new Builder(maxMoviesPerAuthor);
+    }
+
+    int movieCount() {
+        return movieIds.length;
+    }
+
+    int authorCount() {
+        return authorOffsets.length - 1;
+    }
+
+    long movieId(int movie) {
+        return movieIds[movie];
+    }
+
+    /**
+     * Most similar movies of every movie by cosine similarity {@code co(i, j) / sqrt(n(i) * n(j))},
+     * where {@code co} counts the authors who reviewed both movies and {@code n} the authors of one
+     * movie. Ranges of movies are processed as fork-join tasks, each with its own accumulator.
+     *
+     * @return neighbors indexed like the movies
+     */
+    Neighbors[] topNeighbors(int limit, int minCoReviewers, ForkJoinPool pool) {
+        Neighbors[] neighbors = new Neighbors[movieIds.length];
+        pool.invoke(new SimilarityTask(0, movieIds.length, limit, minCoReviewers, neighbors));
+        return neighbors;
+    }
+
+    private int reviewers(int movie) {
+        return movieOffsets[movie + 1] - movieOffsets[movie];
+    }
+
+    private final class SimilarityTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final int limit;
+        private final int minCoReviewers;
+        private final Neighbors[] neighbors;
+
+        private SimilarityTask(int from, int to, int limit, int minCoReviewers, Neighbors[] neighbors) {
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+            this.minCoReviewers = minCoReviewers;
+            this.neighbors = neighbors;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SimilarityTask(from, middle, limit, minCoReviewers, neighbors),
+                        new SimilarityTask(middle, to, limit, minCoReviewers, neighbors));
+                return;
+            }
+            int[] coCounts = new int[movieIds.length];
+            int[] touched = new int[movieIds.length];
+            for (int movie = from; movie < to; movie++) {
+                int touchedCount = 0;
+                for (int a = movieOffsets[movie]; a < movieOffsets[movie + 1]; a++) {
+                    int author = movieAuthors[a];
+                    for (int k = authorOffsets[author]; k < authorOffsets[author + 1]; k++) {
+                        int other = authorMovies[k];
+                        if (other != movie && coCounts[other]++ == 0) {
+                            touched[touchedCount++] = other;
+                        }
+                    }
+                }
+                Neighbors top = new Neighbors(limit);
+                double reviewers = reviewers(movie);
+                for (int t = 0; t < touchedCount; t++) {
+                    int other = touched[t];
+                    int coReviewers = coCounts[other];
+                    coCounts[other] = 0;
+                    if (coReviewers >= minCoReviewers) {
+                        top.offer(other, coReviewers / Math.sqrt(reviewers * reviewers(other)), coReviewers);
+                    }
+                }
+                neighbors[movie] = top;
+            }
+        }
+    }
+
+    /**
+     * Best {@code limit} neighbors of one movie, ordered by score and then by movie.
+     */
+    static final class Neighbors {
+
+        private final int[] movies;
+        private final double[] scores;
+        private final int[] coReviewers;
+        private int size;
+
+        private Neighbors(int limit) {
+            this.movies = new int[limit];
+            this.scores = new double[limit];
+            this.coReviewers = new int[limit];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int movie(int rank) {
+            return movies[rank];
+        }
+
+        double score(int rank) {
+            return scores[rank];
+        }
+
+        int coReviewers(int rank) {
+            return coReviewers[rank];
+        }
+
+        private void offer(int movie, double score, int co) {
+            if (movies.length == 0 || size == movies.length && !ranksBefore(movie, score, size - 1)) {
+                return;
+            }
+            int position = Math.min(size, movies.length - 1);
+            while (position > 0 && ranksBefore(movie, score, position - 1)) {
+                movies[position] = movies[position - 1];
+                scores[position] = scores[position - 1];
+                coReviewers[position] = coReviewers[position - 1];
+                position--;
+            }
+            movies[position] = movie;
+            scores[position] = score;
+            coReviewers[position] = co;
+            size = Math.min(size + 1, movies.length);
+        }
+
+        private boolean ranksBefore(int movie, double score, int rank) {
+            return score > scores[rank] || (score == scores[rank] && movie < movies[rank]);
+        }
+    }
+
+    /**
+     * Collects (author, movie) pairs grouped by author: {@link #nextAuthor()} starts the movies of
+     * the next author. Authors with more than {@code maxMoviesPerAuthor} movies are dropped.
+     */
+    static final class Builder {
+
+        private final int maxMoviesPerAuthor;
+        private long[] pairMovies = new long[1024];
+        private int pairs;
+        private int[] authorEnds = new int[256];
+        private int authors;
+        private int authorStart;
+        private int authorMovieCount;
+
+        private Builder(int maxMoviesPerAuthor) {
+            this.maxMoviesPerAuthor = maxMoviesPerAuthor;
+        }
+
+        void nextAuthor() {
+            closeAuthor();
+        }
+
+        void add(long movieId) {
+            authorMovieCount++;
+            if (authorMovieCount > maxMoviesPerAuthor) {
+                return;
+            }
+            if (pairs == pairMovies.length) {
+                pairMovies = Arrays.copyOf(pairMovies, pairs * 2);
+            }
+            pairMovies[pairs++] = movieId;
+        }
+
+        CoReviewMatrix build() {
+            closeAuthor();
+            long[] sorted = Arrays.copyOf(pairMovies, pairs);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            long[] movieIds = Arrays.copyOf(sorted, distinct);
+
+            int[] authorMovies = new int[pairs];
+            for (int i = 0; i < pairs; i++) {
+                authorMovies[i] = Arrays.binarySearch(movieIds, pairMovies[i]);
+            }
+            int[] authorOffsets = new int[authors + 1];
+            System.arraycopy(authorEnds, 0, authorOffsets, 1, authors);
+            return new CoReviewMatrix(movieIds, authorOffsets, authorMovies);
+        }
+
+        private void closeAuthor() {
+            if (authorMovieCount > maxMoviesPerAuthor) {
+                pairs = authorStart;
+            } else if (pairs > authorStart) {
+                if (authors == authorEnds.length) {
+                    authorEnds = Arrays.copyOf(authorEnds, authors * 2);
+                }
+                authorEnds[authors++] = pairs;
+            }
+            authorStart = pairs;
+            authorMovieCount = 0;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.moviecatalog.job;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "duplicates")
+@RequiredArgsConstructor
+public class DuplicateClusterEndpoint {
+
+    private final DuplicateClusterJob duplicateClusterJob;
+
+    @ReadOperation
+    public DuplicateClusterJob.Result lastResult() {
+        return duplicateClusterJob.lastResult();
+    }
+
+    @WriteOperation
+    public DuplicateClusterJob.Result run() {
+        return duplicateClusterJob.run();
+    }
+}
@@ -0,0 +1,176 @@
+package com.moviecatalog.job;
+
+import com.moviecatalog.dedup.DuplicateDetectionService;
+import com.moviecatalog.dedup.DuplicateIndex;
+import com.moviecatalog.dedup.DuplicateProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Groups movies already in the catalog into clusters of near-duplicates: every movie is looked up
+ * in the {@link DuplicateIndex} in parallel, and movies linked by a match end up in one cluster.
+ * The latest result is kept for the {@code duplicates} actuator endpoint. Scheduled runs happen on
+ * an own thread, not on the shared scheduler.
+ */
+@Component
+public class DuplicateClusterJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateClusterJob.class);
+
+    private static final int MATCHES_PER_MOVIE = 50;
+
+    private final DuplicateDetectionService duplicateDetectionService;
+    private final DuplicateProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "duplicate-clusters");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Result lastResult;
+
+    public DuplicateClusterJob(DuplicateDetectionService duplicateDetectionService,
+                               DuplicateProperties properties) {
+        this.duplicateDetectionService = duplicateDetectionService;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${app.duplicates.cluster-cron:0 30 4 * * *}")
+    public void scheduledRun() {
+        DuplicateIndex index = duplicateDetectionService.index();
+        if (index != null && running.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                try {
+                    lastResult = cluster(index);
+                } catch (RuntimeException e) {
+                    logger.warn("Duplicate clustering failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    public Result run() {
+        DuplicateIndex index = duplicateDetectionService.index();
+        if (index == null) {
+            throw new IllegalStateException("Near-duplicate detection is disabled");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Duplicate clustering is already running");
+        }
+        try {
+            lastResult = cluster(index);
+            return lastResult;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return the result of the latest run, {@code null} before the first one
+     */
+    public Result lastResult() {
+        return lastResult;
+    }
+
+    private Result cluster(DuplicateIndex index) {
+        long start = System.nanoTime();
+        long[] movieIds = index.movieIds();
+
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long[][] links;
+        try {
+            // every pair is found from both sides, only the one from the smaller id is kept
+            links = pool.submit(() -> IntStream.range(0, movieIds.length).parallel()
+                    .mapToObj(i -> index.findSimilar(movieIds[i], MATCHES_PER_MOVIE).stream()
+                            .filter(match -> match.movieId() > movieIds[i])
+                            .map(match -> new long[]{movieIds[i], match.movieId()}))
+                    .flatMap(pairs -> pairs)
+                    .toArray(long[][]::new)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Duplicate clustering was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Duplicate clustering failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        int[] parents = IntStream.range(0, movieIds.length).toArray();
+        boolean[] linked = new boolean[movieIds.length];
+        int pairs = 0;
+        for (long[] link : links) {
+            int first = Arrays.binarySearch(movieIds, link[0]);
+            int second = Arrays.binarySearch(movieIds, link[1]);
+            if (first < 0 || second < 0) {
+                // a movie indexed after the ids were copied, it joins a cluster on the next run
+                continue;
+            }
+            pairs++;
+            linked[first] = true;
+            linked[second] = true;
+            int firstRoot = find(parents, first);
+            int secondRoot = find(parents, second);
+            if (firstRoot != secondRoot) {
+                parents[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+            }
+        }
+        // positions are visited in id order, so every cluster is sorted
+        Map<Integer, List<Long>> members = new HashMap<>();
+        for (int position = 0; position < movieIds.length; position++) {
+            if (linked[position]) {
+                members.computeIfAbsent(find(parents, position), root -> new ArrayList<>()).add(movieIds[position]);
+            }
+        }
+        List<List<Long>> clusters = members.values().stream()
+                .sorted(Comparator.<List<Long>>comparingInt(List::size).reversed()
+                        .thenComparing(cluster -> cluster.get(0)))
+                .toList();
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Found {} near-duplicate clusters among {} movies in {} ms",
+                clusters.size(), movieIds.length, elapsedMs);
+        return new Result(movieIds.length, pairs, clusters.size(), elapsedMs,
+                clusters.subList(0, Math.min(clusters.size(), properties.getMaxClusters())));
+    }
+
+    @PreDestroy
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    private static int find(int[] parents, int position) {
+        while (parents[position] != position) {
+            parents[position] = parents[parents[position]];
+            position = parents[position];
+        }
+        return position;
+    }
+
+    /**
+     * @param clusters movie ids of the largest clusters, each in ascending order
+     */
+    public record Result(int movies, int pairs, int clusterCount, long elapsedMs, List<List<Long>> clusters) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.moviecatalog.job;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "similarities")
+@RequiredArgsConstructor
+public class ItemSimilarityEndpoint {
+
+    private final ItemSimilarityJob itemSimilarityJob;
+
+    @WriteOperation
+    public ItemSimilarityJob.Result rebuild() {
+        return itemSimilarityJob.rebuild();
+    }
+}
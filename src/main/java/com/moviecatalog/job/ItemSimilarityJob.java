@@ -0,0 +1,145 @@
+package com.moviecatalog.job;
+
+import com.moviecatalog.repository.MovieSimilarityRepository;
+import com.moviecatalog.repository.MovieSimilarityRepository.Neighbor;
+import com.moviecatalog.service.RecommendationProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Item-item collaborative filtering over the authors of reviews: movies reviewed by the same
+ * authors are similar. Builds the co-review matrix from {@code reviews}, computes the cosine
+ * similarity of every pair of co-reviewed movies in parallel and replaces {@code movie_similarities}
+ * with the top neighbors of every movie. Scheduled rebuilds run on an own thread, not on the shared
+ * scheduler.
+ */
+@Component
+public class ItemSimilarityJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemSimilarityJob.class);
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final MovieSimilarityRepository movieSimilarityRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RecommendationProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "item-similarity");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ItemSimilarityJob(MovieSimilarityRepository movieSimilarityRepository,
+                             PlatformTransactionManager transactionManager,
+                             RecommendationProperties properties) {
+        this.movieSimilarityRepository = movieSimilarityRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${app.recommendations.rebuild-cron:0 0 4 * * *}")
+    public void scheduledRebuild() {
+        if (running.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                try {
+                    rebuildSimilarities();
+                } catch (RuntimeException e) {
+                    logger.warn("Item similarity rebuild failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    public Result rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Item similarity rebuild is already running");
+        }
+        try {
+            return rebuildSimilarities();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Result rebuildSimilarities() {
+        long start = System.nanoTime();
+        CoReviewMatrix matrix = loadMatrix();
+
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        CoReviewMatrix.Neighbors[] neighbors;
+        try {
+            neighbors = matrix.topNeighbors(properties.getNeighbors(), properties.getMinCoReviewers(), pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        Integer stored = transactionTemplate.execute(tx -> store(matrix, neighbors));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Rebuilt {} movie neighbors of {} movies from {} authors in {} ms",
+                stored, matrix.movieCount(), matrix.authorCount(), elapsedMs);
+        return new Result(matrix.movieCount(), matrix.authorCount(), stored != null ? stored : 0, elapsedMs);
+    }
+
+    private CoReviewMatrix loadMatrix() {
+        CoReviewMatrix.Builder builder = CoReviewMatrix.builder(properties.getMaxReviewsPerAuthor());
+        transactionTemplate.executeWithoutResult(tx -> {
+            String[] currentAuthor = {null};
+            movieSimilarityRepository.forEachAuthorMovie((author, movieId) -> {
+                if (!Objects.equals(author, currentAuthor[0])) {
+                    builder.nextAuthor();
+                    currentAuthor[0] = author;
+                }
+                builder.add(movieId);
+            });
+        });
+        return builder.build();
+    }
+
+    private int store(CoReviewMatrix matrix, CoReviewMatrix.Neighbors[] neighbors) {
+        movieSimilarityRepository.deleteAll();
+        List<Neighbor> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        int stored = 0;
+        for (int movie = 0; movie < neighbors.length; movie++) {
+            CoReviewMatrix.Neighbors top = neighbors[movie];
+            for (int rank = 0; rank < top.size(); rank++) {
+                batch.add(new Neighbor(matrix.movieId(movie), rank, matrix.movieId(top.movie(rank)),
+                        top.score(rank), top.coReviewers(rank)));
+                if (batch.size() == INSERT_BATCH_SIZE) {
+                    stored += movieSimilarityRepository.insertAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            stored += movieSimilarityRepository.insertAll(batch);
+        }
+        return stored;
+    }
+
+    @PreDestroy
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    public record Result(int movies, int authors, int neighbors, long elapsedMs) {
+    }
+}
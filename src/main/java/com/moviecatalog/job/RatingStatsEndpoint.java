@@ -0,0 +1,19 @@
+package com.moviecatalog.job;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "ratingstats")
+@RequiredArgsConstructor
+public class RatingStatsEndpoint {
+
+    private final RatingStatsRebuildJob ratingStatsRebuildJob;
+
+    @WriteOperation
+    public RatingStatsRebuildJob.Result rebuild() {
+        return ratingStatsRebuildJob.rebuild();
+    }
+}
@@ -0,0 +1,87 @@
+package com.moviecatalog.job;
+
+import com.moviecatalog.repository.MovieRatingStatsRepository;
+import com.moviecatalog.service.RatingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes {@code movie_rating_stats} from {@code reviews}. The movie id space is split into
+ * contiguous ranges of at most {@value #MAX_RANGE_SIZE} ids, each rebuilt in its own transaction by
+ * a pool of workers. A range keeps its aggregate rows locked until it commits, so concurrent rating
+ * deltas are never overwritten, and short ranges keep review writers waiting only briefly.
+ */
+@Component
+public class RatingStatsRebuildJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingStatsRebuildJob.class);
+
+    static final int MAX_RANGE_SIZE = 10_000;
+
+    private final MovieRatingStatsRepository movieRatingStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RatingProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RatingStatsRebuildJob(MovieRatingStatsRepository movieRatingStatsRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 RatingProperties properties) {
+        this.movieRatingStatsRepository = movieRatingStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    public Result rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Rating stats rebuild is already running");
+        }
+        try {
+            return rebuildRanges();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Result rebuildRanges() {
+        long start = System.nanoTime();
+        long[] idRange = movieRatingStatsRepository.findMovieIdRange().orElse(null);
+        if (idRange == null) {
+            return new Result(0, 0, 0);
+        }
+        int parallelism = properties.getRebuildParallelism() > 0
+                ? properties.getRebuildParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        long span = idRange[1] - idRange[0] + 1;
+        long step = Math.max(1, Math.min(MAX_RANGE_SIZE, (span + parallelism - 1) / parallelism));
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<CompletableFuture<Integer>> ranges = new ArrayList<>();
+            for (long from = idRange[0]; from <= idRange[1]; from += step) {
+                long to = Math.min(idRange[1], from + step - 1);
+                long rangeFrom = from;
+                ranges.add(CompletableFuture.supplyAsync(() -> transactionTemplate.execute(
+                        tx -> movieRatingStatsRepository.rebuildRange(rangeFrom, to)), executor));
+            }
+            int movies = ranges.stream().mapToInt(CompletableFuture::join).sum();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            logger.info("Rebuilt rating stats of {} movies in {} ranges in {} ms", movies, ranges.size(), elapsedMs);
+            return new Result(movies, ranges.size(), elapsedMs);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public record Result(int movies, int ranges, long elapsedMs) {
+    }
+}
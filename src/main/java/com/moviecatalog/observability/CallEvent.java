@@ -0,0 +1,38 @@
+package com.moviecatalog.observability;
+
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call of a service or repository method recorded by {@link JfrCallAspect}; the event duration
+ * is the time spent in the call.
+ */
+@StackTrace(false)
+abstract class CallEvent extends Event {
+
+    @Label("Class")
+    String type;
+
+    @Label("Method")
+    String method;
+
+    @Label("Entity IDs")
+    @Description("Id arguments of the call, the first ones of an id collection")
+    String entityIds;
+
+    @Label("Result Size")
+    @Description("Elements returned or passed to the consumer, -1 when the result is not a collection")
+    int resultSize;
+
+    @Label("Rows Hydrated")
+    @Description("Rows read by the SQL queries of the call, plus rows changed by its updates")
+    long rowsHydrated;
+
+    @Label("Queries")
+    int queries;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,49 @@
+package com.moviecatalog.observability;
+
+/**
+ * Rows and queries of the recorded calls on the current thread. A nested call adds its totals
+ * to the enclosing one when it ends.
+ */
+final class CallFrames {
+
+    private static final ThreadLocal<Frame> CURRENT = new ThreadLocal<>();
+
+    private CallFrames() {
+    }
+
+    static Frame push() {
+        Frame frame = new Frame(CURRENT.get());
+        CURRENT.set(frame);
+        return frame;
+    }
+
+    static void pop(Frame frame) {
+        Frame parent = frame.parent;
+        if (parent != null) {
+            parent.rows += frame.rows;
+            parent.queries += frame.queries;
+            CURRENT.set(parent);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    static void recordQuery(long rows) {
+        Frame frame = CURRENT.get();
+        if (frame != null) {
+            frame.queries++;
+            frame.rows += Math.max(0, rows);
+        }
+    }
+
+    static final class Frame {
+
+        private final Frame parent;
+        long rows;
+        int queries;
+
+        private Frame(Frame parent) {
+            this.parent = parent;
+        }
+    }
+}
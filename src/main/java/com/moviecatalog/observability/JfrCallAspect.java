@@ -0,0 +1,159 @@
+package com.moviecatalog.observability;
+
+import com.moviecatalog.dto.CursorPageDTO;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Records JFR events for the catalog services and all repositories. When the events are not
+ * enabled in a running recording, a call costs one {@code isEnabled()} check.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.jfr.events-enabled", havingValue = "true", matchIfMissing = true)
+public class JfrCallAspect {
+
+    private static final int MAX_LOGGED_IDS = 20;
+
+    @Around("within(com.moviecatalog.service.MovieService) || within(com.moviecatalog.service.ReviewService)"
+            + " || within(com.moviecatalog.service.GenreService) || within(com.moviecatalog.service.DirectorService)")
+    public Object recordServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(new ServiceCallEvent(), joinPoint);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))"
+            + " || @within(org.springframework.stereotype.Repository)")
+    public Object recordRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(new RepositoryCallEvent(), joinPoint);
+    }
+
+    private Object record(CallEvent event, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        Object[] args = joinPoint.getArgs();
+        long[] consumed = countConsumers(args);
+        CallFrames.Frame frame = CallFrames.push();
+        Object result = null;
+        event.begin();
+        try {
+            result = joinPoint.proceed(args);
+            return result;
+        } catch (Throwable e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.end();
+            CallFrames.pop(frame);
+            if (event.shouldCommit()) {
+                MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+                event.type = typeName(joinPoint);
+                event.method = signature.getName();
+                event.entityIds = entityIds(args);
+                event.resultSize = consumed != null ? (int) consumed[0] : resultSize(signature.getReturnType(), result);
+                event.rowsHydrated = frame.rows;
+                event.queries = frame.queries;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Replaces consumer arguments with counting ones, so streaming methods report their size.
+     */
+    @SuppressWarnings("unchecked")
+    private static long[] countConsumers(Object[] args) {
+        long[] consumed = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Consumer<?> consumer) {
+                long[] counter = consumed != null ? consumed : new long[1];
+                consumed = counter;
+                Consumer<Object> target = (Consumer<Object>) consumer;
+                args[i] = (Consumer<Object>) element -> {
+                    counter[0]++;
+                    target.accept(element);
+                };
+            }
+        }
+        return consumed;
+    }
+
+    static String entityIds(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Long id) {
+                return id.toString();
+            }
+            if (arg instanceof Collection<?> ids && !ids.isEmpty() && ids.iterator().next() instanceof Long) {
+                StringBuilder joined = new StringBuilder();
+                int count = 0;
+                for (Object id : ids) {
+                    if (count == MAX_LOGGED_IDS) {
+                        joined.append(",...");
+                        break;
+                    }
+                    joined.append(count++ > 0 ? "," : "").append(id);
+                }
+                return joined.toString();
+            }
+        }
+        return null;
+    }
+
+    static int resultSize(Class<?> returnType, Object result) {
+        if (returnType == void.class) {
+            return -1;
+        }
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof CursorPageDTO<?> page) {
+            return page.getItems().size();
+        }
+        if (result instanceof Object[] array) {
+            return array.length;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof CharSequence
+                || result instanceof Iterable<?> || result instanceof AutoCloseable) {
+            return -1;
+        }
+        return 1;
+    }
+
+    /**
+     * The repository interface rather than the Spring Data implementation that declares the method.
+     */
+    private static String typeName(ProceedingJoinPoint joinPoint) {
+        Class<?> declaring = joinPoint.getSignature().getDeclaringType();
+        if (declaring.getName().startsWith("com.moviecatalog.")) {
+            return declaring.getSimpleName();
+        }
+        for (Class<?> type : joinPoint.getThis().getClass().getInterfaces()) {
+            if (type.getName().startsWith("com.moviecatalog.")) {
+                return type.getSimpleName();
+            }
+        }
+        return declaring.getSimpleName();
+    }
+}
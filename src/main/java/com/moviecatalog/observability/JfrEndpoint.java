@@ -0,0 +1,140 @@
+package com.moviecatalog.observability;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts, lists, dumps and stops JFR recordings on demand. Recordings use the JDK
+ * {@code default} settings with the movie catalog profile on top; events that record the
+ * environment, system properties or JVM arguments are always disabled, since those may carry
+ * credentials. A dump is written to a temporary file that is deleted once it has been served.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private static final List<String> SENSITIVE_EVENTS =
+            List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    private final JfrProperties properties;
+
+    public JfrEndpoint(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public List<RecordingInfo> recordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream().map(RecordingInfo::of).toList();
+    }
+
+    /**
+     * @param duration seconds until the recording stops by itself, unlimited when absent
+     */
+    @WriteOperation
+    public synchronized RecordingInfo start(@Nullable String name, @Nullable Long duration)
+            throws IOException, ParseException {
+        long active = FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getState() == RecordingState.RUNNING
+                        || recording.getState() == RecordingState.DELAYED)
+                .count();
+        if (active >= properties.getMaxRecordings()) {
+            throw new IllegalStateException("Too many active JFR recordings: " + active);
+        }
+        Recording recording = new Recording(settings());
+        recording.setName(name != null ? name : "movie-catalog");
+        recording.setToDisk(true);
+        recording.setMaxAge(properties.getMaxAge());
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        if (duration != null) {
+            recording.setDuration(Duration.ofSeconds(duration));
+        }
+        recording.start();
+        return RecordingInfo.of(recording);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource dump(@Selector long id) throws IOException {
+        Recording recording = find(id);
+        if (recording == null) {
+            return null;
+        }
+        Files.createDirectories(properties.getDumpDirectory());
+        Path file = Files.createTempFile(properties.getDumpDirectory(), "recording-" + id + "-", ".jfr");
+        try {
+            recording.dump(file);
+            return new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Stops a running recording, its data can still be dumped; a stopped one is closed and its data discarded.
+     */
+    @DeleteOperation
+    public RecordingInfo stop(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED) {
+            recording.stop();
+        } else {
+            recording.close();
+        }
+        return RecordingInfo.of(recording);
+    }
+
+    private Map<String, String> settings() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource(properties.getSettings()).getInputStream(), StandardCharsets.UTF_8)) {
+            settings.putAll(Configuration.create(reader).getSettings());
+        }
+        SENSITIVE_EVENTS.forEach(event -> settings.put(event + "#enabled", "false"));
+        return settings;
+    }
+
+    private static Recording find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst()
+                .orElse(null);
+    }
+
+    public record RecordingInfo(long id, String name, RecordingState state, Instant startTime, Duration duration,
+                                long size) {
+
+        static RecordingInfo of(Recording recording) {
+            return new RecordingInfo(recording.getId(), recording.getName(), recording.getState(),
+                    recording.getStartTime(), recording.getDuration(), recording.getSize());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.moviecatalog.observability;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.jfr")
+public class JfrProperties {
+
+    /**
+     * When disabled, service and repository calls are not instrumented at all.
+     */
+    private boolean eventsEnabled = true;
+
+    /**
+     * Classpath recording profile applied on top of the JDK {@code default} settings.
+     */
+    private String settings = "jfr/moviecatalog.jfc";
+
+    /**
+     * Directory recordings are dumped to.
+     */
+    private Path dumpDirectory = Path.of(System.getProperty("java.io.tmpdir"), "movie-catalog-jfr");
+
+    /**
+     * Oldest data kept by a recording started through the endpoint.
+     */
+    private Duration maxAge = Duration.ofHours(1);
+
+    /**
+     * Largest size of a recording started through the endpoint.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    /**
+     * Recordings that may run at the same time, including ones started on the command line.
+     */
+    private int maxRecordings = 2;
+}
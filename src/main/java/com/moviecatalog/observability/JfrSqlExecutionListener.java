@@ -0,0 +1,20 @@
+package com.moviecatalog.observability;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class JfrSqlExecutionListener implements SqlExecutionListener {
+
+    @Override
+    public void onExecution(SqlExecution execution) {
+        CallFrames.recordQuery(execution.rows());
+        SqlQueryEvent event = new SqlQueryEvent();
+        if (event.shouldCommit()) {
+            event.fingerprint = execution.fingerprint();
+            event.rows = execution.rows();
+            event.executionTime = execution.elapsedNanos();
+            event.failed = execution.failed();
+            event.commit();
+        }
+    }
+}
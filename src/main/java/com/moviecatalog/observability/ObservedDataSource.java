@@ -0,0 +1,67 @@
+package com.moviecatalog.observability;
+
+import com.moviecatalog.jdbc.DelegatingConnection;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Wraps connections, statements and result sets so that every statement execution is timed and
+ * reported to the {@link SqlExecutionListener}s. The wrappers delegate directly rather than
+ * through a dynamic proxy; reading a row costs one counter increment. Queries are reported when
+ * their result set is closed, so that the number of rows read is known.
+ */
+public class ObservedDataSource extends DelegatingDataSource {
+
+    private final Supplier<List<SqlExecutionListener>> listeners;
+
+    public ObservedDataSource(DataSource targetDataSource, Supplier<List<SqlExecutionListener>> listeners) {
+        super(targetDataSource);
+        this.listeners = listeners;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return new ObservedConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return new ObservedConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    void report(SqlExecution execution) {
+        for (SqlExecutionListener listener : listeners.get()) {
+            listener.onExecution(execution);
+        }
+    }
+
+    private class ObservedConnection extends DelegatingConnection {
+
+        ObservedConnection(Connection target) {
+            super(target);
+        }
+
+        @Override
+        protected Statement wrapStatement(Statement statement) {
+            return new ObservedStatement<>(statement, null, ObservedDataSource.this);
+        }
+
+        @Override
+        protected PreparedStatement wrapPreparedStatement(PreparedStatement statement, String sql) {
+            return new ObservedPreparedStatement<>(statement, sql, ObservedDataSource.this);
+        }
+
+        @Override
+        protected CallableStatement wrapCallableStatement(CallableStatement statement, String sql) {
+            return new ObservedCallableStatement(statement, sql, ObservedDataSource.this);
+        }
+    }
+}
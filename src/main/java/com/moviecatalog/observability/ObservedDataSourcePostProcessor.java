@@ -0,0 +1,38 @@
+package com.moviecatalog.observability;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "app.sql-log.enabled", havingValue = "true", matchIfMissing = true)
+public class ObservedDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlExecutionListener> listenerProvider;
+    private volatile List<SqlExecutionListener> listeners;
+
+    public ObservedDataSourcePostProcessor(ObjectProvider<SqlExecutionListener> listenerProvider) {
+        this.listenerProvider = listenerProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ObservedDataSource)) {
+            return new ObservedDataSource(dataSource, this::listeners);
+        }
+        return bean;
+    }
+
+    private List<SqlExecutionListener> listeners() {
+        List<SqlExecutionListener> resolved = listeners;
+        if (resolved == null) {
+            resolved = listenerProvider.orderedStream().toList();
+            listeners = resolved;
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,403 @@
+package com.moviecatalog.observability;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An {@link ObservedStatement} that also records the bound parameters for the slow query log.
+ */
+class ObservedPreparedStatement<T extends PreparedStatement> extends ObservedStatement<T> implements PreparedStatement {
+
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
+    private Object[] parameters = NO_PARAMETERS;
+    private boolean parametersShared;
+
+    ObservedPreparedStatement(T target, String sql, ObservedDataSource dataSource) {
+        super(target, sql, dataSource);
+    }
+
+    @Override
+    List<Object> boundParameters() {
+        if (parameters.length == 0) {
+            return Collections.emptyList();
+        }
+        parametersShared = true;
+        return Collections.unmodifiableList(Arrays.asList(parameters));
+    }
+
+    private void recordParameter(int index, Object value) {
+        if (index < 1) {
+            return;
+        }
+        if (index > parameters.length || parametersShared) {
+            parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length));
+            parametersShared = false;
+        }
+        parameters[index - 1] = value;
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        return observeQuery(preparedSql, () -> target.executeQuery());
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        return observe(preparedSql, () -> target.executeUpdate());
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        target.setNull(parameterIndex, sqlType);
+        recordParameter(parameterIndex, null);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        target.setBoolean(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        target.setByte(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        target.setShort(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        target.setInt(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        target.setLong(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        target.setFloat(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        target.setDouble(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        target.setBigDecimal(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        target.setString(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        target.setBytes(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        target.setDate(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        target.setTime(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        target.setTimestamp(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        target.setAsciiStream(parameterIndex, x, length);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    @Deprecated
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        target.setUnicodeStream(parameterIndex, x, length);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        target.setBinaryStream(parameterIndex, x, length);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        target.clearParameters();
+        parameters = NO_PARAMETERS;
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        target.setObject(parameterIndex, x, targetSqlType);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        target.setObject(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        return observe(preparedSql, () -> target.execute());
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        target.addBatch();
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        target.setCharacterStream(parameterIndex, reader, length);
+        recordParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        target.setRef(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        target.setBlob(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        target.setClob(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        target.setArray(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return target.getMetaData();
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        target.setDate(parameterIndex, x, cal);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        target.setTime(parameterIndex, x, cal);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        target.setTimestamp(parameterIndex, x, cal);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        target.setNull(parameterIndex, sqlType, typeName);
+        recordParameter(parameterIndex, null);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        target.setURL(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return target.getParameterMetaData();
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        target.setRowId(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        target.setNString(parameterIndex, value);
+        recordParameter(parameterIndex, value);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        target.setNCharacterStream(parameterIndex, value, length);
+        recordParameter(parameterIndex, value);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        target.setNClob(parameterIndex, value);
+        recordParameter(parameterIndex, value);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        target.setClob(parameterIndex, reader, length);
+        recordParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        target.setBlob(parameterIndex, inputStream, length);
+        recordParameter(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        target.setNClob(parameterIndex, reader, length);
+        recordParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        target.setSQLXML(parameterIndex, xmlObject);
+        recordParameter(parameterIndex, xmlObject);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        target.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        target.setAsciiStream(parameterIndex, x, length);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        target.setBinaryStream(parameterIndex, x, length);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        target.setCharacterStream(parameterIndex, reader, length);
+        recordParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        target.setAsciiStream(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        target.setBinaryStream(parameterIndex, x);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        target.setCharacterStream(parameterIndex, reader);
+        recordParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        target.setNCharacterStream(parameterIndex, value);
+        recordParameter(parameterIndex, value);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        target.setClob(parameterIndex, reader);
+        recordParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        target.setBlob(parameterIndex, inputStream);
+        recordParameter(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        target.setNClob(parameterIndex, reader);
+        recordParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        target.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        target.setObject(parameterIndex, x, targetSqlType);
+        recordParameter(parameterIndex, x);
+    }
+
+    @Override
+    public long executeLargeUpdate() throws SQLException {
+        return observe(preparedSql, () -> target.executeLargeUpdate());
+    }
+}
@@ -0,0 +1,406 @@
+package com.moviecatalog.observability;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link Statement} that reports every execution to the {@link ObservedDataSource} listeners
+ * and forwards all other calls to the target statement. Updates are reported when they are
+ * executed; queries when their result set is closed, or at the latest when the statement is
+ * executed again or closed, so that the number of rows read is known.
+ */
+class ObservedStatement<T extends Statement> implements Statement {
+
+    final T target;
+    final String preparedSql;
+    private final ObservedDataSource dataSource;
+    private PendingQuery pendingQuery;
+
+    ObservedStatement(T target, String preparedSql, ObservedDataSource dataSource) {
+        this.target = target;
+        this.preparedSql = preparedSql;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Runs a statement execution and reports it to the listeners, an update right away and a query
+     * once its rows were read.
+     */
+    <R> R observe(String sql, JdbcCall<R> execution) throws SQLException {
+        reportPendingQuery();
+        List<Object> parameters = boundParameters();
+        long start = System.nanoTime();
+        R result;
+        try {
+            result = execution.call();
+        } catch (SQLException | RuntimeException e) {
+            dataSource.report(new SqlExecution(sql, SqlFingerprint.of(sql), parameters, System.nanoTime() - start, -1,
+                    true, start));
+            throw e;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        if (result instanceof ResultSet || Boolean.TRUE.equals(result)) {
+            pendingQuery = new PendingQuery(sql, parameters, start, elapsedNanos);
+        } else {
+            dataSource.report(new SqlExecution(sql, SqlFingerprint.of(sql), parameters, elapsedNanos,
+                    affectedRows(result), false, start));
+        }
+        return result;
+    }
+
+    ResultSet observeQuery(String sql, JdbcCall<ResultSet> execution) throws SQLException {
+        return wrapResultSet(observe(sql, execution));
+    }
+
+    private ResultSet wrapResultSet(ResultSet resultSet) {
+        return resultSet != null && pendingQuery != null ? new ObservedResultSet(resultSet, this, pendingQuery) : resultSet;
+    }
+
+    private void reportPendingQuery() {
+        if (pendingQuery != null) {
+            pendingQuery.report();
+            pendingQuery = null;
+        }
+    }
+
+    List<Object> boundParameters() {
+        return Collections.emptyList();
+    }
+
+    static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            return Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+        }
+        if (result instanceof long[] counts) {
+            return Arrays.stream(counts).filter(count -> count > 0).sum();
+        }
+        return -1;
+    }
+
+    @FunctionalInterface
+    interface JdbcCall<R> {
+
+        R call() throws SQLException;
+    }
+
+    /**
+     * An executed query whose rows are still being read.
+     */
+    final class PendingQuery {
+
+        private final String sql;
+        private final List<Object> parameters;
+        private final long startNanos;
+        private final long elapsedNanos;
+        long rows;
+        private boolean reported;
+
+        private PendingQuery(String sql, List<Object> parameters, long startNanos, long elapsedNanos) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.startNanos = startNanos;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        void report() {
+            if (!reported) {
+                reported = true;
+                dataSource.report(new SqlExecution(sql, SqlFingerprint.of(sql), parameters, elapsedNanos, rows, false,
+                        startNanos));
+            }
+        }
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        return observeQuery(sql, () -> target.executeQuery(sql));
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        return observe(sql, () -> target.executeUpdate(sql));
+    }
+
+    @Override
+    public void close() throws SQLException {
+        reportPendingQuery();
+        target.close();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return target.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        target.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return target.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        target.setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        target.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return target.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        target.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        target.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return target.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        target.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        target.setCursorName(name);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        return observe(sql, () -> target.execute(sql));
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return wrapResultSet(target.getResultSet());
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return target.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return target.getMoreResults();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        target.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return target.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        target.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return target.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return target.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return target.getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        target.addBatch(sql);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        target.clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return observe(preparedSql, () -> target.executeBatch());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target.getConnection();
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return target.getMoreResults(current);
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return target.getGeneratedKeys();
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return observe(sql, () -> target.executeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return observe(sql, () -> target.executeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        return observe(sql, () -> target.executeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        return observe(sql, () -> target.execute(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        return observe(sql, () -> target.execute(sql, columnIndexes));
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        return observe(sql, () -> target.execute(sql, columnNames));
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return target.getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return target.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        target.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return target.isPoolable();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        target.closeOnCompletion();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return target.isCloseOnCompletion();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return target.getLargeUpdateCount();
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        target.setLargeMaxRows(max);
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return target.getLargeMaxRows();
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        return observe(preparedSql, () -> target.executeLargeBatch());
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        return observe(sql, () -> target.executeLargeUpdate(sql));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return observe(sql, () -> target.executeLargeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return observe(sql, () -> target.executeLargeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        return observe(sql, () -> target.executeLargeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public String enquoteLiteral(String val) throws SQLException {
+        return target.enquoteLiteral(val);
+    }
+
+    @Override
+    public String enquoteIdentifier(String identifier, boolean alwaysQuote) throws SQLException {
+        return target.enquoteIdentifier(identifier, alwaysQuote);
+    }
+
+    @Override
+    public boolean isSimpleIdentifier(String identifier) throws SQLException {
+        return target.isSimpleIdentifier(identifier);
+    }
+
+    @Override
+    public String enquoteNCharLiteral(String val) throws SQLException {
+        return target.enquoteNCharLiteral(val);
+    }
+
+    @Override
+    public <W> W unwrap(Class<W> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || target.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,11 @@
+package com.moviecatalog.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.moviecatalog.ServiceCall")
+@Label("Service Call")
+@Category({"Movie Catalog", "Calls"})
+final class ServiceCallEvent extends CallEvent {
+}
@@ -0,0 +1,34 @@
+package com.moviecatalog.observability;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class SlowQueryLog implements SqlExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final SqlLogProperties properties;
+
+    @Override
+    public void onExecution(SqlExecution execution) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(execution.elapsedNanos());
+        if (elapsedMs >= properties.getSlowThresholdMs()) {
+            logger.warn("Slow query ({} ms, {} rows{}): {} | params: {}",
+                    elapsedMs, execution.rows(), execution.failed() ? ", failed" : "",
+                    execution.sql(), execution.parameters());
+            return;
+        }
+        double sampleRate = properties.getSampleRate();
+        if (sampleRate > 0 && logger.isInfoEnabled()
+                && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            logger.info("Query ({} ms, {} rows): {}", elapsedMs, execution.rows(), execution.fingerprint());
+        }
+    }
+}
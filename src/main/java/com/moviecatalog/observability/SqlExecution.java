@@ -0,0 +1,25 @@
+package com.moviecatalog.observability;
+
+import java.util.List;
+
+/**
+ * A finished JDBC statement execution. {@code rows} is the number of rows read for queries
+ * or affected for updates, and {@code -1} when unknown. {@code startNanos} is the
+ * {@link System#nanoTime()} of the execution start; queries are reported after their rows
+ * were read, so the time since the start includes reading them.
+ */
+public record SqlExecution(
+        String sql,
+        String fingerprint,
+        List<Object> parameters,
+        long elapsedNanos,
+        long rows,
+        boolean failed,
+        long startNanos
+) {
+
+    public SqlExecution(String sql, String fingerprint, List<Object> parameters, long elapsedNanos, long rows,
+                        boolean failed) {
+        this(sql, fingerprint, parameters, elapsedNanos, rows, failed, System.nanoTime() - elapsedNanos);
+    }
+}
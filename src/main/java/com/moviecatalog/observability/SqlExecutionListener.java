@@ -0,0 +1,6 @@
+package com.moviecatalog.observability;
+
+public interface SqlExecutionListener {
+
+    void onExecution(SqlExecution execution);
+}
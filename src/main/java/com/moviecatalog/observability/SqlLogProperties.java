@@ -0,0 +1,26 @@
+package com.moviecatalog.observability;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.sql-log")
+public class SqlLogProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Statements slower than this are logged at WARN together with their bind parameters.
+     */
+    private long slowThresholdMs = 500;
+
+    /**
+     * Fraction (0..1) of regular statements logged at INFO, without bind parameters.
+     */
+    private double sampleRate = 0.0;
+
+    /**
+     * Upper bound on distinct statement fingerprints kept in the aggregated statistics.
+     */
+    private int maxFingerprints = 500;
+}
@@ -0,0 +1,34 @@
+package com.moviecatalog.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A finished SQL statement. It is committed when the result set is closed, so the execution time
+ * is a field and the event itself has no duration.
+ */
+@Name("com.moviecatalog.SqlQuery")
+@Label("SQL Query")
+@Category({"Movie Catalog", "SQL"})
+@StackTrace(false)
+final class SqlQueryEvent extends Event {
+
+    @Label("Fingerprint")
+    String fingerprint;
+
+    @Label("Rows")
+    @Description("Rows read by a query or affected by an update, -1 when unknown")
+    long rows;
+
+    @Label("Execution Time")
+    @Timespan
+    long executionTime;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,88 @@
+package com.moviecatalog.observability;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-fingerprint execution statistics. Once {@code app.sql-log.max-fingerprints} distinct
+ * statements are tracked, further ones are folded into a single overflow entry.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlStatementStats implements SqlExecutionListener {
+
+    static final String OVERFLOW_FINGERPRINT = "<other>";
+
+    private final SqlLogProperties properties;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void onExecution(SqlExecution execution) {
+        Counters entry = counters.get(execution.fingerprint());
+        if (entry == null) {
+            String key = counters.size() < properties.getMaxFingerprints()
+                    ? execution.fingerprint()
+                    : OVERFLOW_FINGERPRINT;
+            entry = counters.computeIfAbsent(key, k -> new Counters());
+        }
+        entry.record(execution);
+    }
+
+    public List<Snapshot> snapshot(int limit) {
+        return counters.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingDouble(Snapshot::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        counters.clear();
+    }
+
+    public record Snapshot(
+            String fingerprint,
+            long count,
+            double totalMs,
+            double meanMs,
+            double maxMs,
+            long rows,
+            long errors
+    ) {
+    }
+
+    private static final class Counters {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        void record(SqlExecution execution) {
+            count.increment();
+            totalNanos.add(execution.elapsedNanos());
+            maxNanos.accumulate(execution.elapsedNanos());
+            if (execution.rows() > 0) {
+                rows.add(execution.rows());
+            }
+            if (execution.failed()) {
+                errors.increment();
+            }
+        }
+
+        Snapshot snapshot(String fingerprint) {
+            long n = count.sum();
+            double totalMs = totalNanos.sum() / 1_000_000.0;
+            return new Snapshot(fingerprint, n, totalMs, n == 0 ? 0 : totalMs / n,
+                    maxNanos.get() / 1_000_000.0, rows.sum(), errors.sum());
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.moviecatalog.ranking;
+
+import com.moviecatalog.dto.TopRatedMovieDTO;
+import com.moviecatalog.entity.Genre;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.EntityChange.Operation;
+import com.moviecatalog.events.RemoteInvalidation;
+import com.moviecatalog.exception.BadRequestException;
+import com.moviecatalog.exception.ResourceNotFoundException;
+import com.moviecatalog.repository.GenreRepository;
+import com.moviecatalog.repository.MovieRatingStatsRepository;
+import com.moviecatalog.repository.MovieRatingStatsRepository.MovieTotals;
+import com.moviecatalog.service.GlobalRatingPrior;
+import com.moviecatalog.service.RatingProperties;
+import com.moviecatalog.tracing.Tracing;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Best movies of every genre by Bayesian score {@code (w * C + sum) / (w + count)}, where the prior
+ * mean {@code C} is frozen at the last rebuild. Each leaderboard is a bounded {@link TopK} updated
+ * from the movie's aggregates whenever a movie changes; a leaderboard is refilled from the database
+ * only when one of its members drops to the bottom. All leaderboards are rebuilt in parallel on
+ * startup, when the global mean drifts and on demand.
+ * <p>
+ * Refreshes and rebuilds run one at a time on an own worker thread, so the leaderboards need no
+ * lock and database reads block neither readers nor the committing thread. A movie is queued at
+ * most once until its refresh starts, and totals older than the ones already applied are skipped.
+ */
+@Service
+public class GenreLeaderboardService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenreLeaderboardService.class);
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final MovieRatingStatsRepository movieRatingStatsRepository;
+    private final GenreRepository genreRepository;
+    private final GlobalRatingPrior globalRatingPrior;
+    private final RatingProperties properties;
+
+    private final Map<Long, Leaderboard> leaderboards = new HashMap<>();
+    private final Map<Long, Long> appliedChangeSeqs = new HashMap<>();
+    private final Set<Long> queuedMovies = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "genre-leaderboards");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile double priorMean;
+
+    private volatile Map<Long, List<TopRatedMovieDTO>> snapshot = Map.of();
+    private volatile boolean running;
+
+    public GenreLeaderboardService(MovieRatingStatsRepository movieRatingStatsRepository,
+                                   GenreRepository genreRepository,
+                                   GlobalRatingPrior globalRatingPrior,
+                                   RatingProperties properties) {
+        this.movieRatingStatsRepository = movieRatingStatsRepository;
+        this.genreRepository = genreRepository;
+        this.globalRatingPrior = globalRatingPrior;
+        this.properties = properties;
+    }
+
+    public List<TopRatedMovieDTO> getTopRated(@NonNull Long genreId, Integer limit) {
+        int size = limit != null ? limit : Math.min(DEFAULT_LIMIT, properties.getLeaderboardSize());
+        if (size < 1 || size > properties.getLeaderboardSize()) {
+            throw new BadRequestException("Количество фильмов должно быть от 1 до " + properties.getLeaderboardSize());
+        }
+        List<TopRatedMovieDTO> leaderboard = snapshot.get(genreId);
+        if (leaderboard == null) {
+            if (!genreRepository.existsById(genreId)) {
+                throw new ResourceNotFoundException("Жанр с id " + genreId + " не найден");
+            }
+            return List.of();
+        }
+        return leaderboard.subList(0, Math.min(size, leaderboard.size()));
+    }
+
+    @TransactionalEventListener
+    public void onChange(EntityChange change) {
+        if (running) {
+            apply(change.entity(), change.entityId(), change.operation() == Operation.DELETED);
+        }
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(RemoteInvalidation invalidation) {
+        if (!running) {
+            return;
+        }
+        if (invalidation.isEverything()) {
+            rebuildInBackground();
+            return;
+        }
+        for (long id : invalidation.entityIds()) {
+            apply(invalidation.entity(), id, invalidation.deleted());
+        }
+    }
+
+    /**
+     * Queues a re-read of the aggregates and genres of a movie, which then moves within, into or
+     * out of the leaderboards.
+     */
+    public void refresh(long movieId) {
+        if (queuedMovies.add(movieId)) {
+            submit(() -> {
+                queuedMovies.remove(movieId);
+                refreshNow(movieId);
+            });
+        }
+    }
+
+    /**
+     * Recomputes every leaderboard from {@code movie_rating_stats}, genres in parallel, with the
+     * current global mean as prior, and waits for the result.
+     */
+    public Result rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("Leaderboard rebuild is already running");
+        }
+        try {
+            return CompletableFuture.supplyAsync(Tracing.wrap(this::rebuildNow), worker).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Only compares the means on the scheduler thread, the rebuild itself runs on the worker.
+     */
+    @Scheduled(fixedDelayString = "${app.ratings.prior-refresh-interval-ms:60000}")
+    public void rebuildOnPriorDrift() {
+        if (!running || rebuilding.get()) {
+            return;
+        }
+        if (Math.abs(globalRatingPrior.mean() - priorMean) > properties.getLeaderboardPriorTolerance()) {
+            rebuildInBackground();
+        }
+    }
+
+    @Override
+    public void start() {
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @PreDestroy
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void apply(EntityType entity, long id, boolean deleted) {
+        if (entity == EntityType.GENRE && deleted) {
+            submit(() -> {
+                leaderboards.remove(id);
+                publish(Set.of(id));
+            });
+        } else if (entity == EntityType.MOVIE) {
+            refresh(id);
+        }
+    }
+
+    private void submit(Runnable task) {
+        worker.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.warn("Genre leaderboard update failed", e);
+            }
+        });
+    }
+
+    private void rebuildInBackground() {
+        if (rebuilding.compareAndSet(false, true)) {
+            submit(this::rebuildNow);
+        }
+    }
+
+    /**
+     * Runs on the worker with {@link #rebuilding} set.
+     */
+    private Result rebuildNow() {
+        long start = System.nanoTime();
+        Map<Long, Leaderboard> rebuilt;
+        double mean;
+        try {
+            mean = globalRatingPrior.refresh();
+            rebuilt = loadLeaderboards(mean);
+            leaderboards.clear();
+            leaderboards.putAll(rebuilt);
+            appliedChangeSeqs.clear();
+            priorMean = mean;
+            snapshot = Map.of();
+            publish(leaderboards.keySet());
+        } finally {
+            rebuilding.set(false);
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        int movies = rebuilt.values().stream().mapToInt(leaderboard -> leaderboard.members.size()).sum();
+        logger.info("Rebuilt {} genre leaderboards ({} entries, prior mean {}) in {} ms",
+                rebuilt.size(), movies, String.format("%.3f", mean), elapsedMs);
+        return new Result(rebuilt.size(), movies, mean, elapsedMs);
+    }
+
+    private void refreshNow(long movieId) {
+        MovieTotals totals = movieRatingStatsRepository.findTotalsWithGenres(movieId).orElse(null);
+        if (totals == null) {
+            appliedChangeSeqs.remove(movieId);
+        } else if (totals.changeSeq() > 0) {
+            Long applied = appliedChangeSeqs.get(movieId);
+            if (applied != null && totals.changeSeq() <= applied) {
+                return;
+            }
+            appliedChangeSeqs.put(movieId, totals.changeSeq());
+        }
+        Set<Long> changedGenres = new HashSet<>();
+        leaderboards.forEach((genreId, leaderboard) -> {
+            if (leaderboard.top.contains(movieId) && (totals == null || !totals.genreIds().contains(genreId))) {
+                update(genreId, leaderboard, movieId, null);
+                changedGenres.add(genreId);
+            }
+        });
+        if (totals != null) {
+            for (Long genreId : totals.genreIds()) {
+                Leaderboard leaderboard = leaderboards.get(genreId);
+                if (leaderboard == null && totals.reviewCount() == 0) {
+                    continue;
+                }
+                if (leaderboard == null) {
+                    leaderboard = new Leaderboard(properties.getLeaderboardSize());
+                    leaderboards.put(genreId, leaderboard);
+                }
+                update(genreId, leaderboard, movieId, totals.reviewCount() > 0 ? totals : null);
+                changedGenres.add(genreId);
+            }
+        }
+        publish(changedGenres);
+    }
+
+    private Map<Long, Leaderboard> loadLeaderboards(double mean) {
+        List<Long> genreIds = genreRepository.findAll().stream().map(Genre::getId).toList();
+        int parallelism = properties.getRebuildParallelism() > 0
+                ? properties.getRebuildParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, genreIds.size())));
+        try {
+            Map<Long, CompletableFuture<List<MovieTotals>>> queries = new HashMap<>();
+            for (Long genreId : genreIds) {
+                queries.put(genreId, CompletableFuture.supplyAsync(Tracing.wrap(() -> movieRatingStatsRepository.findTopRatedInGenre(
+                        genreId, mean, globalRatingPrior.weight(), properties.getLeaderboardSize())), executor));
+            }
+            Map<Long, Leaderboard> loaded = new HashMap<>();
+            queries.forEach((genreId, query) -> {
+                List<MovieTotals> top = query.join();
+                if (!top.isEmpty()) {
+                    loaded.put(genreId, fill(new Leaderboard(properties.getLeaderboardSize()), top, mean));
+                }
+            });
+            return loaded;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void update(long genreId, Leaderboard leaderboard, long movieId, MovieTotals totals) {
+        double score = totals != null ? score(totals, priorMean) : 0;
+        if (leaderboard.top.update(movieId, score)) {
+            if (leaderboard.top.contains(movieId)) {
+                leaderboard.members.put(movieId, totals);
+            }
+            leaderboard.members.keySet().removeIf(id -> !leaderboard.top.contains(id));
+        } else {
+            fill(leaderboard, movieRatingStatsRepository.findTopRatedInGenre(
+                    genreId, priorMean, globalRatingPrior.weight(), properties.getLeaderboardSize()), priorMean);
+        }
+    }
+
+    private Leaderboard fill(Leaderboard leaderboard, List<MovieTotals> top, double mean) {
+        leaderboard.members.clear();
+        Map<Long, Double> scores = new HashMap<>();
+        for (MovieTotals totals : top) {
+            leaderboard.members.put(totals.movieId(), totals);
+            scores.put(totals.movieId(), score(totals, mean));
+        }
+        leaderboard.top.rebuild(scores, id -> true);
+        return leaderboard;
+    }
+
+    private double score(MovieTotals totals, double mean) {
+        double weight = globalRatingPrior.weight();
+        return (weight * mean + totals.ratingSum()) / (weight + totals.reviewCount());
+    }
+
+    private void publish(Set<Long> changedGenres) {
+        Map<Long, List<TopRatedMovieDTO>> published = new HashMap<>(snapshot);
+        for (Long genreId : changedGenres) {
+            Leaderboard leaderboard = leaderboards.get(genreId);
+            if (leaderboard == null) {
+                published.remove(genreId);
+                continue;
+            }
+            List<TopRatedMovieDTO> entries = new ArrayList<>();
+            for (TopK.Ranked ranked : leaderboard.top.ranked()) {
+                MovieTotals totals = leaderboard.members.get(ranked.movieId());
+                entries.add(new TopRatedMovieDTO(ranked.movieId(), totals.reviewCount(),
+                        (double) totals.ratingSum() / totals.reviewCount(), ranked.score()));
+            }
+            published.put(genreId, List.copyOf(entries));
+        }
+        snapshot = Map.copyOf(published);
+    }
+
+    public record Result(int genres, int entries, double priorMean, long elapsedMs) {
+    }
+
+    private static final class Leaderboard {
+
+        private final TopK top;
+        private final Map<Long, MovieTotals> members = new HashMap<>();
+
+        private Leaderboard(int capacity) {
+            this.top = new TopK(capacity);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.moviecatalog.ranking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "leaderboards")
+@RequiredArgsConstructor
+public class LeaderboardEndpoint {
+
+    private final GenreLeaderboardService genreLeaderboardService;
+
+    @WriteOperation
+    public GenreLeaderboardService.Result rebuild() {
+        return genreLeaderboardService.rebuild();
+    }
+}
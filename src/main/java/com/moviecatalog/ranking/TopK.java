@@ -0,0 +1,84 @@
+package com.moviecatalog.ranking;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.LongPredicate;
+
+/**
+ * Highest scoring movies, maintained on every score change without looking at the other movies.
+ * Holds either {@code capacity} movies or every movie with a positive score. Not thread-safe.
+ */
+final class TopK {
+
+    private static final Comparator<Ranked> ORDER =
+            Comparator.comparingDouble(Ranked::score).reversed().thenComparingLong(Ranked::movieId);
+
+    private final int capacity;
+    private final Map<Long, Double> members = new HashMap<>();
+    private final TreeSet<Ranked> order = new TreeSet<>(ORDER);
+
+    TopK(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Applies the new score of a movie, a score of zero or less removes it.
+     *
+     * @return {@code false} when a member dropped out of a full list: a movie outside the list may
+     * now belong in it, so the list has to be {@link #rebuild rebuilt}
+     */
+    boolean update(long movieId, double score) {
+        boolean full = members.size() == capacity;
+        Double previous = members.remove(movieId);
+        if (previous != null) {
+            order.remove(new Ranked(movieId, previous));
+        }
+        if (score <= 0) {
+            return previous == null || !full;
+        }
+        if (members.size() < capacity) {
+            add(movieId, score);
+            return !full || score >= previous || !order.last().equals(new Ranked(movieId, score));
+        }
+        Ranked lowest = order.last();
+        if (ORDER.compare(new Ranked(movieId, score), lowest) < 0) {
+            order.pollLast();
+            members.remove(lowest.movieId());
+            add(movieId, score);
+        }
+        return true;
+    }
+
+    void rebuild(Map<Long, Double> scores, LongPredicate filter) {
+        members.clear();
+        order.clear();
+        scores.forEach((movieId, score) -> {
+            if (score > 0 && filter.test(movieId)) {
+                update(movieId, score);
+            }
+        });
+    }
+
+    boolean contains(long movieId) {
+        return members.containsKey(movieId);
+    }
+
+    boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    List<Ranked> ranked() {
+        return List.copyOf(order);
+    }
+
+    private void add(long movieId, double score) {
+        members.put(movieId, score);
+        order.add(new Ranked(movieId, score));
+    }
+
+    record Ranked(long movieId, double score) {
+    }
+}
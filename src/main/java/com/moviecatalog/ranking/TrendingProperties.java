@@ -0,0 +1,28 @@
+package com.moviecatalog.ranking;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.trending")
+public class TrendingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Age at which a review counts half as much as a new one.
+     */
+    private Duration halfLife = Duration.ofHours(24);
+
+    /**
+     * Length of each top list, the global one and every genre list.
+     */
+    private int capacity = 100;
+
+    /**
+     * Reviews read on startup; older ones have decayed below any practical score.
+     */
+    private Duration rebuildHorizon = Duration.ofDays(14);
+}
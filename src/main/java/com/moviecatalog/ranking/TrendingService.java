@@ -0,0 +1,384 @@
+package com.moviecatalog.ranking;
+
+import com.moviecatalog.dto.TrendingMovieDTO;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.EntityChange.Operation;
+import com.moviecatalog.events.MovieGenresChanged;
+import com.moviecatalog.events.RemoteInvalidation;
+import com.moviecatalog.events.ReviewActivity;
+import com.moviecatalog.exception.BadRequestException;
+import com.moviecatalog.repository.MovieRepository;
+import com.moviecatalog.repository.MovieRepository.MovieGenreId;
+import com.moviecatalog.repository.TrendingRepository;
+import com.moviecatalog.ranking.TopK.Ranked;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Trending movies ranked by forward-decayed review activity: a review adds
+ * {@code rating / 10 * e^(λ(createdAt - landmark))} to its movie, so stored scores never have to be
+ * decayed on update and their order equals the order of the decayed scores. The landmark is moved
+ * forward periodically to keep the values small. Top lists are updated in memory with every review
+ * and published as immutable snapshots, reads never touch the database or take a lock.
+ * <p>
+ * Review activity, genre changes, rescales and rebuilds are applied one at a time on an own worker
+ * thread in the order they were committed, so the scores need no lock and neither list rebuilds nor
+ * genre lookups of unknown movies delay the committing thread.
+ */
+@Service
+public class TrendingService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    private static final double MAX_RATING = 10.0;
+    private static final double MIN_SCORE = 1e-6;
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int GENRE_LOOKUP_CHUNK = 1000;
+
+    private final TrendingProperties properties;
+    private final TrendingRepository trendingRepository;
+    private final MovieRepository movieRepository;
+    private final double decayPerSecond;
+    private final Map<Long, Set<Long>> movieGenres = new HashMap<>();
+
+    private final Map<Long, Double> scores = new HashMap<>();
+    private final TopK global;
+    private final Map<Long, TopK> byGenre = new HashMap<>();
+    private double landmark;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trending");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot snapshot = new Snapshot(0, List.of(), Map.of());
+    private volatile boolean running;
+
+    public TrendingService(TrendingProperties properties,
+                           TrendingRepository trendingRepository,
+                           MovieRepository movieRepository) {
+        this.properties = properties;
+        this.trendingRepository = trendingRepository;
+        this.movieRepository = movieRepository;
+        this.decayPerSecond = Math.log(2) / properties.getHalfLife().toSeconds();
+        this.global = new TopK(properties.getCapacity());
+        this.landmark = epochSeconds(LocalDateTime.now());
+    }
+
+    public List<TrendingMovieDTO> getTrending(Long genreId, Integer limit) {
+        int size = limit != null ? limit : Math.min(DEFAULT_LIMIT, properties.getCapacity());
+        if (size < 1 || size > properties.getCapacity()) {
+            throw new BadRequestException("Количество фильмов должно быть от 1 до " + properties.getCapacity());
+        }
+        Snapshot current = snapshot;
+        List<Ranked> ranked = genreId == null ? current.global() : current.byGenre().getOrDefault(genreId, List.of());
+        double decay = Math.exp(-decayPerSecond * (epochSeconds(LocalDateTime.now()) - current.landmark()));
+        List<TrendingMovieDTO> result = new ArrayList<>(Math.min(size, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < size; i++) {
+            Ranked movie = ranked.get(i);
+            result.add(new TrendingMovieDTO(movie.movieId(), movie.score() * decay));
+        }
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onReviewActivity(ReviewActivity activity) {
+        if (properties.isEnabled()) {
+            submit(() -> applyActivity(activity));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onMovieGenresChanged(MovieGenresChanged change) {
+        submit(() -> applyGenres(change.movieId(), change.genreIds()));
+    }
+
+    @TransactionalEventListener
+    public void onChange(EntityChange change) {
+        if (change.entity() == EntityType.MOVIE && change.operation() == Operation.DELETED) {
+            submit(() -> removeMovie(change.entityId()));
+        }
+    }
+
+    /**
+     * Scores only count local review activity; other instances can change which genres a movie
+     * belongs to or delete it.
+     */
+    @EventListener
+    public void onRemoteInvalidation(RemoteInvalidation invalidation) {
+        if (!running) {
+            return;
+        }
+        if (invalidation.isEverything()) {
+            rebuildInBackground();
+        } else if (invalidation.entity() == EntityType.MOVIE) {
+            for (long movieId : invalidation.entityIds()) {
+                if (invalidation.deleted()) {
+                    submit(() -> removeMovie(movieId));
+                } else {
+                    submit(() -> {
+                        if (movieGenres.containsKey(movieId)) {
+                            applyGenres(movieId, loadGenres(List.of(movieId)).get(movieId));
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the landmark to now: all scores are multiplied by the decay since the previous landmark
+     * and movies whose activity has decayed away are dropped.
+     */
+    @Scheduled(fixedDelayString = "${app.trending.rescale-interval-ms:3600000}",
+            initialDelayString = "${app.trending.rescale-interval-ms:3600000}")
+    public void rescale() {
+        if (running) {
+            submit(this::rescaleNow);
+        }
+    }
+
+    /**
+     * Reloads the scores from the reviews created within the rebuild horizon and waits for the
+     * result; activity committed meanwhile is applied after it.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("Trending rebuild is already running");
+        }
+        try {
+            CompletableFuture.runAsync(this::rebuildNow, worker).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @PreDestroy
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before the web server so that the first requests already see the rebuilt lists.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void submit(Runnable task) {
+        worker.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.warn("Trending update failed", e);
+            }
+        });
+    }
+
+    private void rebuildInBackground() {
+        if (rebuilding.compareAndSet(false, true)) {
+            submit(this::rebuildNow);
+        }
+    }
+
+    /**
+     * Runs on the worker with {@link #rebuilding} set.
+     */
+    private void rebuildNow() {
+        try {
+            long start = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, Double> ratingSums = trendingRepository.findDecayedRatingSums(
+                    now.minus(properties.getRebuildHorizon()), now, decayPerSecond);
+            Map<Long, Set<Long>> genres = loadGenres(new ArrayList<>(ratingSums.keySet()));
+            scores.clear();
+            ratingSums.forEach((movieId, sum) -> {
+                if (sum / MAX_RATING >= MIN_SCORE) {
+                    scores.put(movieId, sum / MAX_RATING);
+                }
+            });
+            movieGenres.clear();
+            movieGenres.putAll(genres);
+            landmark = epochSeconds(now);
+            rebuildLists();
+            logger.info("Rebuilt trending scores of {} movies in {} ms", ratingSums.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void rescaleNow() {
+        double now = epochSeconds(LocalDateTime.now());
+        double factor = Math.exp(-decayPerSecond * (now - landmark));
+        scores.replaceAll((movieId, score) -> score * factor);
+        scores.values().removeIf(score -> score < MIN_SCORE);
+        movieGenres.keySet().retainAll(scores.keySet());
+        landmark = now;
+        rebuildLists();
+    }
+
+    private void applyActivity(ReviewActivity activity) {
+        Set<Long> genreIds = genresOf(activity.movieId());
+        double weight = activity.ratingDelta() / MAX_RATING
+                * Math.exp(decayPerSecond * (epochSeconds(activity.createdAt()) - landmark));
+        double score = scores.merge(activity.movieId(), weight, Double::sum);
+        if (score < MIN_SCORE) {
+            scores.remove(activity.movieId());
+            score = 0;
+        }
+        updateList(global, null, activity.movieId(), score);
+        for (Long genreId : genreIds) {
+            updateList(byGenre.computeIfAbsent(genreId, id -> new TopK(properties.getCapacity())),
+                    genreId, activity.movieId(), score);
+        }
+        publish(genreIds);
+    }
+
+    private void applyGenres(long movieId, Set<Long> genreIds) {
+        Set<Long> previous = movieGenres.put(movieId, Set.copyOf(genreIds));
+        Double score = scores.get(movieId);
+        if (score == null) {
+            return;
+        }
+        Set<Long> changedGenres = new HashSet<>(genreIds);
+        if (previous != null) {
+            changedGenres.addAll(previous);
+            for (Long genreId : previous) {
+                if (!genreIds.contains(genreId) && byGenre.containsKey(genreId)) {
+                    updateList(byGenre.get(genreId), genreId, movieId, 0);
+                }
+            }
+        }
+        for (Long genreId : genreIds) {
+            updateList(byGenre.computeIfAbsent(genreId, id -> new TopK(properties.getCapacity())),
+                    genreId, movieId, score);
+        }
+        publish(changedGenres);
+    }
+
+    private void removeMovie(long movieId) {
+        Set<Long> genreIds = movieGenres.remove(movieId);
+        if (scores.remove(movieId) == null) {
+            return;
+        }
+        updateList(global, null, movieId, 0);
+        Set<Long> changedGenres = genreIds != null ? genreIds : byGenre.keySet();
+        for (Long genreId : changedGenres) {
+            TopK list = byGenre.get(genreId);
+            if (list != null) {
+                updateList(list, genreId, movieId, 0);
+            }
+        }
+        publish(new HashSet<>(changedGenres));
+    }
+
+    private void updateList(TopK list, Long genreId, long movieId, double score) {
+        if (!list.update(movieId, score)) {
+            list.rebuild(scores, genreId == null ? id -> true : id -> inGenre(id, genreId));
+        }
+    }
+
+    private boolean inGenre(long movieId, long genreId) {
+        Set<Long> genreIds = movieGenres.get(movieId);
+        return genreIds != null && genreIds.contains(genreId);
+    }
+
+    private void rebuildLists() {
+        global.rebuild(scores, id -> true);
+        byGenre.clear();
+        scores.forEach((movieId, score) -> {
+            for (Long genreId : movieGenres.getOrDefault(movieId, Set.of())) {
+                byGenre.computeIfAbsent(genreId, id -> new TopK(properties.getCapacity())).update(movieId, score);
+            }
+        });
+        publish(byGenre.keySet());
+    }
+
+    private void publish(Set<Long> changedGenres) {
+        Map<Long, List<Ranked>> genreLists = new HashMap<>(snapshot.byGenre());
+        for (Long genreId : changedGenres) {
+            TopK list = byGenre.get(genreId);
+            if (list == null || list.isEmpty()) {
+                genreLists.remove(genreId);
+            } else {
+                genreLists.put(genreId, list.ranked());
+            }
+        }
+        genreLists.keySet().retainAll(byGenre.keySet());
+        snapshot = new Snapshot(landmark, global.ranked(), Map.copyOf(genreLists));
+    }
+
+    private Set<Long> genresOf(long movieId) {
+        Set<Long> genreIds = movieGenres.get(movieId);
+        if (genreIds == null) {
+            genreIds = loadGenres(List.of(movieId)).getOrDefault(movieId, Set.of());
+            movieGenres.put(movieId, genreIds);
+        }
+        return genreIds;
+    }
+
+    private Map<Long, Set<Long>> loadGenres(List<Long> movieIds) {
+        Map<Long, Set<Long>> genres = new HashMap<>();
+        for (int from = 0; from < movieIds.size(); from += GENRE_LOOKUP_CHUNK) {
+            List<Long> chunk = movieIds.subList(from, Math.min(movieIds.size(), from + GENRE_LOOKUP_CHUNK));
+            for (MovieGenreId pair : movieRepository.findGenreIdsByMovieIds(chunk)) {
+                genres.computeIfAbsent(pair.getMovieId(), id -> new HashSet<>()).add(pair.getGenreId());
+            }
+        }
+        movieIds.forEach(movieId -> genres.putIfAbsent(movieId, Set.of()));
+        return genres;
+    }
+
+    private static double epochSeconds(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / 1000.0;
+    }
+
+    private record Snapshot(double landmark, List<Ranked> global, Map<Long, List<Ranked>> byGenre) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.moviecatalog.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviecatalog.exception.ErrorResponse;
+import com.moviecatalog.warmup.WarmUpRunner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_ENDPOINT = "default";
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final WarmUpRunner warmUpRunner;
+    private final List<CostRule> costRules;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties,
+                           ObjectMapper objectMapper, MeterRegistry meterRegistry, WarmUpRunner warmUpRunner) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.warmUpRunner = warmUpRunner;
+        this.costRules = parseCostRules(properties.getCosts());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || warmUpRunner.isWarmUpRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        CostRule rule = matchRule(request);
+        int cost = rule != null ? rule.cost() : 1;
+        String apiKey = request.getHeader(properties.getApiKeyHeader());
+        // unknown keys are not trusted, otherwise rotating the header would give a fresh bucket per request
+        boolean knownKey = apiKey != null && properties.getApiKeys().contains(apiKey);
+        // the address is already resolved from X-Forwarded-For of trusted proxies (server.tomcat.remoteip)
+        String clientKey = knownKey ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+        String endpoint = rule != null ? rule.name() : DEFAULT_ENDPOINT;
+
+        if (cost > properties.getCapacity()) {
+            countThrottled(endpoint, knownKey);
+            reject(response, "Запрос превышает лимит клиента и не может быть выполнен", null);
+            return;
+        }
+        long waitNanos = rateLimiter.tryAcquire(clientKey, cost);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        countThrottled(endpoint, knownKey);
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        reject(response, "Слишком много запросов, повторите через " + retryAfterSeconds + " с", retryAfterSeconds);
+    }
+
+    private void countThrottled(String endpoint, boolean knownKey) {
+        Counter.builder("ratelimit.throttled")
+                .description("Requests rejected by the rate limiter")
+                .tag("endpoint", endpoint)
+                .tag("client", knownKey ? "api-key" : "ip")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void reject(HttpServletResponse response, String message, Long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        if (retryAfterSeconds != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        ErrorResponse error = new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), message, LocalDateTime.now());
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private CostRule matchRule(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (CostRule rule : costRules) {
+            if (rule.method().equalsIgnoreCase(request.getMethod()) && rule.pattern().matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static List<CostRule> parseCostRules(List<RateLimitProperties.Cost> costs) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        return costs.stream()
+                .map(cost -> new CostRule(cost.getMethod() + " " + cost.getPath(), cost.getMethod(),
+                        parser.parse(cost.getPath()), cost.getCost()))
+                .toList();
+    }
+
+    private record CostRule(String name, String method, PathPattern pattern, int cost) {
+    }
+}
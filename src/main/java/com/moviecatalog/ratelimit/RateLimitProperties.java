@@ -0,0 +1,59 @@
+package com.moviecatalog.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Maximum burst per client, in cost units.
+     */
+    private int capacity = 200;
+
+    /**
+     * Sustained rate per client, in cost units per second.
+     */
+    private double refillPerSecond = 50;
+
+    /**
+     * Upper bound on tracked clients; clients beyond it share an overflow bucket.
+     */
+    private int maxClients = 100_000;
+
+    private int stripes = 16;
+
+    /**
+     * Buckets untouched (and full) for this long are evicted.
+     */
+    private Duration idleExpiry = Duration.ofMinutes(10);
+
+    private String apiKeyHeader = "X-API-Key";
+
+    /**
+     * Keys issued to clients. Requests with any other key, or none, are limited by their address.
+     */
+    private Set<String> apiKeys = new HashSet<>();
+
+    /**
+     * Endpoint cost weights; requests matching no rule cost 1.
+     */
+    private List<Cost> costs = new ArrayList<>();
+
+    @Data
+    public static class Cost {
+
+        private String method = "GET";
+        private String path;
+        private int cost = 1;
+    }
+}
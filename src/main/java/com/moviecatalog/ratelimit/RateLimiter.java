@@ -0,0 +1,82 @@
+package com.moviecatalog.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-client token buckets kept in hash stripes with a fixed capacity each, so memory stays
+ * bounded no matter how many distinct clients show up.
+ */
+@Component
+public class RateLimiter {
+
+    private final RateLimitProperties properties;
+    private final ConcurrentHashMap<String, TokenBucket>[] stripes;
+    private final TokenBucket[] overflowBuckets;
+    private final int stripeCapacity;
+
+    @SuppressWarnings("unchecked")
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        int stripeCount = Math.max(1, properties.getStripes());
+        this.stripes = new ConcurrentHashMap[stripeCount];
+        this.overflowBuckets = new TokenBucket[stripeCount];
+        this.stripeCapacity = Math.max(1, properties.getMaxClients() / stripeCount);
+        long now = System.nanoTime();
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+            overflowBuckets[i] = newBucket(now);
+        }
+        Gauge.builder("ratelimit.buckets", this, RateLimiter::trackedClients)
+                .description("Clients with a live rate-limit bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return 0 if the request is admitted, otherwise nanoseconds until it would be
+     */
+    public long tryAcquire(String clientKey, int cost) {
+        long now = System.nanoTime();
+        int stripeIndex = (clientKey.hashCode() & 0x7fffffff) % stripes.length;
+        ConcurrentHashMap<String, TokenBucket> stripe = stripes[stripeIndex];
+        TokenBucket bucket = stripe.get(clientKey);
+        if (bucket == null) {
+            if (stripe.size() >= stripeCapacity) {
+                evictIdle(stripe, now);
+            }
+            bucket = stripe.size() < stripeCapacity
+                    ? stripe.computeIfAbsent(clientKey, k -> newBucket(now))
+                    : overflowBuckets[stripeIndex];
+        }
+        return bucket.tryConsume(cost, now);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            evictIdle(stripe, now);
+        }
+    }
+
+    private void evictIdle(ConcurrentHashMap<String, TokenBucket> stripe, long now) {
+        long idleNanos = properties.getIdleExpiry().toNanos();
+        stripe.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+
+    private TokenBucket newBucket(long now) {
+        return new TokenBucket(properties.getCapacity(), properties.getRefillPerSecond(), now);
+    }
+
+    private double trackedClients() {
+        long total = 0;
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            total += stripe.size();
+        }
+        return total;
+    }
+}
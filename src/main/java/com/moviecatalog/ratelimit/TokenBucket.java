@@ -0,0 +1,42 @@
+package com.moviecatalog.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time"
+ * updated with CAS, so no refill thread or lock is needed.
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.nanosPerToken = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = nanosPerToken * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0 if {@code cost} tokens were taken, otherwise nanoseconds until they will be available
+     */
+    public long tryConsume(int cost, long nowNanos) {
+        long increment = nanosPerToken * cost;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + increment;
+            long waitNanos = next - burstNanos - nowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return theoreticalArrival.get() + idleNanos < nowNanos;
+    }
+}
@@ -0,0 +1,122 @@
+package com.moviecatalog.repository;
+
+import com.moviecatalog.dto.ReviewDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per-author review aggregates kept next to {@code reviews}, keyed by the lowercased author name.
+ * Counts and sums are updated by deltas; a removed review that was the author's first or last one
+ * moves the date to the next review, found through {@code idx_reviews_author_created_at}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuthorReviewStatsRepository {
+
+    private static final String ADD_REVIEW =
+            "INSERT INTO author_review_stats (author_key, author_name, review_count, rating_sum, " +
+            "first_review_at, last_review_at) VALUES (lower(?), ?, 1, ?, ?, ?) " +
+            "ON CONFLICT (author_key) DO UPDATE SET " +
+            "author_name = CASE WHEN EXCLUDED.last_review_at >= author_review_stats.last_review_at " +
+            "THEN EXCLUDED.author_name ELSE author_review_stats.author_name END, " +
+            "review_count = author_review_stats.review_count + 1, " +
+            "rating_sum = author_review_stats.rating_sum + EXCLUDED.rating_sum, " +
+            "first_review_at = LEAST(author_review_stats.first_review_at, EXCLUDED.first_review_at), " +
+            "last_review_at = GREATEST(author_review_stats.last_review_at, EXCLUDED.last_review_at)";
+
+    /**
+     * Subtracts the reviews matching {@code %1$s} from their authors; {@code %2$s} excludes the same
+     * reviews when looking up the new first and last dates.
+     */
+    private static final String REMOVE_REVIEWS_TEMPLATE =
+            "UPDATE author_review_stats s SET " +
+            "review_count = s.review_count - d.review_count, " +
+            "rating_sum = s.rating_sum - d.rating_sum, " +
+            "first_review_at = CASE WHEN s.first_review_at < d.first_review_at THEN s.first_review_at " +
+            "ELSE COALESCE((SELECT MIN(r.created_at) FROM reviews r " +
+            "WHERE lower(r.author_name) = s.author_key AND %2$s), s.first_review_at) END, " +
+            "last_review_at = CASE WHEN s.last_review_at > d.last_review_at THEN s.last_review_at " +
+            "ELSE COALESCE((SELECT MAX(r.created_at) FROM reviews r " +
+            "WHERE lower(r.author_name) = s.author_key AND %2$s), s.last_review_at) END " +
+            "FROM (SELECT lower(author_name) AS author_key, COUNT(*) AS review_count, SUM(rating) AS rating_sum, " +
+            "MIN(created_at) AS first_review_at, MAX(created_at) AS last_review_at " +
+            "FROM reviews WHERE %1$s GROUP BY lower(author_name)) d " +
+            "WHERE s.author_key = d.author_key";
+
+    private static final String REMOVE_REVIEW =
+            String.format(REMOVE_REVIEWS_TEMPLATE, "id = ?", "r.id <> ?");
+
+    private static final String REMOVE_MOVIE_REVIEWS =
+            String.format(REMOVE_REVIEWS_TEMPLATE, "movie_id = ?", "r.movie_id <> ?");
+
+    private static final String DELETE_EMPTY_TEMPLATE =
+            "DELETE FROM author_review_stats WHERE review_count <= 0 " +
+            "AND author_key IN (SELECT lower(author_name) FROM reviews WHERE %s)";
+
+    private static final String DELETE_EMPTY_AUTHOR = String.format(DELETE_EMPTY_TEMPLATE, "id = ?");
+
+    private static final String DELETE_EMPTY_MOVIE_AUTHORS = String.format(DELETE_EMPTY_TEMPLATE, "movie_id = ?");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void addReview(String authorName, int rating, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.update(ADD_REVIEW, authorName, authorName, rating, timestamp, timestamp);
+    }
+
+    public void addReviews(List<ReviewDTO> reviews) {
+        if (reviews.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_REVIEW, reviews.stream()
+                .map(review -> {
+                    Timestamp timestamp = Timestamp.valueOf(review.getCreatedAt());
+                    return new Object[]{review.getAuthorName(), review.getAuthorName(), review.getRating(),
+                            timestamp, timestamp};
+                })
+                .toList());
+    }
+
+    /**
+     * Subtracts a review from its author's stats. Must run while the review row still holds the
+     * values being removed, before it is updated or deleted.
+     */
+    public void removeReview(long reviewId) {
+        if (jdbcTemplate.update(REMOVE_REVIEW, reviewId, reviewId, reviewId) > 0) {
+            jdbcTemplate.update(DELETE_EMPTY_AUTHOR, reviewId);
+        }
+    }
+
+    /**
+     * Subtracts all reviews of a movie from their authors' stats, before the movie is deleted and
+     * its reviews cascade.
+     */
+    public void removeMovieReviews(long movieId) {
+        if (jdbcTemplate.update(REMOVE_MOVIE_REVIEWS, movieId, movieId, movieId) > 0) {
+            jdbcTemplate.update(DELETE_EMPTY_MOVIE_AUTHORS, movieId);
+        }
+    }
+
+    public Optional<AuthorStats> findByAuthorName(String authorName) {
+        return jdbcTemplate.query("SELECT author_name, review_count, rating_sum, first_review_at, last_review_at " +
+                                "FROM author_review_stats WHERE author_key = lower(?)",
+                        (rs, rowNum) -> new AuthorStats(rs.getString(1), rs.getLong(2), rs.getLong(3),
+                                rs.getTimestamp(4).toLocalDateTime(), rs.getTimestamp(5).toLocalDateTime()),
+                        authorName)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * @param authorName spelling of the author's latest review
+     */
+    public record AuthorStats(String authorName, long reviewCount, long ratingSum,
+                              LocalDateTime firstReviewAt, LocalDateTime lastReviewAt) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.moviecatalog.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Plain rows of movies, directors and genres for the in-memory catalog snapshot, read without
+ * Hibernate and ordered by id. A {@code null} id collection reads the whole table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogSnapshotRepository {
+
+    private static final String MOVIES =
+            "SELECT m.id, m.title, m.description, m.release_date, m.duration, m.director_id, " +
+            "ARRAY(SELECT mg.genre_id FROM movie_genres mg WHERE mg.movie_id = m.id ORDER BY mg.genre_id), " +
+            "COALESCE(s.review_count, 0), COALESCE(s.rating_sum, 0) " +
+            "FROM movies m LEFT JOIN movie_rating_stats s ON s.movie_id = m.id";
+
+    private static final String DIRECTORS =
+            "SELECT id, first_name, last_name, birth_date, biography FROM directors";
+
+    private static final String GENRES = "SELECT id, name FROM genres";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void findMovies(Collection<Long> ids, Consumer<MovieRow> consumer) {
+        query(MOVIES, "m.id", ids, rs -> consumer.accept(new MovieRow(rs.getLong(1), rs.getString(2),
+                rs.getString(3), rs.getObject(4, LocalDate.class), rs.getInt(5), rs.getLong(6), toIds(rs.getArray(7)),
+                rs.getLong(8), rs.getLong(9))));
+    }
+
+    public void findDirectors(Collection<Long> ids, Consumer<DirectorRow> consumer) {
+        query(DIRECTORS, "id", ids, rs -> {
+            Date birthDate = rs.getDate(4);
+            consumer.accept(new DirectorRow(rs.getLong(1), rs.getString(2), rs.getString(3),
+                    birthDate != null ? birthDate.toLocalDate() : null, rs.getString(5)));
+        });
+    }
+
+    public void findGenres(Collection<Long> ids, Consumer<GenreRow> consumer) {
+        query(GENRES, "id", ids, rs -> consumer.accept(new GenreRow(rs.getLong(1), rs.getString(2))));
+    }
+
+    /**
+     * @return distinct movies of the given reviews; deleted reviews are skipped
+     */
+    public List<Long> findReviewedMovieIds(Collection<Long> reviewIds) {
+        if (reviewIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(con -> {
+            var statement = con.prepareStatement("SELECT DISTINCT movie_id FROM reviews WHERE id = ANY(?)");
+            statement.setArray(1, con.createArrayOf("bigint", reviewIds.toArray()));
+            return statement;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    public void forEachRatingTotals(RatingTotalsConsumer consumer) {
+        jdbcTemplate.query(con -> {
+            var statement = con.prepareStatement("SELECT movie_id, review_count, rating_sum FROM movie_rating_stats");
+            statement.setFetchSize(StreamingQueries.FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+
+    private void query(String select, String idColumn, Collection<Long> ids, RowCallbackHandler handler) {
+        if (ids != null && ids.isEmpty()) {
+            return;
+        }
+        String sql = ids == null
+                ? select + " ORDER BY " + idColumn
+                : select + " WHERE " + idColumn + " = ANY(?) ORDER BY " + idColumn;
+        jdbcTemplate.query(con -> {
+            var statement = con.prepareStatement(sql);
+            statement.setFetchSize(StreamingQueries.FETCH_SIZE);
+            if (ids != null) {
+                statement.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            }
+            return statement;
+        }, handler);
+    }
+
+    private static long[] toIds(Array array) throws SQLException {
+        try {
+            Object[] values = (Object[]) array.getArray();
+            long[] ids = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                ids[i] = ((Number) values[i]).longValue();
+            }
+            return ids;
+        } finally {
+            array.free();
+        }
+    }
+
+    public record MovieRow(long id, String title, String description, LocalDate releaseDate, int duration,
+                           long directorId, long[] genreIds, long reviewCount, long ratingSum) {
+    }
+
+    public record DirectorRow(long id, String firstName, String lastName, LocalDate birthDate, String biography) {
+    }
+
+    public record GenreRow(long id, String name) {
+    }
+
+    @FunctionalInterface
+    public interface RatingTotalsConsumer {
+        void accept(long movieId, long reviewCount, long ratingSum);
+    }
+}
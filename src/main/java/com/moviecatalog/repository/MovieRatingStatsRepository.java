@@ -0,0 +1,230 @@
+package com.moviecatalog.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Per-movie rating aggregates and histograms kept next to {@code reviews} so that they never need a scan.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MovieRatingStatsRepository {
+
+    public static final int RATING_BUCKETS = 10;
+
+    private static final String UPSERT_DELTA =
+            "INSERT INTO movie_rating_stats (movie_id, review_count, rating_sum, rating_counts) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (movie_id) DO UPDATE SET " +
+            "review_count = movie_rating_stats.review_count + EXCLUDED.review_count, " +
+            "rating_sum = movie_rating_stats.rating_sum + EXCLUDED.rating_sum, " +
+            "rating_counts = ARRAY(SELECT t.current + t.delta " +
+            "FROM unnest(movie_rating_stats.rating_counts, EXCLUDED.rating_counts) WITH ORDINALITY AS t(current, delta, i) " +
+            "ORDER BY t.i)";
+
+    private static final String ENSURE_RANGE =
+            "INSERT INTO movie_rating_stats (movie_id) SELECT id FROM movies WHERE id BETWEEN ? AND ? " +
+            "ON CONFLICT (movie_id) DO NOTHING";
+
+    private static final String LOCK_RANGE =
+            "SELECT movie_id FROM movie_rating_stats WHERE movie_id BETWEEN ? AND ? FOR UPDATE";
+
+    private static final String REBUILD_RANGE =
+            "INSERT INTO movie_rating_stats (movie_id, review_count, rating_sum, rating_counts) " +
+            "SELECT m.id, COUNT(r.id), COALESCE(SUM(r.rating), 0), ARRAY[" +
+            "COUNT(*) FILTER (WHERE r.rating = 1), COUNT(*) FILTER (WHERE r.rating = 2), " +
+            "COUNT(*) FILTER (WHERE r.rating = 3), COUNT(*) FILTER (WHERE r.rating = 4), " +
+            "COUNT(*) FILTER (WHERE r.rating = 5), COUNT(*) FILTER (WHERE r.rating = 6), " +
+            "COUNT(*) FILTER (WHERE r.rating = 7), COUNT(*) FILTER (WHERE r.rating = 8), " +
+            "COUNT(*) FILTER (WHERE r.rating = 9), COUNT(*) FILTER (WHERE r.rating = 10)]::INTEGER[] " +
+            "FROM movies m LEFT JOIN reviews r ON r.movie_id = m.id " +
+            "WHERE m.id BETWEEN ? AND ? " +
+            "GROUP BY m.id " +
+            "ON CONFLICT (movie_id) DO UPDATE SET " +
+            "review_count = EXCLUDED.review_count, rating_sum = EXCLUDED.rating_sum, rating_counts = EXCLUDED.rating_counts";
+
+    private static final String TOP_RATED_IN_GENRE =
+            "SELECT s.movie_id, s.review_count, s.rating_sum FROM movie_genres mg " +
+            "JOIN movie_rating_stats s ON s.movie_id = mg.movie_id " +
+            "WHERE mg.genre_id = ? AND s.review_count > 0 " +
+            "ORDER BY (CAST(? AS float8) + s.rating_sum) / (CAST(? AS float8) + s.review_count) DESC, s.movie_id " +
+            "LIMIT ?";
+
+    private static final String TOTALS_WITH_GENRES =
+            "SELECT m.id, COALESCE(s.review_count, 0), COALESCE(s.rating_sum, 0), " +
+            "ARRAY(SELECT mg.genre_id FROM movie_genres mg WHERE mg.movie_id = m.id), m.change_seq " +
+            "FROM movies m LEFT JOIN movie_rating_stats s ON s.movie_id = m.id WHERE m.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void addRating(long movieId, int rating) {
+        applyDelta(movieId, RatingDelta.ZERO.plus(rating));
+    }
+
+    public void removeRating(long movieId, int rating) {
+        applyDelta(movieId, RatingDelta.ZERO.minus(rating));
+    }
+
+    public void applyDelta(long movieId, RatingDelta delta) {
+        jdbcTemplate.update(UPSERT_DELTA, movieId, delta.count(), delta.ratingSum(), delta.ratingCounts());
+    }
+
+    public void applyDeltas(Map<Long, RatingDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((movieId, delta) ->
+                args.add(new Object[]{movieId, delta.count(), delta.ratingSum(), delta.ratingCounts()}));
+        jdbcTemplate.batchUpdate(UPSERT_DELTA, args);
+    }
+
+    /**
+     * @return number of reviews per rating, index 0 holding rating 1
+     */
+    public Optional<long[]> findRatingCounts(long movieId) {
+        return jdbcTemplate.query("SELECT rating_counts FROM movie_rating_stats WHERE movie_id = ?",
+                        (rs, rowNum) -> toCounts(rs), movieId)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * @return mean rating per movie, movies without reviews are absent
+     */
+    public Map<Long, Double> findAverageRatings(Collection<Long> movieIds) {
+        if (movieIds.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(movieIds.size(), "?"));
+        Map<Long, Double> averages = new HashMap<>(movieIds.size() * 2);
+        jdbcTemplate.query("SELECT movie_id, rating_sum::float8 / review_count FROM movie_rating_stats " +
+                        "WHERE review_count > 0 AND movie_id IN (" + placeholders + ")",
+                rs -> {
+                    averages.put(rs.getLong(1), rs.getDouble(2));
+                },
+                movieIds.toArray());
+        return averages;
+    }
+
+    /**
+     * Movies of a genre with the highest Bayesian score {@code (w * C + sum) / (w + count)}.
+     */
+    public List<MovieTotals> findTopRatedInGenre(long genreId, double priorMean, double priorWeight, int limit) {
+        return jdbcTemplate.query(TOP_RATED_IN_GENRE,
+                (rs, rowNum) -> new MovieTotals(rs.getLong(1), rs.getLong(2), rs.getLong(3), Set.of()),
+                genreId, priorWeight * priorMean, priorWeight, limit);
+    }
+
+    /**
+     * @return review totals of the movie together with its genre ids and {@code change_seq}, empty if
+     * the movie does not exist
+     */
+    public Optional<MovieTotals> findTotalsWithGenres(long movieId) {
+        return jdbcTemplate.query(TOTALS_WITH_GENRES,
+                        (rs, rowNum) -> new MovieTotals(rs.getLong(1), rs.getLong(2), rs.getLong(3), toIdSet(rs),
+                                rs.getLong(5)),
+                        movieId)
+                .stream()
+                .findFirst();
+    }
+
+    public Totals findTotals() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(review_count), 0), COALESCE(SUM(rating_sum), 0) FROM movie_rating_stats",
+                (rs, rowNum) -> new Totals(rs.getLong(1), rs.getLong(2)));
+    }
+
+    public Optional<long[]> findMovieIdRange() {
+        long[] range = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM movies",
+                (rs, rowNum) -> rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+        return Optional.ofNullable(range);
+    }
+
+    /**
+     * Recomputes the aggregates of all movies with ids in {@code [fromId, toId]} from {@code reviews}.
+     * Must run in a transaction: the aggregate rows of the range are created and locked first, so
+     * review writers that commit before the lock are counted by the recompute, which reads a newer
+     * snapshot, and writers still in flight apply their deltas on top of it after the commit.
+     *
+     * @return number of movies rewritten
+     */
+    public int rebuildRange(long fromId, long toId) {
+        jdbcTemplate.update(ENSURE_RANGE, fromId, toId);
+        jdbcTemplate.query(LOCK_RANGE, rs -> {
+        }, fromId, toId);
+        return jdbcTemplate.update(REBUILD_RANGE, fromId, toId);
+    }
+
+    private static long[] toCounts(ResultSet rs) throws SQLException {
+        Array array = rs.getArray(1);
+        try {
+            Integer[] values = (Integer[]) array.getArray();
+            long[] counts = new long[RATING_BUCKETS];
+            for (int i = 0; i < counts.length && i < values.length; i++) {
+                counts[i] = values[i];
+            }
+            return counts;
+        } finally {
+            array.free();
+        }
+    }
+
+    private static Set<Long> toIdSet(ResultSet rs) throws SQLException {
+        Array array = rs.getArray(4);
+        try {
+            Set<Long> ids = new HashSet<>();
+            for (Object id : (Object[]) array.getArray()) {
+                ids.add(((Number) id).longValue());
+            }
+            return ids;
+        } finally {
+            array.free();
+        }
+    }
+
+    public record Totals(long reviewCount, long ratingSum) {
+    }
+
+    /**
+     * @param changeSeq {@code change_seq} of the movie when it was read, 0 if not read
+     */
+    public record MovieTotals(long movieId, long reviewCount, long ratingSum, Set<Long> genreIds, long changeSeq) {
+
+        public MovieTotals(long movieId, long reviewCount, long ratingSum, Set<Long> genreIds) {
+            this(movieId, reviewCount, ratingSum, genreIds, 0);
+        }
+    }
+
+    public record RatingDelta(long count, long ratingSum, int[] ratingCounts) {
+
+        public static final RatingDelta ZERO = new RatingDelta(0, 0, new int[RATING_BUCKETS]);
+
+        public RatingDelta plus(int rating) {
+            return add(rating, 1);
+        }
+
+        public RatingDelta minus(int rating) {
+            return add(rating, -1);
+        }
+
+        private RatingDelta add(int rating, int sign) {
+            int[] counts = ratingCounts.clone();
+            counts[rating - 1] += sign;
+            return new RatingDelta(count + sign, ratingSum + (long) sign * rating, counts);
+        }
+    }
+}
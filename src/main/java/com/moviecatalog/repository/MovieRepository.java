@@ -1,10 +1,13 @@
 package com.moviecatalog.repository;
 
 import com.moviecatalog.entity.Movie;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -16,8 +19,28 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
 
     List<Movie> findByDirectorId(Long directorId);
 
-    @Query("SELECT m FROM Movie m LEFT JOIN FETCH m.director LEFT JOIN FETCH m.genres")
-    List<Movie> findAllWithRelations();
+    @Query("SELECT m.id FROM Movie m WHERE m.director.id = :directorId")
+    List<Long> findIdsByDirectorId(Long directorId);
+
+    @Query("SELECT m FROM Movie m ORDER BY m.releaseDate DESC, m.id DESC")
+    List<Movie> findPage(Limit limit);
+
+    @Query("SELECT m FROM Movie m WHERE m.releaseDate <= :releaseDate " +
+           "AND (m.releaseDate < :releaseDate OR m.id < :id) " +
+           "ORDER BY m.releaseDate DESC, m.id DESC")
+    List<Movie> findPageAfter(LocalDate releaseDate, Long id, Limit limit);
+
+    @Query("SELECT m FROM Movie m WHERE LOWER(m.title) LIKE :pattern ESCAPE '!' " +
+           "ORDER BY m.releaseDate DESC, m.id DESC")
+    List<Movie> searchPage(String pattern, Limit limit);
+
+    @Query("SELECT m FROM Movie m WHERE LOWER(m.title) LIKE :pattern ESCAPE '!' " +
+           "AND m.releaseDate <= :releaseDate AND (m.releaseDate < :releaseDate OR m.id < :id) " +
+           "ORDER BY m.releaseDate DESC, m.id DESC")
+    List<Movie> searchPageAfter(String pattern, LocalDate releaseDate, Long id, Limit limit);
+
+    @Query("SELECT m.id AS movieId, g.id AS genreId FROM Movie m JOIN m.genres g WHERE m.id IN :movieIds")
+    List<MovieGenreId> findGenreIdsByMovieIds(Collection<Long> movieIds);
 
     @Query("SELECT m FROM Movie m LEFT JOIN FETCH m.director LEFT JOIN FETCH m.genres WHERE m.id = :id")
     Optional<Movie> findByIdWithRelations(Long id);
@@ -26,5 +49,16 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
            "WHERE m.id != :movieId AND EXISTS " +
            "(SELECT 1 FROM m.genres g WHERE g.id IN :genreIds)")
     List<Movie> findSimilarMovies(Long movieId, Set<Long> genreIds);
+
+    @Query(value = "SELECT m.* FROM movie_similarities s JOIN movies m ON m.id = s.similar_movie_id " +
+                   "WHERE s.movie_id = :movieId ORDER BY s.rank", nativeQuery = true)
+    List<Movie> findCollaborativeNeighbors(Long movieId);
+
+    interface MovieGenreId {
+
+        Long getMovieId();
+
+        Long getGenreId();
+    }
 }
 
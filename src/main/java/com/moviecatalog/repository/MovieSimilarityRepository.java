@@ -0,0 +1,78 @@
+package com.moviecatalog.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Item-item neighbors computed offline by the collaborative filtering job.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MovieSimilarityRepository {
+
+    private static final String AUTHOR_MOVIES =
+            "SELECT DISTINCT lower(author_name), movie_id FROM reviews ORDER BY 1, 2";
+
+    // movies deleted since the matrix was read are skipped instead of failing the whole rebuild
+    private static final String INSERT =
+            "INSERT INTO movie_similarities (movie_id, rank, similar_movie_id, score, co_reviewers) " +
+            "SELECT ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM movies WHERE id = ?) " +
+            "AND EXISTS (SELECT 1 FROM movies WHERE id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Passes every distinct (author, movie) pair of {@code reviews} to {@code consumer}, grouped by
+     * author and read with a cursor of {@link StreamingQueries#FETCH_SIZE} rows. Authors are matched
+     * case-insensitively. Must run inside a transaction for the cursor to be used.
+     */
+    public void forEachAuthorMovie(AuthorMovieConsumer consumer) {
+        jdbcTemplate.query(con -> {
+            var statement = con.prepareStatement(AUTHOR_MOVIES);
+            statement.setFetchSize(StreamingQueries.FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            consumer.accept(rs.getString(1), rs.getLong(2));
+        });
+    }
+
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM movie_similarities");
+    }
+
+    /**
+     * Inserts {@code neighbors} and returns how many rows were written; rows referencing a movie that
+     * no longer exists are skipped.
+     */
+    public int insertAll(List<Neighbor> neighbors) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT, neighbors, neighbors.size(), (ps, neighbor) -> {
+            ps.setLong(1, neighbor.movieId());
+            ps.setInt(2, neighbor.rank());
+            ps.setLong(3, neighbor.similarMovieId());
+            ps.setDouble(4, neighbor.score());
+            ps.setInt(5, neighbor.coReviewers());
+            ps.setLong(6, neighbor.movieId());
+            ps.setLong(7, neighbor.similarMovieId());
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // the driver may report SUCCESS_NO_INFO (-2) instead of a row count
+                inserted += count < 0 ? 1 : count;
+            }
+        }
+        return inserted;
+    }
+
+    @FunctionalInterface
+    public interface AuthorMovieConsumer {
+
+        void accept(String author, long movieId);
+    }
+
+    public record Neighbor(long movieId, int rank, long similarMovieId, double score, int coReviewers) {
+    }
+}
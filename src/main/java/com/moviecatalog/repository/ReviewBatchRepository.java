@@ -0,0 +1,51 @@
+package com.moviecatalog.repository;
+
+import com.moviecatalog.dto.ReviewDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+public class ReviewBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Set<Long> findExistingMovieIds(Collection<Long> movieIds) {
+        if (movieIds.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(movieIds.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM movies WHERE id IN (" + placeholders + ")", Long.class, movieIds.toArray()));
+    }
+
+    /**
+     * Inserts all reviews with a single multi-row statement.
+     *
+     * @return generated ids in the order of {@code reviews}
+     */
+    public List<Long> insertAll(List<ReviewDTO> reviews) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO reviews (author_name, comment, rating, created_at, movie_id) VALUES ");
+        Object[] args = new Object[reviews.size() * 5];
+        for (int i = 0; i < reviews.size(); i++) {
+            ReviewDTO review = reviews.get(i);
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+            args[i * 5] = review.getAuthorName();
+            args[i * 5 + 1] = review.getComment();
+            args[i * 5 + 2] = review.getRating();
+            args[i * 5 + 3] = Timestamp.valueOf(review.getCreatedAt());
+            args[i * 5 + 4] = review.getMovieId();
+        }
+        sql.append(" RETURNING id");
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args);
+    }
+}
@@ -1,18 +1,59 @@
 package com.moviecatalog.repository;
 
 import com.moviecatalog.entity.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    List<Review> findByMovieId(Long movieId);
+    @Query("SELECT r FROM Review r ORDER BY r.id DESC")
+    List<Review> findPage(Limit limit);
+
+    @Query("SELECT r FROM Review r WHERE r.id < :id ORDER BY r.id DESC")
+    List<Review> findPageBefore(Long id, Limit limit);
+
+    @Query("SELECT r FROM Review r WHERE r.movie.id = :movieId ORDER BY r.id DESC")
+    List<Review> findMoviePage(Long movieId, Limit limit);
+
+    @Query("SELECT r FROM Review r WHERE r.movie.id = :movieId AND r.id < :id ORDER BY r.id DESC")
+    List<Review> findMoviePageBefore(Long movieId, Long id, Limit limit);
+
+    @Query("SELECT r FROM Review r WHERE LOWER(r.authorName) LIKE :pattern ESCAPE '!' ORDER BY r.id DESC")
+    List<Review> searchPage(String pattern, Limit limit);
+
+    @Query("SELECT r FROM Review r WHERE LOWER(r.authorName) LIKE :pattern ESCAPE '!' AND r.id < :id " +
+           "ORDER BY r.id DESC")
+    List<Review> searchPageBefore(String pattern, Long id, Limit limit);
+
+    @Query("SELECT r FROM Review r WHERE LOWER(r.authorName) = LOWER(:authorName) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findAuthorPage(String authorName, Limit limit);
+
+    @Query("SELECT r FROM Review r WHERE LOWER(r.authorName) = LOWER(:authorName) " +
+           "AND r.createdAt <= :createdAt AND (r.createdAt < :createdAt OR r.id < :id) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findAuthorPageAfter(String authorName, LocalDateTime createdAt, Long id, Limit limit);
 
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.movie.id = :movieId")
     Double findAverageRatingByMovieId(Long movieId);
+
+    @Query("SELECT r.movie.id AS movieId, r.rating AS rating, r.createdAt AS createdAt FROM Review r WHERE r.id = :id")
+    Optional<MovieRating> findMovieRatingById(Long id);
+
+    interface MovieRating {
+
+        Long getMovieId();
+
+        Integer getRating();
+
+        LocalDateTime getCreatedAt();
+    }
 }
 
@@ -0,0 +1,13 @@
+package com.moviecatalog.repository;
+
+/**
+ * Settings shared by queries that read a whole table: the JDBC fetch size of cursor reads and
+ * the chunk size of keyset-paged reads, so at most one chunk is held in memory.
+ */
+public final class StreamingQueries {
+
+    public static final int FETCH_SIZE = 500;
+
+    private StreamingQueries() {
+    }
+}
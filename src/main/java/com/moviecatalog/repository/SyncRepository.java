@@ -0,0 +1,65 @@
+package com.moviecatalog.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Change keys maintained by the triggers of V10: {@code (change_xid, change_seq)} on every synced
+ * table and {@code sync_tombstones} for deletions. Changes are paged in that key order, which each
+ * table serves from one index.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SyncRepository {
+
+    private static final String CHANGE_KEY =
+            "(change_xid, change_seq) > (CAST(? AS xid8), ?) AND change_xid < CAST(? AS xid8) ";
+
+    private static final String CHANGES =
+            "SELECT entity_type, entity_id, change_xid::text, change_seq, deleted FROM (" +
+            "SELECT 'MOVIE' AS entity_type, id AS entity_id, change_xid, change_seq, FALSE AS deleted FROM movies " +
+            "WHERE " + CHANGE_KEY +
+            "UNION ALL SELECT 'DIRECTOR', id, change_xid, change_seq, FALSE FROM directors WHERE " + CHANGE_KEY +
+            "UNION ALL SELECT 'GENRE', id, change_xid, change_seq, FALSE FROM genres WHERE " + CHANGE_KEY +
+            "UNION ALL SELECT 'REVIEW', id, change_xid, change_seq, FALSE FROM reviews WHERE " + CHANGE_KEY +
+            "UNION ALL SELECT entity_type, entity_id, change_xid, change_seq, TRUE FROM sync_tombstones " +
+            "WHERE ? AND " + CHANGE_KEY +
+            ") changes ORDER BY change_xid, change_seq LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return xmin of the current snapshot: every transaction with a smaller id has finished
+     */
+    public long currentSnapshotXmin() {
+        String xmin = jdbcTemplate.queryForObject("SELECT pg_snapshot_xmin(pg_current_snapshot())::text", String.class);
+        return Long.parseLong(xmin);
+    }
+
+    /**
+     * Changes after the key {@code (afterXid, afterSeq)} written by transactions with id below
+     * {@code beforeXid}, in key order.
+     */
+    public List<ChangeKey> findChanges(long afterXid, long afterSeq, long beforeXid, boolean includeTombstones,
+                                       int limit) {
+        String after = Long.toString(afterXid);
+        String before = Long.toString(beforeXid);
+        return jdbcTemplate.query(CHANGES,
+                (rs, rowNum) -> new ChangeKey(rs.getString(1), rs.getLong(2), Long.parseLong(rs.getString(3)),
+                        rs.getLong(4), rs.getBoolean(5)),
+                after, afterSeq, before, after, afterSeq, before, after, afterSeq, before,
+                after, afterSeq, before, includeTombstones, after, afterSeq, before, limit);
+    }
+
+    public int deleteTombstonesBefore(Instant deletedBefore) {
+        return jdbcTemplate.update("DELETE FROM sync_tombstones WHERE deleted_at < ?", Timestamp.from(deletedBefore));
+    }
+
+    public record ChangeKey(String entityType, long entityId, long changeXid, long changeSeq, boolean deleted) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.moviecatalog.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class TrendingRepository {
+
+    private static final String DECAYED_RATING_SUMS =
+            "SELECT movie_id, SUM(rating * exp(CAST(? AS float8) * " +
+            "CAST(EXTRACT(EPOCH FROM created_at - CAST(? AS timestamp)) AS float8))) " +
+            "FROM reviews WHERE created_at >= ? GROUP BY movie_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sums of {@code rating * e^(decayPerSecond * (created_at - landmark))} per movie over the reviews
+     * created since {@code since}, read through the {@code created_at} index.
+     */
+    public Map<Long, Double> findDecayedRatingSums(LocalDateTime since, LocalDateTime landmark, double decayPerSecond) {
+        Map<Long, Double> sums = new HashMap<>();
+        jdbcTemplate.query(DECAYED_RATING_SUMS,
+                rs -> {
+                    sums.put(rs.getLong(1), rs.getDouble(2));
+                },
+                decayPerSecond, landmark, since);
+        return sums;
+    }
+}
@@ -0,0 +1,111 @@
+package com.moviecatalog.service;
+
+import com.moviecatalog.catalog.CatalogSnapshot;
+import com.moviecatalog.catalog.CatalogSnapshotService;
+import com.moviecatalog.dto.CursorPageDTO;
+import com.moviecatalog.dto.DirectorDTO;
+import com.moviecatalog.dto.GenreDTO;
+import com.moviecatalog.dto.MovieDTO;
+import com.moviecatalog.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Catalog reads served from the in-memory {@link CatalogSnapshot} when it is enabled, without a
+ * transaction or connection; otherwise delegated to the JPA services. The snapshot trails
+ * committed writes by up to {@code app.catalog-snapshot.publish-interval-ms}.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogReadService {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final MovieService movieService;
+    private final DirectorService directorService;
+    private final GenreService genreService;
+    private final CoalescingReadService coalescingReadService;
+
+    public void streamAllMovies(Consumer<MovieDTO> consumer) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot == null) {
+            movieService.streamAllMovies(consumer);
+            return;
+        }
+        snapshot.forEachMovie(consumer);
+    }
+
+    public MovieDTO getMovieById(@NonNull Long id) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot == null) {
+            return coalescingReadService.getMovieById(id);
+        }
+        MovieDTO movie = snapshot.findMovie(id);
+        if (movie == null) {
+            throw new ResourceNotFoundException("Фильм с id " + id + " не найден");
+        }
+        return movie;
+    }
+
+    public CursorPageDTO<MovieDTO> getMoviesPage(String cursor, String query, Integer limit) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot == null) {
+            return movieService.getMoviesPage(cursor, query, limit);
+        }
+        int pageSize = Paging.pageSize(limit);
+        LocalDate releaseDate = null;
+        Long id = null;
+        if (cursor != null && !cursor.isBlank()) {
+            long[] keys = Paging.decodeNumericCursor(cursor, 2);
+            releaseDate = MovieService.releaseDate(keys[0]);
+            id = keys[1];
+        }
+        List<MovieDTO> movies = snapshot.findMoviesNewestFirst(releaseDate, id, Paging.searchTerm(query), pageSize + 1);
+
+        String nextCursor = null;
+        if (movies.size() > pageSize) {
+            movies = movies.subList(0, pageSize);
+            MovieDTO last = movies.get(pageSize - 1);
+            nextCursor = Paging.encodeCursor(last.getReleaseDate().toEpochDay(), last.getId());
+        }
+        return new CursorPageDTO<>(movies, nextCursor);
+    }
+
+    public List<DirectorDTO> getAllDirectors() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        return snapshot != null ? snapshot.directors() : directorService.getAllDirectors();
+    }
+
+    public DirectorDTO getDirectorById(@NonNull Long id) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot == null) {
+            return directorService.getDirectorById(id);
+        }
+        DirectorDTO director = snapshot.findDirector(id);
+        if (director == null) {
+            throw new ResourceNotFoundException("Режиссер с id " + id + " не найден");
+        }
+        return director;
+    }
+
+    public List<GenreDTO> getAllGenres() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        return snapshot != null ? snapshot.genres() : genreService.getAllGenres();
+    }
+
+    public GenreDTO getGenreById(@NonNull Long id) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot == null) {
+            return genreService.getGenreById(id);
+        }
+        GenreDTO genre = snapshot.findGenre(id);
+        if (genre == null) {
+            throw new ResourceNotFoundException("Жанр с id " + id + " не найден");
+        }
+        return genre;
+    }
+}
@@ -0,0 +1,108 @@
+package com.moviecatalog.service;
+
+import com.moviecatalog.cache.CoalescingProperties;
+import com.moviecatalog.cache.SingleFlight;
+import com.moviecatalog.dto.MovieDTO;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.EntityChange.Operation;
+import com.moviecatalog.events.RemoteInvalidation;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Hot per-movie reads shared between concurrent identical requests. Calls are coalesced
+ * outside of any transaction, so only the leader holds a connection.
+ */
+@Service
+public class CoalescingReadService {
+
+    private final MovieService movieService;
+    private final ReviewService reviewService;
+    private final CoalescingProperties properties;
+    private final SingleFlight<Long, MovieDTO> movies;
+    private final SingleFlight<Long, List<MovieDTO>> recommendations;
+    private final SingleFlight<Long, Double> averageRatings;
+
+    public CoalescingReadService(MovieService movieService, ReviewService reviewService,
+                                 CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.movieService = movieService;
+        this.reviewService = reviewService;
+        this.properties = properties;
+        this.movies = new SingleFlight<>("movie", properties.getMicroCacheTtl(),
+                properties.getLoaderBudget(), meterRegistry);
+        this.recommendations = new SingleFlight<>("recommendations", properties.getMicroCacheTtl(),
+                properties.getLoaderBudget(), meterRegistry);
+        this.averageRatings = new SingleFlight<>("average-rating", properties.getMicroCacheTtl(),
+                properties.getLoaderBudget(), meterRegistry);
+    }
+
+    public MovieDTO getMovieById(@NonNull Long id) {
+        return execute(movies, id, () -> movieService.getMovieById(id));
+    }
+
+    public List<MovieDTO> getRecommendedMovies(@NonNull Long movieId) {
+        return execute(recommendations, movieId, () -> movieService.getRecommendedMovies(movieId));
+    }
+
+    public Double getAverageRatingByMovieId(@NonNull Long movieId) {
+        return execute(averageRatings, movieId, () -> reviewService.getAverageRatingByMovieId(movieId));
+    }
+
+    /**
+     * Drops cached results a committed change made stale, so the micro-cache never outlives a write.
+     */
+    @TransactionalEventListener
+    public void onChange(EntityChange change) {
+        evict(change.entity(), change.entityId(), change.operation() == Operation.DELETED);
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(RemoteInvalidation invalidation) {
+        if (invalidation.isEverything()) {
+            movies.evictAll();
+            recommendations.evictAll();
+            averageRatings.evictAll();
+            return;
+        }
+        for (long id : invalidation.entityIds()) {
+            evict(invalidation.entity(), id, invalidation.deleted());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.coalescing.purge-interval-ms:30000}")
+    public void purgeExpired() {
+        movies.purgeExpired();
+        recommendations.purgeExpired();
+        averageRatings.purgeExpired();
+    }
+
+    private void evict(EntityType entity, long id, boolean deleted) {
+        switch (entity) {
+            case MOVIE -> {
+                movies.evict(id);
+                averageRatings.evict(id);
+                recommendations.evictAll();
+            }
+            case GENRE -> {
+                if (deleted) {
+                    movies.evictAll();
+                    recommendations.evictAll();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private <V> V execute(SingleFlight<Long, V> group, Long key, Supplier<V> loader) {
+        return properties.isEnabled() ? group.execute(key, loader) : loader.get();
+    }
+}
@@ -2,13 +2,19 @@ package com.moviecatalog.service;
 
 import com.moviecatalog.dto.DirectorDTO;
 import com.moviecatalog.entity.Director;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
 import com.moviecatalog.exception.ResourceNotFoundException;
+import com.moviecatalog.repository.AuthorReviewStatsRepository;
 import com.moviecatalog.repository.DirectorRepository;
+import com.moviecatalog.repository.MovieRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,6 +23,9 @@ import java.util.stream.Collectors;
 public class DirectorService {
 
     private final DirectorRepository directorRepository;
+    private final MovieRepository movieRepository;
+    private final AuthorReviewStatsRepository authorReviewStatsRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<DirectorDTO> getAllDirectors() {
@@ -25,6 +34,16 @@ public class DirectorService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<DirectorDTO> getDirectorsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return directorRepository.findAllById(ids).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public DirectorDTO getDirectorById(@NonNull Long id) {
         Director director = directorRepository.findById(id)
@@ -41,6 +60,7 @@ public class DirectorService {
         director.setBiography(directorDTO.getBiography());
 
         Director savedDirector = directorRepository.save(director);
+        eventPublisher.publishEvent(EntityChange.created(EntityType.DIRECTOR, savedDirector.getId()));
         return convertToDTO(savedDirector);
     }
 
@@ -55,6 +75,7 @@ public class DirectorService {
         director.setBiography(directorDTO.getBiography());
 
         Director updatedDirector = directorRepository.save(director);
+        eventPublisher.publishEvent(EntityChange.updated(EntityType.DIRECTOR, id));
         return convertToDTO(updatedDirector);
     }
 
@@ -63,7 +84,13 @@ public class DirectorService {
         if (!directorRepository.existsById(id)) {
             throw new ResourceNotFoundException("Режиссер с id " + id + " не найден");
         }
+        // the director's movies are removed by cascade, listeners must see them deleted as well and
+        // their reviews must leave the author stats before they cascade away with the movies
+        List<Long> movieIds = movieRepository.findIdsByDirectorId(id);
+        movieIds.forEach(authorReviewStatsRepository::removeMovieReviews);
         directorRepository.deleteById(id);
+        movieIds.forEach(movieId -> eventPublisher.publishEvent(EntityChange.deleted(EntityType.MOVIE, movieId)));
+        eventPublisher.publishEvent(EntityChange.deleted(EntityType.DIRECTOR, id));
     }
 
     private DirectorDTO convertToDTO(Director director) {
@@ -2,13 +2,17 @@ package com.moviecatalog.service;
 
 import com.moviecatalog.dto.GenreDTO;
 import com.moviecatalog.entity.Genre;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
 import com.moviecatalog.exception.ResourceNotFoundException;
 import com.moviecatalog.repository.GenreRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,6 +21,7 @@ import java.util.stream.Collectors;
 public class GenreService {
 
     private final GenreRepository genreRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<GenreDTO> getAllGenres() {
@@ -25,6 +30,16 @@ public class GenreService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<GenreDTO> getGenresByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return genreRepository.findAllById(ids).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public GenreDTO getGenreById(@NonNull Long id) {
         Genre genre = genreRepository.findById(id)
@@ -38,6 +53,7 @@ public class GenreService {
         genre.setName(genreDTO.getName());
 
         Genre savedGenre = genreRepository.save(genre);
+        eventPublisher.publishEvent(EntityChange.created(EntityType.GENRE, savedGenre.getId()));
         return convertToDTO(savedGenre);
     }
 
@@ -49,6 +65,7 @@ public class GenreService {
         genre.setName(genreDTO.getName());
 
         Genre updatedGenre = genreRepository.save(genre);
+        eventPublisher.publishEvent(EntityChange.updated(EntityType.GENRE, id));
         return convertToDTO(updatedGenre);
     }
 
@@ -58,6 +75,7 @@ public class GenreService {
             throw new ResourceNotFoundException("Жанр с id " + id + " не найден");
         }
         genreRepository.deleteById(id);
+        eventPublisher.publishEvent(EntityChange.deleted(EntityType.GENRE, id));
     }
 
     private GenreDTO convertToDTO(Genre genre) {
@@ -0,0 +1,40 @@
+package com.moviecatalog.service;
+
+import com.moviecatalog.repository.MovieRatingStatsRepository;
+import com.moviecatalog.repository.MovieRatingStatsRepository.Totals;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Catalog-wide mean rating used as the prior of Bayesian scores. It drifts slowly, so it is
+ * refreshed periodically from the per-movie aggregates instead of on every request.
+ */
+@Component
+@RequiredArgsConstructor
+public class GlobalRatingPrior {
+
+    private final MovieRatingStatsRepository movieRatingStatsRepository;
+    private final RatingProperties properties;
+
+    private volatile Double mean;
+
+    public double mean() {
+        Double current = mean;
+        return current != null ? current : refresh();
+    }
+
+    public double weight() {
+        return properties.getPriorWeight();
+    }
+
+    @Scheduled(fixedDelayString = "${app.ratings.prior-refresh-interval-ms:60000}")
+    public double refresh() {
+        Totals totals = movieRatingStatsRepository.findTotals();
+        double refreshed = totals.reviewCount() > 0
+                ? (double) totals.ratingSum() / totals.reviewCount()
+                : properties.getDefaultPriorMean();
+        mean = refreshed;
+        return refreshed;
+    }
+}
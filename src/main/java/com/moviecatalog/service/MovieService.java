@@ -1,21 +1,41 @@
 package com.moviecatalog.service;
 
+import com.moviecatalog.dto.CursorPageDTO;
+import com.moviecatalog.dedup.DuplicateDetectionService;
 import com.moviecatalog.dto.MovieDTO;
 import com.moviecatalog.entity.Director;
 import com.moviecatalog.entity.Genre;
 import com.moviecatalog.entity.Movie;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.MovieGenresChanged;
+import com.moviecatalog.exception.BadRequestException;
 import com.moviecatalog.exception.ResourceNotFoundException;
+import com.moviecatalog.repository.AuthorReviewStatsRepository;
 import com.moviecatalog.repository.DirectorRepository;
 import com.moviecatalog.repository.GenreRepository;
+import com.moviecatalog.repository.MovieRatingStatsRepository;
 import com.moviecatalog.repository.MovieRepository;
+import com.moviecatalog.repository.MovieRepository.MovieGenreId;
+import com.moviecatalog.repository.StreamingQueries;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,12 +45,70 @@ public class MovieService {
     private final MovieRepository movieRepository;
     private final DirectorRepository directorRepository;
     private final GenreRepository genreRepository;
+    private final MovieRatingStatsRepository movieRatingStatsRepository;
+    private final AuthorReviewStatsRepository authorReviewStatsRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DuplicateDetectionService duplicateDetectionService;
 
+    /**
+     * Passes every movie to {@code consumer} without materializing the catalog. Movies are read
+     * with keyset paging in chunks of {@link StreamingQueries#FETCH_SIZE}, each chunk in its own
+     * short read-only transaction unless the caller holds one, so no connection is kept while the
+     * consumer writes to a slow client. Genres and ratings are loaded per chunk.
+     */
+    public void streamAllMovies(Consumer<MovieDTO> consumer) {
+        Limit chunkLimit = Limit.of(StreamingQueries.FETCH_SIZE);
+        List<Movie> chunk = movieRepository.findPage(chunkLimit);
+        while (!chunk.isEmpty()) {
+            Movie last = chunk.get(chunk.size() - 1);
+            List<MovieDTO> dtos = convertToDTOs(chunk);
+            entityManager.clear();
+            dtos.forEach(consumer);
+            if (chunk.size() < StreamingQueries.FETCH_SIZE) {
+                return;
+            }
+            chunk = movieRepository.findPageAfter(last.getReleaseDate(), last.getId(), chunkLimit);
+        }
+    }
+
+    /**
+     * One page of movies newest first, optionally filtered by a title substring.
+     */
     @Transactional(readOnly = true)
-    public List<MovieDTO> getAllMovies() {
-        return movieRepository.findAllWithRelations().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<MovieDTO> getMoviesPage(String cursor, String query, Integer limit) {
+        int pageSize = Paging.pageSize(limit);
+        Limit fetchLimit = Paging.fetchLimit(pageSize);
+        String pattern = Paging.containsPattern(query);
+        List<Movie> movies;
+        if (cursor == null || cursor.isBlank()) {
+            movies = pattern == null
+                    ? movieRepository.findPage(fetchLimit)
+                    : movieRepository.searchPage(pattern, fetchLimit);
+        } else {
+            long[] keys = Paging.decodeNumericCursor(cursor, 2);
+            LocalDate releaseDate = releaseDate(keys[0]);
+            long id = keys[1];
+            movies = pattern == null
+                    ? movieRepository.findPageAfter(releaseDate, id, fetchLimit)
+                    : movieRepository.searchPageAfter(pattern, releaseDate, id, fetchLimit);
+        }
+
+        String nextCursor = null;
+        if (movies.size() > pageSize) {
+            movies = movies.subList(0, pageSize);
+            Movie last = movies.get(pageSize - 1);
+            nextCursor = Paging.encodeCursor(last.getReleaseDate().toEpochDay(), last.getId());
+        }
+        return new CursorPageDTO<>(movies.isEmpty() ? List.of() : convertToDTOs(movies), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MovieDTO> getMoviesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return convertToDTOs(movieRepository.findAllById(ids));
     }
 
     @Transactional(readOnly = true)
@@ -42,6 +120,17 @@ public class MovieService {
 
     @Transactional
     public MovieDTO createMovie(MovieDTO movieDTO) {
+        return createMovie(movieDTO, false);
+    }
+
+    /**
+     * @param rejectDuplicates reject the movie if a similar one already exists
+     */
+    @Transactional
+    public MovieDTO createMovie(MovieDTO movieDTO, boolean rejectDuplicates) {
+        if (rejectDuplicates) {
+            duplicateDetectionService.checkNotDuplicate(movieDTO);
+        }
         Long directorId = Objects.requireNonNull(movieDTO.getDirectorId(), "Director ID cannot be null");
         Director director = directorRepository.findById(directorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Режиссер с id " + directorId + " не найден"));
@@ -62,6 +151,8 @@ public class MovieService {
         }
 
         Movie savedMovie = movieRepository.save(movie);
+        eventPublisher.publishEvent(EntityChange.created(EntityType.MOVIE, savedMovie.getId()));
+        publishGenres(savedMovie);
         return convertToDTO(savedMovie);
     }
 
@@ -89,6 +180,10 @@ public class MovieService {
         }
 
         Movie updatedMovie = movieRepository.save(movie);
+        eventPublisher.publishEvent(EntityChange.updated(EntityType.MOVIE, id));
+        if (movieDTO.getGenreIds() != null) {
+            publishGenres(updatedMovie);
+        }
         return convertToDTO(updatedMovie);
     }
 
@@ -97,7 +192,9 @@ public class MovieService {
         if (!movieRepository.existsById(id)) {
             throw new ResourceNotFoundException("Фильм с id " + id + " не найден");
         }
+        authorReviewStatsRepository.removeMovieReviews(id);
         movieRepository.deleteById(id);
+        eventPublisher.publishEvent(EntityChange.deleted(EntityType.MOVIE, id));
     }
 
     @Transactional(readOnly = true)
@@ -130,7 +227,65 @@ public class MovieService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Neighbors stored by the collaborative filtering job, read with one range scan of the
+     * {@code movie_similarities} primary key.
+     */
+    @Transactional(readOnly = true)
+    public List<MovieDTO> getCollaborativeRecommendations(@NonNull Long movieId) {
+        List<Movie> neighbors = movieRepository.findCollaborativeNeighbors(movieId);
+        if (neighbors.isEmpty()) {
+            if (!movieRepository.existsById(movieId)) {
+                throw new ResourceNotFoundException("Фильм с id " + movieId + " не найден");
+            }
+            return List.of();
+        }
+        return convertToDTOs(neighbors);
+    }
+
+    static LocalDate releaseDate(long epochDay) {
+        try {
+            return LocalDate.ofEpochDay(epochDay);
+        } catch (DateTimeException e) {
+            throw new BadRequestException("Некорректный курсор страницы");
+        }
+    }
+
+    private void publishGenres(Movie movie) {
+        Set<Long> genreIds = movie.getGenres() == null ? Set.of()
+                : movie.getGenres().stream().map(Genre::getId).collect(Collectors.toSet());
+        eventPublisher.publishEvent(new MovieGenresChanged(movie.getId(), genreIds));
+    }
+
+    /**
+     * Converts a batch of movies with one query for their genres and one for their ratings
+     * instead of initializing the collections of every movie.
+     */
+    private List<MovieDTO> convertToDTOs(List<Movie> movies) {
+        List<Long> movieIds = movies.stream().map(Movie::getId).toList();
+        Map<Long, Set<Long>> genreIds = movieRepository.findGenreIdsByMovieIds(movieIds).stream()
+                .collect(Collectors.groupingBy(MovieGenreId::getMovieId,
+                        Collectors.mapping(MovieGenreId::getGenreId, Collectors.toSet())));
+        Map<Long, Double> averageRatings = movieRatingStatsRepository.findAverageRatings(movieIds);
+
+        List<MovieDTO> dtos = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            MovieDTO dto = toDTO(movie, genreIds.getOrDefault(movie.getId(), new HashSet<>()));
+            dto.setAverageRating(averageRatings.getOrDefault(movie.getId(), 0.0));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
     private MovieDTO convertToDTO(Movie movie) {
+        MovieDTO dto = toDTO(movie, movie.getGenres().stream()
+                .map(Genre::getId)
+                .collect(Collectors.toSet()));
+        dto.setAverageRating(movie.getAverageRating());
+        return dto;
+    }
+
+    private MovieDTO toDTO(Movie movie, Set<Long> genreIds) {
         MovieDTO dto = new MovieDTO();
         dto.setId(movie.getId());
         dto.setTitle(movie.getTitle());
@@ -138,10 +293,7 @@ public class MovieService {
         dto.setReleaseDate(movie.getReleaseDate());
         dto.setDuration(movie.getDuration());
         dto.setDirectorId(movie.getDirector().getId());
-        dto.setGenreIds(movie.getGenres().stream()
-                .map(Genre::getId)
-                .collect(Collectors.toSet()));
-        dto.setAverageRating(movie.getAverageRating());
+        dto.setGenreIds(genreIds);
         return dto;
     }
 }
@@ -0,0 +1,101 @@
+package com.moviecatalog.service;
+
+import com.moviecatalog.exception.BadRequestException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Keyset pagination helpers: a cursor is the opaque sort key of the last row of a page, so the
+ * next page starts with an index range scan instead of skipping an offset.
+ */
+final class Paging {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private Paging() {
+    }
+
+    /**
+     * @return limit fetching one row past the page, used to tell whether a next page exists
+     */
+    static Limit fetchLimit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    static int pageSize(Integer pageSize) {
+        int size = pageSize != null ? pageSize : DEFAULT_PAGE_SIZE;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    static String encodeCursor(Object... keys) {
+        StringBuilder value = new StringBuilder();
+        for (Object key : keys) {
+            if (!value.isEmpty()) {
+                value.append(':');
+            }
+            value.append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decodeCursor(String cursor, int keys) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != keys) {
+                throw new IllegalArgumentException("Unexpected number of cursor keys");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Некорректный курсор страницы");
+        }
+    }
+
+    /**
+     * Decodes a cursor whose keys are all numbers.
+     */
+    static long[] decodeNumericCursor(String cursor, int keys) {
+        String[] parts = decodeCursor(cursor, keys);
+        try {
+            long[] values = new long[keys];
+            for (int i = 0; i < keys; i++) {
+                values[i] = Long.parseLong(parts[i]);
+            }
+            return values;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Некорректный курсор страницы");
+        }
+    }
+
+    /**
+     * @return lowercase search term, or {@code null} when there is nothing to search for
+     */
+    static String searchTerm(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        return query.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return case-insensitive {@code LIKE} pattern with {@code !} as escape character, or {@code null}
+     * when there is nothing to search for
+     */
+    static String containsPattern(String query) {
+        String term = searchTerm(query);
+        if (term == null) {
+            return null;
+        }
+        String escaped = term
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+}
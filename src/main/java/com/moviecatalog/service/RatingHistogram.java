@@ -0,0 +1,83 @@
+package com.moviecatalog.service;
+
+import java.util.Arrays;
+
+/**
+ * Count of each 1..10 rating of a movie. All summary statistics are derived from the ten counters.
+ */
+public final class RatingHistogram {
+
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 10;
+    public static final int BUCKETS = MAX_RATING - MIN_RATING + 1;
+
+    private final long[] counts;
+
+    public RatingHistogram(long[] counts) {
+        if (counts.length != BUCKETS) {
+            throw new IllegalArgumentException("Expected " + BUCKETS + " rating buckets, got " + counts.length);
+        }
+        this.counts = counts.clone();
+    }
+
+    public static RatingHistogram empty() {
+        return new RatingHistogram(new long[BUCKETS]);
+    }
+
+    public long count(int rating) {
+        return counts[rating - MIN_RATING];
+    }
+
+    public long[] counts() {
+        return counts.clone();
+    }
+
+    public long total() {
+        return Arrays.stream(counts).sum();
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            sum += counts[i] * (i + MIN_RATING);
+        }
+        return sum;
+    }
+
+    public double mean() {
+        long total = total();
+        return total == 0 ? 0.0 : (double) sum() / total;
+    }
+
+    public double median() {
+        long total = total();
+        if (total == 0) {
+            return 0.0;
+        }
+        long lowerRank = (total + 1) / 2;
+        long upperRank = total / 2 + 1;
+        return (ratingAtRank(lowerRank) + ratingAtRank(upperRank)) / 2.0;
+    }
+
+    /**
+     * Mean damped towards {@code priorMean} as if {@code priorWeight} extra reviews with that mean existed.
+     */
+    public double bayesianScore(double priorMean, double priorWeight) {
+        long total = total();
+        if (total == 0 && priorWeight <= 0) {
+            return 0.0;
+        }
+        return (priorWeight * priorMean + sum()) / (priorWeight + total);
+    }
+
+    private int ratingAtRank(long rank) {
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i + MIN_RATING;
+            }
+        }
+        return MAX_RATING;
+    }
+}
@@ -0,0 +1,34 @@
+package com.moviecatalog.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.ratings")
+public class RatingProperties {
+
+    /**
+     * Number of virtual reviews at the global mean added to every movie for the Bayesian score.
+     */
+    private double priorWeight = 10;
+
+    /**
+     * Prior mean used until the catalog has any reviews.
+     */
+    private double defaultPriorMean = 5.5;
+
+    /**
+     * Parallel workers (movie id ranges) of the rating aggregate rebuild; 0 means one per CPU.
+     */
+    private int rebuildParallelism = 0;
+
+    /**
+     * Number of movies kept in each genre leaderboard.
+     */
+    private int leaderboardSize = 100;
+
+    /**
+     * Change of the global mean rating that makes the leaderboards be rebuilt with the new prior.
+     */
+    private double leaderboardPriorTolerance = 0.01;
+}
@@ -0,0 +1,47 @@
+package com.moviecatalog.service;
+
+import com.moviecatalog.dto.RatingSummaryDTO;
+import com.moviecatalog.exception.ResourceNotFoundException;
+import com.moviecatalog.repository.MovieRatingStatsRepository;
+import com.moviecatalog.repository.MovieRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class RatingSummaryService {
+
+    private final MovieRatingStatsRepository movieRatingStatsRepository;
+    private final MovieRepository movieRepository;
+    private final GlobalRatingPrior globalRatingPrior;
+
+    @Transactional(readOnly = true)
+    public RatingSummaryDTO getRatingSummary(@NonNull Long movieId) {
+        RatingHistogram histogram = movieRatingStatsRepository.findRatingCounts(movieId)
+                .map(RatingHistogram::new)
+                .orElseGet(() -> {
+                    if (!movieRepository.existsById(movieId)) {
+                        throw new ResourceNotFoundException("Фильм с id " + movieId + " не найден");
+                    }
+                    return RatingHistogram.empty();
+                });
+
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        for (int rating = RatingHistogram.MIN_RATING; rating <= RatingHistogram.MAX_RATING; rating++) {
+            distribution.put(rating, histogram.count(rating));
+        }
+        return new RatingSummaryDTO(
+                movieId,
+                histogram.total(),
+                histogram.mean(),
+                histogram.median(),
+                histogram.bayesianScore(globalRatingPrior.mean(), globalRatingPrior.weight()),
+                distribution
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.moviecatalog.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.recommendations")
+public class RecommendationProperties {
+
+    /**
+     * Most similar movies stored per movie by the collaborative filtering job.
+     */
+    private int neighbors = 20;
+
+    /**
+     * Authors two movies must share before they are considered similar at all.
+     */
+    private int minCoReviewers = 2;
+
+    /**
+     * Authors with more reviewed movies are ignored: they link almost every pair of movies and
+     * their pairs dominate the cost of the job.
+     */
+    private int maxReviewsPerAuthor = 1000;
+
+    /**
+     * Fork-join parallelism of the similarity computation; 0 means one per CPU.
+     */
+    private int parallelism = 0;
+}
@@ -0,0 +1,39 @@
+package com.moviecatalog.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.review-ingestion")
+public class ReviewIngestionProperties {
+
+    /**
+     * When enabled, POST /api/reviews enqueues the review and answers 202 with a tracking id.
+     */
+    private boolean enabled = false;
+
+    private int queueCapacity = 50_000;
+
+    private int batchSize = 500;
+
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /**
+     * How long a request waits for queue space before it is rejected with 503.
+     */
+    private Duration enqueueTimeout = Duration.ofMillis(10);
+
+    private int trackedResults = 100_000;
+
+    /**
+     * Attempts per batch on transient database failures (deadlocks, serialization failures, lost
+     * connections); the delay starts at {@code retryBackoff} and doubles after each attempt.
+     */
+    private int maxAttempts = 5;
+
+    private Duration retryBackoff = Duration.ofMillis(100);
+
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,298 @@
+package com.moviecatalog.service;
+
+import com.moviecatalog.dto.ReviewDTO;
+import com.moviecatalog.dto.ReviewIngestionDTO;
+import com.moviecatalog.dto.ReviewIngestionDTO.Status;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.ReviewActivity;
+import com.moviecatalog.exception.ResourceNotFoundException;
+import com.moviecatalog.exception.ServiceOverloadedException;
+import com.moviecatalog.repository.AuthorReviewStatsRepository;
+import com.moviecatalog.repository.MovieRatingStatsRepository;
+import com.moviecatalog.repository.MovieRatingStatsRepository.RatingDelta;
+import com.moviecatalog.repository.ReviewBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind review ingestion: requests are validated and queued, a single flusher thread
+ * writes them in batches with one multi-row insert, one rating-aggregate update per movie and
+ * one author-aggregate update per review per batch. Transient database failures are retried with
+ * backoff, since the client has already been answered. Runs in a lifecycle phase below the web
+ * server, so on shutdown the server stops taking requests first and the queue is drained afterwards.
+ */
+@Service
+public class ReviewIngestionService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewIngestionService.class);
+
+    private final ReviewIngestionProperties properties;
+    private final ReviewBatchRepository reviewBatchRepository;
+    private final MovieRatingStatsRepository movieRatingStatsRepository;
+    private final AuthorReviewStatsRepository authorReviewStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<PendingReview> queue;
+    private final Map<String, ReviewIngestionDTO> results = new ConcurrentHashMap<>();
+    private final Queue<String> resultOrder = new ConcurrentLinkedQueue<>();
+    private final Counter overloaded;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public ReviewIngestionService(ReviewIngestionProperties properties,
+                                  ReviewBatchRepository reviewBatchRepository,
+                                  MovieRatingStatsRepository movieRatingStatsRepository,
+                                  AuthorReviewStatsRepository authorReviewStatsRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.reviewBatchRepository = reviewBatchRepository;
+        this.movieRatingStatsRepository = movieRatingStatsRepository;
+        this.authorReviewStatsRepository = authorReviewStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.overloaded = Counter.builder("reviews.ingestion.overloaded")
+                .description("Reviews rejected because the ingestion queue was full")
+                .register(meterRegistry);
+        Gauge.builder("reviews.ingestion.queue.size", queue, BlockingQueue::size)
+                .description("Reviews waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public ReviewIngestionDTO enqueue(ReviewDTO reviewDTO) {
+        if (!running) {
+            throw new ServiceOverloadedException("Прием отзывов остановлен", 5);
+        }
+        reviewDTO.setCreatedAt(LocalDateTime.now());
+        PendingReview pending = new PendingReview(UUID.randomUUID().toString(), reviewDTO);
+        ReviewIngestionDTO status = new ReviewIngestionDTO(pending.trackingId(), Status.QUEUED, null, null);
+        track(status);
+        boolean accepted;
+        try {
+            accepted = queue.offer(pending, properties.getEnqueueTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            results.remove(pending.trackingId());
+            overloaded.increment();
+            throw new ServiceOverloadedException("Очередь отзывов переполнена, повторите позже", 1);
+        }
+        return status;
+    }
+
+    public ReviewIngestionDTO getStatus(String trackingId) {
+        ReviewIngestionDTO status = results.get(trackingId);
+        if (status == null) {
+            throw new ResourceNotFoundException("Отзыв с идентификатором отслеживания " + trackingId + " не найден");
+        }
+        return status;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "review-ingestion-flusher");
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Review ingestion stopped with {} reviews still queued", queue.size());
+        }
+        flusher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushLoop() {
+        List<PendingReview> batch = new ArrayList<>(properties.getBatchSize());
+        long pollMillis = properties.getFlushInterval().toMillis();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingReview first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> reject(pending, "Прием отзывов остановлен"));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the batch, retrying transient failures. If it still fails, the reviews are written one
+     * by one, so a single bad row only rejects itself.
+     */
+    private void write(List<PendingReview> batch) throws InterruptedException {
+        try {
+            flushWithRetry(batch);
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                logger.error("Failed to write review {}", batch.get(0).trackingId(), e);
+                reject(batch.get(0), "Ошибка записи отзыва");
+                return;
+            }
+            logger.warn("Failed to write a batch of {} reviews, writing them one by one: {}", batch.size(),
+                    e.getMessage());
+        }
+        for (PendingReview pending : batch) {
+            try {
+                flushWithRetry(List.of(pending));
+            } catch (RuntimeException e) {
+                logger.error("Failed to write review {}", pending.trackingId(), e);
+                reject(pending, "Ошибка записи отзыва");
+            }
+        }
+    }
+
+    private void flushWithRetry(List<PendingReview> batch) throws InterruptedException {
+        long backoffMillis = properties.getRetryBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flush(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.getMaxAttempts() || !isTransient(e)) {
+                    throw e;
+                }
+                logger.warn("Transient failure writing {} reviews (attempt {}), retrying in {} ms: {}",
+                        batch.size(), attempt, backoffMillis, e.getMessage());
+                Thread.sleep(backoffMillis);
+                backoffMillis *= 2;
+            }
+        }
+    }
+
+    static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void reject(PendingReview pending, String reason) {
+        track(new ReviewIngestionDTO(pending.trackingId(), Status.REJECTED, null, reason));
+    }
+
+    private void flush(List<PendingReview> batch) {
+        List<ReviewIngestionDTO> outcomes = transactionTemplate.execute(tx -> {
+            Set<Long> existingMovieIds = reviewBatchRepository.findExistingMovieIds(
+                    batch.stream().map(pending -> pending.review().getMovieId()).distinct().toList());
+
+            List<PendingReview> accepted = new ArrayList<>(batch.size());
+            List<ReviewIngestionDTO> statuses = new ArrayList<>(batch.size());
+            for (PendingReview pending : batch) {
+                if (existingMovieIds.contains(pending.review().getMovieId())) {
+                    accepted.add(pending);
+                } else {
+                    statuses.add(new ReviewIngestionDTO(pending.trackingId(), Status.REJECTED, null,
+                            "Фильм с id " + pending.review().getMovieId() + " не найден"));
+                }
+            }
+            if (accepted.isEmpty()) {
+                return statuses;
+            }
+
+            List<Long> ids = reviewBatchRepository.insertAll(accepted.stream().map(PendingReview::review).toList());
+            Map<Long, RatingDelta> deltas = new HashMap<>();
+            for (int i = 0; i < accepted.size(); i++) {
+                PendingReview pending = accepted.get(i);
+                int rating = pending.review().getRating();
+                deltas.compute(pending.review().getMovieId(),
+                        (movieId, delta) -> (delta != null ? delta : RatingDelta.ZERO).plus(rating));
+                statuses.add(new ReviewIngestionDTO(pending.trackingId(), Status.STORED, ids.get(i), null));
+                eventPublisher.publishEvent(new ReviewActivity(pending.review().getMovieId(),
+                        pending.review().getCreatedAt(), rating));
+                eventPublisher.publishEvent(EntityChange.created(EntityType.REVIEW, ids.get(i)));
+            }
+            movieRatingStatsRepository.applyDeltas(deltas);
+            authorReviewStatsRepository.addReviews(accepted.stream().map(PendingReview::review).toList());
+            deltas.keySet().forEach(movieId -> eventPublisher.publishEvent(EntityChange.updated(EntityType.MOVIE, movieId)));
+            return statuses;
+        });
+        if (outcomes != null) {
+            outcomes.forEach(this::track);
+        }
+    }
+
+    private void track(ReviewIngestionDTO status) {
+        if (results.put(status.getTrackingId(), status) == null) {
+            resultOrder.add(status.getTrackingId());
+            while (results.size() > properties.getTrackedResults()) {
+                String oldest = resultOrder.poll();
+                if (oldest == null) {
+                    break;
+                }
+                results.remove(oldest);
+            }
+        }
+    }
+
+    private record PendingReview(String trackingId, ReviewDTO review) {
+    }
+}
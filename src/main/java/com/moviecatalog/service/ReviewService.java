@@ -1,19 +1,41 @@
 package com.moviecatalog.service;
 
+import com.moviecatalog.dto.AuthorReviewsDTO;
+import com.moviecatalog.dto.AuthorStatsDTO;
+import com.moviecatalog.dto.CursorPageDTO;
 import com.moviecatalog.dto.ReviewDTO;
 import com.moviecatalog.entity.Movie;
 import com.moviecatalog.entity.Review;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.ReviewActivity;
+import com.moviecatalog.exception.BadRequestException;
 import com.moviecatalog.exception.ResourceNotFoundException;
+import com.moviecatalog.repository.AuthorReviewStatsRepository;
+import com.moviecatalog.repository.AuthorReviewStatsRepository.AuthorStats;
+import com.moviecatalog.repository.MovieRatingStatsRepository;
 import com.moviecatalog.repository.MovieRepository;
 import com.moviecatalog.repository.ReviewRepository;
+import com.moviecatalog.repository.StreamingQueries;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -21,19 +43,91 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final MovieRepository movieRepository;
+    private final MovieRatingStatsRepository movieRatingStatsRepository;
+    private final AuthorReviewStatsRepository authorReviewStatsRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Passes every review to {@code consumer} newest first. Reviews are read with keyset paging in
+     * chunks of {@link StreamingQueries#FETCH_SIZE}, each chunk in its own short read-only
+     * transaction unless the caller holds one, so no connection is kept while the consumer writes.
+     */
+    public void streamAllReviews(Consumer<ReviewDTO> consumer) {
+        emit(reviewRepository::findPage, reviewRepository::findPageBefore, consumer);
+    }
+
+    public void streamReviewsByMovieId(@NonNull Long movieId, Consumer<ReviewDTO> consumer) {
+        emit(limit -> reviewRepository.findMoviePage(movieId, limit),
+                (id, limit) -> reviewRepository.findMoviePageBefore(movieId, id, limit), consumer);
+    }
+
+    /**
+     * One page of reviews newest first, optionally filtered by an author name substring.
+     */
     @Transactional(readOnly = true)
-    public List<ReviewDTO> getAllReviews() {
-        return reviewRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<ReviewDTO> getReviewsPage(String cursor, String query, Integer limit) {
+        int pageSize = Paging.pageSize(limit);
+        Limit fetchLimit = Paging.fetchLimit(pageSize);
+        String pattern = Paging.containsPattern(query);
+        List<Review> reviews;
+        if (cursor == null || cursor.isBlank()) {
+            reviews = pattern == null
+                    ? reviewRepository.findPage(fetchLimit)
+                    : reviewRepository.searchPage(pattern, fetchLimit);
+        } else {
+            long id = Paging.decodeNumericCursor(cursor, 1)[0];
+            reviews = pattern == null
+                    ? reviewRepository.findPageBefore(id, fetchLimit)
+                    : reviewRepository.searchPageBefore(pattern, id, fetchLimit);
+        }
+
+        String nextCursor = null;
+        if (reviews.size() > pageSize) {
+            reviews = reviews.subList(0, pageSize);
+            nextCursor = Paging.encodeCursor(reviews.get(pageSize - 1).getId());
+        }
+        return new CursorPageDTO<>(reviews.stream().map(this::convertToDTO).toList(), nextCursor);
+    }
+
+    /**
+     * Statistics and one page of reviews of an author newest first; the name is matched
+     * case-insensitively.
+     */
+    @Transactional(readOnly = true)
+    public AuthorReviewsDTO getAuthorReviews(String authorName, String cursor, Integer limit) {
+        int pageSize = Paging.pageSize(limit);
+        Limit fetchLimit = Paging.fetchLimit(pageSize);
+        AuthorStats stats = authorReviewStatsRepository.findByAuthorName(authorName)
+                .orElseThrow(() -> new ResourceNotFoundException("Отзывы автора " + authorName + " не найдены"));
+        List<Review> reviews;
+        if (cursor == null || cursor.isBlank()) {
+            reviews = reviewRepository.findAuthorPage(authorName, fetchLimit);
+        } else {
+            long[] keys = Paging.decodeNumericCursor(cursor, 2);
+            reviews = reviewRepository.findAuthorPageAfter(authorName, createdAt(keys[0]), keys[1], fetchLimit);
+        }
+
+        String nextCursor = null;
+        if (reviews.size() > pageSize) {
+            reviews = reviews.subList(0, pageSize);
+            Review last = reviews.get(pageSize - 1);
+            nextCursor = Paging.encodeCursor(epochMicros(last.getCreatedAt()), last.getId());
+        }
+        AuthorStatsDTO statsDTO = new AuthorStatsDTO(stats.authorName(), stats.reviewCount(),
+                stats.reviewCount() > 0 ? (double) stats.ratingSum() / stats.reviewCount() : null,
+                stats.firstReviewAt(), stats.lastReviewAt());
+        return new AuthorReviewsDTO(statsDTO, reviews.stream().map(this::convertToDTO).toList(), nextCursor);
     }
 
     @Transactional(readOnly = true)
-    public List<ReviewDTO> getReviewsByMovieId(@NonNull Long movieId) {
-        return reviewRepository.findByMovieId(movieId).stream()
+    public List<ReviewDTO> getReviewsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return reviewRepository.findAllById(ids).stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Transactional(readOnly = true)
@@ -56,6 +150,12 @@ public class ReviewService {
         review.setMovie(movie);
 
         Review savedReview = reviewRepository.save(review);
+        movieRatingStatsRepository.addRating(movieId, savedReview.getRating());
+        authorReviewStatsRepository.addReview(savedReview.getAuthorName(), savedReview.getRating(),
+                savedReview.getCreatedAt());
+        eventPublisher.publishEvent(new ReviewActivity(movieId, savedReview.getCreatedAt(), savedReview.getRating()));
+        eventPublisher.publishEvent(EntityChange.created(EntityType.REVIEW, savedReview.getId()));
+        eventPublisher.publishEvent(EntityChange.updated(EntityType.MOVIE, movieId));
         return convertToDTO(savedReview);
     }
 
@@ -63,17 +163,40 @@ public class ReviewService {
     public ReviewDTO updateReview(@NonNull Long id, ReviewDTO reviewDTO) {
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Отзыв с id " + id + " не найден"));
+        Long previousMovieId = review.getMovie().getId();
+        Integer previousRating = review.getRating();
+        boolean authorStatsChanged = !review.getAuthorName().equals(reviewDTO.getAuthorName())
+                || !previousRating.equals(reviewDTO.getRating());
 
         Long movieId = Objects.requireNonNull(reviewDTO.getMovieId(), "Movie ID cannot be null");
         Movie movie = movieRepository.findById(movieId)
                 .orElseThrow(() -> new ResourceNotFoundException("Фильм с id " + movieId + " не найден"));
 
+        if (authorStatsChanged) {
+            // the row still holds the previous values, the entity is flushed at commit
+            authorReviewStatsRepository.removeReview(id);
+        }
         review.setAuthorName(reviewDTO.getAuthorName());
         review.setComment(reviewDTO.getComment());
         review.setRating(reviewDTO.getRating());
         review.setMovie(movie);
 
         Review updatedReview = reviewRepository.save(review);
+        if (authorStatsChanged) {
+            authorReviewStatsRepository.addReview(updatedReview.getAuthorName(), updatedReview.getRating(),
+                    updatedReview.getCreatedAt());
+        }
+        if (!movieId.equals(previousMovieId) || !updatedReview.getRating().equals(previousRating)) {
+            movieRatingStatsRepository.removeRating(previousMovieId, previousRating);
+            movieRatingStatsRepository.addRating(movieId, updatedReview.getRating());
+            eventPublisher.publishEvent(new ReviewActivity(previousMovieId, updatedReview.getCreatedAt(), -previousRating));
+            eventPublisher.publishEvent(new ReviewActivity(movieId, updatedReview.getCreatedAt(), updatedReview.getRating()));
+            eventPublisher.publishEvent(EntityChange.updated(EntityType.MOVIE, movieId));
+            if (!movieId.equals(previousMovieId)) {
+                eventPublisher.publishEvent(EntityChange.updated(EntityType.MOVIE, previousMovieId));
+            }
+        }
+        eventPublisher.publishEvent(EntityChange.updated(EntityType.REVIEW, id));
         return convertToDTO(updatedReview);
     }
 
@@ -82,7 +205,14 @@ public class ReviewService {
         if (!reviewRepository.existsById(id)) {
             throw new ResourceNotFoundException("Отзыв с id " + id + " не найден");
         }
+        reviewRepository.findMovieRatingById(id).ifPresent(rating -> {
+            movieRatingStatsRepository.removeRating(rating.getMovieId(), rating.getRating());
+            eventPublisher.publishEvent(new ReviewActivity(rating.getMovieId(), rating.getCreatedAt(), -rating.getRating()));
+            eventPublisher.publishEvent(EntityChange.updated(EntityType.MOVIE, rating.getMovieId()));
+        });
+        authorReviewStatsRepository.removeReview(id);
         reviewRepository.deleteById(id);
+        eventPublisher.publishEvent(EntityChange.deleted(EntityType.REVIEW, id));
     }
 
     @Transactional(readOnly = true)
@@ -94,6 +224,34 @@ public class ReviewService {
         return averageRating != null ? averageRating : 0.0;
     }
 
+    static long epochMicros(LocalDateTime createdAt) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, createdAt.toInstant(ZoneOffset.UTC));
+    }
+
+    static LocalDateTime createdAt(long epochMicros) {
+        try {
+            return LocalDateTime.ofInstant(Instant.EPOCH.plus(epochMicros, ChronoUnit.MICROS), ZoneOffset.UTC);
+        } catch (DateTimeException | ArithmeticException e) {
+            throw new BadRequestException("Некорректный курсор страницы");
+        }
+    }
+
+    private void emit(Function<Limit, List<Review>> first, BiFunction<Long, Limit, List<Review>> next,
+                      Consumer<ReviewDTO> consumer) {
+        Limit chunkLimit = Limit.of(StreamingQueries.FETCH_SIZE);
+        List<Review> chunk = first.apply(chunkLimit);
+        while (!chunk.isEmpty()) {
+            Long lastId = chunk.get(chunk.size() - 1).getId();
+            List<ReviewDTO> dtos = chunk.stream().map(this::convertToDTO).toList();
+            entityManager.clear();
+            dtos.forEach(consumer);
+            if (chunk.size() < StreamingQueries.FETCH_SIZE) {
+                return;
+            }
+            chunk = next.apply(lastId, chunkLimit);
+        }
+    }
+
     private ReviewDTO convertToDTO(Review review) {
         ReviewDTO dto = new ReviewDTO();
         dto.setId(review.getId());
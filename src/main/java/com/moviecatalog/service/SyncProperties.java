@@ -0,0 +1,20 @@
+package com.moviecatalog.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.sync")
+public class SyncProperties {
+
+    private int defaultPageSize = 500;
+
+    private int maxPageSize = 5000;
+
+    /**
+     * How long deletions are remembered; older tokens are rejected and require a full sync.
+     */
+    private Duration tombstoneRetention = Duration.ofDays(30);
+}
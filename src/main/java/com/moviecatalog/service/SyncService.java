@@ -0,0 +1,97 @@
+package com.moviecatalog.service;
+
+import com.moviecatalog.dto.SyncPageDTO;
+import com.moviecatalog.dto.TombstoneDTO;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.exception.BadRequestException;
+import com.moviecatalog.repository.SyncRepository;
+import com.moviecatalog.repository.SyncRepository.ChangeKey;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta sync: each page returns the entities changed since the client's token together with
+ * tombstones of deleted ones, in change key order, so an interrupted pass resumes where it stopped.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncService.class);
+
+    private final SyncRepository syncRepository;
+    private final MovieService movieService;
+    private final DirectorService directorService;
+    private final GenreService genreService;
+    private final ReviewService reviewService;
+    private final SyncProperties properties;
+    private final Clock clock = Clock.systemUTC();
+
+    @Transactional(readOnly = true)
+    public SyncPageDTO sync(String token, Integer limit) {
+        int pageSize = limit != null ? limit : properties.getDefaultPageSize();
+        if (pageSize < 1 || pageSize > properties.getMaxPageSize()) {
+            throw new BadRequestException("Размер страницы должен быть от 1 до " + properties.getMaxPageSize());
+        }
+        Instant now = clock.instant();
+        SyncToken position = token == null || token.isBlank() ? SyncToken.initial(now) : SyncToken.decode(token);
+        if (!position.isFullSync() && position.issuedAt().isBefore(now.minus(properties.getTombstoneRetention()))) {
+            throw new BadRequestException("Токен синхронизации устарел, выполните полную синхронизацию без токена");
+        }
+        if (!position.isPassStarted()) {
+            position = position.startPass(syncRepository.currentSnapshotXmin(), now);
+        }
+
+        List<ChangeKey> changes = syncRepository.findChanges(position.afterXid(), position.afterSeq(),
+                position.nextXid(), !position.isFullSync(), pageSize + 1);
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        Map<EntityType, List<Long>> changedIds = new EnumMap<>(EntityType.class);
+        List<TombstoneDTO> deleted = new ArrayList<>();
+        for (ChangeKey change : changes) {
+            EntityType entity = EntityType.valueOf(change.entityType());
+            if (change.deleted()) {
+                deleted.add(new TombstoneDTO(entity, change.entityId()));
+            } else {
+                changedIds.computeIfAbsent(entity, type -> new ArrayList<>()).add(change.entityId());
+            }
+        }
+
+        ChangeKey last = hasMore ? changes.get(changes.size() - 1) : null;
+        SyncToken next = last != null
+                ? position.continueAfter(last.changeXid(), last.changeSeq())
+                : position.completePass();
+        return new SyncPageDTO(
+                movieService.getMoviesByIds(changedIds.getOrDefault(EntityType.MOVIE, List.of())),
+                directorService.getDirectorsByIds(changedIds.getOrDefault(EntityType.DIRECTOR, List.of())),
+                genreService.getGenresByIds(changedIds.getOrDefault(EntityType.GENRE, List.of())),
+                reviewService.getReviewsByIds(changedIds.getOrDefault(EntityType.REVIEW, List.of())),
+                deleted,
+                next.encode(),
+                hasMore
+        );
+    }
+
+    @Scheduled(cron = "${app.sync.tombstone-purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = syncRepository.deleteTombstonesBefore(clock.instant().minus(properties.getTombstoneRetention()));
+        if (purged > 0) {
+            logger.info("Purged {} sync tombstones", purged);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.moviecatalog.service;
+
+import com.moviecatalog.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque position of a sync client.
+ *
+ * @param sinceXid    changes of transactions with this or a larger id are returned
+ * @param nextXid     snapshot xmin captured when this sync pass started, 0 before the first page;
+ *                    the pass returns changes of transactions below it
+ * @param afterXid    {@code change_xid} of the last change already returned in this pass
+ * @param afterSeq    {@code change_seq} of the last change already returned in this pass
+ * @param issuedAt    start of the pass, used to expire tokens older than the tombstone retention
+ */
+record SyncToken(long sinceXid, long nextXid, long afterXid, long afterSeq, Instant issuedAt) {
+
+    private static final String VERSION = "2";
+    private static final String VERSION_1 = "1";
+
+    static SyncToken initial(Instant now) {
+        return new SyncToken(0, 0, 0, 0, now);
+    }
+
+    boolean isFullSync() {
+        return sinceXid == 0;
+    }
+
+    boolean isPassStarted() {
+        return nextXid != 0;
+    }
+
+    SyncToken startPass(long snapshotXmin, Instant now) {
+        return new SyncToken(sinceXid, snapshotXmin, sinceXid, 0, now);
+    }
+
+    SyncToken continueAfter(long changeXid, long changeSeq) {
+        return new SyncToken(sinceXid, nextXid, changeXid, changeSeq, issuedAt);
+    }
+
+    SyncToken completePass() {
+        return new SyncToken(nextXid, 0, 0, 0, issuedAt);
+    }
+
+    String encode() {
+        String value = String.join(":", VERSION, Long.toString(sinceXid), Long.toString(nextXid),
+                Long.toString(afterXid), Long.toString(afterSeq), Long.toString(issuedAt.getEpochSecond()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Also accepts tokens of the first format, paged by {@code change_seq} alone: their pass is
+     * restarted from its {@code sinceXid}, so a client may receive some entities twice.
+     */
+    static SyncToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+            if (parts.length == 5 && parts[0].equals(VERSION_1)) {
+                return new SyncToken(Long.parseLong(parts[1]), 0, 0, 0,
+                        Instant.ofEpochSecond(Long.parseLong(parts[4])));
+            }
+            if (parts.length != 6 || !parts[0].equals(VERSION)) {
+                throw new IllegalArgumentException("Unsupported sync token");
+            }
+            return new SyncToken(Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                    Long.parseLong(parts[4]), Instant.ofEpochSecond(Long.parseLong(parts[5])));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Некорректный токен синхронизации");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.moviecatalog.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends spans as NDJSON to {@code app.tracing.file}. Spans are queued and written by a
+ * background thread; when the queue is full they are dropped and counted in
+ * {@code tracing.spans.dropped}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tracing.exporter", havingValue = "file")
+public class FileSpanExporter implements SpanExporter, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSpanExporter.class);
+
+    private static final int DRAIN_BATCH = 512;
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<SpanData> queue;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public FileSpanExporter(TracingProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.file = properties.getFile();
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.dropped = Counter.builder("tracing.spans.dropped")
+                .description("Spans dropped because the exporter queue was full")
+                .register(meterRegistry);
+        this.writer = new Thread(this::writeLoop, "span-file-exporter");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void export(SpanData span) {
+        if (!queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void writeLoop() {
+        List<SpanData> batch = new ArrayList<>(DRAIN_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                SpanData first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                if (queue.isEmpty()) {
+                    break;
+                }
+            }
+            queue.drainTo(batch, DRAIN_BATCH - batch.size());
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<SpanData> batch) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (SpanData span : batch) {
+                    out.write(objectMapper.writeValueAsString(span));
+                    out.newLine();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot write {} spans to {}: {}", batch.size(), file, e.getMessage());
+        }
+    }
+}
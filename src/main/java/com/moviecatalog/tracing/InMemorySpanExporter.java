@@ -0,0 +1,42 @@
+package com.moviecatalog.tracing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Keeps the latest {@code app.tracing.capacity} spans in memory, for tests and local debugging.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tracing.exporter", havingValue = "in-memory")
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final ConcurrentLinkedDeque<SpanData> spans = new ConcurrentLinkedDeque<>();
+    private final int capacity;
+
+    public InMemorySpanExporter(TracingProperties properties) {
+        this.capacity = properties.getCapacity();
+    }
+
+    @Override
+    public void export(SpanData span) {
+        spans.addLast(span);
+        while (spans.size() > capacity) {
+            spans.pollFirst();
+        }
+    }
+
+    /**
+     * @return finished spans in the order they ended
+     */
+    public List<SpanData> getFinishedSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    public void reset() {
+        spans.clear();
+    }
+}
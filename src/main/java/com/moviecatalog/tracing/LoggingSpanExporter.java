@@ -0,0 +1,36 @@
+package com.moviecatalog.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs every span as one JSON line at INFO on the {@code com.moviecatalog.tracing.spans} logger.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tracing.exporter", havingValue = "logging")
+public class LoggingSpanExporter implements SpanExporter {
+
+    private static final Logger spans = LoggerFactory.getLogger("com.moviecatalog.tracing.spans");
+
+    private final ObjectMapper objectMapper;
+
+    public LoggingSpanExporter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void export(SpanData span) {
+        if (!spans.isInfoEnabled()) {
+            return;
+        }
+        try {
+            spans.info(objectMapper.writeValueAsString(span));
+        } catch (JsonProcessingException e) {
+            spans.warn("Cannot serialize span {}: {}", span.name(), e.getMessage());
+        }
+    }
+}
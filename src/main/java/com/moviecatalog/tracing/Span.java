@@ -0,0 +1,112 @@
+package com.moviecatalog.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A timed operation of a trace, created by the {@link Tracer}. The span bound to a thread is the
+ * parent of spans started on it; {@link Tracing#wrap(Runnable)} carries it to other threads.
+ */
+public final class Span {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final Tracer tracer;
+    private final SpanContext context;
+    private final String parentSpanId;
+    private final SpanKind kind;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private String name;
+    private boolean error;
+    private boolean ended;
+
+    Span(Tracer tracer, SpanContext context, String parentSpanId, String name, SpanKind kind, long startNanos) {
+        this.tracer = tracer;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * @return the span bound to this thread, {@code null} outside of a trace
+     */
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds the span to this thread until the returned scope is closed; {@code null} binds none.
+     */
+    public static Scope bind(Span span) {
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    public SpanContext context() {
+        return context;
+    }
+
+    public synchronized Span setAttribute(String key, Object value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    public synchronized void updateName(String name) {
+        this.name = name;
+    }
+
+    public synchronized void recordError(Throwable e) {
+        error = true;
+        attributes.put("exception.type", e.getClass().getName());
+        if (e.getMessage() != null) {
+            attributes.put("exception.message", e.getMessage());
+        }
+    }
+
+    public synchronized void setError() {
+        error = true;
+    }
+
+    /**
+     * Finishes the span; later calls are ignored.
+     */
+    public void end() {
+        end(System.nanoTime());
+    }
+
+    void end(long endNanos) {
+        SpanData data;
+        synchronized (this) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            if (!context.sampled()) {
+                return;
+            }
+            data = new SpanData(context.traceId(), context.spanId(), parentSpanId, name, kind,
+                    tracer.toInstant(startNanos), Math.max(0, endNanos - startNanos) / 1000,
+                    Map.copyOf(attributes), error, Thread.currentThread().getName());
+        }
+        tracer.export(data);
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
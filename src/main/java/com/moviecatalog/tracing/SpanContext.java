@@ -0,0 +1,33 @@
+package com.moviecatalog.tracing;
+
+import java.util.regex.Pattern;
+
+/**
+ * Identity of a span in W3C Trace Context form: 32 hex digits of trace id, 16 of span id.
+ */
+public record SpanContext(String traceId, String spanId, boolean sampled) {
+
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_SPAN_ID = "0".repeat(16);
+
+    /**
+     * @return the context of a {@code traceparent} header, {@code null} when absent or invalid
+     */
+    public static SpanContext fromTraceparent(String header) {
+        if (header == null) {
+            return null;
+        }
+        var matcher = TRACEPARENT.matcher(header.strip());
+        if (!matcher.matches() || matcher.group(1).equals(INVALID_TRACE_ID)
+                || matcher.group(2).equals(INVALID_SPAN_ID)) {
+            return null;
+        }
+        boolean sampled = (Integer.parseInt(matcher.group(3), 16) & 1) == 1;
+        return new SpanContext(matcher.group(1), matcher.group(2), sampled);
+    }
+
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+}
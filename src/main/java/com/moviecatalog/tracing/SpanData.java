@@ -0,0 +1,21 @@
+package com.moviecatalog.tracing;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A finished span as handed to the {@link SpanExporter}.
+ */
+public record SpanData(
+        String traceId,
+        String spanId,
+        String parentSpanId,
+        String name,
+        SpanKind kind,
+        Instant start,
+        long durationMicros,
+        Map<String, Object> attributes,
+        boolean error,
+        String thread
+) {
+}
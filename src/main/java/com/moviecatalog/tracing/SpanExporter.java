@@ -0,0 +1,10 @@
+package com.moviecatalog.tracing;
+
+/**
+ * Receives every finished span of a sampled trace. Called on the thread that ended the span,
+ * so implementations must not block.
+ */
+public interface SpanExporter {
+
+    void export(SpanData span);
+}
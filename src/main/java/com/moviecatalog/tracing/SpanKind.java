@@ -0,0 +1,7 @@
+package com.moviecatalog.tracing;
+
+public enum SpanKind {
+    SERVER,
+    INTERNAL,
+    CLIENT
+}
@@ -0,0 +1,102 @@
+package com.moviecatalog.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates spans. A trace starts only at an incoming request ({@link #startServerSpan}); other
+ * spans are children of the span bound to the thread and are not created outside of a trace,
+ * so scheduled jobs and background threads produce nothing.
+ */
+@Component
+public class Tracer {
+
+    private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+
+    private final TracingProperties properties;
+    private final SpanExporter exporter;
+    private final long epochNanosAtStart = Instant.now().toEpochMilli() * 1_000_000;
+    private final long nanoTimeAtStart = System.nanoTime();
+
+    public Tracer(TracingProperties properties, ObjectProvider<SpanExporter> exporter) {
+        this.properties = properties;
+        this.exporter = exporter.getIfAvailable();
+    }
+
+    /**
+     * @param remoteParent   context of the caller's span, {@code null} to start a new trace
+     * @param trustedSampled whether the caller's sampling decision is followed; otherwise the
+     *                       trace is continued but sampled at {@code app.tracing.sample-rate}
+     */
+    public Span startServerSpan(String name, SpanContext remoteParent, boolean trustedSampled) {
+        boolean sampled = remoteParent != null && trustedSampled
+                ? remoteParent.sampled()
+                : ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+        SpanContext context = remoteParent != null
+                ? new SpanContext(remoteParent.traceId(), newSpanId(), sampled)
+                : new SpanContext(newTraceId(), newSpanId(), sampled);
+        return new Span(this, context, remoteParent != null ? remoteParent.spanId() : null, name, SpanKind.SERVER,
+                System.nanoTime());
+    }
+
+    /**
+     * @return a child of the current span, {@code null} outside of a trace
+     */
+    public Span startSpan(String name, SpanKind kind) {
+        return startSpan(name, kind, System.nanoTime());
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} the operation started at, for operations reported after the fact
+     */
+    public Span startSpan(String name, SpanKind kind, long startNanos) {
+        Span parent = Span.current();
+        if (parent == null) {
+            return null;
+        }
+        SpanContext parentContext = parent.context();
+        SpanContext context = new SpanContext(parentContext.traceId(), newSpanId(), parentContext.sampled());
+        return new Span(this, context, parentContext.spanId(), name, kind, startNanos);
+    }
+
+    Instant toInstant(long nanoTime) {
+        long epochNanos = epochNanosAtStart + (nanoTime - nanoTimeAtStart);
+        return Instant.ofEpochSecond(0, epochNanos);
+    }
+
+    void export(SpanData span) {
+        if (exporter == null) {
+            return;
+        }
+        try {
+            exporter.export(span);
+        } catch (RuntimeException e) {
+            logger.warn("Span export failed: {}", e.getMessage());
+        }
+    }
+
+    private static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high;
+        long low;
+        do {
+            high = random.nextLong();
+            low = random.nextLong();
+        } while (high == 0 && low == 0);
+        return HexFormat.of().toHexDigits(high) + HexFormat.of().toHexDigits(low);
+    }
+
+    private static String newSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return HexFormat.of().toHexDigits(id);
+    }
+}
@@ -0,0 +1,44 @@
+package com.moviecatalog.tracing;
+
+import java.util.function.Supplier;
+
+/**
+ * Carries the current span to work that runs on other threads.
+ */
+public final class Tracing {
+
+    private Tracing() {
+    }
+
+    /**
+     * @return trace id of the current span, {@code null} outside of a trace
+     */
+    public static String currentTraceId() {
+        Span span = Span.current();
+        return span != null ? span.context().traceId() : null;
+    }
+
+    public static Runnable wrap(Runnable task) {
+        Span span = Span.current();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            try (Span.Scope ignored = Span.bind(span)) {
+                task.run();
+            }
+        };
+    }
+
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        Span span = Span.current();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            try (Span.Scope ignored = Span.bind(span)) {
+                return task.get();
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.moviecatalog.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a span for every controller and service method called within a trace.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingAspect {
+
+    private final Tracer tracer;
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("within(com.moviecatalog..*) && @within(org.springframework.web.bind.annotation.RestController)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "controller");
+    }
+
+    @Around("within(com.moviecatalog..*) && @within(org.springframework.stereotype.Service)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service");
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        if (Span.current() == null) {
+            return joinPoint.proceed();
+        }
+        String type = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Span span = tracer.startSpan(type + "." + method, SpanKind.INTERNAL);
+        span.setAttribute("code.namespace", joinPoint.getSignature().getDeclaringTypeName());
+        span.setAttribute("code.function", method);
+        span.setAttribute("layer", layer);
+        try (Span.Scope ignored = Span.bind(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.moviecatalog.tracing;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Applied by Spring Boot to its task executors, platform or virtual-thread, so {@code @Async}
+     * methods and async MVC requests continue the caller's trace.
+     */
+    @Bean
+    public TaskDecorator tracingTaskDecorator() {
+        return Tracing::wrap;
+    }
+}
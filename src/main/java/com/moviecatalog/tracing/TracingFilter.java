@@ -0,0 +1,105 @@
+package com.moviecatalog.tracing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Starts a server span for every API request, continuing the caller's trace from its
+ * {@code traceparent} header, and returns the span's {@code traceparent} to the caller. The
+ * caller's sampled flag is followed only for {@code app.tracing.trusted-sources}. The span
+ * is named after the matched route and ends when the response is complete, after the streamed
+ * body of async requests.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingFilter extends OncePerRequestFilter {
+
+    static final String TRACEPARENT = "traceparent";
+
+    private final Tracer tracer;
+    private final TracingProperties properties;
+
+    public TracingFilter(Tracer tracer, TracingProperties properties) {
+        this.tracer = tracer;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Span span = tracer.startServerSpan(request.getMethod(),
+                SpanContext.fromTraceparent(request.getHeader(TRACEPARENT)),
+                properties.getTrustedSources().contains(request.getRemoteAddr()));
+        span.setAttribute("http.method", request.getMethod());
+        span.setAttribute("http.target", request.getRequestURI());
+        response.setHeader(TRACEPARENT, span.context().traceparent());
+
+        try (Span.Scope ignored = Span.bind(span)) {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.recordError(e);
+            end(span, request, response);
+            throw e;
+        }
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    end(span, request, response);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                    span.setError();
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                    if (event.getThrowable() != null) {
+                        span.recordError(event.getThrowable());
+                    } else {
+                        span.setError();
+                    }
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        } else {
+            end(span, request, response);
+        }
+    }
+
+    private static void end(Span span, HttpServletRequest request, HttpServletResponse response) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (route != null) {
+            span.updateName(request.getMethod() + " " + route);
+            span.setAttribute("http.route", route);
+        }
+        span.setAttribute("http.status_code", response.getStatus());
+        if (response.getStatus() >= 500) {
+            span.setError();
+        }
+        span.end();
+    }
+}
@@ -0,0 +1,47 @@
+package com.moviecatalog.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.tracing")
+public class TracingProperties {
+
+    /**
+     * When enabled, requests to {@code /api/**} are traced with spans for controllers, services
+     * and SQL statements.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Where finished spans go: {@code none}, {@code logging}, {@code file} or {@code in-memory}.
+     */
+    private String exporter = "none";
+
+    /**
+     * Fraction (0..1) of traces that are exported; a {@code traceparent} header decides for its
+     * trace only when it comes from one of {@link #trustedSources}.
+     */
+    private double sampleRate = 0.1;
+
+    /**
+     * Remote addresses of callers whose {@code traceparent} sampled flag is honored, such as
+     * other services of the deployment; any other caller cannot force its traces to be exported.
+     */
+    private List<String> trustedSources = new ArrayList<>();
+
+    /**
+     * NDJSON file of the {@code file} exporter.
+     */
+    private Path file = Path.of("logs/spans.ndjson");
+
+    /**
+     * Spans waiting to be written by the {@code file} exporter, or kept by the {@code in-memory}
+     * one; further spans are dropped.
+     */
+    private int capacity = 10_000;
+}
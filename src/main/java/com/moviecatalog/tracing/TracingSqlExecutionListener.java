@@ -0,0 +1,48 @@
+package com.moviecatalog.tracing;
+
+import com.moviecatalog.observability.SqlExecution;
+import com.moviecatalog.observability.SqlExecutionListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a client span for every SQL statement executed within a trace, with the statement
+ * fingerprint rather than the SQL so parameter values stay out of the spans.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingSqlExecutionListener implements SqlExecutionListener {
+
+    private final Tracer tracer;
+
+    public TracingSqlExecutionListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void onExecution(SqlExecution execution) {
+        Span span = tracer.startSpan(operation(execution.fingerprint()), SpanKind.CLIENT, execution.startNanos());
+        if (span == null) {
+            return;
+        }
+        span.setAttribute("db.system", "postgresql");
+        span.setAttribute("db.statement", execution.fingerprint());
+        if (execution.rows() >= 0) {
+            span.setAttribute("db.rows", execution.rows());
+        }
+        span.setAttribute("db.execution_us", execution.elapsedNanos() / 1000);
+        if (execution.failed()) {
+            span.setError();
+        }
+        span.end();
+    }
+
+    static String operation(String fingerprint) {
+        String statement = fingerprint.stripLeading();
+        int end = 0;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        return end > 0 ? "SQL " + statement.substring(0, end).toUpperCase() : "SQL";
+    }
+}
@@ -0,0 +1,22 @@
+package com.moviecatalog.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.warm-up")
+public class WarmUpProperties {
+
+    /**
+     * Rounds of requests to the hot read endpoints before the application reports readiness;
+     * {@code 0} disables the warm-up.
+     */
+    private int iterations = 100;
+
+    /**
+     * Readiness is reported after this time even if not all rounds are done.
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+}
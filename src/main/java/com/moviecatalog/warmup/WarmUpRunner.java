@@ -0,0 +1,142 @@
+package com.moviecatalog.warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sends rounds of requests to the hot read endpoints of the running server over loopback before
+ * readiness is reported, so the JIT, connection pool, statement caches and Jackson serializers are
+ * warm when the first client request arrives. Readiness switches to {@code ACCEPTING_TRAFFIC} only
+ * after all {@link ApplicationReadyEvent} listeners return. Warm-up requests carry a per-process
+ * token and bypass the rate limiter.
+ */
+@Component
+public class WarmUpRunner {
+
+    public static final String TOKEN_HEADER = "X-Warm-Up";
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private static final int PAGE_SIZE = 20;
+
+    private final WarmUpProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private volatile String token;
+
+    public WarmUpRunner(WarmUpProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isWarmUpRequest(HttpServletRequest request) {
+        String current = token;
+        return current != null && current.equals(request.getHeader(TOKEN_HEADER));
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (properties.getIterations() <= 0
+                || !(event.getApplicationContext() instanceof WebServerApplicationContext context)) {
+            return;
+        }
+        token = UUID.randomUUID().toString();
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build()) {
+            run(client, URI.create("http://localhost:" + context.getWebServer().getPort()));
+        } finally {
+            token = null;
+        }
+    }
+
+    private void run(HttpClient client, URI base) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeout().toNanos();
+        int requests = 0;
+        int failures = 0;
+        try {
+            JsonNode firstPage = get(client, base, "/api/movies/page?limit=" + PAGE_SIZE);
+            List<String> paths = paths(firstPage);
+            int round = 0;
+            for (; round < properties.getIterations() && System.nanoTime() < deadline; round++) {
+                for (String path : paths) {
+                    requests++;
+                    if (send(client, base, path) >= 500) {
+                        failures++;
+                    }
+                }
+            }
+            logger.info("Warm-up finished: {} rounds, {} requests ({} failed) in {} ms", round, requests, failures,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.warn("Warm-up aborted: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<String> paths(JsonNode firstPage) {
+        List<String> paths = new ArrayList<>(List.of(
+                "/api/movies/page?limit=" + PAGE_SIZE,
+                "/api/reviews/page?limit=" + PAGE_SIZE,
+                "/api/movies/trending",
+                "/api/genres",
+                "/api/directors"));
+        String cursor = firstPage.path("nextCursor").asText(null);
+        if (cursor != null) {
+            paths.add("/api/movies/page?limit=" + PAGE_SIZE + "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+        }
+        for (JsonNode movie : firstPage.path("items")) {
+            long id = movie.path("id").asLong();
+            paths.add("/api/movies/" + id);
+            paths.add("/api/movies/" + id + "/recommendations");
+            paths.add("/api/movies/" + id + "/rating-summary");
+            paths.add("/api/reviews/movie/" + id + "/average-rating");
+            String title = movie.path("title").asText("");
+            if (title.length() >= 3) {
+                paths.add("/api/movies/page?limit=" + PAGE_SIZE + "&q="
+                        + URLEncoder.encode(title.substring(0, 3), StandardCharsets.UTF_8));
+            }
+        }
+        return paths;
+    }
+
+    private JsonNode get(HttpClient client, URI base, String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request(base, path), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + path + " returned " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private int send(HttpClient client, URI base, String path) throws IOException, InterruptedException {
+        return client.send(request(base, path), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest request(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header(TOKEN_HEADER, token)
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+    }
+}
@@ -0,0 +1,208 @@
+-- Change tracking for delta sync (GET /api/sync).
+-- Every insert/update gets the id of the writing transaction (change_xid) and the next value of one
+-- global sequence (change_seq), deletions leave a tombstone with the same two values. Sync pages
+-- are read in (change_xid, change_seq) order from one index per table.
+-- Sync tokens store the xmin of the snapshot taken when a sync pass started: every transaction
+-- with a smaller xid had finished by then, so a pass returns changes below it and the next pass
+-- starts there, missing no late commit.
+-- Runs outside a transaction (see the .conf file): the columns are added without a default, so no
+-- table is rewritten, existing rows are backfilled in committed batches and the indexes are built
+-- concurrently. Without a transaction a failed run leaves its earlier statements applied, so every
+-- statement is guarded to be re-runnable after a repair.
+
+CREATE SEQUENCE IF NOT EXISTS sync_change_seq;
+
+CREATE OR REPLACE FUNCTION sync_touch() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := nextval('sync_change_seq');
+    NEW.change_xid := pg_current_xact_id();
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TABLE IF NOT EXISTS sync_tombstones (
+    change_seq BIGINT PRIMARY KEY DEFAULT nextval('sync_change_seq'),
+    change_xid XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_change_key ON sync_tombstones(change_xid, change_seq);
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_deleted_at ON sync_tombstones(deleted_at);
+
+CREATE OR REPLACE FUNCTION sync_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO sync_tombstones (entity_type, entity_id) VALUES (TG_ARGV[0], OLD.id);
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE directors
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ,
+    ADD COLUMN IF NOT EXISTS change_seq BIGINT,
+    ADD COLUMN IF NOT EXISTS change_xid XID8;
+ALTER TABLE genres
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ,
+    ADD COLUMN IF NOT EXISTS change_seq BIGINT,
+    ADD COLUMN IF NOT EXISTS change_xid XID8;
+ALTER TABLE movies
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ,
+    ADD COLUMN IF NOT EXISTS change_seq BIGINT,
+    ADD COLUMN IF NOT EXISTS change_xid XID8;
+ALTER TABLE reviews
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ,
+    ADD COLUMN IF NOT EXISTS change_seq BIGINT,
+    ADD COLUMN IF NOT EXISTS change_xid XID8;
+
+-- Triggers first, so rows written during the backfill get their keys on write
+DROP TRIGGER IF EXISTS directors_sync_touch ON directors;
+CREATE TRIGGER directors_sync_touch BEFORE INSERT OR UPDATE ON directors
+    FOR EACH ROW EXECUTE FUNCTION sync_touch();
+DROP TRIGGER IF EXISTS genres_sync_touch ON genres;
+CREATE TRIGGER genres_sync_touch BEFORE INSERT OR UPDATE ON genres
+    FOR EACH ROW EXECUTE FUNCTION sync_touch();
+DROP TRIGGER IF EXISTS movies_sync_touch ON movies;
+CREATE TRIGGER movies_sync_touch BEFORE INSERT OR UPDATE ON movies
+    FOR EACH ROW EXECUTE FUNCTION sync_touch();
+DROP TRIGGER IF EXISTS reviews_sync_touch ON reviews;
+CREATE TRIGGER reviews_sync_touch BEFORE INSERT OR UPDATE ON reviews
+    FOR EACH ROW EXECUTE FUNCTION sync_touch();
+
+DROP TRIGGER IF EXISTS directors_sync_tombstone ON directors;
+CREATE TRIGGER directors_sync_tombstone AFTER DELETE ON directors
+    FOR EACH ROW EXECUTE FUNCTION sync_tombstone('DIRECTOR');
+DROP TRIGGER IF EXISTS genres_sync_tombstone ON genres;
+CREATE TRIGGER genres_sync_tombstone AFTER DELETE ON genres
+    FOR EACH ROW EXECUTE FUNCTION sync_tombstone('GENRE');
+DROP TRIGGER IF EXISTS movies_sync_tombstone ON movies;
+CREATE TRIGGER movies_sync_tombstone AFTER DELETE ON movies
+    FOR EACH ROW EXECUTE FUNCTION sync_tombstone('MOVIE');
+DROP TRIGGER IF EXISTS reviews_sync_tombstone ON reviews;
+CREATE TRIGGER reviews_sync_tombstone AFTER DELETE ON reviews
+    FOR EACH ROW EXECUTE FUNCTION sync_tombstone('REVIEW');
+
+-- A movie's genre list lives in movie_genres and its rating in movie_rating_stats, changing
+-- either must also mark the movie as changed
+CREATE OR REPLACE FUNCTION sync_touch_movie() RETURNS trigger AS $$
+BEGIN
+    UPDATE movies SET updated_at = clock_timestamp()
+    WHERE id = CASE WHEN TG_OP = 'DELETE' THEN OLD.movie_id ELSE NEW.movie_id END;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS movie_genres_sync_touch ON movie_genres;
+CREATE TRIGGER movie_genres_sync_touch AFTER INSERT OR DELETE ON movie_genres
+    FOR EACH ROW EXECUTE FUNCTION sync_touch_movie();
+DROP TRIGGER IF EXISTS movie_rating_stats_sync_touch_insert ON movie_rating_stats;
+CREATE TRIGGER movie_rating_stats_sync_touch_insert AFTER INSERT ON movie_rating_stats
+    FOR EACH ROW WHEN (NEW.review_count > 0) EXECUTE FUNCTION sync_touch_movie();
+DROP TRIGGER IF EXISTS movie_rating_stats_sync_touch_update ON movie_rating_stats;
+CREATE TRIGGER movie_rating_stats_sync_touch_update AFTER UPDATE ON movie_rating_stats
+    FOR EACH ROW WHEN (OLD.review_count IS DISTINCT FROM NEW.review_count
+                       OR OLD.rating_sum IS DISTINCT FROM NEW.rating_sum)
+    EXECUTE FUNCTION sync_touch_movie();
+
+-- The touch trigger fills the keys, each batch of ids is committed on its own
+CREATE OR REPLACE PROCEDURE sync_backfill(table_name TEXT) AS $$
+DECLARE
+    max_id BIGINT;
+    from_id BIGINT := 0;
+BEGIN
+    EXECUTE format('SELECT COALESCE(max(id), 0) FROM %I', table_name) INTO max_id;
+    WHILE from_id < max_id LOOP
+        EXECUTE format('UPDATE %I SET updated_at = clock_timestamp() '
+                       'WHERE id > $1 AND id <= $2 AND change_seq IS NULL', table_name)
+            USING from_id, from_id + 10000;
+        COMMIT;
+        from_id := from_id + 10000;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+CALL sync_backfill('directors');
+CALL sync_backfill('genres');
+CALL sync_backfill('movies');
+CALL sync_backfill('reviews');
+
+DROP PROCEDURE IF EXISTS sync_backfill(TEXT);
+
+ALTER TABLE directors
+    ALTER COLUMN updated_at SET DEFAULT clock_timestamp(),
+    ALTER COLUMN change_seq SET DEFAULT nextval('sync_change_seq'),
+    ALTER COLUMN change_xid SET DEFAULT pg_current_xact_id();
+ALTER TABLE genres
+    ALTER COLUMN updated_at SET DEFAULT clock_timestamp(),
+    ALTER COLUMN change_seq SET DEFAULT nextval('sync_change_seq'),
+    ALTER COLUMN change_xid SET DEFAULT pg_current_xact_id();
+ALTER TABLE movies
+    ALTER COLUMN updated_at SET DEFAULT clock_timestamp(),
+    ALTER COLUMN change_seq SET DEFAULT nextval('sync_change_seq'),
+    ALTER COLUMN change_xid SET DEFAULT pg_current_xact_id();
+ALTER TABLE reviews
+    ALTER COLUMN updated_at SET DEFAULT clock_timestamp(),
+    ALTER COLUMN change_seq SET DEFAULT nextval('sync_change_seq'),
+    ALTER COLUMN change_xid SET DEFAULT pg_current_xact_id();
+
+-- A validated check lets SET NOT NULL skip its own scan under the exclusive lock
+ALTER TABLE directors DROP CONSTRAINT IF EXISTS directors_sync_keys_not_null;
+ALTER TABLE directors ADD CONSTRAINT directors_sync_keys_not_null
+    CHECK (updated_at IS NOT NULL AND change_seq IS NOT NULL AND change_xid IS NOT NULL) NOT VALID;
+ALTER TABLE genres DROP CONSTRAINT IF EXISTS genres_sync_keys_not_null;
+ALTER TABLE genres ADD CONSTRAINT genres_sync_keys_not_null
+    CHECK (updated_at IS NOT NULL AND change_seq IS NOT NULL AND change_xid IS NOT NULL) NOT VALID;
+ALTER TABLE movies DROP CONSTRAINT IF EXISTS movies_sync_keys_not_null;
+ALTER TABLE movies ADD CONSTRAINT movies_sync_keys_not_null
+    CHECK (updated_at IS NOT NULL AND change_seq IS NOT NULL AND change_xid IS NOT NULL) NOT VALID;
+ALTER TABLE reviews DROP CONSTRAINT IF EXISTS reviews_sync_keys_not_null;
+ALTER TABLE reviews ADD CONSTRAINT reviews_sync_keys_not_null
+    CHECK (updated_at IS NOT NULL AND change_seq IS NOT NULL AND change_xid IS NOT NULL) NOT VALID;
+
+ALTER TABLE directors VALIDATE CONSTRAINT directors_sync_keys_not_null;
+ALTER TABLE genres VALIDATE CONSTRAINT genres_sync_keys_not_null;
+ALTER TABLE movies VALIDATE CONSTRAINT movies_sync_keys_not_null;
+ALTER TABLE reviews VALIDATE CONSTRAINT reviews_sync_keys_not_null;
+
+ALTER TABLE directors
+    ALTER COLUMN updated_at SET NOT NULL,
+    ALTER COLUMN change_seq SET NOT NULL,
+    ALTER COLUMN change_xid SET NOT NULL,
+    DROP CONSTRAINT IF EXISTS directors_sync_keys_not_null;
+ALTER TABLE genres
+    ALTER COLUMN updated_at SET NOT NULL,
+    ALTER COLUMN change_seq SET NOT NULL,
+    ALTER COLUMN change_xid SET NOT NULL,
+    DROP CONSTRAINT IF EXISTS genres_sync_keys_not_null;
+ALTER TABLE movies
+    ALTER COLUMN updated_at SET NOT NULL,
+    ALTER COLUMN change_seq SET NOT NULL,
+    ALTER COLUMN change_xid SET NOT NULL,
+    DROP CONSTRAINT IF EXISTS movies_sync_keys_not_null;
+ALTER TABLE reviews
+    ALTER COLUMN updated_at SET NOT NULL,
+    ALTER COLUMN change_seq SET NOT NULL,
+    ALTER COLUMN change_xid SET NOT NULL,
+    DROP CONSTRAINT IF EXISTS reviews_sync_keys_not_null;
+
+-- A concurrent build that failed leaves an invalid index behind, IF NOT EXISTS would keep it
+DO $$
+DECLARE
+    invalid_index TEXT;
+BEGIN
+    FOR invalid_index IN
+        SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE NOT i.indisvalid AND c.relname IN ('idx_directors_change_key', 'idx_genres_change_key',
+                                                 'idx_movies_change_key', 'idx_reviews_change_key')
+    LOOP
+        EXECUTE format('DROP INDEX %I', invalid_index);
+    END LOOP;
+END;
+$$;
+
+-- One key per table serves both full syncs (from the start) and incremental ones
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_directors_change_key ON directors(change_xid, change_seq);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_genres_change_key ON genres(change_xid, change_seq);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_movies_change_key ON movies(change_xid, change_seq);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reviews_change_key ON reviews(change_xid, change_seq);
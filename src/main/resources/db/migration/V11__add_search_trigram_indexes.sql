@@ -0,0 +1,5 @@
+-- Substring search of the paged lists (LOWER(column) LIKE '%...%') through trigram indexes
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_movies_title_trgm ON movies USING gin (LOWER(title) gin_trgm_ops);
+CREATE INDEX idx_reviews_author_name_trgm ON reviews USING gin (LOWER(author_name) gin_trgm_ops);
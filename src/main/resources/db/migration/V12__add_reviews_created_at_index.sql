@@ -0,0 +1,2 @@
+-- Recent reviews for the trending rebuild, answered from the index alone
+CREATE INDEX idx_reviews_created_at ON reviews(created_at) INCLUDE (movie_id, rating);
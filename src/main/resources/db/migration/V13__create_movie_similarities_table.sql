@@ -0,0 +1,20 @@
+CREATE TABLE movie_similarities (
+    movie_id BIGINT NOT NULL,
+    rank INTEGER NOT NULL,
+    similar_movie_id BIGINT NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    co_reviewers INTEGER NOT NULL,
+    CONSTRAINT pk_movie_similarities
+        PRIMARY KEY (movie_id, rank),
+    CONSTRAINT fk_movie_similarities_movie
+        FOREIGN KEY (movie_id)
+        REFERENCES movies(id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_movie_similarities_similar_movie
+        FOREIGN KEY (similar_movie_id)
+        REFERENCES movies(id)
+        ON DELETE CASCADE
+);
+
+-- Lets deleting a movie cascade to the rows that list it as a neighbor without a scan
+CREATE INDEX idx_movie_similarities_similar_movie_id ON movie_similarities(similar_movie_id);
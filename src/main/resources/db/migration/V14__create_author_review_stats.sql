@@ -0,0 +1,21 @@
+-- Reviews of one author newest first; id makes the keyset cursor unique
+CREATE INDEX idx_reviews_author_created_at ON reviews(lower(author_name), created_at, id);
+
+CREATE TABLE author_review_stats (
+    author_key VARCHAR(200) PRIMARY KEY,
+    author_name VARCHAR(200) NOT NULL,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    first_review_at TIMESTAMP NOT NULL,
+    last_review_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO author_review_stats (author_key, author_name, review_count, rating_sum, first_review_at, last_review_at)
+SELECT lower(author_name),
+       (array_agg(author_name ORDER BY created_at DESC, id DESC))[1],
+       COUNT(*),
+       SUM(rating),
+       MIN(created_at),
+       MAX(created_at)
+FROM reviews
+GROUP BY lower(author_name);
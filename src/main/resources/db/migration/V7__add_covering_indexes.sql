@@ -0,0 +1,11 @@
+-- AVG(rating) per movie is answered from the index alone (index-only scan)
+CREATE INDEX idx_reviews_movie_id_rating ON reviews(movie_id) INCLUDE (rating);
+DROP INDEX IF EXISTS idx_reviews_movie_id;
+
+-- Genre -> movies lookups for recommendations; movie -> genres is covered by pk_movie_genres
+CREATE INDEX idx_movie_genres_genre_id_movie_id ON movie_genres(genre_id, movie_id);
+DROP INDEX IF EXISTS idx_movie_genres_genre_id;
+DROP INDEX IF EXISTS idx_movie_genres_movie_id;
+
+-- Newest-first ordering used by listings and as the recommendation tie-breaker
+CREATE INDEX idx_movies_release_date_id ON movies(release_date DESC, id DESC);
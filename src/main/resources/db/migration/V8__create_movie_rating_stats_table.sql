@@ -0,0 +1,14 @@
+CREATE TABLE movie_rating_stats (
+    movie_id BIGINT PRIMARY KEY,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_movie_rating_stats_movie
+        FOREIGN KEY (movie_id)
+        REFERENCES movies(id)
+        ON DELETE CASCADE
+);
+
+INSERT INTO movie_rating_stats (movie_id, review_count, rating_sum)
+SELECT movie_id, COUNT(*), SUM(rating)
+FROM reviews
+GROUP BY movie_id;
@@ -0,0 +1,23 @@
+ALTER TABLE movie_rating_stats
+    ADD COLUMN rating_counts INTEGER[] NOT NULL DEFAULT '{0,0,0,0,0,0,0,0,0,0}';
+
+UPDATE movie_rating_stats s
+SET rating_counts = h.counts
+FROM (
+    SELECT movie_id,
+           ARRAY[
+               COUNT(*) FILTER (WHERE rating = 1),
+               COUNT(*) FILTER (WHERE rating = 2),
+               COUNT(*) FILTER (WHERE rating = 3),
+               COUNT(*) FILTER (WHERE rating = 4),
+               COUNT(*) FILTER (WHERE rating = 5),
+               COUNT(*) FILTER (WHERE rating = 6),
+               COUNT(*) FILTER (WHERE rating = 7),
+               COUNT(*) FILTER (WHERE rating = 8),
+               COUNT(*) FILTER (WHERE rating = 9),
+               COUNT(*) FILTER (WHERE rating = 10)
+           ]::INTEGER[] AS counts
+    FROM reviews
+    GROUP BY movie_id
+) h
+WHERE h.movie_id = s.movie_id;
@@ -5,11 +5,124 @@ let currentDirectors = [];
 let currentGenres = [];
 let currentReviews = [];
 
+// Фильмы и отзывы подгружаются страницами по курсору, в DOM находятся только видимые строки
+const PAGE_SIZE = 50;
+const SEARCH_DEBOUNCE_MS = 300;
+const movieCache = new Map();
+const pendingMovies = new Map();
+
+let changeFeed = null;
+let changeFeedConnected = false;
+const renderScheduled = new Set();
+
 document.addEventListener('DOMContentLoaded', function() {
     setupTabs();
+    setupSearch();
     loadAllData();
+    connectChangeFeed();
 });
 
+// Лента изменений (SSE): после каждого изменения сервер присылает тип сущности, id и операцию,
+// клиент запрашивает только измененную запись вместо полной перезагрузки списков
+function connectChangeFeed() {
+    if (!window.EventSource) return;
+    changeFeed = new EventSource(`${API_BASE}/events`);
+    changeFeed.onopen = () => { changeFeedConnected = true; };
+    changeFeed.onerror = () => { changeFeedConnected = false; };
+    changeFeed.addEventListener('change', event => applyChange(JSON.parse(event.data)));
+    changeFeed.addEventListener('reset', () => loadAllData());
+}
+
+async function reloadUnlessLive(...loaders) {
+    if (!changeFeedConnected) {
+        await Promise.all(loaders.map(load => load()));
+    }
+}
+
+const CHANGE_TARGETS = {
+    MOVIE: { path: 'movies', list: () => currentMovies, render: renderMovies },
+    DIRECTOR: { path: 'directors', list: () => currentDirectors, render: renderDirectors },
+    GENRE: { path: 'genres', list: () => currentGenres, render: renderGenres },
+    REVIEW: { path: 'reviews', list: () => currentReviews, render: renderReviews }
+};
+
+async function applyChange(change) {
+    const target = CHANGE_TARGETS[change.entity];
+    if (!target) return;
+    const list = target.list();
+    if (change.entity === 'MOVIE') movieCache.delete(change.entityId);
+
+    if (change.operation === 'DELETED') {
+        removeById(list, change.entityId);
+        if (change.entity === 'MOVIE') {
+            currentReviews = currentReviews.filter(r => r.movieId !== change.entityId);
+            scheduleRender(renderReviews);
+        } else if (change.entity === 'GENRE') {
+            currentMovies.forEach(m => {
+                if (m.genreIds) m.genreIds = m.genreIds.filter(id => id !== change.entityId);
+            });
+            scheduleRender(renderMovies);
+        }
+        scheduleRender(target.render);
+        return;
+    }
+
+    try {
+        const response = await fetch(`${API_BASE}/${target.path}/${change.entityId}`);
+        if (response.status === 404) {
+            removeById(list, change.entityId);
+        } else if (response.ok) {
+            const entity = await response.json();
+            const paged = pagedLists[target.path];
+            if (paged) {
+                upsertPaged(paged, entity);
+            } else {
+                const index = list.findIndex(item => item.id === entity.id);
+                if (index >= 0) {
+                    list[index] = entity;
+                } else {
+                    list.push(entity);
+                }
+            }
+        }
+        scheduleRender(target.render);
+        if (change.entity === 'DIRECTOR' || change.entity === 'GENRE') {
+            scheduleRender(renderMovies);
+        }
+    } catch (error) {
+        console.warn('Не удалось применить изменение', change, error);
+    }
+}
+
+// Измененная запись встает на свое место в порядке сервера; за пределами загруженных
+// страниц она появится при прокрутке
+function upsertPaged(paged, entity) {
+    const list = paged.items();
+    removeById(list, entity.id);
+    if (paged.query && !paged.matches(entity, paged.query)) return;
+    const index = list.findIndex(item => paged.compare(entity, item) < 0);
+    if (index >= 0) {
+        list.splice(index, 0, entity);
+    } else if (paged.done) {
+        list.push(entity);
+    }
+}
+
+function removeById(list, id) {
+    const index = list.findIndex(item => item.id === id);
+    if (index >= 0) list.splice(index, 1);
+}
+
+// Несколько изменений подряд перерисовывают каждый список один раз за кадр
+function scheduleRender(render) {
+    if (renderScheduled.has(render)) return;
+    renderScheduled.add(render);
+    requestAnimationFrame(() => {
+        renderScheduled.delete(render);
+        render();
+    });
+}
+
 function setupTabs() {
     const tabButtons = document.querySelectorAll('.tab-btn');
     tabButtons.forEach(btn => {
@@ -30,6 +143,186 @@ function switchTab(tabName) {
 
     document.querySelector(`[data-tab="${tabName}"]`).classList.add('active');
     document.getElementById(`${tabName}-tab`).classList.add('active');
+    // Скрытая вкладка не имеет размеров, видимые строки пересчитываются после показа
+    const paged = pagedLists[tabName];
+    if (paged) paged.render();
+}
+
+function setupSearch() {
+    Object.entries(pagedLists).forEach(([name, paged]) => {
+        const input = document.getElementById(`${name}-search`);
+        let timer = null;
+        input.addEventListener('input', () => {
+            clearTimeout(timer);
+            timer = setTimeout(() => {
+                const query = input.value.trim();
+                if (query === paged.query) return;
+                paged.query = query;
+                reloadPagedList(name).catch(error => showError(`${name}-list`, error.message));
+            }, SEARCH_DEBOUNCE_MS);
+        });
+    });
+}
+
+// Разбор JSON в web worker; без поддержки воркеров - обычный fetch
+const jsonWorker = window.Worker ? new Worker('json-worker.js') : null;
+const jsonRequests = new Map();
+let jsonRequestId = 0;
+
+if (jsonWorker) {
+    jsonWorker.onmessage = ({ data: { id, result, error } }) => {
+        const request = jsonRequests.get(id);
+        if (!request) return;
+        jsonRequests.delete(id);
+        if (error) {
+            request.reject(new Error(error));
+        } else {
+            request.resolve(result);
+        }
+    };
+}
+
+async function fetchJsonOffThread(url) {
+    if (!jsonWorker) {
+        const response = await fetch(url);
+        if (!response.ok) throw new Error(`HTTP ${response.status}`);
+        return response.json();
+    }
+    const id = ++jsonRequestId;
+    return new Promise((resolve, reject) => {
+        jsonRequests.set(id, { resolve, reject });
+        jsonWorker.postMessage({ id, url: new URL(url, window.location.href).href });
+    });
+}
+
+const pagedLists = {
+    movies: {
+        path: 'movies/page',
+        items: () => currentMovies,
+        clear: () => { currentMovies = []; },
+        render: () => renderMovies(),
+        // тот же порядок, что и на сервере: новые по дате выхода, затем по id
+        compare: (a, b) => (b.releaseDate || '').localeCompare(a.releaseDate || '') || b.id - a.id,
+        matches: (movie, query) => (movie.title || '').toLowerCase().includes(query.toLowerCase())
+    },
+    reviews: {
+        path: 'reviews/page',
+        items: () => currentReviews,
+        clear: () => { currentReviews = []; },
+        render: () => renderReviews(),
+        compare: (a, b) => b.id - a.id,
+        matches: (review, query) => (review.authorName || '').toLowerCase().includes(query.toLowerCase())
+    }
+};
+
+Object.values(pagedLists).forEach(paged => {
+    Object.assign(paged, { cursor: null, done: false, loading: null, query: '', generation: 0 });
+});
+
+function loadNextPage(name) {
+    const paged = pagedLists[name];
+    if (paged.done || paged.loading) return paged.loading;
+    const generation = paged.generation;
+    const params = new URLSearchParams({ limit: PAGE_SIZE });
+    if (paged.cursor) params.set('cursor', paged.cursor);
+    if (paged.query) params.set('q', paged.query);
+
+    paged.loading = fetchJsonOffThread(`${API_BASE}/${paged.path}?${params}`)
+        .then(page => {
+            // ответ на устаревший запрос (смена поиска или перезагрузка) отбрасывается
+            if (generation !== paged.generation) return;
+            const loaded = paged.items();
+            const known = new Set(loaded.map(item => item.id));
+            page.items.forEach(item => {
+                if (!known.has(item.id)) loaded.push(item);
+            });
+            paged.cursor = page.nextCursor;
+            paged.done = !page.nextCursor;
+            scheduleRender(paged.render);
+        })
+        .finally(() => {
+            if (generation === paged.generation) paged.loading = null;
+        });
+    return paged.loading;
+}
+
+function reloadPagedList(name) {
+    const paged = pagedLists[name];
+    paged.generation++;
+    paged.cursor = null;
+    paged.done = false;
+    paged.loading = null;
+    paged.clear();
+    virtualLists[name].scrollToTop();
+    return loadNextPage(name);
+}
+
+// Окно видимых строк фиксированной высоты внутри прокручиваемого контейнера
+class VirtualList {
+    constructor(containerId, rowHeight, renderRow, onNearEnd) {
+        this.containerId = containerId;
+        this.rowHeight = rowHeight;
+        this.renderRow = renderRow;
+        this.onNearEnd = onNearEnd;
+        this.items = [];
+        this.viewport = null;
+        this.update = this.update.bind(this);
+    }
+
+    mount() {
+        const container = document.getElementById(this.containerId);
+        container.innerHTML = '';
+        this.viewport = document.createElement('div');
+        this.viewport.className = 'virtual-viewport';
+        this.spacer = document.createElement('div');
+        this.spacer.className = 'virtual-spacer';
+        this.rows = document.createElement('div');
+        this.rows.className = 'virtual-rows';
+        this.spacer.appendChild(this.rows);
+        this.viewport.appendChild(this.spacer);
+        container.appendChild(this.viewport);
+        this.viewport.addEventListener('scroll', () => scheduleRender(this.update), { passive: true });
+        this.range = null;
+    }
+
+    render(items) {
+        this.items = items;
+        if (!this.viewport || !this.viewport.isConnected) this.mount();
+        this.spacer.style.height = `${items.length * this.rowHeight}px`;
+        this.range = null;
+        this.update();
+    }
+
+    update() {
+        if (!this.viewport || !this.viewport.isConnected) return;
+        const overscan = 5;
+        const height = this.viewport.clientHeight || window.innerHeight;
+        const first = Math.max(0, Math.floor(this.viewport.scrollTop / this.rowHeight) - overscan);
+        const last = Math.min(this.items.length, first + Math.ceil(height / this.rowHeight) + 2 * overscan);
+        const range = `${first}:${last}`;
+        if (range !== this.range) {
+            this.range = range;
+            this.rows.style.transform = `translateY(${first * this.rowHeight}px)`;
+            this.rows.innerHTML = this.items.slice(first, last)
+                .map(item => `<div class="virtual-row" style="height: ${this.rowHeight}px">${this.renderRow(item)}</div>`)
+                .join('');
+        }
+        if (last + overscan >= this.items.length) this.onNearEnd();
+    }
+
+    scrollToTop() {
+        if (this.viewport) this.viewport.scrollTop = 0;
+    }
+}
+
+const virtualLists = {
+    movies: new VirtualList('movies-list', 260, movie => renderMovieCard(movie), () => loadMoreQuietly('movies')),
+    reviews: new VirtualList('reviews-list', 170, review => renderReviewCard(review), () => loadMoreQuietly('reviews'))
+};
+
+function loadMoreQuietly(name) {
+    const loading = loadNextPage(name);
+    if (loading) loading.catch(error => console.warn('Не удалось загрузить страницу', name, error));
 }
 
 async function loadAllData() {
@@ -43,10 +336,7 @@ async function loadAllData() {
 
 async function loadMovies() {
     try {
-        const response = await fetch(`${API_BASE}/movies`);
-        if (!response.ok) throw new Error('Не удалось загрузить фильмы');
-        currentMovies = await response.json();
-        renderMovies();
+        await reloadPagedList('movies');
     } catch (error) {
         showError('movies-list', 'Ошибка загрузки фильмов: ' + error.message);
     }
@@ -76,10 +366,7 @@ async function loadGenres() {
 
 async function loadReviews() {
     try {
-        const response = await fetch(`${API_BASE}/reviews`);
-        if (!response.ok) throw new Error('Не удалось загрузить отзывы');
-        currentReviews = await response.json();
-        renderReviews();
+        await reloadPagedList('reviews');
     } catch (error) {
         showError('reviews-list', 'Ошибка загрузки отзывов: ' + error.message);
     }
@@ -87,54 +374,49 @@ async function loadReviews() {
 
 function renderMovies() {
     const container = document.getElementById('movies-list');
-    if (currentMovies.length === 0) {
+    if (currentMovies.length === 0 && pagedLists.movies.done) {
         container.innerHTML = '<div class="empty">Фильмы не найдены</div>';
         return;
     }
+    virtualLists.movies.render(currentMovies);
+}
 
-    const sortedMovies = [...currentMovies].sort((a, b) => {
-        const dateA = a.releaseDate ? new Date(a.releaseDate) : new Date(0);
-        const dateB = b.releaseDate ? new Date(b.releaseDate) : new Date(0);
-        return dateB - dateA;
-    });
-
-    container.innerHTML = sortedMovies.map(movie => {
-        const genreIds = movie.genreIds || [];
-        const genreNames = getGenreNames(genreIds);
-        return `
-        <div class="item-card">
-            <div class="item-info">
-                <div class="item-title">${escapeHtml(movie.title)}</div>
-                <div class="item-detail">Режиссер: ${getDirectorName(movie.directorId)}</div>
-                <div class="item-detail">Дата выпуска: ${movie.releaseDate || 'Не указана'}</div>
-                <div class="item-detail">Длительность: ${movie.duration || 'Не указана'} минут</div>
-                ${movie.averageRating ? `<div class="item-detail">Средний рейтинг: <span class="rating">${movie.averageRating.toFixed(1)}</span></div>` : ''}
-                ${movie.description ? `<div class="item-detail">${escapeHtml(movie.description)}</div>` : ''}
-                <div class="item-detail">
-                    <strong>Жанры:</strong>
-                    ${genreNames.length > 0 ? 
-                        `<div class="genres-list">${genreIds.map(genreId => {
-                            const genre = currentGenres.find(g => g.id === genreId);
-                            return genre ? `
-                            <span class="genre-tag">
-                                ${escapeHtml(genre.name)}
-                                <button class="genre-remove" onclick="removeGenreFromMovie(${movie.id}, ${genreId})" title="Удалить жанр">×</button>
-                            </span>
-                            ` : '';
-                        }).filter(tag => tag).join('')}</div>` : 
-                        '<span class="no-genres">Жанры не указаны</span>'
-                    }
-                    <button class="btn btn-small" onclick="showManageGenresForm(${movie.id})" style="margin-top: 8px;">Управление жанрами</button>
-                </div>
-            </div>
-            <div class="item-actions">
-                <button class="btn btn-primary" onclick="showRecommendations(${movie.id})">Рекомендации</button>
-                <button class="btn btn-secondary" onclick="editMovie(${movie.id})">Редактировать</button>
-                <button class="btn btn-danger" onclick="deleteMovie(${movie.id})">Удалить</button>
+function renderMovieCard(movie) {
+    const genreIds = movie.genreIds || [];
+    const genreNames = getGenreNames(genreIds);
+    return `
+    <div class="item-card">
+        <div class="item-info">
+            <div class="item-title">${escapeHtml(movie.title)}</div>
+            <div class="item-detail">Режиссер: ${getDirectorName(movie.directorId)}</div>
+            <div class="item-detail">Дата выпуска: ${movie.releaseDate || 'Не указана'}</div>
+            <div class="item-detail">Длительность: ${movie.duration || 'Не указана'} минут</div>
+            ${movie.averageRating ? `<div class="item-detail">Средний рейтинг: <span class="rating">${movie.averageRating.toFixed(1)}</span></div>` : ''}
+            ${movie.description ? `<div class="item-detail">${escapeHtml(movie.description)}</div>` : ''}
+            <div class="item-detail">
+                <strong>Жанры:</strong>
+                ${genreNames.length > 0 ? 
+                    `<div class="genres-list">${genreIds.map(genreId => {
+                        const genre = currentGenres.find(g => g.id === genreId);
+                        return genre ? `
+                        <span class="genre-tag">
+                            ${escapeHtml(genre.name)}
+                            <button class="genre-remove" onclick="removeGenreFromMovie(${movie.id}, ${genreId})" title="Удалить жанр">×</button>
+                        </span>
+                        ` : '';
+                    }).filter(tag => tag).join('')}</div>` : 
+                    '<span class="no-genres">Жанры не указаны</span>'
+                }
+                <button class="btn btn-small" onclick="showManageGenresForm(${movie.id})" style="margin-top: 8px;">Управление жанрами</button>
             </div>
         </div>
+        <div class="item-actions">
+            <button class="btn btn-primary" onclick="showRecommendations(${movie.id})">Рекомендации</button>
+            <button class="btn btn-secondary" onclick="editMovie(${movie.id})">Редактировать</button>
+            <button class="btn btn-danger" onclick="deleteMovie(${movie.id})">Удалить</button>
+        </div>
+    </div>
     `;
-    }).join('');
 }
 
 function renderDirectors() {
@@ -181,25 +463,28 @@ function renderGenres() {
 
 function renderReviews() {
     const container = document.getElementById('reviews-list');
-    if (currentReviews.length === 0) {
+    if (currentReviews.length === 0 && pagedLists.reviews.done) {
         container.innerHTML = '<div class="empty">Отзывы не найдены</div>';
         return;
     }
+    virtualLists.reviews.render(currentReviews);
+}
 
-    container.innerHTML = currentReviews.map(review => `
-        <div class="item-card">
-            <div class="item-info">
-                <div class="item-title">${escapeHtml(review.authorName)} - <span class="rating">${review.rating}/10</span></div>
-                <div class="item-detail">Фильм: ${getMovieTitle(review.movieId)}</div>
-                ${review.comment ? `<div class="item-detail">${escapeHtml(review.comment)}</div>` : ''}
-                ${review.createdAt ? `<div class="item-detail">Дата: ${new Date(review.createdAt).toLocaleString('ru-RU')}</div>` : ''}
-            </div>
-            <div class="item-actions">
-                <button class="btn btn-secondary" onclick="editReview(${review.id})">Редактировать</button>
-                <button class="btn btn-danger" onclick="deleteReview(${review.id})">Удалить</button>
-            </div>
+function renderReviewCard(review) {
+    return `
+    <div class="item-card">
+        <div class="item-info">
+            <div class="item-title">${escapeHtml(review.authorName)} - <span class="rating">${review.rating}/10</span></div>
+            <div class="item-detail">Фильм: ${getMovieTitle(review.movieId)}</div>
+            ${review.comment ? `<div class="item-detail">${escapeHtml(review.comment)}</div>` : ''}
+            ${review.createdAt ? `<div class="item-detail">Дата: ${new Date(review.createdAt).toLocaleString('ru-RU')}</div>` : ''}
         </div>
-    `).join('');
+        <div class="item-actions">
+            <button class="btn btn-secondary" onclick="editReview(${review.id})">Редактировать</button>
+            <button class="btn btn-danger" onclick="deleteReview(${review.id})">Удалить</button>
+        </div>
+    </div>
+    `;
 }
 
 function showMovieForm(movie = null) {
@@ -300,6 +585,7 @@ function showReviewForm(review = null) {
                 <label>Фильм *</label>
                 <select name="movieId" required>
                     <option value="">Выберите фильм</option>
+                    ${review && !currentMovies.some(m => m.id === review.movieId) ? `<option value="${review.movieId}" selected>${getMovieTitle(review.movieId)}</option>` : ''}
                     ${currentMovies.map(m => `<option value="${m.id}" ${review?.movieId === m.id ? 'selected' : ''}>${escapeHtml(m.title)}</option>`).join('')}
                 </select>
             </div>
@@ -325,7 +611,7 @@ async function saveMovie(event, id) {
     const form = event.target;
     const formData = new FormData(form);
     
-    const movie = id ? currentMovies.find(m => m.id === id) : null;
+    const movie = id ? lookupMovie(id) : null;
     const existingGenreIds = movie && movie.genreIds ? movie.genreIds : [];
     
     const title = formData.get('title')?.trim();
@@ -368,7 +654,7 @@ async function saveMovie(event, id) {
         }
 
         closeModal();
-        await loadMovies();
+        await reloadUnlessLive(loadMovies);
         showSuccess('Фильм успешно сохранен');
     } catch (error) {
         showError('modal-body', error.message);
@@ -404,7 +690,7 @@ async function saveDirector(event, id) {
         }
 
         closeModal();
-        await loadDirectors();
+        await reloadUnlessLive(loadDirectors);
         showSuccess('Режиссер успешно сохранен');
     } catch (error) {
         showError('modal-body', error.message);
@@ -437,7 +723,7 @@ async function saveGenre(event, id) {
         }
 
         closeModal();
-        await loadGenres();
+        await reloadUnlessLive(loadGenres);
         showSuccess('Жанр успешно сохранен');
     } catch (error) {
         showError('modal-body', error.message);
@@ -473,10 +759,7 @@ async function saveReview(event, id) {
         }
 
         closeModal();
-        await Promise.all([
-            loadReviews(),
-            loadMovies()
-        ]);
+        await reloadUnlessLive(loadReviews, loadMovies);
         showSuccess('Отзыв успешно сохранен');
     } catch (error) {
         showError('modal-body', error.message);
@@ -484,7 +767,7 @@ async function saveReview(event, id) {
 }
 
 async function editMovie(id) {
-    const movie = currentMovies.find(m => m.id === id);
+    const movie = await findMovie(id);
     if (movie) {
         showMovieForm(movie);
     }
@@ -517,7 +800,7 @@ async function deleteMovie(id) {
     try {
         const response = await fetch(`${API_BASE}/movies/${id}`, { method: 'DELETE' });
         if (!response.ok) throw new Error('Не удалось удалить фильм');
-        await loadMovies();
+        await reloadUnlessLive(loadMovies);
         showSuccess('Фильм успешно удален');
     } catch (error) {
         alert('Ошибка: ' + error.message);
@@ -530,7 +813,7 @@ async function deleteDirector(id) {
     try {
         const response = await fetch(`${API_BASE}/directors/${id}`, { method: 'DELETE' });
         if (!response.ok) throw new Error('Не удалось удалить режиссера');
-        await loadDirectors();
+        await reloadUnlessLive(loadDirectors);
         showSuccess('Режиссер успешно удален');
     } catch (error) {
         alert('Ошибка: ' + error.message);
@@ -543,8 +826,7 @@ async function deleteGenre(id) {
     try {
         const response = await fetch(`${API_BASE}/genres/${id}`, { method: 'DELETE' });
         if (!response.ok) throw new Error('Не удалось удалить жанр');
-        await loadGenres();
-        await loadMovies();
+        await reloadUnlessLive(loadGenres, loadMovies);
         showSuccess('Жанр успешно удален');
     } catch (error) {
         alert('Ошибка: ' + error.message);
@@ -557,10 +839,7 @@ async function deleteReview(id) {
     try {
         const response = await fetch(`${API_BASE}/reviews/${id}`, { method: 'DELETE' });
         if (!response.ok) throw new Error('Не удалось удалить отзыв');
-        await Promise.all([
-            loadReviews(),
-            loadMovies()
-        ]);
+        await reloadUnlessLive(loadReviews, loadMovies);
         showSuccess('Отзыв успешно удален');
     } catch (error) {
         alert('Ошибка: ' + error.message);
@@ -590,10 +869,36 @@ function getDirectorName(directorId) {
     return director ? `${director.firstName} ${director.lastName}` : 'Неизвестно';
 }
 
+// Фильм из загруженных страниц или из кэша фильмов, запрошенных по id
+function lookupMovie(movieId) {
+    const id = Number(movieId);
+    return currentMovies.find(m => m.id === id) || movieCache.get(id);
+}
+
+function findMovie(movieId) {
+    const id = Number(movieId);
+    const movie = lookupMovie(id);
+    if (movie) return Promise.resolve(movie);
+    if (!pendingMovies.has(id)) {
+        pendingMovies.set(id, fetch(`${API_BASE}/movies/${id}`)
+            .then(response => response.ok ? response.json() : null)
+            .then(loaded => {
+                if (loaded) movieCache.set(id, loaded);
+                return loaded;
+            })
+            .finally(() => pendingMovies.delete(id)));
+    }
+    return pendingMovies.get(id);
+}
+
 function getMovieTitle(movieId) {
     if (!movieId) return 'Неизвестно';
-    const movie = currentMovies.find(m => m.id === Number(movieId) || m.id === movieId);
-    return movie ? movie.title : 'Неизвестно';
+    const movie = lookupMovie(movieId);
+    if (movie) return escapeHtml(movie.title);
+    findMovie(movieId).then(loaded => {
+        if (loaded) scheduleRender(renderReviews);
+    });
+    return '...';
 }
 
 function getGenreNames(genreIds) {
@@ -605,7 +910,7 @@ function getGenreNames(genreIds) {
 }
 
 function showManageGenresForm(movieId) {
-    const movie = currentMovies.find(m => m.id === movieId);
+    const movie = lookupMovie(movieId);
     if (!movie) {
         alert('Фильм не найден');
         return;
@@ -655,7 +960,7 @@ async function addGenreToMovie(movieId) {
         return;
     }
 
-    const movie = currentMovies.find(m => m.id === movieId);
+    const movie = lookupMovie(movieId);
     if (!movie) {
         alert('Фильм не найден');
         return;
@@ -690,8 +995,7 @@ async function addGenreToMovie(movieId) {
             throw new Error(errorData.message || 'Не удалось обновить жанры');
         }
 
-        await loadMovies();
-        await loadGenres();
+        await reloadUnlessLive(loadMovies, loadGenres);
         showManageGenresForm(movieId);
         showSuccess('Жанр успешно добавлен');
     } catch (error) {
@@ -702,7 +1006,7 @@ async function addGenreToMovie(movieId) {
 async function removeGenreFromMovie(movieId, genreId) {
     if (!confirm('Удалить этот жанр из фильма?')) return;
 
-    const movie = currentMovies.find(m => m.id === movieId);
+    const movie = lookupMovie(movieId);
     if (!movie) {
         alert('Фильм не найден');
         return;
@@ -732,9 +1036,8 @@ async function removeGenreFromMovie(movieId, genreId) {
             throw new Error(errorData.message || 'Не удалось удалить жанр');
         }
 
-        await loadMovies();
-        await loadGenres();
-        const movie = currentMovies.find(m => m.id === movieId);
+        await reloadUnlessLive(loadMovies, loadGenres);
+        const movie = lookupMovie(movieId);
         if (movie) {
             showManageGenresForm(movieId);
         }
@@ -760,7 +1063,7 @@ function showSuccess(message) {
 }
 
 async function showRecommendations(movieId) {
-    const movie = currentMovies.find(m => m.id === movieId);
+    const movie = await findMovie(movieId);
     if (!movie) {
         alert('Фильм не найден');
         return;
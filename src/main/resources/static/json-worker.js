@@ -0,0 +1,13 @@
+// Загрузка и разбор JSON больших страниц вне основного потока
+self.onmessage = async ({ data: { id, url } }) => {
+    try {
+        const response = await fetch(url, { headers: { 'Accept': 'application/json' } });
+        if (!response.ok) {
+            const errorData = await response.json().catch(() => ({}));
+            throw new Error(errorData.message || `HTTP ${response.status}`);
+        }
+        self.postMessage({ id, result: await response.json() });
+    } catch (error) {
+        self.postMessage({ id, error: error.message });
+    }
+};
@@ -0,0 +1,173 @@
+package com.moviecatalog.cache;
+
+import com.moviecatalog.deadline.Deadline;
+import com.moviecatalog.exception.DeadlineExceededException;
+import com.moviecatalog.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final Duration LOADER_BUDGET = Duration.ofSeconds(10);
+
+    @Test
+    void testExecute_ConcurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", Duration.ZERO, LOADER_BUDGET,
+                new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "movie";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("movie", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecute_PropagatesExceptionToAllCallers() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", Duration.ZERO, LOADER_BUDGET,
+                new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                    await(release);
+                    throw new ResourceNotFoundException("Фильм с id 1 не найден");
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(ResourceNotFoundException.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecute_LoaderRunsUnderLoaderBudgetInsteadOfLeaderDeadline() {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", Duration.ZERO, LOADER_BUDGET,
+                new SimpleMeterRegistry());
+        Deadline leader = new Deadline(Duration.ofMillis(1), () -> {
+        });
+
+        try (Deadline.Scope ignored = Deadline.bind(leader)) {
+            assertEquals("movie", singleFlight.execute(1L, () -> {
+                Deadline loader = Deadline.current();
+                assertNotNull(loader);
+                assertNotSame(leader, loader);
+                assertTrue(loader.remainingNanos() > Duration.ofSeconds(9).toNanos());
+                assertTrue(loader.remainingNanos() <= LOADER_BUDGET.toNanos());
+                return "movie";
+            }));
+            assertSame(leader, Deadline.current());
+        }
+    }
+
+    @Test
+    void testExecute_FollowerGivesUpAtItsDeadline() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", Duration.ZERO, LOADER_BUDGET,
+                new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger exceeded = new AtomicInteger();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+                started.countDown();
+                await(release);
+                return "movie";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            try (Deadline.Scope ignored = Deadline.bind(new Deadline(Duration.ofMillis(50), exceeded::incrementAndGet))) {
+                assertThrows(DeadlineExceededException.class, () -> singleFlight.execute(1L, () -> "other"));
+            }
+            release.countDown();
+
+            assertEquals("movie", leader.get(5, TimeUnit.SECONDS));
+            assertEquals(1, exceeded.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecute_DoesNotCacheFailures() {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", Duration.ofMinutes(1), LOADER_BUDGET,
+                new SimpleMeterRegistry());
+
+        assertThrows(ResourceNotFoundException.class, () -> singleFlight.execute(1L, () -> {
+            throw new ResourceNotFoundException("Фильм с id 1 не найден");
+        }));
+
+        assertEquals("movie", singleFlight.execute(1L, () -> "movie"));
+    }
+
+    @Test
+    void testExecute_MicroCacheServesRecentResult() {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", Duration.ofMinutes(1), LOADER_BUDGET,
+                new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> "movie-" + loads.incrementAndGet());
+        String second = singleFlight.execute(1L, () -> "movie-" + loads.incrementAndGet());
+        singleFlight.evict(1L);
+        String third = singleFlight.execute(1L, () -> "movie-" + loads.incrementAndGet());
+
+        assertEquals("movie-1", second);
+        assertEquals("movie-2", third);
+    }
+
+    @Test
+    void testExecute_WithoutMicroCacheRunsAgain() {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", Duration.ZERO, LOADER_BUDGET,
+                new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> "movie-" + loads.incrementAndGet());
+        singleFlight.execute(1L, () -> "movie-" + loads.incrementAndGet());
+
+        assertEquals(2, loads.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.moviecatalog.catalog;
+
+import com.moviecatalog.dto.MovieDTO;
+import com.moviecatalog.repository.CatalogSnapshotRepository.DirectorRow;
+import com.moviecatalog.repository.CatalogSnapshotRepository.GenreRow;
+import com.moviecatalog.repository.CatalogSnapshotRepository.MovieRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder();
+        builder.addMovie(new MovieRow(1L, "Матрица", "Описание", LocalDate.of(1999, 3, 31), 136, 2L,
+                new long[]{7L, 8L}, 2, 17));
+        builder.addMovie(new MovieRow(3L, "Начало", null, null, 148, 1L, new long[0], 0, 0));
+        builder.addDirector(new DirectorRow(1L, "Кристофер", "Нолан", LocalDate.of(1970, 7, 30), null));
+        builder.addDirector(new DirectorRow(2L, "Лана", "Вачовски", null, "Биография"));
+        builder.addGenre(new GenreRow(7L, "Боевик"));
+        builder.addGenre(new GenreRow(8L, "Фантастика"));
+        snapshot = builder.build();
+    }
+
+    @Test
+    void testRead_RestoresWrittenSnapshot() throws IOException {
+        Instant writtenAt = Instant.ofEpochMilli(1_700_000_000_000L);
+        CatalogSnapshotFile.write(file, snapshot, 4242L, writtenAt);
+
+        CatalogSnapshotFile.Restored restored = CatalogSnapshotFile.read(file);
+
+        assertEquals(4242L, restored.watermark());
+        assertEquals(writtenAt, restored.writtenAt());
+        CatalogSnapshot read = restored.snapshot();
+        assertEquals(snapshot.findMovie(1L), read.findMovie(1L));
+        assertEquals(snapshot.findMovie(3L), read.findMovie(3L));
+        assertEquals(snapshot.directors(), read.directors());
+        assertEquals(snapshot.genres(), read.genres());
+        assertEquals(List.of(3L), read.findMoviesNewestFirst(null, null, "нач", 10).stream().map(MovieDTO::getId).toList());
+        assertTrue(read.hasRatingTotals(1L, 2, 17));
+        assertFalse(read.hasRatingTotals(1L, 3, 17));
+        assertEquals(List.of(file), Files.list(directory).toList());
+    }
+
+    @Test
+    void testRead_RejectsCorruptedPayload() throws IOException {
+        CatalogSnapshotFile.write(file, snapshot, 1L, Instant.now());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x55}), CatalogSnapshotFile.HEADER_SIZE + 10);
+        }
+
+        IOException error = assertThrows(IOException.class, () -> CatalogSnapshotFile.read(file));
+        assertEquals("Snapshot checksum mismatch", error.getMessage());
+    }
+
+    @Test
+    void testRead_RejectsOtherFormatVersion() throws IOException {
+        CatalogSnapshotFile.write(file, snapshot, 1L, Instant.now());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, CatalogSnapshotFile.FORMAT_VERSION + 1), 4);
+        }
+
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(file));
+    }
+}
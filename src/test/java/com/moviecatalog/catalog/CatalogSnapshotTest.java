@@ -0,0 +1,148 @@
+package com.moviecatalog.catalog;
+
+import com.moviecatalog.dto.DirectorDTO;
+import com.moviecatalog.dto.GenreDTO;
+import com.moviecatalog.dto.MovieDTO;
+import com.moviecatalog.repository.CatalogSnapshotRepository.DirectorRow;
+import com.moviecatalog.repository.CatalogSnapshotRepository.GenreRow;
+import com.moviecatalog.repository.CatalogSnapshotRepository.MovieRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder();
+        builder.addMovie(movie(1L, "Матрица", LocalDate.of(1999, 3, 31), 0, 0, 7L, 8L));
+        builder.addMovie(movie(2L, "Матрица: Перезагрузка", LocalDate.of(2003, 5, 15), 2, 15));
+        builder.addMovie(movie(3L, "Начало", LocalDate.of(2010, 7, 8), 1, 9, 8L));
+        builder.addMovie(movie(4L, "Довод", LocalDate.of(2010, 7, 8), 0, 0));
+        builder.addDirector(new DirectorRow(1L, "Кристофер", "Нолан", LocalDate.of(1970, 7, 30), null));
+        builder.addDirector(new DirectorRow(2L, "Лана", "Вачовски", null, "Биография"));
+        builder.addGenre(new GenreRow(7L, "Боевик"));
+        builder.addGenre(new GenreRow(8L, "Фантастика"));
+        snapshot = builder.build();
+    }
+
+    @Test
+    void testFindMovie_ReadsColumns() {
+        MovieDTO movie = snapshot.findMovie(1L);
+
+        assertEquals("Матрица", movie.getTitle());
+        assertEquals(LocalDate.of(1999, 3, 31), movie.getReleaseDate());
+        assertEquals(120, movie.getDuration());
+        assertEquals(1L, movie.getDirectorId());
+        assertEquals(Set.of(7L, 8L), movie.getGenreIds());
+        assertNull(movie.getAverageRating());
+        assertEquals(7.5, snapshot.findMovie(2L).getAverageRating());
+        assertNull(snapshot.findMovie(5L));
+
+        DirectorDTO director = snapshot.findDirector(2L);
+        assertNull(director.getBirthDate());
+        assertEquals("Биография", director.getBiography());
+        assertEquals(List.of("Боевик", "Фантастика"), snapshot.genres().stream().map(GenreDTO::getName).toList());
+    }
+
+    @Test
+    void testFindMoviesNewestFirst_PagesAndSearches() {
+        assertEquals(List.of(4L, 3L), ids(snapshot.findMoviesNewestFirst(null, null, null, 2)));
+        assertEquals(List.of(2L, 1L), ids(snapshot.findMoviesNewestFirst(LocalDate.of(2010, 7, 8), 3L, null, 5)));
+        assertEquals(List.of(3L, 2L, 1L), ids(snapshot.findMoviesNewestFirst(LocalDate.of(2010, 7, 8), 4L, null, 5)));
+        assertEquals(List.of(2L, 1L), ids(snapshot.findMoviesNewestFirst(null, null, "матрица", 5)));
+        assertEquals(List.of(1L), ids(snapshot.findMoviesNewestFirst(LocalDate.of(2003, 5, 15), 2L, "матрица", 5)));
+    }
+
+    @Test
+    void testWithChanges_ReplacesInsertsAndDeletes() {
+        CatalogSnapshot changed = snapshot.withChanges(new CatalogSnapshot.Changes(
+                new long[]{2L, 3L, 9L},
+                List.of(movie(2L, "Матрица: Перезагрузка", LocalDate.of(2003, 5, 15), 3, 24, 7L),
+                        movie(9L, "Интерстеллар", LocalDate.of(2014, 11, 6), 0, 0, 8L)),
+                new long[]{1L}, List.of(new DirectorRow(1L, "Кристофер", "Нолан", null, "Режиссер")),
+                new long[]{7L}, List.of()));
+
+        assertEquals(List.of(1L, 2L, 4L, 9L), ids(collect(changed)));
+        assertEquals(8.0, changed.findMovie(2L).getAverageRating());
+        assertEquals(Set.of(7L), changed.findMovie(2L).getGenreIds());
+        assertEquals(Set.of(7L, 8L), changed.findMovie(1L).getGenreIds());
+        assertEquals(List.of(9L, 4L, 2L, 1L), ids(changed.findMoviesNewestFirst(null, null, null, 10)));
+        assertEquals("Режиссер", changed.findDirector(1L).getBiography());
+        assertEquals(2, changed.directorCount());
+        assertNull(changed.findGenre(7L));
+
+        assertEquals(4, snapshot.movieCount());
+        assertNotNull(snapshot.findMovie(3L));
+    }
+
+    @Test
+    void testWithChanges_MergesReleaseOrderLikeFullLoad() {
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder();
+        for (long id = 1; id <= 200; id++) {
+            builder.addMovie(movie(id, "Фильм " + id, LocalDate.of(2000, 1, 1).plusDays(id % 17), 0, 0));
+        }
+        CatalogSnapshot large = builder.build();
+        List<Long> changedIds = new ArrayList<>();
+        List<MovieRow> changedRows = new ArrayList<>();
+        for (long id = 3; id <= 230; id += 7) {
+            changedIds.add(id);
+            if (id % 2 == 0) {
+                changedRows.add(movie(id, "Новый " + id, id % 3 == 0 ? null : LocalDate.of(2000, 1, 1)
+                        .plusDays(id % 5), 0, 0));
+            }
+        }
+
+        CatalogSnapshot changed = large.withChanges(new CatalogSnapshot.Changes(
+                changedIds.stream().mapToLong(Long::longValue).toArray(), changedRows,
+                new long[0], List.of(), new long[0], List.of()));
+
+        CatalogSnapshot.Builder expected = CatalogSnapshot.builder();
+        collect(changed).forEach(dto -> expected.addMovie(movie(dto.getId(), dto.getTitle(), dto.getReleaseDate(),
+                0, 0)));
+        assertEquals(ids(expected.build().findMoviesNewestFirst(null, null, null, 500)),
+                ids(changed.findMoviesNewestFirst(null, null, null, 500)));
+    }
+
+    @Test
+    void testDiffersInRatingOnly_ComparesAllOtherColumns() {
+        assertTrue(snapshot.differsInRatingOnly(movie(2L, "Матрица: Перезагрузка", LocalDate.of(2003, 5, 15), 3, 24)));
+        assertTrue(snapshot.differsInRatingOnly(movie(1L, "Матрица", LocalDate.of(1999, 3, 31), 1, 9, 7L, 8L)));
+        assertFalse(snapshot.differsInRatingOnly(movie(1L, "Матрица", LocalDate.of(1999, 3, 31), 1, 9, 7L)));
+        assertFalse(snapshot.differsInRatingOnly(movie(3L, "Начало", LocalDate.of(2010, 7, 9), 1, 9, 8L)));
+        assertFalse(snapshot.differsInRatingOnly(movie(5L, "Довод", LocalDate.of(2020, 8, 26), 0, 0)));
+    }
+
+    @Test
+    void testBuilder_DeduplicatesStrings() {
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder();
+        builder.addMovie(movie(1L, new String("Фильм"), LocalDate.of(2000, 1, 1), 0, 0));
+        builder.addMovie(movie(2L, new String("Фильм"), LocalDate.of(2000, 1, 1), 0, 0));
+        CatalogSnapshot built = builder.build();
+
+        assertSame(built.findMovie(1L).getTitle(), built.findMovie(2L).getTitle());
+    }
+
+    private static MovieRow movie(long id, String title, LocalDate releaseDate, long reviews, long ratingSum,
+                                  long... genreIds) {
+        return new MovieRow(id, title, null, releaseDate, 120, id % 2 == 1 ? 1L : 2L, genreIds, reviews, ratingSum);
+    }
+
+    private static List<MovieDTO> collect(CatalogSnapshot snapshot) {
+        List<MovieDTO> movies = new ArrayList<>();
+        snapshot.forEachMovie(movies::add);
+        return movies;
+    }
+
+    private static List<Long> ids(List<MovieDTO> movies) {
+        return movies.stream().map(MovieDTO::getId).toList();
+    }
+}
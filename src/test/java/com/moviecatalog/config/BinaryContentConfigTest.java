@@ -0,0 +1,67 @@
+package com.moviecatalog.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moviecatalog.dto.MovieDTO;
+import com.moviecatalog.dto.ReviewDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryContentConfigTest {
+
+    private final MovieDTO movie = new MovieDTO(1L, "Брат", "Описание", LocalDate.of(1997, 12, 12),
+            100, 2L, Set.of(3L, 4L), 8.5);
+    private final ReviewDTO review = new ReviewDTO(5L, "Автор", "Комментарий", 9, 1L,
+            LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000));
+
+    @Test
+    void testCbor_RoundTripsDtos() throws Exception {
+        ObjectMapper mapper = BinaryContentConfig.cborMapper(builder());
+
+        assertEquals(movie, mapper.readValue(mapper.writeValueAsBytes(movie), MovieDTO.class));
+        assertEquals(review, mapper.readValue(mapper.writeValueAsBytes(review), ReviewDTO.class));
+    }
+
+    @Test
+    void testSmile_RoundTripsDtos() throws Exception {
+        ObjectMapper mapper = BinaryContentConfig.smileMapper(builder());
+
+        assertEquals(movie, mapper.readValue(mapper.writeValueAsBytes(movie), MovieDTO.class));
+        assertEquals(review, mapper.readValue(mapper.writeValueAsBytes(review), ReviewDTO.class));
+    }
+
+    @Test
+    void testDates_WrittenAsNumbers() throws Exception {
+        ObjectMapper mapper = BinaryContentConfig.smileMapper(builder());
+
+        JsonNode node = mapper.readTree(mapper.writeValueAsBytes(review));
+        JsonNode movieNode = mapper.readTree(mapper.writeValueAsBytes(movie));
+
+        assertEquals(1714566615123L, node.get("createdAt").longValue());
+        assertEquals(LocalDate.of(1997, 12, 12).toEpochDay(), movieNode.get("releaseDate").longValue());
+    }
+
+    @Test
+    void testDates_AcceptIsoStrings() throws Exception {
+        ObjectMapper mapper = BinaryContentConfig.cborMapper(builder());
+        byte[] payload = mapper.writeValueAsBytes(mapper.createObjectNode()
+                .put("releaseDate", "1997-12-12")
+                .put("title", "Брат"));
+
+        assertEquals(LocalDate.of(1997, 12, 12), mapper.readValue(payload, MovieDTO.class).getReleaseDate());
+    }
+
+    private Jackson2ObjectMapperBuilder builder() {
+        return new Jackson2ObjectMapperBuilder()
+                .modulesToInstall(new JavaTimeModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,116 @@
+package com.moviecatalog.controller;
+
+import com.moviecatalog.export.ExportFiles;
+import com.moviecatalog.export.ExportManifest.ExportFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportControllerTest {
+
+    private static final String NAME = "movies.ndjson.gz";
+    private static final String ETAG = "\"abc123\"";
+
+    @Mock
+    private ExportFiles exportFiles;
+
+    @InjectMocks
+    private ExportController exportController;
+
+    @TempDir
+    private Path directory;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.writeString(directory.resolve(NAME), "0123456789", StandardCharsets.US_ASCII);
+        when(exportFiles.find(NAME)).thenReturn(new ExportFiles.Download(file,
+                new ExportFile(NAME, "movies", 1, 10, "abc123")));
+        request = new MockHttpServletRequest("GET", "/api/exports/" + NAME);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void testDownload_SendsWholeFile() throws IOException {
+        exportController.download(NAME, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals(ETAG, response.getHeader("ETag"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+    }
+
+    @Test
+    void testDownload_SendsRequestedRange() throws IOException {
+        request.addHeader("Range", "bytes=3-5");
+
+        exportController.download(NAME, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("345", response.getContentAsString());
+        assertEquals("bytes 3-5/10", response.getHeader("Content-Range"));
+        assertEquals(3, response.getContentLengthLong());
+    }
+
+    @Test
+    void testDownload_IgnoresRangeOfOtherVersion() throws IOException {
+        request.addHeader("Range", "bytes=-2");
+        request.addHeader("If-Range", "\"other\"");
+
+        exportController.download(NAME, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testDownload_RejectsRangeBeyondEnd() throws IOException {
+        request.addHeader("Range", "bytes=10-");
+
+        exportController.download(NAME, request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void testDownload_NotModifiedForKnownEtag() throws IOException {
+        request.addHeader("If-None-Match", "\"old\", W/" + ETAG);
+
+        exportController.download(NAME, request, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testDownload_HandsFileToSendfile() throws IOException {
+        request.setAttribute(ExportController.SENDFILE_SUPPORT, Boolean.TRUE);
+        request.addHeader("Range", "bytes=-4");
+
+        exportController.download(NAME, request, response);
+
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute(ExportController.SENDFILE_FILENAME));
+        assertEquals(6L, request.getAttribute(ExportController.SENDFILE_START));
+        assertEquals(10L, request.getAttribute(ExportController.SENDFILE_END));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
@@ -0,0 +1,157 @@
+package com.moviecatalog.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moviecatalog.config.BinaryContentConfig;
+import com.moviecatalog.deadline.Deadline;
+import com.moviecatalog.dto.ReviewDTO;
+import com.moviecatalog.exception.DeadlineExceededException;
+import com.moviecatalog.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StreamingListWriterTest {
+
+    private static final List<ReviewDTO> REVIEWS = List.of(
+            new ReviewDTO(1L, "Анна", "Отлично", 9, 7L, LocalDateTime.of(2024, 5, 1, 12, 0)),
+            new ReviewDTO(2L, "Борис", "Скучно", 4, 7L, LocalDateTime.of(2024, 5, 2, 18, 30)));
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final StreamingListWriter writer = new StreamingListWriter(new ContentNegotiationManager(),
+            objectMapper, builders(), mock(Tracer.class));
+
+    @Test
+    void testWrite_StreamsJsonArray() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = write("application/json");
+
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(REVIEWS, objectMapper.readValue(body(response), new TypeReference<List<ReviewDTO>>() {
+        }));
+    }
+
+    @Test
+    void testWrite_StreamsCborWhenRequested() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = write("text/html;q=0.5, application/cbor");
+
+        assertEquals(MediaType.APPLICATION_CBOR, response.getHeaders().getContentType());
+        ObjectMapper cbor = BinaryContentConfig.cborMapper(new Jackson2ObjectMapperBuilder());
+        assertEquals(REVIEWS, cbor.readValue(body(response), new TypeReference<List<ReviewDTO>>() {
+        }));
+    }
+
+    @Test
+    void testWrite_PrefersHigherQualityOverSpecificity() {
+        ResponseEntity<StreamingResponseBody> response = write("application/cbor;q=0.5, application/*");
+
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    void testWrite_NotAcceptableForUnsupportedType() {
+        ResponseEntity<StreamingResponseBody> response = write("text/csv");
+
+        assertEquals(HttpStatus.NOT_ACCEPTABLE, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testWrite_SlowClientIsNotCutOffByDeadline() throws IOException {
+        List<ReviewDTO> reviews = LongStream.rangeClosed(1, 500)
+                .mapToObj(id -> new ReviewDTO(id, "Автор " + id, "Длинный отзыв о фильме " + id, 7, 7L,
+                        LocalDateTime.of(2024, 5, 1, 12, 0)))
+                .toList();
+        ResponseEntity<StreamingResponseBody> response;
+        try (Deadline.Scope ignored = Deadline.bind(new Deadline(Duration.ofMillis(100), () -> {
+        }))) {
+            response = write("application/json", reviews::forEach);
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(new OutputStream() {
+            @Override
+            public void write(int b) {
+                output.write(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                sleep(60);
+                output.write(bytes, offset, length);
+            }
+        });
+
+        assertEquals(reviews, objectMapper.readValue(output.toByteArray(), new TypeReference<List<ReviewDTO>>() {
+        }));
+    }
+
+    @Test
+    void testWrite_SlowSourceStopsAtDeadline() {
+        ResponseEntity<StreamingResponseBody> response;
+        try (Deadline.Scope ignored = Deadline.bind(new Deadline(Duration.ofMillis(50), () -> {
+        }))) {
+            response = write("application/json", consumer -> REVIEWS.forEach(review -> {
+                sleep(100);
+                consumer.accept(review);
+            }));
+        }
+
+        assertThrows(DeadlineExceededException.class, () -> response.getBody().writeTo(new ByteArrayOutputStream()));
+        assertNull(Deadline.current());
+    }
+
+    private ResponseEntity<StreamingResponseBody> write(String accept) {
+        return write(accept, REVIEWS::forEach);
+    }
+
+    private ResponseEntity<StreamingResponseBody> write(String accept, Consumer<Consumer<ReviewDTO>> source) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reviews");
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        return writer.write(new ServletWebRequest(request), ReviewDTO.class, source);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+        return output.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<Jackson2ObjectMapperBuilder> builders() {
+        ObjectProvider<Jackson2ObjectMapperBuilder> builders = mock(ObjectProvider.class);
+        when(builders.getObject()).thenAnswer(invocation -> new Jackson2ObjectMapperBuilder());
+        return builders;
+    }
+}
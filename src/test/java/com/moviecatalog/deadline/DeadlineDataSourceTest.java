@@ -0,0 +1,97 @@
+package com.moviecatalog.deadline;
+
+import com.moviecatalog.exception.DeadlineExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineDataSourceTest {
+
+    private static final String SQL = "SELECT 1";
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private DeadlineDataSource dataSource;
+    private final AtomicInteger exceeded = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DeadlineDataSource(target);
+    }
+
+    @Test
+    void testPrepareStatement_AppliesRemainingBudget() throws SQLException {
+        stubStatement();
+
+        try (Deadline.Scope ignored = Deadline.bind(deadline(Duration.ofMillis(2500)))) {
+            dataSource.getConnection().prepareStatement(SQL);
+        }
+
+        verify(statement).setQueryTimeout(3);
+    }
+
+    @Test
+    void testPrepareStatement_KeepsShorterTimeout() throws SQLException {
+        stubStatement();
+        when(statement.getQueryTimeout()).thenReturn(1);
+
+        try (Deadline.Scope ignored = Deadline.bind(deadline(Duration.ofSeconds(30)))) {
+            dataSource.getConnection().prepareStatement(SQL);
+        }
+
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void testPrepareStatement_NoDeadlineOutsideOfRequests() throws SQLException {
+        stubStatement();
+
+        dataSource.getConnection().prepareStatement(SQL);
+
+        verify(statement, never()).setQueryTimeout(anyInt());
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void testGetConnection_FailsOnceBudgetIsSpent() {
+        Deadline deadline = deadline(Duration.ZERO);
+
+        try (Deadline.Scope ignored = Deadline.bind(deadline)) {
+            assertThrows(DeadlineExceededException.class, () -> dataSource.getConnection());
+            assertThrows(DeadlineExceededException.class, Deadline::checkCurrent);
+        }
+
+        assertEquals(1, exceeded.get());
+        verifyNoInteractions(target);
+        assertNull(Deadline.current());
+    }
+
+    private Deadline deadline(Duration budget) {
+        return new Deadline(budget, exceeded::incrementAndGet);
+    }
+
+    private void stubStatement() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+    }
+}
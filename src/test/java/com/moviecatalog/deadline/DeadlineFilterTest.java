@@ -0,0 +1,54 @@
+package com.moviecatalog.deadline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineFilterTest {
+
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setDefaultBudget(Duration.ofSeconds(10));
+        DeadlineProperties.Budget recommendations = new DeadlineProperties.Budget();
+        recommendations.setPath("/api/movies/{id}/recommendations");
+        recommendations.setBudget(Duration.ofSeconds(3));
+        properties.setBudgets(List.of(recommendations));
+        filter = new DeadlineFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testDoFilter_HeaderShortensBudget() throws Exception {
+        assertEquals(2, budgetSeconds("/api/movies/1/recommendations", "2s"));
+        assertEquals(1, budgetSeconds("/api/movies", "500"));
+    }
+
+    @Test
+    void testDoFilter_HeaderCannotExtendBudget() throws Exception {
+        assertEquals(3, budgetSeconds("/api/movies/1/recommendations", "60s"));
+        assertEquals(10, budgetSeconds("/api/movies", "600000"));
+        assertEquals(10, budgetSeconds("/api/movies", "garbage"));
+        assertEquals(3, budgetSeconds("/api/movies/1/recommendations", null));
+    }
+
+    private long budgetSeconds(String uri, String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (header != null) {
+            request.addHeader("X-Request-Timeout", header);
+        }
+        long[] remaining = new long[1];
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> remaining[0] = Deadline.current().remainingNanos());
+        return (remaining[0] + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
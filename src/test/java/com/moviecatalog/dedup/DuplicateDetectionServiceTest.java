@@ -0,0 +1,110 @@
+package com.moviecatalog.dedup;
+
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.RemoteInvalidation;
+import com.moviecatalog.repository.CatalogSnapshotRepository;
+import com.moviecatalog.repository.CatalogSnapshotRepository.MovieRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class DuplicateDetectionServiceTest {
+
+    private final CatalogSnapshotRepository catalogSnapshotRepository = mock(CatalogSnapshotRepository.class);
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+    private DuplicateDetectionService service;
+
+    private final Answer<Void> movies = invocation -> {
+        Collection<Long> ids = invocation.getArgument(0);
+        Consumer<MovieRow> consumer = invocation.getArgument(1);
+        if (ids == null || ids.contains(1L)) {
+            consumer.accept(row(1L, "Брат"));
+        }
+        if (ids != null && ids.contains(2L)) {
+            consumer.accept(row(2L, "Брат 2"));
+        }
+        return null;
+    };
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(movies).when(catalogSnapshotRepository).findMovies(any(), any());
+        service = new DuplicateDetectionService(catalogSnapshotRepository, new DuplicateProperties(),
+                new SimpleMeterRegistry());
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        service.close();
+    }
+
+    @Test
+    void testOnChange_UpdatesIndexOnWorker() throws InterruptedException {
+        blockNextQuery();
+
+        service.onChange(EntityChange.created(EntityType.MOVIE, 2L));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        service.onChange(EntityChange.updated(EntityType.MOVIE, 2L));
+        service.onChange(EntityChange.updated(EntityType.MOVIE, 2L));
+        released.countDown();
+
+        verify(catalogSnapshotRepository, timeout(5000).times(2)).findMovies(eq(List.of(2L)), any());
+        awaitIndexed(2);
+    }
+
+    @Test
+    void testOnRemoteInvalidation_ReloadsWithoutBlockingCaller() throws InterruptedException {
+        blockNextQuery();
+
+        service.onRemoteInvalidation(RemoteInvalidation.everything());
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        service.onRemoteInvalidation(RemoteInvalidation.everything());
+        service.onChange(EntityChange.deleted(EntityType.MOVIE, 1L));
+        released.countDown();
+
+        awaitIndexed(0);
+        verify(catalogSnapshotRepository, times(2)).findMovies(isNull(), any());
+    }
+
+    /**
+     * Holds the worker in its next query until {@link #released}, so later changes pile up.
+     */
+    private void blockNextQuery() {
+        doAnswer(invocation -> {
+            blocked.countDown();
+            released.await(5, TimeUnit.SECONDS);
+            return movies.answer(invocation);
+        }).doAnswer(movies).when(catalogSnapshotRepository).findMovies(any(), any());
+    }
+
+    private void awaitIndexed(int movies) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.index().size() != movies && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(movies, service.index().size());
+    }
+
+    private static MovieRow row(long id, String title) {
+        return new MovieRow(id, title, null, LocalDate.of(1997, 5, 17), 96, 10L, new long[0], 0, 0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.moviecatalog.dedup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateIndexTest {
+
+    private DuplicateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DuplicateIndex(0.7, 0.2, 1);
+        index.put(1L, "Брат 2", LocalDate.of(2000, 5, 11), 10L);
+        index.put(2L, "Брат", LocalDate.of(1997, 5, 17), 10L);
+        index.put(3L, "Сёстры", LocalDate.of(2001, 4, 24), 11L);
+    }
+
+    @Test
+    void testNormalize_IgnoresCasePunctuationAndYear() {
+        assertEquals("брат 2", TitleTrigrams.normalize("Брат-2 (2000)"));
+        assertEquals("сестры", TitleTrigrams.normalize("  СЁСТРЫ!! "));
+    }
+
+    @Test
+    void testFind_MatchesSpellingVariants() {
+        List<DuplicateIndex.Match> matches = index.find("Брат-2 (2000)", LocalDate.of(2000, 1, 1), 10L, 5);
+
+        assertEquals(1, matches.size());
+        assertEquals(1L, matches.get(0).movieId());
+        assertEquals(2000, matches.get(0).releaseYear());
+        assertEquals(1.0, matches.get(0).score(), 1e-9);
+    }
+
+    @Test
+    void testFind_SkipsOtherYears() {
+        assertTrue(index.find("Брат", LocalDate.of(2000, 1, 1), 10L, 5).stream()
+                .noneMatch(match -> match.movieId() == 2L));
+        assertTrue(index.find("Брат 2", LocalDate.of(2003, 1, 1), 10L, 5).isEmpty());
+    }
+
+    @Test
+    void testFind_DirectorRaisesScore() {
+        assertEquals(List.of(3L), index.find("Сестры", LocalDate.of(2002, 1, 1), 11L, 5).stream()
+                .map(DuplicateIndex.Match::movieId).toList());
+        assertEquals(0.8, index.find("Сестры", LocalDate.of(2002, 1, 1), 12L, 5).get(0).score(), 1e-9);
+        assertTrue(index.find("Сестрички", LocalDate.of(2002, 1, 1), 12L, 5).isEmpty());
+    }
+
+    @Test
+    void testPutAndRemove_UpdateRows() {
+        index.put(1L, "Война", LocalDate.of(2002, 3, 14), 10L);
+        assertTrue(index.find("Брат 2", LocalDate.of(2000, 1, 1), 10L, 5).isEmpty());
+
+        index.put(4L, "Война (2002)", LocalDate.of(2002, 1, 1), 10L);
+        assertEquals(List.of(4L), index.findSimilar(1L, 5).stream().map(DuplicateIndex.Match::movieId).toList());
+
+        index.remove(4L);
+        index.remove(1L);
+        assertTrue(index.find("Война", LocalDate.of(2002, 1, 1), 10L, 5).isEmpty());
+        assertArrayEquals(new long[]{2L, 3L}, index.movieIds());
+    }
+
+    @Test
+    void testFind_AgreesWithFullScan() {
+        String[] words = {"брат", "сестры", "война", "мир", "день", "ночь", "дом", "2"};
+        Random random = new Random(42);
+        DuplicateIndex large = new DuplicateIndex(0.6, 0.2, 0);
+        String[] titles = new String[500];
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            large.put(i, titles[i], LocalDate.of(2000, 1, 1), i % 3);
+        }
+
+        for (int i = 0; i < titles.length; i += 7) {
+            long[] grams = TitleTrigrams.of(titles[i]);
+            int expected = 0;
+            for (int j = 0; j < titles.length; j++) {
+                double score = 0.8 * TitleTrigrams.similarity(grams, TitleTrigrams.of(titles[j]))
+                        + (j % 3 == i % 3 ? 0.2 : 0);
+                if (j != i && score >= 0.6) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, large.findSimilar(i, titles.length).size(), titles[i]);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.moviecatalog.events;
+
+import com.moviecatalog.events.EntityChange.EntityType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeEventBufferTest {
+
+    private final ChangeEventBuffer buffer = new ChangeEventBuffer(3);
+
+    @Test
+    void testAppend_AssignsIncreasingVersions() {
+        ChangeEvent first = buffer.append(EntityChange.created(EntityType.MOVIE, 10));
+        ChangeEvent second = buffer.append(EntityChange.deleted(EntityType.REVIEW, 20));
+
+        assertEquals(1, first.version());
+        assertEquals(2, second.version());
+        assertEquals(2, buffer.lastVersion());
+    }
+
+    @Test
+    void testSince_ReplaysMissedEvents() {
+        buffer.append(EntityChange.created(EntityType.MOVIE, 1));
+        buffer.append(EntityChange.created(EntityType.MOVIE, 2));
+        buffer.append(EntityChange.created(EntityType.MOVIE, 3));
+
+        Optional<List<ChangeEvent>> missed = buffer.since(1);
+
+        assertTrue(missed.isPresent());
+        assertEquals(List.of(2L, 3L), missed.get().stream().map(ChangeEvent::entityId).toList());
+        assertEquals(List.of(), buffer.since(3).orElseThrow());
+    }
+
+    @Test
+    void testSince_EmptyWhenEventsWereOverwritten() {
+        for (long id = 1; id <= 5; id++) {
+            buffer.append(EntityChange.updated(EntityType.GENRE, id));
+        }
+
+        assertTrue(buffer.since(1).isEmpty());
+        assertEquals(List.of(3L, 4L, 5L), buffer.since(2).orElseThrow().stream().map(ChangeEvent::entityId).toList());
+    }
+
+    @Test
+    void testSince_EmptyForUnknownFutureVersion() {
+        buffer.append(EntityChange.created(EntityType.DIRECTOR, 1));
+
+        assertTrue(buffer.since(7).isEmpty());
+    }
+}
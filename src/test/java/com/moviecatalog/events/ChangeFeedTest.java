@@ -0,0 +1,166 @@
+package com.moviecatalog.events;
+
+import com.moviecatalog.events.EntityChange.EntityType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch released = new CountDownLatch(1);
+    private ChangeFeedProperties properties;
+    private ChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ChangeFeedProperties();
+        properties.setSubscriberQueueSize(2);
+        changeFeed = new ChangeFeed(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        changeFeed.close();
+    }
+
+    @Test
+    void testOnChange_SlowSubscriberDoesNotDelayOthers() throws InterruptedException {
+        RecordingEmitter slow = new RecordingEmitter(released);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        changeFeed.subscribe(null, slow);
+        changeFeed.subscribe(null, fast);
+
+        changeFeed.onChange(EntityChange.created(EntityType.MOVIE, 1));
+        assertTrue(slow.blocked.await(5, TimeUnit.SECONDS));
+        changeFeed.onChange(EntityChange.created(EntityType.MOVIE, 2));
+
+        fast.awaitSent(2);
+        assertEquals(List.of("change 1", "change 2"), fast.sent);
+        assertTrue(slow.sent.isEmpty());
+    }
+
+    @Test
+    void testOnChange_ResetsLaggingSubscriberAndDropsStalledOne() throws InterruptedException {
+        RecordingEmitter slow = new RecordingEmitter(released);
+        changeFeed.subscribe(null, slow);
+        changeFeed.onChange(EntityChange.created(EntityType.MOVIE, 1));
+        assertTrue(slow.blocked.await(5, TimeUnit.SECONDS));
+
+        for (int movieId = 2; movieId <= 4; movieId++) {
+            changeFeed.onChange(EntityChange.created(EntityType.MOVIE, movieId));
+        }
+        assertEquals(1.0, meterRegistry.get("events.subscribers.lagging").tag("outcome", "reset").counter().count());
+        changeFeed.onChange(EntityChange.created(EntityType.MOVIE, 5));
+        changeFeed.onChange(EntityChange.created(EntityType.MOVIE, 6));
+
+        assertEquals(1.0, meterRegistry.get("events.subscribers.lagging").tag("outcome", "dropped").counter().count());
+        assertEquals(0.0, meterRegistry.get("events.subscribers").gauge().value());
+        released.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testOnChange_LaggingSubscriberContinuesAfterReset() throws InterruptedException {
+        RecordingEmitter slow = new RecordingEmitter(released);
+        changeFeed.subscribe(null, slow);
+        for (int movieId = 1; movieId <= 4; movieId++) {
+            changeFeed.onChange(EntityChange.created(EntityType.MOVIE, movieId));
+            if (movieId == 1) {
+                assertTrue(slow.blocked.await(5, TimeUnit.SECONDS));
+            }
+        }
+        released.countDown();
+        slow.awaitSent(2);
+        changeFeed.onChange(EntityChange.created(EntityType.MOVIE, 5));
+
+        slow.awaitSent(3);
+        assertEquals(List.of("change 1", "reset", "change 5"), slow.sent);
+    }
+
+    @Test
+    void testSubscribe_ReplaysMissedEventsOrResets() throws InterruptedException {
+        RecordingEmitter probe = new RecordingEmitter(null);
+        changeFeed.subscribe(null, probe);
+        changeFeed.onChange(EntityChange.created(EntityType.MOVIE, 1));
+        probe.awaitSent(1);
+        String epoch = probe.ids.get(0).substring(0, probe.ids.get(0).lastIndexOf('-'));
+        RecordingEmitter unknown = new RecordingEmitter(null);
+        RecordingEmitter missed = new RecordingEmitter(null);
+
+        changeFeed.subscribe("other-1", unknown);
+        changeFeed.subscribe(epoch + "-0", missed);
+
+        unknown.awaitSent(1);
+        missed.awaitSent(1);
+        assertEquals(List.of("reset"), unknown.sent);
+        assertEquals(List.of("change 1"), missed.sent);
+    }
+
+    /**
+     * Records what would be written to the client; blocks in the first send until released when a
+     * latch is given, like a client that stopped reading.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final List<String> ids = new CopyOnWriteArrayList<>();
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (release != null && blocked.getCount() > 0) {
+                blocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            ChangeEvent change = null;
+            for (var part : builder.build()) {
+                if (part.getData() instanceof ChangeEvent event) {
+                    change = event;
+                } else {
+                    text.append(part.getData());
+                }
+            }
+            if (change != null) {
+                sent.add("change " + change.entityId());
+                ids.add(text.substring(text.indexOf("id:") + 3, text.indexOf("\n")));
+            } else if (text.indexOf("event:reset") >= 0) {
+                sent.add("reset");
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        private void awaitSent(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sent.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(sent.size() >= count, "sent " + sent);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.moviecatalog.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviecatalog.dto.GenreDTO;
+import com.moviecatalog.dto.ReviewDTO;
+import com.moviecatalog.service.DirectorService;
+import com.moviecatalog.service.GenreService;
+import com.moviecatalog.service.MovieService;
+import com.moviecatalog.service.ReviewService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportSnapshotJobTest {
+
+    @Mock
+    private MovieService movieService;
+
+    @Mock
+    private DirectorService directorService;
+
+    @Mock
+    private GenreService genreService;
+
+    @Mock
+    private ReviewService reviewService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private ExportProperties properties;
+    private ExportFiles exportFiles;
+    private ExportSnapshotJob job;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ExportProperties();
+        properties.setDirectory(directory);
+        properties.setRetainSnapshots(1);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        exportFiles = new ExportFiles(properties, objectMapper);
+        job = new ExportSnapshotJob(movieService, directorService, genreService, reviewService, exportFiles,
+                properties, objectMapper, transactionManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRun_WritesCompressedFilesAndManifest() throws Exception {
+        when(genreService.getAllGenres()).thenReturn(List.of(new GenreDTO(1L, "Драма"), new GenreDTO(2L, "Комедия")));
+        doAnswer(invocation -> {
+            invocation.<Consumer<ReviewDTO>>getArgument(0)
+                    .accept(new ReviewDTO(5L, "Анна", "Отлично", 9, 1L, null));
+            return null;
+        }).when(reviewService).streamAllReviews(any(Consumer.class));
+
+        ExportManifest manifest = job.run();
+
+        assertEquals(List.of("genres", "directors", "movies", "reviews"),
+                manifest.files().stream().map(ExportManifest.ExportFile::entity).toList());
+        ExportFiles.Download genres = exportFiles.find("genres.ndjson.gz");
+        assertEquals(2, genres.file().records());
+        byte[] compressed = Files.readAllBytes(genres.path());
+        assertEquals(compressed.length, genres.file().bytes());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(compressed)),
+                genres.file().sha256());
+        assertEquals("{\"id\":1,\"name\":\"Драма\"}\n{\"id\":2,\"name\":\"Комедия\"}\n", decompress(genres.path()));
+        assertEquals("", decompress(exportFiles.find("movies.ndjson.gz").path()));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testRun_KeepsOnlyRetainedSnapshots() throws Exception {
+        ExportManifest first = job.run();
+        Files.createDirectories(directory.resolve("20000101T000000000Z"));
+        Thread.sleep(5);
+
+        ExportManifest second = job.run();
+
+        try (Stream<Path> children = Files.list(directory)) {
+            List<String> names = children.map(path -> path.getFileName().toString()).sorted().toList();
+            assertTrue(names.contains(second.snapshot()));
+            assertTrue(names.contains(ExportFiles.MANIFEST));
+            assertFalse(names.contains("20000101T000000000Z"));
+            assertTrue(names.stream().noneMatch(name -> name.startsWith(".")));
+            assertFalse(names.contains(first.snapshot()));
+        }
+    }
+
+    @Test
+    void testScheduledRun_ExportsOnOwnThread() throws Exception {
+        properties.setEnabled(true);
+        CountDownLatch exported = new CountDownLatch(1);
+        String[] thread = new String[1];
+        when(genreService.getAllGenres()).thenAnswer(invocation -> {
+            thread[0] = Thread.currentThread().getName();
+            exported.countDown();
+            return List.of();
+        });
+
+        job.scheduledRun();
+
+        assertTrue(exported.await(5, TimeUnit.SECONDS));
+        assertEquals("catalog-export", thread[0]);
+        job.close();
+    }
+
+    private static String decompress(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.moviecatalog.invalidation;
+
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.RemoteInvalidation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvalidationBusTest {
+
+    @Mock
+    private ApplicationEventPublisher writerEvents;
+
+    @Mock
+    private ApplicationEventPublisher readerEvents;
+
+    private InMemoryInvalidationTransport transport;
+    private InvalidationBus writer;
+    private InvalidationBus reader;
+
+    @BeforeEach
+    void setUp() {
+        InvalidationProperties properties = new InvalidationProperties();
+        properties.setEnabled(true);
+        properties.setMaxIdsPerMessage(2);
+        // the tests flush by hand
+        properties.setCoalesceIntervalMs(60_000);
+        transport = new InMemoryInvalidationTransport();
+        writer = new InvalidationBus(transport, properties, writerEvents, new SimpleMeterRegistry());
+        reader = new InvalidationBus(transport, properties, readerEvents, new SimpleMeterRegistry());
+        writer.start();
+        reader.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+        reader.stop();
+    }
+
+    @Test
+    void testFlush_CoalescesChangesPerEntityType() {
+        writer.onChange(EntityChange.updated(EntityType.MOVIE, 1L));
+        writer.onChange(EntityChange.updated(EntityType.MOVIE, 1L));
+        writer.onChange(EntityChange.created(EntityType.MOVIE, 2L));
+        writer.onChange(EntityChange.deleted(EntityType.GENRE, 5L));
+        writer.onChange(EntityChange.created(EntityType.REVIEW, 9L));
+
+        writer.flush();
+
+        List<RemoteInvalidation> received = captured(2);
+        RemoteInvalidation movies = received.stream().filter(i -> i.entity() == EntityType.MOVIE).findFirst().orElseThrow();
+        assertFalse(movies.deleted());
+        assertArrayEquals(new long[]{1L, 2L}, movies.entityIds());
+        RemoteInvalidation genres = received.stream().filter(i -> i.entity() == EntityType.GENRE).findFirst().orElseThrow();
+        assertTrue(genres.deleted());
+        assertArrayEquals(new long[]{5L}, genres.entityIds());
+        verifyNoInteractions(writerEvents);
+    }
+
+    @Test
+    void testFlush_SplitsLargeBursts() {
+        for (long id = 1; id <= 5; id++) {
+            writer.onChange(EntityChange.updated(EntityType.DIRECTOR, id));
+        }
+
+        writer.flush();
+        writer.flush();
+
+        List<RemoteInvalidation> received = captured(3);
+        assertArrayEquals(new long[]{5L}, received.get(2).entityIds());
+    }
+
+    @Test
+    void testReceive_FlushesEverythingOnSequenceGap() {
+        reader.receive("1 other 1 MOVIE U 1");
+        reader.receive("1 other 2 MOVIE U 2");
+        reader.receive("1 other 4 MOVIE D 3");
+        reader.receive("garbage");
+
+        List<RemoteInvalidation> received = captured(4);
+        assertEquals(1, received.stream().filter(RemoteInvalidation::isEverything).count());
+        assertTrue(received.get(3).deleted());
+    }
+
+    @Test
+    void testReceive_TracksSequencesPerSender() {
+        reader.receive("1 first 7 MOVIE U 1");
+        reader.receive("1 second 1 MOVIE U 2");
+        reader.receive("1 first 8 MOVIE U 3");
+        reader.receive("1 second 2 GENRE U 4");
+
+        assertTrue(captured(4).stream().noneMatch(RemoteInvalidation::isEverything));
+    }
+
+    @Test
+    void testReconnect_FlushesEverything() {
+        transport.reconnect();
+
+        assertTrue(captured(1).get(0).isEverything());
+    }
+
+    private List<RemoteInvalidation> captured(int count) {
+        ArgumentCaptor<RemoteInvalidation> captor = ArgumentCaptor.forClass(RemoteInvalidation.class);
+        verify(readerEvents, times(count)).publishEvent(captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,107 @@
+package com.moviecatalog.invalidation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class PostgresInvalidationTransportTest {
+
+    private final InvalidationProperties properties = new InvalidationProperties();
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final CountDownLatch gap = new CountDownLatch(1);
+    private PostgresInvalidationTransport transport;
+    private InvalidationTransport.Subscription subscription;
+
+    @BeforeEach
+    void setUp() {
+        properties.setPollTimeout(Duration.ofMillis(1));
+        properties.setReconnectDelay(Duration.ofMillis(1));
+        transport = spy(new PostgresInvalidationTransport(mock(JdbcTemplate.class), new DataSourceProperties(),
+                properties));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    @Test
+    void testSubscribe_ReconnectsAndReportsGapAfterLostConnection() throws Exception {
+        PGNotification first = notification("1 other 1 MOVIE U 1");
+        PGNotification second = notification("1 other 2 MOVIE U 2");
+        Connection lost = connection();
+        when(lost.unwrap(PGConnection.class).getNotifications(anyInt()))
+                .thenReturn(new PGNotification[]{first})
+                .thenThrow(new SQLException("An I/O error occurred while sending to the backend"));
+        Connection reopened = connection();
+        when(reopened.unwrap(PGConnection.class).getNotifications(anyInt()))
+                .thenReturn(new PGNotification[]{second})
+                .thenReturn(null);
+        doReturn(lost, reopened).when(transport).openListenerConnection();
+
+        subscription = transport.subscribe(received::add, gap::countDown);
+
+        assertTrue(gap.await(5, TimeUnit.SECONDS));
+        awaitReceived(2);
+        assertEquals(List.of("1 other 1 MOVIE U 1", "1 other 2 MOVIE U 2"), received);
+        verify(lost).close();
+    }
+
+    @Test
+    void testSubscribe_KeepaliveDetectsDroppedConnection() throws Exception {
+        properties.setKeepaliveInterval(Duration.ZERO);
+        Connection dropped = connection();
+        when(dropped.unwrap(PGConnection.class).getNotifications(anyInt())).thenReturn(new PGNotification[0]);
+        Statement statement = dropped.createStatement();
+        when(statement.execute("SELECT 1")).thenThrow(new SQLException("Connection reset"));
+        Connection reopened = connection();
+        doReturn(dropped, reopened).when(transport).openListenerConnection();
+
+        subscription = transport.subscribe(received::add, gap::countDown);
+
+        assertTrue(gap.await(5, TimeUnit.SECONDS));
+        verify(statement).execute("SELECT 1");
+        assertTrue(received.isEmpty());
+    }
+
+    private static Connection connection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        return connection;
+    }
+
+    private static PGNotification notification(String payload) {
+        PGNotification notification = mock(PGNotification.class);
+        when(notification.getParameter()).thenReturn(payload);
+        return notification;
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (received.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.moviecatalog.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoReviewMatrixTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testTopNeighbors_CosineOverSharedAuthors() {
+        CoReviewMatrix.Builder builder = CoReviewMatrix.builder(100);
+        author(builder, 10, 20, 30);
+        author(builder, 10, 20);
+        author(builder, 10, 30);
+        author(builder, 20);
+        CoReviewMatrix matrix = builder.build();
+
+        CoReviewMatrix.Neighbors[] neighbors = matrix.topNeighbors(5, 1, pool);
+
+        assertEquals(3, matrix.movieCount());
+        assertEquals(4, matrix.authorCount());
+        CoReviewMatrix.Neighbors of10 = neighbors[0];
+        assertEquals(2, of10.size());
+        // 10 and 30 share 2 of 3 and 2 authors, 10 and 20 share 2 of 3 and 3 authors
+        assertEquals(30L, matrix.movieId(of10.movie(0)));
+        assertEquals(2 / Math.sqrt(3 * 2), of10.score(0), 1e-9);
+        assertEquals(20L, matrix.movieId(of10.movie(1)));
+        assertEquals(2 / Math.sqrt(3 * 3), of10.score(1), 1e-9);
+        assertEquals(2, of10.coReviewers(1));
+    }
+
+    @Test
+    void testTopNeighbors_KeepsLimitAndMinCoReviewers() {
+        CoReviewMatrix.Builder builder = CoReviewMatrix.builder(100);
+        author(builder, 1, 2, 3, 4);
+        author(builder, 1, 2, 3);
+        author(builder, 1, 2);
+        CoReviewMatrix matrix = builder.build();
+
+        CoReviewMatrix.Neighbors[] neighbors = matrix.topNeighbors(1, 2, pool);
+
+        assertEquals(1, neighbors[0].size());
+        assertEquals(2L, matrix.movieId(neighbors[0].movie(0)));
+        assertEquals(0, neighbors[3].size());
+    }
+
+    @Test
+    void testTopNeighbors_ZeroLimitKeepsNoNeighbors() {
+        CoReviewMatrix.Builder builder = CoReviewMatrix.builder(100);
+        author(builder, 1, 2, 3);
+        CoReviewMatrix matrix = builder.build();
+
+        CoReviewMatrix.Neighbors[] neighbors = matrix.topNeighbors(0, 1, pool);
+
+        assertEquals(0, neighbors[0].size());
+        assertEquals(0, neighbors[2].size());
+    }
+
+    @Test
+    void testBuilder_DropsProlificAuthors() {
+        CoReviewMatrix.Builder builder = CoReviewMatrix.builder(2);
+        author(builder, 1, 2, 3);
+        author(builder, 1, 2);
+        CoReviewMatrix matrix = builder.build();
+
+        assertEquals(1, matrix.authorCount());
+        assertEquals(2, matrix.movieCount());
+        assertEquals(1.0, matrix.topNeighbors(5, 1, pool)[0].score(0), 1e-9);
+    }
+
+    @Test
+    void testTopNeighbors_PartitionsMatchSequentialResult() {
+        CoReviewMatrix.Builder builder = CoReviewMatrix.builder(100);
+        for (int author = 0; author < 500; author++) {
+            builder.nextAuthor();
+            for (int k = 0; k < 5; k++) {
+                builder.add((author * 7L + k * 13L) % 1000);
+            }
+        }
+        CoReviewMatrix matrix = builder.build();
+
+        CoReviewMatrix.Neighbors[] parallel = matrix.topNeighbors(3, 1, pool);
+        ForkJoinPool single = new ForkJoinPool(1);
+        CoReviewMatrix.Neighbors[] sequential = matrix.topNeighbors(3, 1, single);
+        single.shutdown();
+
+        for (int movie = 0; movie < matrix.movieCount(); movie++) {
+            assertEquals(sequential[movie].size(), parallel[movie].size());
+            for (int rank = 0; rank < parallel[movie].size(); rank++) {
+                assertEquals(sequential[movie].movie(rank), parallel[movie].movie(rank));
+            }
+        }
+    }
+
+    private void author(CoReviewMatrix.Builder builder, long... movieIds) {
+        builder.nextAuthor();
+        for (long movieId : movieIds) {
+            builder.add(movieId);
+        }
+    }
+}
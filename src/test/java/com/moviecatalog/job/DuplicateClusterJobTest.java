@@ -0,0 +1,88 @@
+package com.moviecatalog.job;
+
+import com.moviecatalog.dedup.DuplicateDetectionService;
+import com.moviecatalog.dedup.DuplicateIndex;
+import com.moviecatalog.dedup.DuplicateProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class DuplicateClusterJobTest {
+
+    private final DuplicateDetectionService duplicateDetectionService = mock(DuplicateDetectionService.class);
+    private final DuplicateProperties properties = new DuplicateProperties();
+    private DuplicateIndex index;
+    private DuplicateClusterJob job;
+
+    @BeforeEach
+    void setUp() {
+        properties.setParallelism(1);
+        index = spy(new DuplicateIndex(0.7, 0.2, 1));
+        index.put(1L, "Брат", LocalDate.of(1997, 5, 17), 10L);
+        index.put(2L, "Брат", LocalDate.of(1997, 5, 17), 10L);
+        index.put(3L, "Сёстры", LocalDate.of(2001, 4, 24), 11L);
+        index.put(4L, "Сестры", LocalDate.of(2001, 4, 24), 11L);
+        index.put(5L, "Война", LocalDate.of(2002, 3, 14), 10L);
+        when(duplicateDetectionService.index()).thenReturn(index);
+        job = new DuplicateClusterJob(duplicateDetectionService, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.close();
+    }
+
+    @Test
+    void testRun_GroupsLinkedMoviesIntoClusters() {
+        DuplicateClusterJob.Result result = job.run();
+
+        assertEquals(5, result.movies());
+        assertEquals(2, result.pairs());
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L, 4L)), result.clusters());
+        assertSame(result, job.lastResult());
+    }
+
+    @Test
+    void testRun_IgnoresMoviesIndexedDuringTheRun() {
+        AtomicBoolean added = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (added.compareAndSet(false, true)) {
+                index.put(6L, "Брат", LocalDate.of(1997, 5, 17), 10L);
+            }
+            return invocation.callRealMethod();
+        }).when(index).findSimilar(anyLong(), anyInt());
+
+        DuplicateClusterJob.Result result = job.run();
+
+        assertEquals(5, result.movies());
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L, 4L)), result.clusters());
+        assertEquals(List.of(List.of(1L, 2L, 6L), List.of(3L, 4L)), job.run().clusters());
+    }
+
+    @Test
+    void testScheduledRun_ClustersOnOwnThread() throws InterruptedException {
+        CountDownLatch clustered = new CountDownLatch(1);
+        String[] thread = new String[1];
+        doAnswer(invocation -> {
+            thread[0] = Thread.currentThread().getName();
+            clustered.countDown();
+            return invocation.callRealMethod();
+        }).when(index).movieIds();
+
+        job.scheduledRun();
+
+        assertTrue(clustered.await(5, TimeUnit.SECONDS));
+        assertEquals("duplicate-clusters", thread[0]);
+    }
+}
@@ -0,0 +1,99 @@
+package com.moviecatalog.observability;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrCallAspectTest {
+
+    private static final String EVENT = "com.moviecatalog.RepositoryCall";
+
+    @TempDir
+    private Path directory;
+
+    private FakeRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new FakeRepository());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new JfrCallAspect());
+        repository = factory.getProxy();
+    }
+
+    @Test
+    void testRecord_CapturesIdsSizesAndRows() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            repository.findByIds(List.of(3L, 4L));
+            repository.forEachTitle(7L, title -> {
+            });
+        });
+
+        assertEquals(2, events.size());
+        RecordedEvent find = events.get(0);
+        assertEquals("FakeRepository", find.getString("type"));
+        assertEquals("findByIds", find.getString("method"));
+        assertEquals("3,4", find.getString("entityIds"));
+        assertEquals(2, find.getInt("resultSize"));
+        assertEquals(2, find.getLong("rowsHydrated"));
+        assertEquals(1, find.getInt("queries"));
+        RecordedEvent forEach = events.get(1);
+        assertEquals("7", forEach.getString("entityIds"));
+        assertEquals(3, forEach.getInt("resultSize"));
+        assertEquals(0, forEach.getInt("queries"));
+    }
+
+    @Test
+    void testRecord_PassesThroughWhenDisabled() {
+        assertEquals(List.of(3L), repository.findByIds(List.of(3L)));
+    }
+
+    @Test
+    void testResultSize_OnlyCountsCollections() {
+        assertEquals(-1, JfrCallAspect.resultSize(void.class, null));
+        assertEquals(0, JfrCallAspect.resultSize(Object.class, null));
+        assertEquals(-1, JfrCallAspect.resultSize(Long.class, 5L));
+        assertEquals(1, JfrCallAspect.resultSize(Object.class, new Object()));
+    }
+
+    private List<RecordedEvent> record(Runnable calls) throws IOException {
+        Path file = directory.resolve("calls.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT).withoutThreshold();
+            recording.start();
+            calls.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(EVENT))
+                .toList();
+    }
+
+    @Repository
+    public static class FakeRepository {
+
+        public List<Long> findByIds(Collection<Long> ids) {
+            new JfrSqlExecutionListener().onExecution(
+                    new SqlExecution("SELECT 1", "SELECT ?", List.of(), 1000, ids.size(), false));
+            return List.copyOf(ids);
+        }
+
+        public void forEachTitle(Long directorId, Consumer<String> consumer) {
+            List.of("a", "b", "c").forEach(consumer);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.moviecatalog.observability;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEndpointTest {
+
+    @TempDir
+    private Path directory;
+
+    private JfrEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        JfrProperties properties = new JfrProperties();
+        properties.setDumpDirectory(directory);
+        properties.setMaxRecordings(1);
+        endpoint = new JfrEndpoint(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        FlightRecorder.getFlightRecorder().getRecordings().forEach(Recording::close);
+    }
+
+    @Test
+    void testStart_DisablesSensitiveEventsAndCapsRecordings() throws Exception {
+        JfrEndpoint.RecordingInfo started = endpoint.start("test", null);
+
+        Map<String, String> settings = find(started.id()).getSettings();
+        assertEquals("false", settings.get("jdk.InitialEnvironmentVariable#enabled"));
+        assertEquals("false", settings.get("jdk.InitialSystemProperty#enabled"));
+        assertEquals("false", settings.get("jdk.JVMInformation#enabled"));
+        assertEquals("true", settings.get("com.moviecatalog.SqlQuery#enabled"));
+        assertThrows(IllegalStateException.class, () -> endpoint.start("second", null));
+    }
+
+    @Test
+    void testDump_DeletesFileOnceServed() throws Exception {
+        JfrEndpoint.RecordingInfo started = endpoint.start("test", null);
+
+        Resource dump = endpoint.dump(started.id());
+        try (InputStream in = dump.getInputStream()) {
+            assertTrue(in.readAllBytes().length > 0);
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        assertNull(endpoint.dump(started.id() + 1000));
+    }
+
+    private static Recording find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,179 @@
+package com.moviecatalog.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ObservedDataSourceTest {
+
+    private static final String QUERY = "select title from movies where id = ? and title = 'Брат'";
+    private static final String UPDATE = "update movies set title = ? where id = ?";
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private final List<SqlExecution> executions = new ArrayList<>();
+    private final SqlLogProperties properties = new SqlLogProperties();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SlowQueryLog.class);
+    private ObservedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        properties.setSlowThresholdMs(10_000);
+        SlowQueryLog slowQueryLog = new SlowQueryLog(properties);
+        dataSource = new ObservedDataSource(target, () -> List.of(executions::add, slowQueryLog));
+        appender.start();
+        logger.addAppender(appender);
+        logger.setLevel(Level.INFO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+    }
+
+    @Test
+    void testExecuteQuery_ReportsParametersAndRowsReadWhenResultSetIsClosed() throws SQLException {
+        when(connection.prepareStatement(QUERY)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+
+        PreparedStatement prepared = dataSource.getConnection().prepareStatement(QUERY);
+        prepared.setLong(1, 42L);
+        ResultSet rows = prepared.executeQuery();
+        assertInstanceOf(ObservedResultSet.class, rows);
+        assertSame(prepared, rows.getStatement());
+        while (rows.next()) {
+            rows.getString(1);
+        }
+        assertTrue(executions.isEmpty());
+        rows.close();
+
+        assertEquals(1, executions.size());
+        SqlExecution first = executions.get(0);
+        assertEquals(QUERY, first.sql());
+        assertEquals("select title from movies where id = ? and title = ?", first.fingerprint());
+        assertEquals(List.of(42L), first.parameters());
+        assertEquals(2, first.rows());
+        assertFalse(first.failed());
+        verify(statement).setLong(1, 42L);
+        verify(resultSet).close();
+    }
+
+    @Test
+    void testExecuteQuery_ReportsUnclosedResultSetOnNextExecutionOrClose() throws SQLException {
+        when(connection.prepareStatement(QUERY)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+
+        PreparedStatement prepared = dataSource.getConnection().prepareStatement(QUERY);
+        prepared.setLong(1, 42L);
+        prepared.executeQuery();
+        prepared.clearParameters();
+        prepared.setNull(1, java.sql.Types.BIGINT);
+        assertEquals(0, executions.size());
+        prepared.executeQuery();
+        assertEquals(1, executions.size());
+        prepared.close();
+
+        assertEquals(2, executions.size());
+        assertEquals(List.of(42L), executions.get(0).parameters());
+        assertEquals(0, executions.get(0).rows());
+        assertEquals(1, executions.get(1).parameters().size());
+        assertNull(executions.get(1).parameters().get(0));
+    }
+
+    @Test
+    void testExecuteUpdate_ReportsAffectedRowsAndFailures() throws SQLException {
+        when(connection.prepareStatement(UPDATE)).thenReturn(statement);
+        when(statement.executeUpdate()).thenReturn(3).thenThrow(new SQLException("deadlock detected"));
+
+        PreparedStatement prepared = dataSource.getConnection().prepareStatement(UPDATE);
+        assertEquals(3, prepared.executeUpdate());
+        assertThrows(SQLException.class, prepared::executeUpdate);
+
+        assertEquals(3, executions.get(0).rows());
+        assertTrue(executions.get(1).failed());
+    }
+
+    @Test
+    void testUnwrap_ReturnsWrapperForJdbcInterfaces() throws SQLException {
+        when(connection.createStatement()).thenReturn(statement);
+
+        Connection observed = dataSource.getConnection();
+        Statement created = observed.createStatement();
+
+        assertSame(observed, observed.unwrap(Connection.class));
+        assertSame(created, created.unwrap(Statement.class));
+        assertInstanceOf(ObservedStatement.class, created);
+    }
+
+    @Test
+    void testSlowQueryLog_LogsSlowStatementsWithParameters() throws SQLException {
+        properties.setSlowThresholdMs(0);
+        when(connection.prepareStatement(QUERY)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+
+        PreparedStatement prepared = dataSource.getConnection().prepareStatement(QUERY);
+        prepared.setString(2, "Брат");
+        prepared.executeQuery().close();
+
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.WARN, event.getLevel());
+        assertTrue(event.getFormattedMessage().contains(QUERY));
+        assertTrue(event.getFormattedMessage().contains("[null, Брат]"));
+    }
+
+    @Test
+    void testSlowQueryLog_SamplesRegularStatementsWithoutParameters() throws SQLException {
+        when(connection.prepareStatement(QUERY)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        PreparedStatement prepared = dataSource.getConnection().prepareStatement(QUERY);
+        prepared.setLong(1, 42L);
+
+        properties.setSampleRate(0.0);
+        prepared.executeQuery().close();
+        assertTrue(appender.list.isEmpty());
+
+        properties.setSampleRate(1.0);
+        prepared.executeQuery().close();
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.INFO, event.getLevel());
+        assertTrue(event.getFormattedMessage().endsWith("select title from movies where id = ? and title = ?"));
+        assertFalse(event.getFormattedMessage().contains("42"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.moviecatalog.observability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementStatsTest {
+
+    private SqlLogProperties properties;
+    private SqlStatementStats stats;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SqlLogProperties();
+        properties.setMaxFingerprints(2);
+        stats = new SqlStatementStats(properties);
+    }
+
+    @Test
+    void testFingerprint_NormalizesLiteralsAndInLists() {
+        String first = SqlFingerprint.of("select m1_0.id from movies m1_0 where m1_0.id in (?, ?, ?) and m1_0.title = 'Брат'");
+        String second = SqlFingerprint.of("select m1_0.id\n  from movies m1_0 where m1_0.id in (?) and m1_0.title = 'Брат 2'");
+
+        assertEquals(first, second);
+        assertEquals("select m1_0.id from movies m1_0 where m1_0.id in (?...) and m1_0.title = ?", first);
+    }
+
+    @Test
+    void testFingerprint_KeepsAliasesAndReplacesNumbers() {
+        assertEquals("select r1_0.rating from reviews r1_0 limit ?",
+                SqlFingerprint.of("select r1_0.rating from reviews r1_0 limit 10"));
+    }
+
+    @Test
+    void testSnapshot_AggregatesPerFingerprint() {
+        stats.onExecution(execution("select 1", 2_000_000, 3));
+        stats.onExecution(execution("select 1", 4_000_000, 5));
+
+        List<SqlStatementStats.Snapshot> snapshot = stats.snapshot(10);
+
+        assertEquals(1, snapshot.size());
+        assertEquals(2, snapshot.get(0).count());
+        assertEquals(6.0, snapshot.get(0).totalMs());
+        assertEquals(4.0, snapshot.get(0).maxMs());
+        assertEquals(8, snapshot.get(0).rows());
+    }
+
+    @Test
+    void testSnapshot_FoldsOverflowFingerprints() {
+        stats.onExecution(execution("select a", 1_000_000, 1));
+        stats.onExecution(execution("select b", 1_000_000, 1));
+        stats.onExecution(execution("select c", 1_000_000, 1));
+        stats.onExecution(execution("select d", 1_000_000, 1));
+
+        List<SqlStatementStats.Snapshot> snapshot = stats.snapshot(10);
+
+        assertEquals(3, snapshot.size());
+        assertTrue(snapshot.stream().anyMatch(s -> s.fingerprint().equals(SqlStatementStats.OVERFLOW_FINGERPRINT) && s.count() == 2));
+    }
+
+    private SqlExecution execution(String sql, long elapsedNanos, long rows) {
+        return new SqlExecution(sql, SqlFingerprint.of(sql), List.of(), elapsedNanos, rows, false);
+    }
+}
@@ -0,0 +1,180 @@
+package com.moviecatalog.ranking;
+
+import com.moviecatalog.dto.TopRatedMovieDTO;
+import com.moviecatalog.entity.Genre;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.exception.BadRequestException;
+import com.moviecatalog.exception.ResourceNotFoundException;
+import com.moviecatalog.repository.GenreRepository;
+import com.moviecatalog.repository.MovieRatingStatsRepository;
+import com.moviecatalog.repository.MovieRatingStatsRepository.MovieTotals;
+import com.moviecatalog.service.GlobalRatingPrior;
+import com.moviecatalog.service.RatingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GenreLeaderboardServiceTest {
+
+    private static final MovieTotals CLASSIC = new MovieTotals(1L, 100, 800, Set.of());
+    private static final MovieTotals NEWCOMER = new MovieTotals(2L, 2, 20, Set.of());
+
+    @Mock
+    private MovieRatingStatsRepository movieRatingStatsRepository;
+
+    @Mock
+    private GenreRepository genreRepository;
+
+    @Mock
+    private GlobalRatingPrior globalRatingPrior;
+
+    private GenreLeaderboardService genreLeaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        RatingProperties properties = new RatingProperties();
+        properties.setLeaderboardSize(2);
+        properties.setRebuildParallelism(2);
+        genreLeaderboardService = new GenreLeaderboardService(
+                movieRatingStatsRepository, genreRepository, globalRatingPrior, properties);
+
+        Genre genre = new Genre();
+        genre.setId(10L);
+        when(genreRepository.findAll()).thenReturn(List.of(genre));
+        when(globalRatingPrior.refresh()).thenReturn(5.0);
+        lenient().when(globalRatingPrior.weight()).thenReturn(10.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        genreLeaderboardService.close();
+    }
+
+    @Test
+    void testGetTopRated_ShrinksFewReviewsTowardsPrior() {
+        when(movieRatingStatsRepository.findTopRatedInGenre(10L, 5.0, 10.0, 2)).thenReturn(List.of(CLASSIC, NEWCOMER));
+        genreLeaderboardService.start();
+
+        List<TopRatedMovieDTO> top = genreLeaderboardService.getTopRated(10L, null);
+
+        assertEquals(List.of(1L, 2L), top.stream().map(TopRatedMovieDTO::getMovieId).toList());
+        assertEquals(8.0, top.get(0).getAverageRating(), 0.001);
+        assertEquals(850.0 / 110, top.get(0).getBayesianScore(), 0.001);
+        assertEquals(10.0, top.get(1).getAverageRating(), 0.001);
+        assertEquals(70.0 / 12, top.get(1).getBayesianScore(), 0.001);
+        assertEquals(1, genreLeaderboardService.getTopRated(10L, 1).size());
+    }
+
+    @Test
+    void testOnChange_NewLeaderEvictsLowestWithoutQuery() {
+        when(movieRatingStatsRepository.findTopRatedInGenre(10L, 5.0, 10.0, 2)).thenReturn(List.of(CLASSIC, NEWCOMER));
+        genreLeaderboardService.start();
+        when(movieRatingStatsRepository.findTotalsWithGenres(3L))
+                .thenReturn(Optional.of(new MovieTotals(3L, 50, 450, Set.of(10L))));
+
+        genreLeaderboardService.onChange(EntityChange.updated(EntityType.MOVIE, 3L));
+
+        awaitTopRated(List.of(3L, 1L));
+        verify(movieRatingStatsRepository, times(1)).findTopRatedInGenre(10L, 5.0, 10.0, 2);
+    }
+
+    @Test
+    void testOnChange_FallingMemberRefillsLeaderboard() {
+        MovieTotals runnerUp = new MovieTotals(4L, 40, 280, Set.of());
+        when(movieRatingStatsRepository.findTopRatedInGenre(10L, 5.0, 10.0, 2))
+                .thenReturn(List.of(CLASSIC, NEWCOMER), List.of(runnerUp, NEWCOMER));
+        genreLeaderboardService.start();
+        when(movieRatingStatsRepository.findTotalsWithGenres(1L))
+                .thenReturn(Optional.of(new MovieTotals(1L, 100, 300, Set.of(10L))));
+
+        genreLeaderboardService.onChange(EntityChange.updated(EntityType.MOVIE, 1L));
+
+        awaitTopRated(List.of(4L, 2L));
+    }
+
+    @Test
+    void testOnChange_CoalescesQueuedRefreshesOfMovie() throws InterruptedException {
+        when(movieRatingStatsRepository.findTopRatedInGenre(10L, 5.0, 10.0, 2)).thenReturn(List.of(CLASSIC, NEWCOMER));
+        genreLeaderboardService.start();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        when(movieRatingStatsRepository.findTotalsWithGenres(5L)).thenAnswer(invocation -> {
+            blocked.countDown();
+            released.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        when(movieRatingStatsRepository.findTotalsWithGenres(3L))
+                .thenReturn(Optional.of(new MovieTotals(3L, 50, 450, Set.of(10L), 7)));
+
+        genreLeaderboardService.onChange(EntityChange.updated(EntityType.MOVIE, 5L));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            genreLeaderboardService.onChange(EntityChange.updated(EntityType.MOVIE, 3L));
+        }
+        released.countDown();
+
+        awaitTopRated(List.of(3L, 1L));
+        verify(movieRatingStatsRepository, times(1)).findTotalsWithGenres(3L);
+    }
+
+    @Test
+    void testOnChange_SkipsTotalsOlderThanApplied() {
+        when(movieRatingStatsRepository.findTopRatedInGenre(10L, 5.0, 10.0, 2)).thenReturn(List.of(CLASSIC, NEWCOMER));
+        genreLeaderboardService.start();
+        when(movieRatingStatsRepository.findTotalsWithGenres(3L)).thenReturn(
+                Optional.of(new MovieTotals(3L, 50, 450, Set.of(10L), 8)),
+                Optional.of(new MovieTotals(3L, 50, 100, Set.of(10L), 7)));
+
+        genreLeaderboardService.onChange(EntityChange.updated(EntityType.MOVIE, 3L));
+        awaitTopRated(List.of(3L, 1L));
+        genreLeaderboardService.onChange(EntityChange.updated(EntityType.MOVIE, 3L));
+
+        // refreshes run in order, so once movie 9 is read the second refresh of movie 3 is done
+        genreLeaderboardService.onChange(EntityChange.updated(EntityType.MOVIE, 9L));
+        verify(movieRatingStatsRepository, timeout(5000)).findTotalsWithGenres(9L);
+
+        assertEquals(List.of(3L, 1L), genreLeaderboardService.getTopRated(10L, 2).stream()
+                .map(TopRatedMovieDTO::getMovieId).toList());
+        verify(movieRatingStatsRepository, times(2)).findTotalsWithGenres(3L);
+        verify(movieRatingStatsRepository, times(1)).findTopRatedInGenre(10L, 5.0, 10.0, 2);
+    }
+
+    @Test
+    void testGetTopRated_Validation() {
+        when(movieRatingStatsRepository.findTopRatedInGenre(10L, 5.0, 10.0, 2)).thenReturn(List.of());
+        genreLeaderboardService.start();
+        when(genreRepository.existsById(10L)).thenReturn(true);
+        when(genreRepository.existsById(99L)).thenReturn(false);
+
+        assertEquals(List.of(), genreLeaderboardService.getTopRated(10L, null));
+        assertThrows(ResourceNotFoundException.class, () -> genreLeaderboardService.getTopRated(99L, null));
+        assertThrows(BadRequestException.class, () -> genreLeaderboardService.getTopRated(10L, 3));
+    }
+
+    private void awaitTopRated(List<Long> expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<Long> actual;
+        do {
+            actual = genreLeaderboardService.getTopRated(10L, 2).stream().map(TopRatedMovieDTO::getMovieId).toList();
+            if (actual.equals(expected)) {
+                return;
+            }
+            Thread.onSpinWait();
+        } while (System.nanoTime() < deadline);
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,59 @@
+package com.moviecatalog.ranking;
+
+import com.moviecatalog.ranking.TopK.Ranked;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    @Test
+    void testUpdate_KeepsHighestScores() {
+        TopK topK = new TopK(2);
+
+        assertTrue(topK.update(1, 1.0));
+        assertTrue(topK.update(2, 3.0));
+        assertTrue(topK.update(3, 2.0));
+        assertTrue(topK.update(4, 0.5));
+
+        assertEquals(List.of(new Ranked(2, 3.0), new Ranked(3, 2.0)), topK.ranked());
+    }
+
+    @Test
+    void testUpdate_ReordersMembers() {
+        TopK topK = new TopK(3);
+        topK.update(1, 1.0);
+        topK.update(2, 2.0);
+
+        assertTrue(topK.update(1, 5.0));
+
+        assertEquals(1, topK.ranked().get(0).movieId());
+    }
+
+    @Test
+    void testUpdate_MemberDroppingToBottomOfFullListRequiresRebuild() {
+        TopK topK = new TopK(2);
+        topK.update(1, 3.0);
+        topK.update(2, 2.0);
+        topK.update(3, 1.0);
+
+        assertTrue(topK.update(1, 2.5));
+        assertFalse(topK.update(2, 0.5));
+
+        topK.rebuild(Map.of(1L, 2.5, 2L, 0.5, 3L, 1.0), id -> true);
+        assertEquals(List.of(new Ranked(1, 2.5), new Ranked(3, 1.0)), topK.ranked());
+    }
+
+    @Test
+    void testUpdate_RemovalFromListThatIsNotFull() {
+        TopK topK = new TopK(3);
+        topK.update(1, 3.0);
+        topK.update(2, 2.0);
+
+        assertTrue(topK.update(1, 0));
+        assertEquals(List.of(new Ranked(2, 2.0)), topK.ranked());
+    }
+}
@@ -0,0 +1,131 @@
+package com.moviecatalog.ranking;
+
+import com.moviecatalog.dto.TrendingMovieDTO;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.events.MovieGenresChanged;
+import com.moviecatalog.events.ReviewActivity;
+import com.moviecatalog.exception.BadRequestException;
+import com.moviecatalog.repository.MovieRepository;
+import com.moviecatalog.repository.TrendingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingServiceTest {
+
+    @Mock
+    private TrendingRepository trendingRepository;
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        TrendingProperties properties = new TrendingProperties();
+        properties.setHalfLife(Duration.ofHours(1));
+        properties.setCapacity(3);
+        trendingService = new TrendingService(properties, trendingRepository, movieRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        trendingService.close();
+    }
+
+    @Test
+    void testGetTrending_RecentActivityOutranksOlder() {
+        LocalDateTime now = LocalDateTime.now();
+        trendingService.onMovieGenresChanged(new MovieGenresChanged(1L, Set.of(10L)));
+        trendingService.onMovieGenresChanged(new MovieGenresChanged(2L, Set.of(10L, 20L)));
+
+        trendingService.onReviewActivity(new ReviewActivity(1L, now.minusHours(2), 10));
+        trendingService.onReviewActivity(new ReviewActivity(1L, now.minusHours(2), 10));
+        trendingService.onReviewActivity(new ReviewActivity(2L, now, 8));
+
+        awaitTrending(null, List.of(2L, 1L));
+        List<TrendingMovieDTO> trending = trendingService.getTrending(null, null);
+        assertEquals(0.8, trending.get(0).getScore(), 0.01);
+        assertEquals(0.5, trending.get(1).getScore(), 0.01);
+
+        assertEquals(List.of(2L), trendingService.getTrending(20L, 3).stream().map(TrendingMovieDTO::getMovieId).toList());
+        verify(movieRepository, never()).findGenreIdsByMovieIds(anyCollection());
+    }
+
+    @Test
+    void testGetTrending_RemovedReviewAndDeletedMovie() {
+        LocalDateTime now = LocalDateTime.now();
+        trendingService.onMovieGenresChanged(new MovieGenresChanged(1L, Set.of(10L)));
+        trendingService.onMovieGenresChanged(new MovieGenresChanged(2L, Set.of(10L)));
+        trendingService.onReviewActivity(new ReviewActivity(1L, now, 9));
+        trendingService.onReviewActivity(new ReviewActivity(2L, now, 5));
+
+        trendingService.onReviewActivity(new ReviewActivity(1L, now, -9));
+        awaitTrending(10L, List.of(2L));
+
+        trendingService.onChange(EntityChange.deleted(EntityType.MOVIE, 2L));
+        awaitTrending(null, List.of());
+        assertTrue(trendingService.getTrending(10L, 3).isEmpty());
+    }
+
+    @Test
+    void testOnReviewActivity_LoadsGenresOfUnknownMovieOnce() {
+        trendingService.onReviewActivity(new ReviewActivity(5L, LocalDateTime.now(), 7));
+        trendingService.onReviewActivity(new ReviewActivity(5L, LocalDateTime.now(), 6));
+
+        awaitTrending(null, List.of(5L));
+        assertEquals(1.3, trendingService.getTrending(null, 3).get(0).getScore(), 0.01);
+        verify(movieRepository, times(1)).findGenreIdsByMovieIds(List.of(5L));
+    }
+
+    @Test
+    void testOnReviewActivity_GenreLookupDoesNotBlockCommittingThread() throws InterruptedException {
+        CountDownLatch released = new CountDownLatch(1);
+        when(movieRepository.findGenreIdsByMovieIds(List.of(5L))).thenAnswer(invocation -> {
+            released.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        trendingService.onReviewActivity(new ReviewActivity(5L, LocalDateTime.now(), 7));
+        trendingService.onReviewActivity(new ReviewActivity(5L, LocalDateTime.now(), 6));
+        assertTrue(trendingService.getTrending(null, 3).isEmpty());
+
+        released.countDown();
+        awaitTrending(null, List.of(5L));
+    }
+
+    @Test
+    void testGetTrending_LimitAboveCapacity() {
+        assertThrows(BadRequestException.class, () -> trendingService.getTrending(null, 4));
+    }
+
+    private void awaitTrending(Long genreId, List<Long> expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<Long> actual;
+        do {
+            actual = trendingService.getTrending(genreId, 3).stream().map(TrendingMovieDTO::getMovieId).toList();
+            if (actual.equals(expected)) {
+                return;
+            }
+            Thread.onSpinWait();
+        } while (System.nanoTime() < deadline);
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,59 @@
+package com.moviecatalog.ratelimit;
+
+import org.apache.catalina.valves.RemoteIpValve;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatWebServerFactoryCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The rate limiter keys anonymous clients on the remote address, which the configured valve
+ * resolves from {@code X-Forwarded-For} only for requests from trusted proxies.
+ */
+class ClientAddressTest {
+
+    private RemoteIpValve valve;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new ResourcePropertySource("classpath:application.properties"));
+        ConfigurationPropertySources.attach(environment);
+        ServerProperties serverProperties = Binder.get(environment).bind("server", ServerProperties.class).get();
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory();
+        new TomcatWebServerFactoryCustomizer(environment, serverProperties).customize(factory);
+        valve = factory.getEngineValves().stream()
+                .filter(RemoteIpValve.class::isInstance)
+                .map(RemoteIpValve.class::cast)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void testRemoteIpValve_ReadsForwardedForHeader() {
+        assertEquals("X-Forwarded-For", valve.getRemoteIpHeader());
+    }
+
+    @Test
+    void testRemoteIpValve_TrustsOnlyPrivateProxies() {
+        assertTrue(trusted("10.0.3.17"));
+        assertTrue(trusted("172.20.0.4"));
+        assertTrue(trusted("127.0.0.1"));
+        assertFalse(trusted("203.0.113.7"));
+        assertFalse(trusted("172.32.0.4"));
+    }
+
+    private boolean trusted(String address) {
+        return Pattern.matches(valve.getInternalProxies(), address);
+    }
+}
@@ -0,0 +1,81 @@
+package com.moviecatalog.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moviecatalog.warmup.WarmUpRunner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setCapacity(2);
+        properties.setRefillPerSecond(0.001);
+        properties.setApiKeys(Set.of("issued"));
+        RateLimitProperties.Cost cost = new RateLimitProperties.Cost();
+        cost.setPath("/api/movies");
+        cost.setCost(5);
+        properties.setCosts(List.of(cost));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(new RateLimiter(properties, meterRegistry), properties,
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry, mock(WarmUpRunner.class));
+    }
+
+    @Test
+    void testDoFilter_UnknownKeysShareTheAddressBucket() throws Exception {
+        assertEquals(200, call("/api/genres", "10.0.0.1", "first").getStatus());
+        assertEquals(200, call("/api/genres", "10.0.0.1", "second").getStatus());
+
+        MockHttpServletResponse response = call("/api/genres", "10.0.0.1", "third");
+
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("ratelimit.throttled").tag("client", "ip").counter().count());
+    }
+
+    @Test
+    void testDoFilter_IssuedKeyGetsItsOwnBucket() throws Exception {
+        call("/api/genres", "10.0.0.1", null);
+        call("/api/genres", "10.0.0.1", null);
+
+        assertEquals(429, call("/api/genres", "10.0.0.1", null).getStatus());
+        assertEquals(200, call("/api/genres", "10.0.0.1", "issued").getStatus());
+        assertEquals(200, call("/api/genres", "10.0.0.2", "").getStatus());
+    }
+
+    @Test
+    void testDoFilter_RejectsCostAboveCapacityWithoutRetryAfter() throws Exception {
+        MockHttpServletResponse response = call("/api/movies", "10.0.0.3", null);
+
+        assertEquals(429, response.getStatus());
+        assertNull(response.getHeader("Retry-After"));
+        assertEquals(200, call("/api/genres", "10.0.0.3", null).getStatus());
+    }
+
+    private MockHttpServletResponse call(String path, String address, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(address);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
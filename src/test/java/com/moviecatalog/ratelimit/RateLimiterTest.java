@@ -0,0 +1,77 @@
+package com.moviecatalog.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testTokenBucket_AllowsBurstThenThrottles() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, bucket.tryConsume(1, 0));
+        }
+        long waitNanos = bucket.tryConsume(1, 0);
+
+        assertTrue(waitNanos > 0);
+        assertEquals(SECOND / 10, waitNanos);
+    }
+
+    @Test
+    void testTokenBucket_RefillsOverTime() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        assertEquals(0, bucket.tryConsume(10, 0));
+
+        assertTrue(bucket.tryConsume(5, SECOND / 10) > 0);
+        assertEquals(0, bucket.tryConsume(5, SECOND / 2));
+    }
+
+    @Test
+    void testTokenBucket_CostlierRequestsWaitLonger() {
+        TokenBucket bucket = new TokenBucket(20, 10, 0);
+        assertEquals(0, bucket.tryConsume(20, 0));
+
+        assertTrue(bucket.tryConsume(20, 0) > bucket.tryConsume(1, 0));
+    }
+
+    @Test
+    void testTokenBucket_IdleAfterExpiry() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        bucket.tryConsume(1, 0);
+
+        assertFalse(bucket.isIdle(SECOND, 5 * SECOND));
+        assertTrue(bucket.isIdle(10 * SECOND, 5 * SECOND));
+    }
+
+    @Test
+    void testRateLimiter_SeparatesClients() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setCapacity(5);
+        properties.setRefillPerSecond(0.001);
+        RateLimiter rateLimiter = new RateLimiter(properties, new SimpleMeterRegistry());
+
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", 5));
+        assertTrue(rateLimiter.tryAcquire("ip:1", 1) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("ip:2", 1));
+    }
+
+    @Test
+    void testRateLimiter_BoundsTrackedClients() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setCapacity(1);
+        properties.setRefillPerSecond(0.001);
+        properties.setMaxClients(2);
+        properties.setStripes(1);
+        RateLimiter rateLimiter = new RateLimiter(properties, new SimpleMeterRegistry());
+
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", 1));
+        assertEquals(0, rateLimiter.tryAcquire("ip:2", 1));
+        assertEquals(0, rateLimiter.tryAcquire("ip:3", 1));
+        assertTrue(rateLimiter.tryAcquire("ip:4", 1) > 0);
+    }
+}
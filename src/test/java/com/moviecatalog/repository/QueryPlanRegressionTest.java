@@ -0,0 +1,272 @@
+package com.moviecatalog.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviecatalog.entity.Movie;
+import com.moviecatalog.observability.SqlExecution;
+import com.moviecatalog.observability.SqlExecutionListener;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hot repository queries against a seeded PostgreSQL database and checks their
+ * plans with {@code EXPLAIN (FORMAT JSON)}. Run with
+ * {@code mvn test -Pquery-plans -Dquery-plans.database=<name>}: the suite connects only to the
+ * named dedicated database, inserts a synthetic catalog there on first run, and is skipped when
+ * no database is named.
+ */
+@Tag("query-plan")
+@EnabledIfSystemProperty(named = "query-plans.database", matches = ".+",
+        disabledReason = "needs a dedicated database named by -Dquery-plans.database")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "DB_NAME=${query-plans.database}")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+
+    private static final int SEED_MOVIES = 50_000;
+    private static final int SEED_REVIEWS = 500_000;
+    private static final Set<String> LARGE_TABLES = Set.of("movies", "reviews", "movie_genres");
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private TrendingRepository trendingRepository;
+
+    @Autowired
+    private MovieRatingStatsRepository movieRatingStatsRepository;
+
+    @Autowired
+    private SyncRepository syncRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CapturingListener capturingListener;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Long movieId;
+    private Long directorId;
+    private Long rareGenreId;
+    private Long popularGenreId;
+
+    @BeforeAll
+    void seedDatabase() {
+        Integer movies = jdbcTemplate.queryForObject("SELECT count(*) FROM movies", Integer.class);
+        if (movies == null || movies < SEED_MOVIES) {
+            seed();
+        }
+        rareGenreId = jdbcTemplate.queryForObject(
+                "SELECT id FROM genres WHERE name = 'plan-genre-rare'", Long.class);
+        popularGenreId = jdbcTemplate.queryForObject(
+                "SELECT genre_id FROM movie_genres GROUP BY genre_id ORDER BY count(*) DESC LIMIT 1", Long.class);
+        movieId = jdbcTemplate.queryForObject(
+                "SELECT movie_id FROM movie_genres WHERE genre_id = ? ORDER BY movie_id LIMIT 1", Long.class, rareGenreId);
+        directorId = jdbcTemplate.queryForObject(
+                "SELECT director_id FROM movies WHERE id = ?", Long.class, movieId);
+    }
+
+    @Test
+    void testFindByIdWithRelations_UsesIndexes() {
+        assertNoSequentialScans(capture(() -> movieRepository.findByIdWithRelations(movieId)));
+    }
+
+    @Test
+    void testFindByDirectorId_UsesIndexes() {
+        assertNoSequentialScans(capture(() -> movieRepository.findByDirectorId(directorId)));
+    }
+
+    @Test
+    void testFindSimilarMovies_UsesIndexes() {
+        assertNoSequentialScans(capture(() -> movieRepository.findSimilarMovies(movieId, Set.of(popularGenreId))));
+    }
+
+    @Test
+    void testFindMoviePageBefore_UsesIndexes() {
+        assertNoSequentialScans(capture(() ->
+                reviewRepository.findMoviePageBefore(movieId, Long.MAX_VALUE, Limit.of(StreamingQueries.FETCH_SIZE))));
+    }
+
+    @Test
+    void testFindPageAfter_UsesIndexes() {
+        Movie movie = movieRepository.findById(movieId).orElseThrow();
+        assertNoSequentialScans(capture(() ->
+                movieRepository.findPageAfter(movie.getReleaseDate(), movie.getId(), Limit.of(51))));
+    }
+
+    @Test
+    void testSearchPage_UsesIndexes() {
+        assertNoSequentialScans(capture(() -> movieRepository.searchPage("%24999%", Limit.of(51))));
+    }
+
+    @Test
+    void testFindReviewPageBefore_UsesIndexes() {
+        assertNoSequentialScans(capture(() -> reviewRepository.findPageBefore(Long.MAX_VALUE, Limit.of(51))));
+    }
+
+    @Test
+    void testFindChanges_UsesIndexes() {
+        long xmin = syncRepository.currentSnapshotXmin();
+        assertNoSequentialScans(capture(() -> syncRepository.findChanges(xmin - 1, 0, xmin, true, 501)));
+    }
+
+    @Test
+    void testFindAuthorPageAfter_UsesIndexes() {
+        assertNoSequentialScans(capture(() -> reviewRepository.findAuthorPageAfter(
+                "Author-42", LocalDateTime.now(), Long.MAX_VALUE, Limit.of(51))));
+    }
+
+    @Test
+    void testFindDecayedRatingSums_UsesIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        assertNoSequentialScans(capture(() ->
+                trendingRepository.findDecayedRatingSums(now.minusDays(14), now, Math.log(2) / 86400)));
+    }
+
+    @Test
+    void testFindTopRatedInGenre_UsesIndexes() {
+        assertNoSequentialScans(capture(() -> movieRatingStatsRepository.findTopRatedInGenre(rareGenreId, 5.5, 10, 100)));
+    }
+
+    @Test
+    void testFindTotalsWithGenres_UsesIndexes() {
+        assertNoSequentialScans(capture(() -> movieRatingStatsRepository.findTotalsWithGenres(movieId)));
+    }
+
+    @Test
+    void testFindCollaborativeNeighbors_UsesIndexes() {
+        assertNoSequentialScans(capture(() -> movieRepository.findCollaborativeNeighbors(movieId)));
+    }
+
+    @Test
+    void testFindAverageRatingByMovieId_UsesIndexOnlyScan() {
+        List<SqlExecution> executions = capture(() -> reviewRepository.findAverageRatingByMovieId(movieId));
+
+        assertNoSequentialScans(executions);
+        List<String> nodeTypes = new ArrayList<>();
+        collectNodes(explain(executions.get(0)), nodeTypes, new ArrayList<>());
+        assertTrue(nodeTypes.contains("Index Only Scan"), "Ожидался Index Only Scan, план: " + nodeTypes);
+    }
+
+    private List<SqlExecution> capture(Runnable repositoryCall) {
+        capturingListener.executions.clear();
+        repositoryCall.run();
+        List<SqlExecution> executions = List.copyOf(capturingListener.executions);
+        assertFalse(executions.isEmpty(), "Запрос не был выполнен");
+        return executions;
+    }
+
+    private void assertNoSequentialScans(List<SqlExecution> executions) {
+        for (SqlExecution execution : executions) {
+            JsonNode plan = explain(execution);
+            List<String> seqScans = new ArrayList<>();
+            collectNodes(plan, new ArrayList<>(), seqScans);
+            assertTrue(seqScans.isEmpty(),
+                    "Seq Scan по " + seqScans + " в запросе: " + execution.sql() + "\nПлан: " + plan.toPrettyString());
+        }
+    }
+
+    private JsonNode explain(SqlExecution execution) {
+        String json = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + execution.sql())) {
+                List<Object> parameters = execution.parameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+        try {
+            return objectMapper.readTree(json).get(0).get("Plan");
+        } catch (Exception e) {
+            throw new IllegalStateException("Не удалось разобрать план запроса", e);
+        }
+    }
+
+    private void collectNodes(JsonNode node, List<String> nodeTypes, List<String> seqScannedTables) {
+        String nodeType = node.path("Node Type").asText();
+        nodeTypes.add(nodeType);
+        String relation = node.path("Relation Name").asText();
+        if (nodeType.equals("Seq Scan") && LARGE_TABLES.contains(relation)) {
+            seqScannedTables.add(relation);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectNodes(child, nodeTypes, seqScannedTables);
+        }
+    }
+
+    private void seed() {
+        jdbcTemplate.execute("INSERT INTO directors (first_name, last_name) " +
+                "SELECT 'Имя ' || g, 'Фамилия ' || g FROM generate_series(1, 2000) g");
+        jdbcTemplate.execute("INSERT INTO genres (name) " +
+                "SELECT 'plan-genre-' || g FROM generate_series(1, 59) g ON CONFLICT DO NOTHING");
+        jdbcTemplate.execute("INSERT INTO genres (name) VALUES ('plan-genre-rare') ON CONFLICT DO NOTHING");
+        jdbcTemplate.execute("INSERT INTO movies (title, release_date, duration, director_id) " +
+                "SELECT 'Фильм ' || g, DATE '1950-01-01' + (g % 27000), 80 + g % 100, d.ids[1 + g % array_length(d.ids, 1)] " +
+                "FROM generate_series(1, " + SEED_MOVIES + ") g, (SELECT array_agg(id) ids FROM directors) d");
+        jdbcTemplate.execute("WITH g AS (SELECT array_agg(id ORDER BY id) ids FROM genres " +
+                "WHERE name LIKE 'plan-genre-%' AND name <> 'plan-genre-rare'), " +
+                "m AS (SELECT id, row_number() OVER (ORDER BY id) rn FROM movies) " +
+                "INSERT INTO movie_genres (movie_id, genre_id) " +
+                "SELECT m.id, g.ids[1 + m.rn % 59] FROM m, g " +
+                "UNION SELECT m.id, g.ids[1 + (m.rn / 59 + 1) % 59] FROM m, g " +
+                "ON CONFLICT DO NOTHING");
+        jdbcTemplate.execute("WITH m AS (SELECT id, row_number() OVER (ORDER BY id) rn FROM movies) " +
+                "INSERT INTO movie_genres (movie_id, genre_id) " +
+                "SELECT m.id, (SELECT id FROM genres WHERE name = 'plan-genre-rare') FROM m WHERE m.rn % 5000 = 0 " +
+                "ON CONFLICT DO NOTHING");
+        jdbcTemplate.execute("INSERT INTO reviews (author_name, rating, created_at, movie_id) " +
+                "SELECT 'author-' || (r % 20000), 1 + r % 10, now() - (r % 10000) * interval '1 hour', " +
+                "m.ids[1 + (r * 7919) % array_length(m.ids, 1)] " +
+                "FROM generate_series(1, " + SEED_REVIEWS + ") r, (SELECT array_agg(id) ids FROM movies) m");
+        jdbcTemplate.execute("VACUUM ANALYZE");
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        CapturingListener capturingListener() {
+            return new CapturingListener();
+        }
+    }
+
+    static class CapturingListener implements SqlExecutionListener {
+
+        private final List<SqlExecution> executions = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onExecution(SqlExecution execution) {
+            if (!execution.sql().startsWith("EXPLAIN")) {
+                executions.add(execution);
+            }
+        }
+    }
+}
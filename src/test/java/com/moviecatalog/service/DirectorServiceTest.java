@@ -0,0 +1,78 @@
+package com.moviecatalog.service;
+
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.exception.ResourceNotFoundException;
+import com.moviecatalog.repository.AuthorReviewStatsRepository;
+import com.moviecatalog.repository.DirectorRepository;
+import com.moviecatalog.repository.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DirectorServiceTest {
+
+    @Mock
+    private DirectorRepository directorRepository;
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private AuthorReviewStatsRepository authorReviewStatsRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private DirectorService directorService;
+
+    @Test
+    void testDeleteDirector_PublishesCascadedMovieDeletions() {
+        when(directorRepository.existsById(1L)).thenReturn(true);
+        when(movieRepository.findIdsByDirectorId(1L)).thenReturn(List.of(10L, 11L));
+
+        directorService.deleteDirector(1L);
+
+        InOrder inOrder = inOrder(movieRepository, directorRepository, eventPublisher);
+        inOrder.verify(movieRepository).findIdsByDirectorId(1L);
+        inOrder.verify(directorRepository).deleteById(1L);
+        inOrder.verify(eventPublisher).publishEvent(EntityChange.deleted(EntityType.MOVIE, 10L));
+        inOrder.verify(eventPublisher).publishEvent(EntityChange.deleted(EntityType.MOVIE, 11L));
+        inOrder.verify(eventPublisher).publishEvent(EntityChange.deleted(EntityType.DIRECTOR, 1L));
+    }
+
+    @Test
+    void testDeleteDirector_RemovesAuthorStatsOfCascadedMovies() {
+        when(directorRepository.existsById(1L)).thenReturn(true);
+        when(movieRepository.findIdsByDirectorId(1L)).thenReturn(List.of(10L, 11L));
+
+        directorService.deleteDirector(1L);
+
+        InOrder inOrder = inOrder(authorReviewStatsRepository, directorRepository);
+        inOrder.verify(authorReviewStatsRepository).removeMovieReviews(10L);
+        inOrder.verify(authorReviewStatsRepository).removeMovieReviews(11L);
+        inOrder.verify(directorRepository).deleteById(1L);
+    }
+
+    @Test
+    void testDeleteDirector_NotFound() {
+        when(directorRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> directorService.deleteDirector(1L));
+        verify(directorRepository, never()).deleteById(any());
+        verifyNoInteractions(authorReviewStatsRepository);
+        verifyNoInteractions(eventPublisher);
+    }
+}
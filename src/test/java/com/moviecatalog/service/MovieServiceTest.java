@@ -1,24 +1,39 @@
 package com.moviecatalog.service;
 
+import com.moviecatalog.dedup.DuplicateDetectionService;
+import com.moviecatalog.dto.CursorPageDTO;
+import com.moviecatalog.dto.DuplicateCandidateDTO;
 import com.moviecatalog.dto.MovieDTO;
 import com.moviecatalog.entity.Director;
 import com.moviecatalog.entity.Movie;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
+import com.moviecatalog.exception.BadRequestException;
+import com.moviecatalog.exception.DuplicateMovieException;
 import com.moviecatalog.exception.ResourceNotFoundException;
+import com.moviecatalog.repository.AuthorReviewStatsRepository;
 import com.moviecatalog.repository.DirectorRepository;
 import com.moviecatalog.repository.GenreRepository;
+import com.moviecatalog.repository.MovieRatingStatsRepository;
 import com.moviecatalog.repository.MovieRepository;
+import com.moviecatalog.repository.MovieRepository.MovieGenreId;
+import com.moviecatalog.repository.StreamingQueries;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +48,21 @@ class MovieServiceTest {
     @Mock
     private GenreRepository genreRepository;
 
+    @Mock
+    private MovieRatingStatsRepository movieRatingStatsRepository;
+
+    @Mock
+    private AuthorReviewStatsRepository authorReviewStatsRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DuplicateDetectionService duplicateDetectionService;
+
     @InjectMocks
     private MovieService movieService;
 
@@ -66,16 +96,87 @@ class MovieServiceTest {
 
     @Test
     @SuppressWarnings("null")
-    void testGetAllMovies() {
-        List<Movie> movies = Arrays.asList(movie);
-        when(movieRepository.findAllWithRelations()).thenReturn(movies);
+    void testStreamAllMovies() {
+        when(movieRepository.findPage(Limit.of(StreamingQueries.FETCH_SIZE))).thenReturn(List.of(movie));
+        when(movieRepository.findGenreIdsByMovieIds(List.of(1L))).thenReturn(List.of(genreId(1L, 7L)));
+        when(movieRatingStatsRepository.findAverageRatings(List.of(1L))).thenReturn(Map.of(1L, 8.5));
 
-        List<MovieDTO> result = movieService.getAllMovies();
+        List<MovieDTO> result = new ArrayList<>();
+        movieService.streamAllMovies(result::add);
 
-        assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Тестовый фильм", result.get(0).getTitle());
-        verify(movieRepository).findAllWithRelations();
+        assertEquals(Set.of(7L), result.get(0).getGenreIds());
+        assertEquals(8.5, result.get(0).getAverageRating());
+        verify(entityManager).clear();
+        verify(movieRepository, never()).findPageAfter(any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    void testGetMoviesPage_ContinuesAfterCursor() {
+        Movie older = new Movie();
+        older.setId(2L);
+        older.setTitle("Старый фильм");
+        older.setReleaseDate(LocalDate.of(2010, 1, 1));
+        older.setDirector(director);
+        when(movieRepository.findPage(Limit.of(2))).thenReturn(new ArrayList<>(List.of(movie, older)));
+
+        CursorPageDTO<MovieDTO> first = movieService.getMoviesPage(null, null, 1);
+
+        assertEquals(1, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+
+        when(movieRepository.findPageAfter(LocalDate.of(2020, 1, 1), 1L, Limit.of(2)))
+                .thenReturn(new ArrayList<>(List.of(older)));
+
+        CursorPageDTO<MovieDTO> second = movieService.getMoviesPage(first.getNextCursor(), " ", 1);
+
+        assertEquals("Старый фильм", second.getItems().get(0).getTitle());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testGetMoviesPage_SearchEscapesWildcards() {
+        when(movieRepository.searchPage("%100!%!_hit%", Limit.of(51))).thenReturn(List.of());
+
+        CursorPageDTO<MovieDTO> page = movieService.getMoviesPage(null, " 100%_Hit ", null);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetMoviesPage_InvalidCursorOrLimit() {
+        assertThrows(BadRequestException.class, () -> movieService.getMoviesPage("garbage", null, 10));
+        assertThrows(BadRequestException.class, () -> movieService.getMoviesPage(null, null, 0));
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    void testStreamAllMovies_PagesByKeysetPerChunk() {
+        List<Movie> movies = new ArrayList<>();
+        for (long id = StreamingQueries.FETCH_SIZE + 1; id >= 1; id--) {
+            Movie next = new Movie();
+            next.setId(id);
+            next.setReleaseDate(LocalDate.of(2020, 1, 1));
+            next.setDirector(director);
+            movies.add(next);
+        }
+        Limit chunk = Limit.of(StreamingQueries.FETCH_SIZE);
+        when(movieRepository.findPage(chunk)).thenReturn(movies.subList(0, StreamingQueries.FETCH_SIZE));
+        when(movieRepository.findPageAfter(LocalDate.of(2020, 1, 1), 2L, chunk))
+                .thenReturn(movies.subList(StreamingQueries.FETCH_SIZE, movies.size()));
+
+        List<MovieDTO> result = new ArrayList<>();
+        movieService.streamAllMovies(result::add);
+
+        assertEquals(StreamingQueries.FETCH_SIZE + 1, result.size());
+        assertEquals(1L, result.get(StreamingQueries.FETCH_SIZE).getId());
+        assertEquals(0.0, result.get(0).getAverageRating());
+        verify(movieRepository, times(2)).findGenreIdsByMovieIds(anyCollection());
+        verify(entityManager, times(2)).clear();
     }
 
     @Test
@@ -103,7 +204,11 @@ class MovieServiceTest {
     @SuppressWarnings("null")
     void testCreateMovie_Success() {
         when(directorRepository.findById(1L)).thenReturn(Optional.of(director));
-        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> {
+            Movie saved = invocation.getArgument(0);
+            saved.setId(2L);
+            return saved;
+        });
 
         MovieDTO result = movieService.createMovie(movieDTO);
 
@@ -111,6 +216,7 @@ class MovieServiceTest {
         assertEquals("Тестовый фильм", result.getTitle());
         verify(directorRepository).findById(1L);
         verify(movieRepository).save(any(Movie.class));
+        verify(eventPublisher).publishEvent(EntityChange.created(EntityType.MOVIE, 2L));
     }
 
     @Test
@@ -123,6 +229,34 @@ class MovieServiceTest {
         verify(movieRepository, never()).save(any(Movie.class));
     }
 
+    @Test
+    void testCreateMovie_RejectsDuplicate() {
+        doThrow(new DuplicateMovieException("Похожий фильм уже есть в каталоге: Тестовый фильм",
+                List.of(new DuplicateCandidateDTO(5L, "Тестовый фильм", 2024, 1L, 1.0))))
+                .when(duplicateDetectionService).checkNotDuplicate(movieDTO);
+
+        DuplicateMovieException error = assertThrows(DuplicateMovieException.class,
+                () -> movieService.createMovie(movieDTO, true));
+        assertEquals(5L, error.getCandidates().get(0).getMovieId());
+        verify(movieRepository, never()).save(any(Movie.class));
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    void testCreateMovie_SkipsDuplicateCheckByDefault() {
+        when(directorRepository.findById(1L)).thenReturn(Optional.of(director));
+        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> {
+            Movie saved = invocation.getArgument(0);
+            saved.setId(2L);
+            return saved;
+        });
+
+        movieService.createMovie(movieDTO);
+
+        verify(duplicateDetectionService, never()).checkNotDuplicate(any());
+        verify(movieRepository).save(any(Movie.class));
+    }
+
     @Test
     @SuppressWarnings("null")
     void testUpdateMovie_Success() {
@@ -164,7 +298,9 @@ class MovieServiceTest {
         movieService.deleteMovie(1L);
 
         verify(movieRepository).existsById(1L);
+        verify(authorReviewStatsRepository).removeMovieReviews(1L);
         verify(movieRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(EntityChange.deleted(EntityType.MOVIE, 1L));
     }
 
     @Test
@@ -175,5 +311,35 @@ class MovieServiceTest {
         verify(movieRepository).existsById(1L);
         verify(movieRepository, never()).deleteById(anyLong());
     }
-}
 
+    @Test
+    @SuppressWarnings("null")
+    void testGetCollaborativeRecommendations() {
+        when(movieRepository.findCollaborativeNeighbors(2L)).thenReturn(List.of(movie));
+        when(movieRepository.findGenreIdsByMovieIds(List.of(1L))).thenReturn(List.of());
+        when(movieRatingStatsRepository.findAverageRatings(List.of(1L))).thenReturn(Map.of());
+
+        List<MovieDTO> result = movieService.getCollaborativeRecommendations(2L);
+
+        assertEquals(List.of(1L), result.stream().map(MovieDTO::getId).toList());
+        verify(movieRepository, never()).existsById(anyLong());
+
+        when(movieRepository.findCollaborativeNeighbors(3L)).thenReturn(List.of());
+        when(movieRepository.existsById(3L)).thenReturn(false);
+        assertThrows(ResourceNotFoundException.class, () -> movieService.getCollaborativeRecommendations(3L));
+    }
+
+    private MovieGenreId genreId(Long movieId, Long genreId) {
+        return new MovieGenreId() {
+            @Override
+            public Long getMovieId() {
+                return movieId;
+            }
+
+            @Override
+            public Long getGenreId() {
+                return genreId;
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.moviecatalog.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingHistogramTest {
+
+    @Test
+    void testSummary_DerivedFromCounts() {
+        RatingHistogram histogram = new RatingHistogram(new long[]{0, 0, 0, 0, 1, 0, 0, 2, 0, 1});
+
+        assertEquals(4, histogram.total());
+        assertEquals(31, histogram.sum());
+        assertEquals(7.75, histogram.mean());
+        assertEquals(8.0, histogram.median());
+        assertEquals(2, histogram.count(8));
+    }
+
+    @Test
+    void testMedian_EvenCountAveragesMiddleRatings() {
+        RatingHistogram histogram = new RatingHistogram(new long[]{1, 0, 0, 0, 0, 0, 0, 0, 0, 1});
+
+        assertEquals(5.5, histogram.median());
+    }
+
+    @Test
+    void testBayesianScore_DampsSmallSamplesTowardsPrior() {
+        RatingHistogram single = new RatingHistogram(new long[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 1});
+        RatingHistogram many = new RatingHistogram(new long[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 100});
+
+        assertEquals(5.95, single.bayesianScore(5.5, 9), 1e-9);
+        assertTrue(many.bayesianScore(5.5, 9) > 9.5);
+    }
+
+    @Test
+    void testEmpty_ReturnsZeroesAndPrior() {
+        RatingHistogram histogram = RatingHistogram.empty();
+
+        assertEquals(0, histogram.total());
+        assertEquals(0.0, histogram.mean());
+        assertEquals(0.0, histogram.median());
+        assertEquals(5.5, histogram.bayesianScore(5.5, 10));
+    }
+
+    @Test
+    void testConstructor_RejectsWrongBucketCount() {
+        assertThrows(IllegalArgumentException.class, () -> new RatingHistogram(new long[5]));
+    }
+}
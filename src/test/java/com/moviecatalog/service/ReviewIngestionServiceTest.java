@@ -0,0 +1,200 @@
+package com.moviecatalog.service;
+
+import com.moviecatalog.dto.ReviewDTO;
+import com.moviecatalog.dto.ReviewIngestionDTO;
+import com.moviecatalog.dto.ReviewIngestionDTO.Status;
+import com.moviecatalog.exception.ServiceOverloadedException;
+import com.moviecatalog.repository.AuthorReviewStatsRepository;
+import com.moviecatalog.repository.MovieRatingStatsRepository;
+import com.moviecatalog.repository.ReviewBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReviewIngestionServiceTest {
+
+    private final ReviewBatchRepository reviewBatchRepository = mock(ReviewBatchRepository.class);
+    private final MovieRatingStatsRepository movieRatingStatsRepository = mock(MovieRatingStatsRepository.class);
+    private final AuthorReviewStatsRepository authorReviewStatsRepository = mock(AuthorReviewStatsRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+    private ReviewIngestionProperties properties;
+    private ReviewIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReviewIngestionProperties();
+        properties.setEnabled(true);
+        properties.setQueueCapacity(10);
+        properties.setEnqueueTimeout(Duration.ofMillis(1));
+        properties.setRetryBackoff(Duration.ofMillis(1));
+        when(reviewBatchRepository.insertAll(anyList())).thenAnswer(invocation ->
+                LongStream.rangeClosed(1, invocation.<List<?>>getArgument(0).size()).boxed().toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        service.stop();
+    }
+
+    @Test
+    void testEnqueue_WritesQueuedReviewsInOneBatch() throws InterruptedException {
+        blockFirstBatch();
+        start();
+
+        ReviewIngestionDTO first = service.enqueue(review("Анна", 1L));
+        awaitFlusherBlocked();
+        ReviewIngestionDTO second = service.enqueue(review("Борис", 1L));
+        ReviewIngestionDTO third = service.enqueue(review("Вера", 1L));
+        released.countDown();
+
+        assertEquals(Status.STORED, await(first).getStatus());
+        assertEquals(Status.STORED, await(second).getStatus());
+        assertEquals(Status.STORED, await(third).getStatus());
+        verify(reviewBatchRepository).insertAll(argThat(reviews -> reviews.size() == 2));
+        verify(movieRatingStatsRepository, times(2)).applyDeltas(anyMap());
+    }
+
+    @Test
+    void testEnqueue_RejectsWhenQueueIsFull() throws InterruptedException {
+        properties.setQueueCapacity(1);
+        blockFirstBatch();
+        start();
+
+        service.enqueue(review("Анна", 1L));
+        awaitFlusherBlocked();
+        service.enqueue(review("Борис", 1L));
+
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+                () -> service.enqueue(review("Вера", 1L)));
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("reviews.ingestion.overloaded").counter().count());
+    }
+
+    @Test
+    void testStop_DrainsQueueBeforeReturning() throws InterruptedException {
+        blockFirstBatch();
+        start();
+        service.enqueue(review("Анна", 1L));
+        awaitFlusherBlocked();
+        List<ReviewIngestionDTO> queued = List.of(service.enqueue(review("Борис", 1L)),
+                service.enqueue(review("Вера", 1L)));
+
+        Thread releaser = new Thread(() -> {
+            sleep(50);
+            released.countDown();
+        });
+        releaser.start();
+        service.stop();
+
+        queued.forEach(status -> assertEquals(Status.STORED, service.getStatus(status.getTrackingId()).getStatus()));
+        assertFalse(service.isRunning());
+        assertThrows(ServiceOverloadedException.class, () -> service.enqueue(review("Глеб", 1L)));
+    }
+
+    @Test
+    void testFlush_RetriesTransientFailures() {
+        when(reviewBatchRepository.findExistingMovieIds(anyCollection()))
+                .thenThrow(new CannotAcquireLockException("deadlock detected"))
+                .thenReturn(Set.of(1L));
+        start();
+
+        ReviewIngestionDTO status = await(service.enqueue(review("Анна", 1L)));
+
+        assertEquals(Status.STORED, status.getStatus());
+        verify(reviewBatchRepository, times(2)).findExistingMovieIds(anyCollection());
+    }
+
+    @Test
+    void testFlush_WritesRowsOneByOneWhenBatchFails() throws InterruptedException {
+        blockFirstBatch();
+        when(reviewBatchRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<ReviewDTO> reviews = invocation.getArgument(0);
+            if (reviews.stream().anyMatch(review -> review.getAuthorName().equals("Борис"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return LongStream.rangeClosed(1, reviews.size()).boxed().toList();
+        });
+        start();
+
+        service.enqueue(review("Анна", 1L));
+        awaitFlusherBlocked();
+        ReviewIngestionDTO bad = service.enqueue(review("Борис", 1L));
+        ReviewIngestionDTO good = service.enqueue(review("Вера", 1L));
+        ReviewIngestionDTO missingMovie = service.enqueue(review("Глеб", 2L));
+        released.countDown();
+
+        assertEquals(Status.REJECTED, await(bad).getStatus());
+        assertEquals(Status.STORED, await(good).getStatus());
+        assertEquals(Status.REJECTED, await(missingMovie).getStatus());
+        assertEquals("Фильм с id 2 не найден", await(missingMovie).getMessage());
+        verify(reviewBatchRepository).insertAll(argThat(reviews -> reviews.size() == 1
+                && reviews.get(0).getAuthorName().equals("Борис")));
+    }
+
+    private void start() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new ReviewIngestionService(properties, reviewBatchRepository, movieRatingStatsRepository,
+                authorReviewStatsRepository, transactionManager, mock(ApplicationEventPublisher.class), meterRegistry);
+        service.start();
+    }
+
+    /**
+     * Holds the flusher in the first batch until {@link #released}, so later reviews pile up.
+     */
+    private void blockFirstBatch() {
+        when(reviewBatchRepository.findExistingMovieIds(anyCollection())).thenAnswer(invocation -> {
+            blocked.countDown();
+            released.await(5, TimeUnit.SECONDS);
+            return Set.of(1L);
+        });
+    }
+
+    private void awaitFlusherBlocked() throws InterruptedException {
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+    }
+
+    private ReviewIngestionDTO await(ReviewIngestionDTO queued) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            ReviewIngestionDTO status = service.getStatus(queued.getTrackingId());
+            if (status.getStatus() != Status.QUEUED) {
+                return status;
+            }
+            sleep(5);
+        }
+        return fail("Review " + queued.getTrackingId() + " was not written");
+    }
+
+    private static ReviewDTO review(String authorName, Long movieId) {
+        return new ReviewDTO(null, authorName, "Отзыв", 8, movieId, null);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,21 +1,33 @@
 package com.moviecatalog.service;
 
+import com.moviecatalog.dto.AuthorReviewsDTO;
 import com.moviecatalog.dto.ReviewDTO;
 import com.moviecatalog.entity.Movie;
 import com.moviecatalog.entity.Review;
+import com.moviecatalog.events.EntityChange;
+import com.moviecatalog.events.EntityChange.EntityType;
 import com.moviecatalog.exception.ResourceNotFoundException;
+import com.moviecatalog.repository.AuthorReviewStatsRepository;
+import com.moviecatalog.repository.AuthorReviewStatsRepository.AuthorStats;
+import com.moviecatalog.repository.MovieRatingStatsRepository;
 import com.moviecatalog.repository.MovieRepository;
 import com.moviecatalog.repository.ReviewRepository;
+import com.moviecatalog.repository.StreamingQueries;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +44,18 @@ class ReviewServiceTest {
     @Mock
     private MovieRepository movieRepository;
 
+    @Mock
+    private MovieRatingStatsRepository movieRatingStatsRepository;
+
+    @Mock
+    private AuthorReviewStatsRepository authorReviewStatsRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ReviewService reviewService;
 
@@ -65,7 +89,11 @@ class ReviewServiceTest {
     @SuppressWarnings("null")
     void testCreateReview_Success() {
         when(movieRepository.findById(1L)).thenReturn(Optional.of(movie));
-        when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> {
+            Review saved = invocation.getArgument(0);
+            saved.setId(2L);
+            return saved;
+        });
 
         ReviewDTO result = reviewService.createReview(reviewDTO);
 
@@ -74,6 +102,9 @@ class ReviewServiceTest {
         assertEquals(9, result.getRating());
         verify(movieRepository).findById(1L);
         verify(reviewRepository).save(any(Review.class));
+        verify(movieRatingStatsRepository).addRating(1L, 9);
+        verify(authorReviewStatsRepository).addReview("Иван Иванов", 9, null);
+        verify(eventPublisher).publishEvent(EntityChange.created(EntityType.REVIEW, 2L));
     }
 
     @Test
@@ -88,30 +119,42 @@ class ReviewServiceTest {
 
     @Test
     @SuppressWarnings("null")
-    void testGetAllReviews() {
-        List<Review> reviews = Arrays.asList(review);
-        when(reviewRepository.findAll()).thenReturn(reviews);
+    void testStreamAllReviews() {
+        when(reviewRepository.findPage(Limit.of(StreamingQueries.FETCH_SIZE))).thenReturn(List.of(review));
 
-        List<ReviewDTO> result = reviewService.getAllReviews();
+        List<ReviewDTO> result = new ArrayList<>();
+        reviewService.streamAllReviews(result::add);
 
-        assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Иван Иванов", result.get(0).getAuthorName());
-        verify(reviewRepository).findAll();
+        verify(reviewRepository, never()).findPageBefore(any(), any());
     }
 
     @Test
     @SuppressWarnings("null")
-    void testGetReviewsByMovieId() {
-        List<Review> reviews = Arrays.asList(review);
-        when(reviewRepository.findByMovieId(1L)).thenReturn(reviews);
+    void testStreamReviewsByMovieId() {
+        when(reviewRepository.findMoviePage(1L, Limit.of(StreamingQueries.FETCH_SIZE))).thenReturn(List.of(review));
 
-        List<ReviewDTO> result = reviewService.getReviewsByMovieId(1L);
+        List<ReviewDTO> result = new ArrayList<>();
+        reviewService.streamReviewsByMovieId(1L, result::add);
 
-        assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(1L, result.get(0).getMovieId());
-        verify(reviewRepository).findByMovieId(1L);
+        verify(reviewRepository, never()).findMoviePageBefore(any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    void testStreamAllReviews_PagesByKeysetPerChunk() {
+        Limit chunk = Limit.of(StreamingQueries.FETCH_SIZE);
+        when(reviewRepository.findPage(chunk)).thenReturn(Collections.nCopies(StreamingQueries.FETCH_SIZE, review));
+        when(reviewRepository.findPageBefore(review.getId(), chunk)).thenReturn(List.of(review));
+
+        List<ReviewDTO> result = new ArrayList<>();
+        reviewService.streamAllReviews(result::add);
+
+        assertEquals(StreamingQueries.FETCH_SIZE + 1, result.size());
+        verify(entityManager, times(2)).clear();
     }
 
     @Test
@@ -154,6 +197,63 @@ class ReviewServiceTest {
         verify(reviewRepository).findById(1L);
         verify(movieRepository).findById(1L);
         verify(reviewRepository).save(any(Review.class));
+        verify(movieRatingStatsRepository).removeRating(1L, 9);
+        verify(movieRatingStatsRepository).addRating(1L, 8);
+        InOrder authorStats = inOrder(authorReviewStatsRepository, reviewRepository);
+        authorStats.verify(authorReviewStatsRepository).removeReview(1L);
+        authorStats.verify(reviewRepository).save(any(Review.class));
+        authorStats.verify(authorReviewStatsRepository).addReview("Петр Петров", 8, review.getCreatedAt());
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    void testUpdateReview_CommentOnly_KeepsAuthorStats() {
+        reviewDTO.setComment("Пересмотрел, все еще отличный");
+        when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(movie));
+        when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        reviewService.updateReview(1L, reviewDTO);
+
+        verifyNoInteractions(authorReviewStatsRepository);
+    }
+
+    @Test
+    void testGetAuthorReviews_PagesNewestFirst() {
+        Review older = new Review();
+        older.setId(5L);
+        older.setAuthorName("иван иванов");
+        older.setRating(7);
+        older.setMovie(movie);
+        older.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000));
+        LocalDateTime first = LocalDateTime.of(2023, 1, 1, 0, 0);
+        when(authorReviewStatsRepository.findByAuthorName("ИВАН ИВАНОВ")).thenReturn(Optional.of(
+                new AuthorStats("Иван Иванов", 4, 30, first, review.getCreatedAt())));
+        when(reviewRepository.findAuthorPage("ИВАН ИВАНОВ", Limit.of(3))).thenReturn(List.of(review, older, older));
+
+        AuthorReviewsDTO page = reviewService.getAuthorReviews("ИВАН ИВАНОВ", null, 2);
+
+        assertEquals("Иван Иванов", page.getStats().getAuthorName());
+        assertEquals(4L, page.getStats().getReviewCount());
+        assertEquals(7.5, page.getStats().getMeanRating(), 1e-9);
+        assertEquals(first, page.getStats().getFirstReviewAt());
+        assertEquals(List.of(1L, 5L), page.getItems().stream().map(ReviewDTO::getId).toList());
+        assertNotNull(page.getNextCursor());
+
+        when(reviewRepository.findAuthorPageAfter("ИВАН ИВАНОВ", older.getCreatedAt(), 5L, Limit.of(3)))
+                .thenReturn(List.of());
+        AuthorReviewsDTO next = reviewService.getAuthorReviews("ИВАН ИВАНОВ", page.getNextCursor(), 2);
+
+        assertTrue(next.getItems().isEmpty());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void testGetAuthorReviews_UnknownAuthor() {
+        when(authorReviewStatsRepository.findByAuthorName("Никто")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> reviewService.getAuthorReviews("Никто", null, null));
+        verifyNoInteractions(reviewRepository);
     }
 
     @Test
@@ -167,6 +267,23 @@ class ReviewServiceTest {
         verify(reviewRepository).deleteById(1L);
     }
 
+    @Test
+    void testDeleteReview_UpdatesRatingStats() {
+        ReviewRepository.MovieRating movieRating = mock(ReviewRepository.MovieRating.class);
+        when(movieRating.getMovieId()).thenReturn(1L);
+        when(movieRating.getRating()).thenReturn(9);
+        when(reviewRepository.existsById(1L)).thenReturn(true);
+        when(reviewRepository.findMovieRatingById(1L)).thenReturn(Optional.of(movieRating));
+
+        reviewService.deleteReview(1L);
+
+        verify(movieRatingStatsRepository).removeRating(1L, 9);
+        verify(authorReviewStatsRepository).removeReview(1L);
+        verify(reviewRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(EntityChange.updated(EntityType.MOVIE, 1L));
+        verify(eventPublisher).publishEvent(EntityChange.deleted(EntityType.REVIEW, 1L));
+    }
+
     @Test
     void testDeleteReview_NotFound() {
         when(reviewRepository.existsById(1L)).thenReturn(false);
@@ -0,0 +1,62 @@
+package com.moviecatalog.service;
+
+import com.moviecatalog.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyncTokenTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-15T10:00:00Z");
+
+    @Test
+    void testEncode_RoundTrip() {
+        SyncToken token = new SyncToken(1500, 1720, 1600, 98765, NOW);
+
+        assertEquals(token, SyncToken.decode(token.encode()));
+    }
+
+    @Test
+    void testPass_ContinuesAndCompletes() {
+        SyncToken started = SyncToken.initial(NOW).startPass(1720, NOW);
+        assertTrue(started.isFullSync());
+        assertTrue(started.isPassStarted());
+
+        SyncToken page = started.continueAfter(1650, 500);
+        assertEquals(1650, page.afterXid());
+        assertEquals(500, page.afterSeq());
+        assertEquals(1720, page.nextXid());
+
+        SyncToken completed = page.completePass();
+        assertEquals(1720, completed.sinceXid());
+        assertEquals(0, completed.afterSeq());
+        assertFalse(completed.isFullSync());
+        assertFalse(completed.isPassStarted());
+
+        SyncToken next = completed.startPass(1900, NOW);
+        assertEquals(1720, next.afterXid());
+        assertEquals(0, next.afterSeq());
+    }
+
+    @Test
+    void testDecode_RestartsPassOfFirstFormat() {
+        String token = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1:1500:1720:98765:1705312800".getBytes(StandardCharsets.US_ASCII));
+
+        SyncToken decoded = SyncToken.decode(token);
+
+        assertEquals(1500, decoded.sinceXid());
+        assertFalse(decoded.isPassStarted());
+        assertEquals(NOW, decoded.issuedAt());
+    }
+
+    @Test
+    void testDecode_Invalid() {
+        assertThrows(BadRequestException.class, () -> SyncToken.decode("not a token"));
+        assertThrows(BadRequestException.class, () -> SyncToken.decode("MjoxOjI6Mzo0"));
+    }
+}
@@ -0,0 +1,145 @@
+package com.moviecatalog.tracing;
+
+import com.moviecatalog.exception.ErrorResponse;
+import com.moviecatalog.observability.SqlExecution;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracingFilterTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+
+    private TracingProperties properties;
+    private InMemorySpanExporter exporter;
+    private Tracer tracer;
+    private TracingFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TracingProperties();
+        properties.setSampleRate(1.0);
+        properties.setTrustedSources(List.of("127.0.0.1"));
+        exporter = new InMemorySpanExporter(properties);
+        tracer = new Tracer(properties,
+                new StaticListableBeanFactory(Map.of("exporter", exporter)).getBeanProvider(SpanExporter.class));
+        filter = new TracingFilter(tracer, properties);
+        request = new MockHttpServletRequest("GET", "/api/movies/7");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void testDoFilter_ContinuesCallerTrace() throws Exception {
+        request.addHeader("traceparent", "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01");
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/movies/{id}");
+            }
+        }));
+
+        SpanData span = exporter.getFinishedSpans().get(0);
+        assertEquals(TRACE_ID, span.traceId());
+        assertEquals(CALLER_SPAN_ID, span.parentSpanId());
+        assertEquals("GET /api/movies/{id}", span.name());
+        assertEquals(SpanKind.SERVER, span.kind());
+        assertEquals(200, span.attributes().get("http.status_code"));
+        assertEquals("00-" + TRACE_ID + "-" + span.spanId() + "-01", response.getHeader("traceparent"));
+        assertNull(Span.current());
+    }
+
+    @Test
+    void testDoFilter_SqlAndAsyncWorkAreChildren() throws Exception {
+        TracingSqlExecutionListener sqlListener = new TracingSqlExecutionListener(tracer);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            filter.doFilter(request, response, (req, resp) -> {
+                sqlListener.onExecution(new SqlExecution("select * from movies where id = 7",
+                        "select * from movies where id = ?", List.of(7L), 1_000_000, 1, false));
+                CompletableFuture.runAsync(Tracing.wrap(() -> sqlListener.onExecution(new SqlExecution(
+                        "update movies set title = 'x'", "update movies set title = ?", List.of(), 500_000, 3,
+                        false))), executor).join();
+            });
+        } finally {
+            executor.shutdown();
+        }
+
+        List<SpanData> spans = exporter.getFinishedSpans();
+        assertEquals(3, spans.size());
+        SpanData server = spans.get(2);
+        assertEquals("SQL SELECT", spans.get(0).name());
+        assertEquals("select * from movies where id = ?", spans.get(0).attributes().get("db.statement"));
+        assertEquals(1L, spans.get(0).attributes().get("db.rows"));
+        assertEquals("SQL UPDATE", spans.get(1).name());
+        for (SpanData child : spans.subList(0, 2)) {
+            assertEquals(server.traceId(), child.traceId());
+            assertEquals(server.spanId(), child.parentSpanId());
+            assertEquals(SpanKind.CLIENT, child.kind());
+        }
+    }
+
+    @Test
+    void testDoFilter_ErrorResponseCarriesTraceId() throws Exception {
+        ErrorResponse[] error = new ErrorResponse[1];
+        filter.doFilter(request, response, (req, resp) -> {
+            error[0] = new ErrorResponse(500, "Внутренняя ошибка сервера", LocalDateTime.now());
+            ((HttpServletResponse) resp).setStatus(500);
+        });
+
+        SpanData span = exporter.getFinishedSpans().get(0);
+        assertEquals(span.traceId(), error[0].getTraceId());
+        assertTrue(span.error());
+        assertNull(new ErrorResponse(500, "Внутренняя ошибка сервера", LocalDateTime.now()).getTraceId());
+    }
+
+    @Test
+    void testDoFilter_UnsampledTraceIsNotExported() throws Exception {
+        request.addHeader("traceparent", "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-00");
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertTrue(exporter.getFinishedSpans().isEmpty());
+        assertTrue(response.getHeader("traceparent").endsWith("-00"));
+    }
+
+    @Test
+    void testDoFilter_IgnoresSampledFlagOfUntrustedCaller() throws Exception {
+        properties.setSampleRate(0.0);
+        request.setRemoteAddr("203.0.113.7");
+        request.addHeader("traceparent", "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01");
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertTrue(exporter.getFinishedSpans().isEmpty());
+        assertTrue(response.getHeader("traceparent").startsWith("00-" + TRACE_ID + "-"));
+        assertTrue(response.getHeader("traceparent").endsWith("-00"));
+    }
+
+    @Test
+    void testFromTraceparent_RejectsInvalidHeaders() {
+        assertNull(SpanContext.fromTraceparent("garbage"));
+        assertNull(SpanContext.fromTraceparent("00-" + "0".repeat(32) + "-" + CALLER_SPAN_ID + "-01"));
+        assertNull(SpanContext.fromTraceparent("00-" + TRACE_ID.toUpperCase() + "-" + CALLER_SPAN_ID + "-01"));
+        assertNull(tracer.startSpan("orphan", SpanKind.INTERNAL));
+    }
+}
@@ -0,0 +1,78 @@
+#!/bin/bash
+
+# Замер времени запуска Movie Catalog до первого успешного запроса.
+# Сборка: mvn -Pstartup package   (AOT + AppCDS архив, нужна доступная БД)
+#
+# Использование: ./startup_benchmark.sh [количество запусков]
+
+RUNS=${1:-5}
+PORT=${SERVER_PORT:-8080}
+JAR="target/movie-catalog-1.0.0.jar"
+CDS_ARCHIVE="target/movie-catalog.jsa"
+PROBE_URL="http://localhost:$PORT/api/genres"
+
+echo "========================================="
+echo "Movie Catalog - Startup Benchmark"
+echo "========================================="
+echo ""
+
+if [ ! -f "$JAR" ]; then
+    echo "❌ $JAR не найден. Выполните: mvn -Pstartup package"
+    exit 1
+fi
+
+if ! command -v curl &> /dev/null; then
+    echo "❌ curl не установлен."
+    exit 1
+fi
+
+# Запускает приложение с заданными JVM-флагами и возвращает время до первого ответа 200 в мс
+measure() {
+    local start end pid status
+    start=$(date +%s%N)
+    java "$@" -Dserver.port=$PORT -jar "$JAR" > /dev/null 2>&1 &
+    pid=$!
+
+    status=""
+    while [ "$status" != "200" ]; do
+        if ! kill -0 $pid 2> /dev/null; then
+            echo "-1"
+            return
+        fi
+        status=$(curl -s -o /dev/null -w "%{http_code}" "$PROBE_URL")
+        [ "$status" != "200" ] && sleep 0.05
+    done
+    end=$(date +%s%N)
+
+    kill $pid
+    wait $pid 2> /dev/null
+    echo $(( (end - start) / 1000000 ))
+}
+
+run_mode() {
+    local name=$1
+    shift
+    local total=0 best=0 ms
+    for i in $(seq 1 $RUNS); do
+        ms=$(measure "$@")
+        if [ "$ms" = "-1" ]; then
+            echo "  $name: ❌ приложение завершилось до первого ответа"
+            return
+        fi
+        total=$((total + ms))
+        if [ $best -eq 0 ] || [ $ms -lt $best ]; then
+            best=$ms
+        fi
+    done
+    printf "  %-12s среднее: %6d мс   лучшее: %6d мс\n" "$name" $((total / RUNS)) $best
+}
+
+echo "Время до первого запроса ($PROBE_URL), запусков: $RUNS"
+echo ""
+run_mode "baseline"
+run_mode "aot" -Dspring.aot.enabled=true
+if [ -f "$CDS_ARCHIVE" ]; then
+    run_mode "aot+cds" -Dspring.aot.enabled=true -XX:SharedArchiveFile=$CDS_ARCHIVE
+else
+    echo "  aot+cds      пропущено: $CDS_ARCHIVE не найден"
+fi